@@ -0,0 +1,320 @@
+package com.lucius.sparkcraftbackend.ai.cache;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * 进程内语义缓存
+ * 第一层按归一化后的文本精确匹配；第二层把向量存放在连续的 float[] 中暴力计算余弦相似度，
+ * 超过阈值即视为命中。两层共用同一个容量上限和过期时间，向量层写满后覆盖最旧的槽位。
+ * 查询可以指定作用域，只有同一作用域内写入的条目才会命中
+ *
+ * @param <V> 缓存值类型
+ */
+@Slf4j
+public class SemanticCache<V> {
+
+    /**
+     * 向量服务失败后暂停相似度查询的时间
+     */
+    private static final long EMBEDDING_COOLDOWN_MS = 5 * 60 * 1000;
+
+    private final Function<String, float[]> embedder;
+
+    private final int maxEntries;
+
+    private final long ttlMillis;
+
+    private final double similarityThreshold;
+
+    private final LongSupplier clock;
+
+    /**
+     * 精确匹配层，按访问顺序淘汰，访问需持有自身锁
+     */
+    private final LinkedHashMap<String, Entry<V>> exactEntries;
+
+    private final ReentrantReadWriteLock vectorLock = new ReentrantReadWriteLock();
+
+    /**
+     * 向量层：第 i 个槽位的向量位于 arena[i * dimensions, (i + 1) * dimensions)，均已归一化为单位向量
+     */
+    private float[] arena;
+
+    private int dimensions;
+
+    private final Object[] slotValues;
+
+    private final String[] slotScopes;
+
+    private final long[] slotExpireAt;
+
+    private int nextSlot;
+
+    private int usedSlots;
+
+    private volatile long embeddingDisabledUntil;
+
+    @Getter
+    private final AtomicLong exactHits = new AtomicLong();
+
+    @Getter
+    private final AtomicLong similarHits = new AtomicLong();
+
+    @Getter
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param embedder            文本向量化函数，为 null 时只使用精确匹配层
+     * @param maxEntries          最大缓存条数
+     * @param ttlMillis           过期时间（毫秒）
+     * @param similarityThreshold 余弦相似度阈值
+     */
+    public SemanticCache(Function<String, float[]> embedder, int maxEntries, long ttlMillis, double similarityThreshold) {
+        this(embedder, maxEntries, ttlMillis, similarityThreshold, System::currentTimeMillis);
+    }
+
+    SemanticCache(Function<String, float[]> embedder, int maxEntries, long ttlMillis, double similarityThreshold,
+                  LongSupplier clock) {
+        this.embedder = embedder;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.similarityThreshold = similarityThreshold;
+        this.clock = clock;
+        this.exactEntries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+                return size() > SemanticCache.this.maxEntries;
+            }
+        };
+        this.slotValues = new Object[maxEntries];
+        this.slotScopes = new String[maxEntries];
+        this.slotExpireAt = new long[maxEntries];
+    }
+
+    /**
+     * 查询缓存（全局作用域）
+     */
+    public Lookup<V> lookup(String text) {
+        return lookup("", text);
+    }
+
+    /**
+     * 在指定作用域内查询缓存
+     * 精确匹配未命中时才计算向量；返回的 Lookup 可直接用于 put，避免重复计算向量
+     *
+     * @param scope 作用域，不同作用域的条目互不命中
+     * @param text  查询文本
+     */
+    public Lookup<V> lookup(String scope, String text) {
+        String scopeKey = scope == null ? "" : scope;
+        String key = scopeKey + '\u0000' + normalize(text);
+        long now = clock.getAsLong();
+        synchronized (exactEntries) {
+            Entry<V> entry = exactEntries.get(key);
+            if (entry != null) {
+                if (entry.expireAt > now) {
+                    exactHits.incrementAndGet();
+                    return new Lookup<>(scopeKey, key, null, entry.value);
+                }
+                exactEntries.remove(key);
+            }
+        }
+        float[] vector = embed(text);
+        if (vector != null) {
+            V similar = findSimilar(scopeKey, vector, now);
+            if (similar != null) {
+                similarHits.incrementAndGet();
+                return new Lookup<>(scopeKey, key, vector, similar);
+            }
+        }
+        misses.incrementAndGet();
+        return new Lookup<>(scopeKey, key, vector, null);
+    }
+
+    /**
+     * 写入缓存
+     */
+    public void put(Lookup<V> lookup, V value) {
+        long expireAt = clock.getAsLong() + ttlMillis;
+        synchronized (exactEntries) {
+            exactEntries.put(lookup.key, new Entry<>(value, expireAt));
+        }
+        float[] vector = lookup.vector;
+        if (vector == null) {
+            return;
+        }
+        vectorLock.writeLock().lock();
+        try {
+            if (arena == null) {
+                dimensions = vector.length;
+                arena = new float[dimensions * maxEntries];
+            } else if (vector.length != dimensions) {
+                log.warn("向量维度变化，忽略该条缓存: {} -> {}", dimensions, vector.length);
+                return;
+            }
+            int slot = nextSlot;
+            System.arraycopy(vector, 0, arena, slot * dimensions, dimensions);
+            slotValues[slot] = value;
+            slotScopes[slot] = lookup.scope;
+            slotExpireAt[slot] = expireAt;
+            nextSlot = (slot + 1) % maxEntries;
+            usedSlots = Math.max(usedSlots, slot + 1);
+        } finally {
+            vectorLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        synchronized (exactEntries) {
+            exactEntries.clear();
+        }
+        vectorLock.writeLock().lock();
+        try {
+            arena = null;
+            nextSlot = 0;
+            usedSlots = 0;
+            Arrays.fill(slotValues, null);
+            Arrays.fill(slotScopes, null);
+        } finally {
+            vectorLock.writeLock().unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V findSimilar(String scope, float[] query, long now) {
+        vectorLock.readLock().lock();
+        try {
+            if (arena == null || query.length != dimensions) {
+                return null;
+            }
+            int best = -1;
+            double bestScore = similarityThreshold;
+            for (int slot = 0; slot < usedSlots; slot++) {
+                if (slotExpireAt[slot] <= now || !scope.equals(slotScopes[slot])) {
+                    continue;
+                }
+                int offset = slot * dimensions;
+                double dot = 0;
+                for (int i = 0; i < dimensions; i++) {
+                    dot += arena[offset + i] * query[i];
+                }
+                if (dot >= bestScore) {
+                    bestScore = dot;
+                    best = slot;
+                }
+            }
+            if (best >= 0) {
+                log.debug("语义缓存相似命中，相似度: {}", bestScore);
+                return (V) slotValues[best];
+            }
+            return null;
+        } finally {
+            vectorLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 计算归一化后的向量，向量服务失败时在冷却期内跳过相似度查询
+     */
+    private float[] embed(String text) {
+        if (embedder == null || clock.getAsLong() < embeddingDisabledUntil) {
+            return null;
+        }
+        try {
+            float[] vector = embedder.apply(text);
+            if (vector == null || vector.length == 0) {
+                return null;
+            }
+            double norm = 0;
+            for (float v : vector) {
+                norm += v * v;
+            }
+            if (norm == 0) {
+                return null;
+            }
+            float[] unit = new float[vector.length];
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < vector.length; i++) {
+                unit[i] = vector[i] * scale;
+            }
+            return unit;
+        } catch (Exception e) {
+            embeddingDisabledUntil = clock.getAsLong() + EMBEDDING_COOLDOWN_MS;
+            log.warn("文本向量化失败，{} 秒内只使用精确匹配", EMBEDDING_COOLDOWN_MS / 1000, e);
+            return null;
+        }
+    }
+
+    /**
+     * 文本归一化：全角转半角、统一小写，去掉空白和标点，只保留字母、数字和汉字
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC);
+        StringBuilder builder = new StringBuilder(normalized.length());
+        for (int i = 0; i < normalized.length(); ) {
+            int codePoint = normalized.codePointAt(i);
+            if (Character.isLetterOrDigit(codePoint)) {
+                builder.appendCodePoint(Character.toLowerCase(codePoint));
+            }
+            i += Character.charCount(codePoint);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 查询结果
+     */
+    public static class Lookup<V> {
+
+        private final String scope;
+
+        private final String key;
+
+        private final float[] vector;
+
+        private final V value;
+
+        private Lookup(String scope, String key, float[] vector, V value) {
+            this.scope = scope;
+            this.key = key;
+            this.vector = vector;
+            this.value = value;
+        }
+
+        public boolean isHit() {
+            return value != null;
+        }
+
+        public V getValue() {
+            return value;
+        }
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+
+        private final long expireAt;
+
+        private Entry(V value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+    }
+}
@@ -21,13 +21,25 @@ public class AIConfig {
                         new SimpleLoggerAdvisor())
                 .build();
     }
+    /**
+     * 对话总结客户端不挂对话记忆，历史由滚动总结自行提供，避免同一段历史被发送两次
+     */
     @Bean
-    public ChatClient promptSummeryChatClient(OpenAiChatModel model, ChatMemory chatMemory) {
+    public ChatClient promptSummeryChatClient(OpenAiChatModel model) {
         return ChatClient.builder(model)
                 .defaultSystem(AIConstant.SUMMARY)
-                .defaultAdvisors(
-                        new MessageChatMemoryAdvisor(chatMemory),
-                        new SimpleLoggerAdvisor())
+                .defaultAdvisors(new SimpleLoggerAdvisor())
+                .build();
+    }
+
+    /**
+     * 提示词增强客户端，一次结构化调用同时完成总结合并、需求整理和关键词提取
+     */
+    @Bean
+    public ChatClient promptEnhancementChatClient(OpenAiChatModel model) {
+        return ChatClient.builder(model)
+                .defaultSystem(AIConstant.PROMPT_ENHANCEMENT)
+                .defaultAdvisors(new SimpleLoggerAdvisor())
                 .build();
     }
 
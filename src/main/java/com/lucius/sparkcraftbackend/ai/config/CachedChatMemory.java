@@ -0,0 +1,222 @@
+package com.lucius.sparkcraftbackend.ai.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.messages.Message;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * 对话记忆本地窗口缓存
+ * 每个会话用环形缓冲保存最近 windowSize 条消息，按会话数和总字节数做 LRU 淘汰；
+ * add 先写下层再更新缓存（写穿），get 命中时不再访问下层存储。
+ * 写入只更新本实例的窗口，多实例部署时其他实例写入的消息要等窗口过期（ttlMillis，从加载时算起）后才能读到
+ */
+@Slf4j
+public class CachedChatMemory implements ChatMemory {
+
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * 每条消息的固定开销估算（对象头、引用等）
+     */
+    private static final int MESSAGE_OVERHEAD_BYTES = 64;
+
+    private final ChatMemory delegate;
+
+    private final int windowSize;
+
+    private final int maxConversations;
+
+    private final long maxBytes;
+
+    private final long ttlMillis;
+
+    private final LongSupplier clock;
+
+    /**
+     * 按访问顺序排列的会话窗口，访问需持有自身锁
+     */
+    private final LinkedHashMap<String, MessageWindow> windows = new LinkedHashMap<>(256, 0.75f, true);
+
+    private long totalBytes;
+
+    /**
+     * 按会话分段加锁，保证同一会话的加载与写入不会交错
+     */
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    /**
+     * @param delegate         下层存储
+     * @param windowSize       每个会话缓存的消息条数
+     * @param maxConversations 最多缓存的会话数
+     * @param maxBytes         缓存消息内容的总大小上限（字节）
+     * @param ttlMillis        窗口从加载起的有效时间（毫秒），写入不会延长
+     */
+    public CachedChatMemory(ChatMemory delegate, int windowSize, int maxConversations, long maxBytes, long ttlMillis) {
+        this(delegate, windowSize, maxConversations, maxBytes, ttlMillis, System::currentTimeMillis);
+    }
+
+    CachedChatMemory(ChatMemory delegate, int windowSize, int maxConversations, long maxBytes, long ttlMillis,
+                     LongSupplier clock) {
+        this.delegate = delegate;
+        this.windowSize = windowSize;
+        this.maxConversations = maxConversations;
+        this.maxBytes = maxBytes;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Override
+    public void add(String conversationId, List<Message> messages) {
+        synchronized (lockFor(conversationId)) {
+            delegate.add(conversationId, messages);
+            synchronized (windows) {
+                MessageWindow window = windows.get(conversationId);
+                // 未缓存的会话不在这里建窗口，下次读取时从下层完整加载
+                if (window != null) {
+                    totalBytes -= window.bytes;
+                    window.addAll(messages);
+                    totalBytes += window.bytes;
+                    evictIfNecessary();
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<Message> get(String conversationId, int lastN) {
+        if (lastN <= 0) {
+            return new ArrayList<>();
+        }
+        // 超出窗口大小的读取直接交给下层
+        if (lastN > windowSize) {
+            return delegate.get(conversationId, lastN);
+        }
+        List<Message> cached = getFromWindow(conversationId, lastN);
+        if (cached != null) {
+            return cached;
+        }
+        synchronized (lockFor(conversationId)) {
+            cached = getFromWindow(conversationId, lastN);
+            if (cached != null) {
+                return cached;
+            }
+            List<Message> loaded = delegate.get(conversationId, windowSize);
+            MessageWindow window = new MessageWindow(windowSize, clock.getAsLong() + ttlMillis);
+            window.addAll(loaded);
+            synchronized (windows) {
+                windows.put(conversationId, window);
+                totalBytes += window.bytes;
+                evictIfNecessary();
+                return window.last(lastN);
+            }
+        }
+    }
+
+    @Override
+    public void clear(String conversationId) {
+        synchronized (lockFor(conversationId)) {
+            delegate.clear(conversationId);
+            evict(conversationId);
+        }
+    }
+
+    /**
+     * 移除某个会话的缓存
+     */
+    public void evict(String conversationId) {
+        synchronized (windows) {
+            MessageWindow removed = windows.remove(conversationId);
+            if (removed != null) {
+                totalBytes -= removed.bytes;
+            }
+        }
+    }
+
+    private List<Message> getFromWindow(String conversationId, int lastN) {
+        synchronized (windows) {
+            MessageWindow window = windows.get(conversationId);
+            if (window == null) {
+                return null;
+            }
+            if (window.expireAt <= clock.getAsLong()) {
+                windows.remove(conversationId);
+                totalBytes -= window.bytes;
+                return null;
+            }
+            return window.last(lastN);
+        }
+    }
+
+    private void evictIfNecessary() {
+        Iterator<Map.Entry<String, MessageWindow>> iterator = windows.entrySet().iterator();
+        while ((windows.size() > maxConversations || totalBytes > maxBytes) && iterator.hasNext()) {
+            Map.Entry<String, MessageWindow> eldest = iterator.next();
+            totalBytes -= eldest.getValue().bytes;
+            iterator.remove();
+            log.debug("对话记忆缓存淘汰会话: {}", eldest.getKey());
+        }
+    }
+
+    private Object lockFor(String conversationId) {
+        return locks[(conversationId.hashCode() & 0x7fffffff) % LOCK_STRIPES];
+    }
+
+    /**
+     * 单个会话的消息环形缓冲
+     */
+    private static class MessageWindow {
+
+        private final Message[] buffer;
+
+        private int head;
+
+        private int size;
+
+        private long bytes;
+
+        private final long expireAt;
+
+        MessageWindow(int capacity, long expireAt) {
+            this.buffer = new Message[capacity];
+            this.expireAt = expireAt;
+        }
+
+        void addAll(List<Message> messages) {
+            for (Message message : messages) {
+                int tail = (head + size) % buffer.length;
+                if (size == buffer.length) {
+                    bytes -= sizeOf(buffer[head]);
+                    head = (head + 1) % buffer.length;
+                } else {
+                    size++;
+                }
+                buffer[tail] = message;
+                bytes += sizeOf(message);
+            }
+        }
+
+        List<Message> last(int n) {
+            int count = Math.min(n, size);
+            List<Message> result = new ArrayList<>(count);
+            for (int i = size - count; i < size; i++) {
+                result.add(buffer[(head + i) % buffer.length]);
+            }
+            return result;
+        }
+
+        private static long sizeOf(Message message) {
+            String text = message.getText();
+            return MESSAGE_OVERHEAD_BYTES + (text != null ? 2L * text.length() : 0);
+        }
+    }
+}
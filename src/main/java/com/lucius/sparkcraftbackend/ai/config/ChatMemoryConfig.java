@@ -1,17 +1,55 @@
 package com.lucius.sparkcraftbackend.ai.config;
 
 
+import com.lucius.sparkcraftbackend.properties.ChatMemoryProperties;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.StringRedisTemplate;
 
+/**
+ * 对话记忆配置类
+ * 根据 spark.chat-memory.type 选择存储，再按需套上本地窗口缓存
+ */
+@Slf4j
 @Configuration
 public class ChatMemoryConfig {
+
     @Bean
-    public ChatMemory chatMemory() {
-        //是否使用Redis实现对话记忆
-        /*return new ChatMemoryImpl();*/
-        /*return new InMemoryChatMemory();*/
+    public MysqlChatMemoryImpl mysqlChatMemory() {
         return new MysqlChatMemoryImpl();
     }
-}
\ No newline at end of file
+
+    @Bean
+    @Primary
+    public ChatMemory chatMemory(MysqlChatMemoryImpl mysqlChatMemory,
+                                 ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+                                 ChatMemoryProperties chatMemoryProperties) {
+        String type = chatMemoryProperties.getType();
+        ChatMemory store = switch (type) {
+            case "mysql" -> mysqlChatMemory;
+            case "redis" -> redisChatMemory(redisTemplateProvider, chatMemoryProperties);
+            case "tiered" -> new TieredChatMemory(redisChatMemory(redisTemplateProvider, chatMemoryProperties), mysqlChatMemory);
+            default -> throw new IllegalStateException("不支持的对话记忆存储类型: " + type);
+        };
+        log.info("对话记忆存储类型: {}", type);
+
+        ChatMemoryProperties.Cache cache = chatMemoryProperties.getCache();
+        if (!cache.isEnabled()) {
+            return store;
+        }
+        // 本地窗口缓存挡在存储前面，对话轮次读取历史时不再访问数据库
+        return new CachedChatMemory(store, cache.getWindowSize(), cache.getMaxConversations(), cache.getMaxBytes(),
+                cache.getTtl().toMillis());
+    }
+
+    private RedisChatMemoryImpl redisChatMemory(ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+                                                ChatMemoryProperties chatMemoryProperties) {
+        ChatMemoryProperties.Redis redis = chatMemoryProperties.getRedis();
+        return new RedisChatMemoryImpl(redisTemplateProvider.getObject(), redis.getKeyPrefix(),
+                redis.getMaxMessages(), redis.getTtl());
+    }
+}
@@ -3,23 +3,88 @@ package com.lucius.sparkcraftbackend.ai.config;
 
 import com.lucius.sparkcraftbackend.entity.ChatMemoryEntity;
 import com.lucius.sparkcraftbackend.mapper.ChatMemoryMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
-@Service
+/**
+ * 基于 MySQL 的对话记忆（写后批量落库）
+ * add 只把消息放入内存队列，由后台线程合并成多行 INSERT；超出条数的旧消息按 id 水位线定期裁剪；
+ * 应用关闭时把队列中剩余的消息全部写入数据库
+ */
+@Slf4j
 public class MysqlChatMemoryImpl implements ChatMemory {
 
     @Autowired
     private ChatMemoryMapper chatMemoryMapper;
 
     private static final int MAX_MESSAGES = 20;
+
+    private static final int BATCH_SIZE = 100;
+
+    private static final int QUEUE_CAPACITY = 10000;
+
+    private static final long FLUSH_INTERVAL_MS = 200;
+
+    private static final long TRIM_INTERVAL_MS = 60000;
+
+    /**
+     * 等待落库的消息
+     */
+    private final BlockingDeque<ChatMemoryEntity> pendingQueue = new LinkedBlockingDeque<>(QUEUE_CAPACITY);
+
+    /**
+     * 有新消息写入、需要裁剪的会话
+     */
+    private final Set<String> conversationsToTrim = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 落库与读取互斥，保证读取时不会漏掉已出队但未提交的消息
+     */
+    private final Object flushLock = new Object();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "chat-memory-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::trimQuietly, TRIM_INTERVAL_MS, TRIM_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("应用关闭，写入剩余的对话记忆: {} 条", pendingQueue.size());
+        flush();
+        trim();
+    }
+
     @Override
     public void add(String conversationId, List<Message> messages) {
         for (Message message : messages) {
@@ -28,16 +93,31 @@ public class MysqlChatMemoryImpl implements ChatMemory {
             entity.setMessageType(message.getClass().getSimpleName());
             entity.setContent(message.getText());
             entity.setMetadata("{}"); // 可以根据需要添加元数据
-            chatMemoryMapper.insertMessage(entity);
+            // 队列已满时由调用线程直接落库，避免无限堆积
+            while (!pendingQueue.offer(entity)) {
+                flush();
+            }
         }
-
-        // 清理旧消息，保持最大消息数
-        chatMemoryMapper.cleanOldMessages(conversationId, MAX_MESSAGES);
+        conversationsToTrim.add(conversationId);
     }
 
     @Override
     public List<Message> get(String conversationId, int lastN) {
-        List<ChatMemoryEntity> entities = chatMemoryMapper.getMessages(conversationId, 10);
+        if (lastN <= 0) {
+            return new ArrayList<>();
+        }
+        List<ChatMemoryEntity> entities;
+        synchronized (flushLock) {
+            entities = new ArrayList<>(chatMemoryMapper.getMessages(conversationId, lastN));
+            for (ChatMemoryEntity pending : pendingQueue) {
+                if (conversationId.equals(pending.getConversationId())) {
+                    entities.add(pending);
+                }
+            }
+        }
+        if (entities.size() > lastN) {
+            entities = entities.subList(entities.size() - lastN, entities.size());
+        }
 
         return entities.stream().map(entity -> {
             if ("UserMessage".equals(entity.getMessageType())) {
@@ -50,6 +130,61 @@ public class MysqlChatMemoryImpl implements ChatMemory {
 
     @Override
     public void clear(String conversationId) {
-        chatMemoryMapper.cleanOldMessages(conversationId, 0);
+        synchronized (flushLock) {
+            pendingQueue.removeIf(entity -> conversationId.equals(entity.getConversationId()));
+            chatMemoryMapper.deleteByConversationId(conversationId);
+        }
+        conversationsToTrim.remove(conversationId);
+    }
+
+    /**
+     * 把队列中的消息按批次写入数据库，写入失败的批次放回队首等待下次重试
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            List<ChatMemoryEntity> batch = new ArrayList<>(BATCH_SIZE);
+            while (pendingQueue.drainTo(batch, BATCH_SIZE) > 0) {
+                try {
+                    chatMemoryMapper.insertMessages(batch);
+                } catch (RuntimeException e) {
+                    for (int i = batch.size() - 1; i >= 0; i--) {
+                        pendingQueue.offerFirst(batch.get(i));
+                    }
+                    throw e;
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 删除每个会话中超出 MAX_MESSAGES 的旧消息
+     * 先按 id 倒序取第 MAX_MESSAGES 条作为水位线，再删除 id 更小的记录，只走 conversation_id 索引
+     */
+    public void trim() {
+        Set<String> conversations = new HashSet<>(conversationsToTrim);
+        for (String conversationId : conversations) {
+            conversationsToTrim.remove(conversationId);
+            Long watermarkId = chatMemoryMapper.getTrimWatermark(conversationId, MAX_MESSAGES - 1);
+            if (watermarkId != null) {
+                chatMemoryMapper.deleteBeforeId(conversationId, watermarkId);
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("对话记忆批量写入失败，稍后重试", e);
+        }
+    }
+
+    private void trimQuietly() {
+        try {
+            trim();
+        } catch (Exception e) {
+            log.error("对话记忆裁剪失败", e);
+        }
     }
-}
\ No newline at end of file
+}
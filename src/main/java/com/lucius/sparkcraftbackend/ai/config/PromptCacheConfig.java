@@ -0,0 +1,33 @@
+package com.lucius.sparkcraftbackend.ai.config;
+
+import com.lucius.sparkcraftbackend.ai.cache.SemanticCache;
+import com.lucius.sparkcraftbackend.ai.node.PromptEnhancement;
+import com.lucius.sparkcraftbackend.properties.PromptCacheProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 提示词增强语义缓存配置类
+ */
+@Slf4j
+@Configuration
+public class PromptCacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "spark.prompt-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public SemanticCache<PromptEnhancement> promptEnhancementCache(PromptCacheProperties promptCacheProperties,
+                                                                   ObjectProvider<EmbeddingModel> embeddingModelProvider) {
+        EmbeddingModel embeddingModel = promptCacheProperties.isSimilarityEnabled()
+                ? embeddingModelProvider.getIfAvailable()
+                : null;
+        log.info("提示词增强语义缓存已启用，相似度匹配: {}", embeddingModel != null);
+        return new SemanticCache<>(embeddingModel != null ? embeddingModel::embed : null,
+                promptCacheProperties.getMaxEntries(),
+                promptCacheProperties.getTtl().toMillis(),
+                promptCacheProperties.getSimilarityThreshold());
+    }
+}
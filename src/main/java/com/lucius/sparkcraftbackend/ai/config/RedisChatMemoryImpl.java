@@ -0,0 +1,151 @@
+package com.lucius.sparkcraftbackend.ai.config;
+
+import com.lucius.sparkcraftbackend.utils.JsonUtils;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基于 Redis 列表的对话记忆
+ * 每个会话一个列表，RPUSH 追加后用 LTRIM 只保留最近 maxMessages 条，并刷新过期时间；
+ * 追加、裁剪、续期在同一个管道中发送，一次往返完成
+ */
+public class RedisChatMemoryImpl implements ChatMemory {
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final String keyPrefix;
+
+    private final int maxMessages;
+
+    private final Duration ttl;
+
+    public RedisChatMemoryImpl(StringRedisTemplate redisTemplate, String keyPrefix, int maxMessages, Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.keyPrefix = keyPrefix;
+        this.maxMessages = maxMessages;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public void add(String conversationId, List<Message> messages) {
+        append(conversationId, messages, false);
+    }
+
+    @Override
+    public List<Message> get(String conversationId, int lastN) {
+        if (lastN <= 0) {
+            return new ArrayList<>();
+        }
+        List<String> values = redisTemplate.opsForList().range(keyOf(conversationId), -lastN, -1);
+        if (values == null || values.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Message> messages = new ArrayList<>(values.size());
+        for (String value : values) {
+            messages.add(deserialize(value));
+        }
+        return messages;
+    }
+
+    @Override
+    public void clear(String conversationId) {
+        redisTemplate.delete(keyOf(conversationId));
+    }
+
+    /**
+     * 追加消息
+     *
+     * @param onlyIfPresent 为 true 时使用 RPUSHX，会话列表不存在（已过期或从未加载）时不创建，
+     *                      留给下一次读取从下层存储完整回填
+     */
+    public void append(String conversationId, List<Message> messages, boolean onlyIfPresent) {
+        if (messages == null || messages.isEmpty()) {
+            return;
+        }
+        byte[] key = rawKey(conversationId);
+        byte[][] values = serializeAll(messages);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            if (onlyIfPresent) {
+                for (byte[] value : values) {
+                    connection.listCommands().rPushX(key, value);
+                }
+            } else {
+                connection.listCommands().rPush(key, values);
+            }
+            trimAndExpire(connection, key);
+            return null;
+        });
+    }
+
+    /**
+     * 用给定消息整体替换会话列表，用于从下层存储回填
+     */
+    public void replace(String conversationId, List<Message> messages) {
+        byte[] key = rawKey(conversationId);
+        byte[][] values = serializeAll(messages);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.keyCommands().del(key);
+            if (values.length > 0) {
+                connection.listCommands().rPush(key, values);
+                trimAndExpire(connection, key);
+            }
+            return null;
+        });
+    }
+
+    public int getMaxMessages() {
+        return maxMessages;
+    }
+
+    private void trimAndExpire(RedisConnection connection, byte[] key) {
+        connection.listCommands().lTrim(key, -maxMessages, -1);
+        connection.keyCommands().expire(key, ttl.toSeconds());
+    }
+
+    private String keyOf(String conversationId) {
+        return keyPrefix + conversationId;
+    }
+
+    private byte[] rawKey(String conversationId) {
+        return keyOf(conversationId).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[][] serializeAll(List<Message> messages) {
+        byte[][] values = new byte[messages.size()][];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = serialize(messages.get(i)).getBytes(StandardCharsets.UTF_8);
+        }
+        return values;
+    }
+
+    /**
+     * 消息类型与 MySQL 存储保持一致，使用类名区分用户消息和助手消息
+     */
+    private static String serialize(Message message) {
+        return JsonUtils.toJson(new StoredMessage(message.getClass().getSimpleName(), message.getText()));
+    }
+
+    private static Message deserialize(String value) {
+        StoredMessage stored = JsonUtils.parse(value, StoredMessage.class);
+        if ("UserMessage".equals(stored.type())) {
+            return new UserMessage(stored.content());
+        }
+        return new AssistantMessage(stored.content());
+    }
+
+    /**
+     * 列表中每条消息的 JSON 结构
+     */
+    record StoredMessage(String type, String content) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.lucius.sparkcraftbackend.ai.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.messages.Message;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Redis + MySQL 两级对话记忆
+ * 读取优先走 Redis，列表不存在时从 MySQL 加载并整体回填；写入先交给 MySQL（写后批量落库）再追加到 Redis。
+ * Redis 不可用时读写都退回 MySQL，不影响对话
+ */
+@Slf4j
+public class TieredChatMemory implements ChatMemory {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final RedisChatMemoryImpl redisChatMemory;
+
+    private final ChatMemory persistentChatMemory;
+
+    /**
+     * 按会话分段加锁，避免回填覆盖并发追加的消息
+     */
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public TieredChatMemory(RedisChatMemoryImpl redisChatMemory, ChatMemory persistentChatMemory) {
+        this.redisChatMemory = redisChatMemory;
+        this.persistentChatMemory = persistentChatMemory;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Override
+    public void add(String conversationId, List<Message> messages) {
+        synchronized (lockFor(conversationId)) {
+            persistentChatMemory.add(conversationId, messages);
+            try {
+                // 列表不存在时不创建，下次读取会从 MySQL 完整回填
+                redisChatMemory.append(conversationId, messages, true);
+            } catch (RuntimeException e) {
+                log.warn("对话记忆写入 Redis 失败, conversationId: {}", conversationId, e);
+            }
+        }
+    }
+
+    @Override
+    public List<Message> get(String conversationId, int lastN) {
+        if (lastN <= 0) {
+            return new ArrayList<>();
+        }
+        // Redis 只保留最近 maxMessages 条，更长的读取直接交给 MySQL
+        if (lastN > redisChatMemory.getMaxMessages()) {
+            return persistentChatMemory.get(conversationId, lastN);
+        }
+        synchronized (lockFor(conversationId)) {
+            try {
+                List<Message> cached = redisChatMemory.get(conversationId, lastN);
+                if (!cached.isEmpty()) {
+                    return cached;
+                }
+            } catch (RuntimeException e) {
+                log.warn("从 Redis 读取对话记忆失败，改为读取 MySQL, conversationId: {}", conversationId, e);
+                return persistentChatMemory.get(conversationId, lastN);
+            }
+            List<Message> loaded = persistentChatMemory.get(conversationId, redisChatMemory.getMaxMessages());
+            if (!loaded.isEmpty()) {
+                try {
+                    redisChatMemory.replace(conversationId, loaded);
+                } catch (RuntimeException e) {
+                    log.warn("回填 Redis 对话记忆失败, conversationId: {}", conversationId, e);
+                }
+            }
+            return loaded.size() > lastN ? new ArrayList<>(loaded.subList(loaded.size() - lastN, loaded.size())) : loaded;
+        }
+    }
+
+    @Override
+    public void clear(String conversationId) {
+        synchronized (lockFor(conversationId)) {
+            persistentChatMemory.clear(conversationId);
+            redisChatMemory.clear(conversationId);
+        }
+    }
+
+    private Object lockFor(String conversationId) {
+        return locks[(conversationId.hashCode() & 0x7fffffff) % LOCK_STRIPES];
+    }
+}
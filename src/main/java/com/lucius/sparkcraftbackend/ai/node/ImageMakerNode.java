@@ -8,8 +8,11 @@ import cn.hutool.json.JSONObject;
 import cn.hutool.json.JSONUtil;
 import com.lucius.sparkcraftbackend.ai.WorkflowContext;
 import com.lucius.sparkcraftbackend.dto.WorkflowProgressEvent;
+import com.lucius.sparkcraftbackend.dto.upstream.DoubaoImageRequest;
+import com.lucius.sparkcraftbackend.dto.upstream.DoubaoImageResponse;
 import com.lucius.sparkcraftbackend.entity.ImageResource;
 import com.lucius.sparkcraftbackend.service.WorkflowProgressService;
+import com.lucius.sparkcraftbackend.utils.JsonUtils;
 
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -18,6 +21,7 @@ import org.bsc.langgraph4j.prebuilt.MessagesState;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -132,18 +136,10 @@ public class ImageMakerNode {
         try {
             log.info("调用豆包 AI 生成图片，提示词: {}", prompt);
             
-            // 构建豆包 API 请求体
-            JSONObject requestBody = new JSONObject();
-            requestBody.set("model", DOUBAO_MODEL);
-            requestBody.set("prompt", prompt);
-            requestBody.set("response_format", "url");
-            requestBody.set("size", "2K");
-            requestBody.set("stream", false); // 不使用流式响应，简化处理
-            requestBody.set("watermark", false);
-            
             // 添加参考图片 URL（如果有的话）
+            List<String> imageUrls = null;
             if (referenceImages != null && !referenceImages.isEmpty()) {
-                JSONArray imageUrls = new JSONArray();
+                imageUrls = new ArrayList<>(2);
                 for (ImageResource img : referenceImages) {
                     if (StrUtil.isNotBlank(img.getUrl())) {
                         imageUrls.add(img.getUrl());
@@ -153,29 +149,28 @@ public class ImageMakerNode {
                         }
                     }
                 }
-                if (!imageUrls.isEmpty()) {
-                    requestBody.set("image", imageUrls);
+                if (imageUrls.isEmpty()) {
+                    imageUrls = null;
+                } else {
                     log.info("使用 {} 张参考图片", imageUrls.size());
                 }
             }
             
-            // 添加序列图片生成配置
-            JSONObject seqOptions = new JSONObject();
-            seqOptions.set("max_images", 1);
-            requestBody.set("sequential_image_generation", "auto");
-            requestBody.set("sequential_image_generation_options", seqOptions);
+            // 构建豆包 API 请求体，不使用流式响应，序列图片最多生成 1 张
+            String requestBody = JsonUtils.toJson(new DoubaoImageRequest(DOUBAO_MODEL, prompt, "url", "2K",
+                    false, false, imageUrls, "auto", new DoubaoImageRequest.SequentialOptions(1)));
             
             log.info("🚀 发送豆包 AI 请求:");
             log.info("  📍 API URL: {}", DOUBAO_API_URL);
             log.info("  🔑 API Key: {}...{}", DOUBAO_API_KEY.substring(0, 8), DOUBAO_API_KEY.substring(DOUBAO_API_KEY.length() - 8));
             log.info("  🎯 模型: {}", DOUBAO_MODEL);
-            log.debug("  📋 请求体: {}", requestBody.toString());
+            log.debug("  📋 请求体: {}", requestBody);
             
             // 发送 POST 请求
             HttpResponse response = HttpRequest.post(DOUBAO_API_URL)
                     .header("Authorization", "Bearer " + DOUBAO_API_KEY)
                     .header("Content-Type", "application/json")
-                    .body(requestBody.toString())
+                    .body(requestBody)
                     .timeout(TIMEOUT)
                     .execute();
             
@@ -223,28 +218,22 @@ public class ImageMakerNode {
      */
     private static ImageResource parseDoubaoResponse(String responseBody, String prompt) {
         try {
-            JSONObject responseJson = JSONUtil.parseObj(responseBody);
+            DoubaoImageResponse response = JsonUtils.parse(responseBody, DoubaoImageResponse.class);
             
             // 豆包 API 响应格式：{"data": [{"url": "图片URL"}]}
-            if (responseJson.containsKey("data")) {
-                JSONArray dataArray = responseJson.getJSONArray("data");
+            if (response.data() != null && !response.data().isEmpty() && response.data().get(0) != null) {
+                // 获取图片 URL
+                String imageUrl = response.data().get(0).url();
                 
-                if (dataArray.size() > 0) {
-                    JSONObject firstImage = dataArray.getJSONObject(0);
-                    
-                    // 获取图片 URL
-                    String imageUrl = firstImage.getStr("url");
-                    
-                    if (StrUtil.isNotBlank(imageUrl)) {
-                        return ImageResource.builder()
-                                .description("豆包 AI 生成图片 - " + prompt)
-                                .url(imageUrl)
-                                .build();
-                    }
+                if (StrUtil.isNotBlank(imageUrl)) {
+                    return ImageResource.builder()
+                            .description("豆包 AI 生成图片 - " + prompt)
+                            .url(imageUrl)
+                            .build();
                 }
             }
             
-            log.warn("豆包响应中未找到有效的图片 URL，响应结构: {}", responseJson.keySet());
+            log.warn("豆包响应中未找到有效的图片 URL，响应: {}", responseBody);
             
         } catch (Exception e) {
             log.error("解析豆包 AI 响应失败", e);
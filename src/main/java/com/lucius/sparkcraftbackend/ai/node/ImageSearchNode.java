@@ -3,14 +3,16 @@ package com.lucius.sparkcraftbackend.ai.node;
 import cn.hutool.core.util.StrUtil;
 import cn.hutool.http.HttpRequest;
 import cn.hutool.http.HttpResponse;
-import cn.hutool.json.JSONArray;
-import cn.hutool.json.JSONObject;
-import cn.hutool.json.JSONUtil;
 import com.lucius.sparkcraftbackend.ai.WorkflowContext;
 import com.lucius.sparkcraftbackend.dto.WorkflowProgressEvent;
+import com.lucius.sparkcraftbackend.dto.upstream.CozeImageContent;
+import com.lucius.sparkcraftbackend.dto.upstream.CozeStreamEvent;
+import com.lucius.sparkcraftbackend.dto.upstream.CozeWorkflowRequest;
 import com.lucius.sparkcraftbackend.entity.ImageResource;
 import com.lucius.sparkcraftbackend.properties.AiServiceProperties;
 import com.lucius.sparkcraftbackend.service.WorkflowProgressService;
+import com.lucius.sparkcraftbackend.utils.ImageUrlFilter;
+import com.lucius.sparkcraftbackend.utils.JsonUtils;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.bsc.langgraph4j.action.AsyncNodeAction;
@@ -24,6 +26,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static org.bsc.langgraph4j.action.AsyncNodeAction.node_async;
 
@@ -38,10 +42,16 @@ public class ImageSearchNode {
     private static String COZE_API_TOKEN;
     private static final String COZE_WORKFLOW_ID = "7554768700659515435";
     private static final int COZE_TIMEOUT = 30000;
+
+    // 备用提取使用的正则，预编译避免每次调用重复编译
+    private static final Pattern DISPLAY_URL_PATTERN = Pattern.compile("\"display_url\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern RELAXED_IMAGE_URL_PATTERN = Pattern.compile("https://[^\\s\"']+\\.(jpeg|jpg|png|gif|webp)", Pattern.CASE_INSENSITIVE);
+    private static final int REGEX_MAX_IMAGES = 3;
     
     // 静态配置属性，通过配置类注入
     private static AiServiceProperties aiServiceProperties;
     private static WorkflowProgressService workflowProgressService;
+    private static ImageUrlFilter imageUrlFilter = new ImageUrlFilter();
     public void setApiKey(String apiKey) {
         ImageSearchNode.COZE_API_TOKEN = apiKey;
     }
@@ -56,6 +66,10 @@ public class ImageSearchNode {
     public static void setWorkflowProgressService(WorkflowProgressService service) {
         workflowProgressService = service;
     }
+
+    public static void setImageUrlFilter(ImageUrlFilter filter) {
+        imageUrlFilter = filter;
+    }
     
     public static AsyncNodeAction<MessagesState<String>> create() {
         return node_async(state -> {
@@ -143,20 +157,16 @@ public class ImageSearchNode {
             log.debug("使用 Token: {}...{}", apiToken.substring(0, 10), apiToken.substring(apiToken.length() - 10));
             
             // 构建请求体
-            JSONObject requestBody = new JSONObject();
-            requestBody.put("workflow_id", COZE_WORKFLOW_ID);
+            String requestBody = JsonUtils.toJson(
+                    new CozeWorkflowRequest(COZE_WORKFLOW_ID, new CozeWorkflowRequest.Parameters(keyPoint)));
             
-            JSONObject parameters = new JSONObject();
-            parameters.put("mainpotic", keyPoint);
-            requestBody.put("parameters", parameters);
-            
-            log.debug("Coze API 请求体: {}", requestBody.toString());
+            log.debug("Coze API 请求体: {}", requestBody);
             
             // 发送 POST 请求
             HttpResponse response = HttpRequest.post(COZE_API_URL)
                     .header("Authorization", "Bearer " + apiToken)
                     .header("Content-Type", "application/json")
-                    .body(requestBody.toString())
+                    .body(requestBody)
                     .timeout(COZE_TIMEOUT)
                     .execute();
             
@@ -217,17 +227,14 @@ public class ImageSearchNode {
                     
                     try {
                         // 解析 JSON 数据
-                        JSONObject dataJson = JSONUtil.parseObj(currentData);
-                        
-                        String nodeType = dataJson.getStr("node_type");
-                        String nodeTitle = dataJson.getStr("node_title");
-                        boolean nodeIsFinish = dataJson.getBool("node_is_finish", false);
+                        CozeStreamEvent event = JsonUtils.parse(currentData, CozeStreamEvent.class);
                         
-                        log.info("解析到节点: type={}, title={}, isFinish={}", nodeType, nodeTitle, nodeIsFinish);
+                        log.info("解析到节点: type={}, title={}, isFinish={}",
+                                event.nodeType(), event.nodeTitle(), event.nodeIsFinish());
                         
                         // 检查是否包含 content 字段
-                        if (dataJson.containsKey("content")) {
-                            String content = dataJson.getStr("content");
+                        if (event.content() != null) {
+                            String content = event.content();
                             
                             if (StrUtil.isNotBlank(content)) {
                                 log.info("找到 content 字段，内容长度: {} 字符", content.length());
@@ -280,24 +287,23 @@ public class ImageSearchNode {
             log.debug("开始解析图片内容: {}", content);
             
             // 尝试解析 JSON
-            JSONObject contentJson = JSONUtil.parseObj(content);
-            log.debug("成功解析为 JSON，包含的键: {}", contentJson.keySet());
+            CozeImageContent imageContent = JsonUtils.parse(content, CozeImageContent.class);
             
             // 检查是否包含 imageurl 字段
-            if (contentJson.containsKey("imageurl")) {
-                JSONArray imageArray = contentJson.getJSONArray("imageurl");
+            if (imageContent.imageurl() != null) {
+                List<CozeImageContent.Image> imageArray = imageContent.imageurl();
                 log.info("找到 imageurl 数组，包含 {} 个元素", imageArray.size());
                 
                 for (int i = 0; i < imageArray.size(); i++) {
-                    JSONObject imageObj = imageArray.getJSONObject(i);
+                    CozeImageContent.Image imageObj = imageArray.get(i);
                     log.debug("处理第 {} 个图片对象: {}", i + 1, imageObj);
                     
-                    if (imageObj.containsKey("picture_info")) {
-                        JSONObject pictureInfo = imageObj.getJSONObject("picture_info");
+                    if (imageObj != null && imageObj.pictureInfo() != null) {
+                        CozeImageContent.PictureInfo pictureInfo = imageObj.pictureInfo();
                         log.debug("图片信息: {}", pictureInfo);
                         
-                        String displayUrl = pictureInfo.getStr("display_url");
-                        String title = pictureInfo.getStr("title", keyPoint + " 相关图片");
+                        String displayUrl = pictureInfo.displayUrl();
+                        String title = StrUtil.blankToDefault(pictureInfo.title(), keyPoint + " 相关图片");
                         
                         if (StrUtil.isNotBlank(displayUrl)) {
                             ImageResource image = ImageResource.builder()
@@ -316,16 +322,7 @@ public class ImageSearchNode {
                     }
                 }
             } else {
-                log.warn("⚠️ Content 中未找到 imageurl 字段，可用字段: {}", contentJson.keySet());
-                
-                // 尝试其他可能的字段名
-                String[] possibleKeys = {"images", "image_list", "picture_list", "results"};
-                for (String key : possibleKeys) {
-                    if (contentJson.containsKey(key)) {
-                        log.info("尝试使用字段: {}", key);
-                        // 可以在这里添加其他字段的解析逻辑
-                    }
-                }
+                log.warn("⚠️ Content 中未找到 imageurl 字段，Content: {}", content);
             }
             
         } catch (Exception e) {
@@ -347,48 +344,15 @@ public class ImageSearchNode {
         
         try {
             log.info("使用正则表达式提取图片 URL，内容长度: {}", content.length());
+            ImageUrlFilter.UrlDeduplicator deduplicator = imageUrlFilter.newDeduplicator();
             
             // 查找 display_url 模式
-            java.util.regex.Pattern pattern = java.util.regex.Pattern.compile("\"display_url\"\\s*:\\s*\"([^\"]+)\"");
-            java.util.regex.Matcher matcher = pattern.matcher(content);
-            
-            int count = 0;
-            while (matcher.find() && count < 3) {
-                String url = matcher.group(1);
-                if (StrUtil.isNotBlank(url)) {
-                    ImageResource image = ImageResource.builder()
-                            .description(keyPoint + " - 图片" + (count + 1))
-                            .url(url)
-                            .build();
-                    
-                    images.add(image);
-                    count++;
-                    
-                    log.info("🔍 正则表达式提取到图片 {}: {}", count, url);
-                }
-            }
+            collectRegexMatches(DISPLAY_URL_PATTERN.matcher(content), 1, keyPoint, deduplicator, images);
             
             // 如果还没找到，尝试更宽松的模式
             if (images.isEmpty()) {
                 log.info("尝试更宽松的正则表达式模式");
-                java.util.regex.Pattern relaxedPattern = java.util.regex.Pattern.compile("https://[^\\s\"']+\\.(jpeg|jpg|png|gif|webp)", java.util.regex.Pattern.CASE_INSENSITIVE);
-                java.util.regex.Matcher relaxedMatcher = relaxedPattern.matcher(content);
-                
-                count = 0;
-                while (relaxedMatcher.find() && count < 3) {
-                    String url = relaxedMatcher.group();
-                    if (StrUtil.isNotBlank(url)) {
-                        ImageResource image = ImageResource.builder()
-                                .description(keyPoint + " - 图片" + (count + 1))
-                                .url(url)
-                                .build();
-                        
-                        images.add(image);
-                        count++;
-                        
-                        log.info("🔍 宽松模式提取到图片 {}: {}", count, url);
-                    }
-                }
+                collectRegexMatches(RELAXED_IMAGE_URL_PATTERN.matcher(content), 0, keyPoint, deduplicator, images);
             }
             
         } catch (Exception e) {
@@ -397,6 +361,24 @@ public class ImageSearchNode {
         
         return images;
     }
+
+    /**
+     * 收集正则匹配到的图片，跳过重复和黑名单中的 URL
+     */
+    private static void collectRegexMatches(Matcher matcher, int group, String keyPoint,
+                                            ImageUrlFilter.UrlDeduplicator deduplicator, List<ImageResource> images) {
+        while (images.size() < REGEX_MAX_IMAGES && matcher.find()) {
+            String url = matcher.group(group);
+            if (StrUtil.isBlank(url) || imageUrlFilter.isBlacklisted(url) || !deduplicator.firstSeen(url)) {
+                continue;
+            }
+            images.add(ImageResource.builder()
+                    .description(keyPoint + " - 图片" + (images.size() + 1))
+                    .url(url)
+                    .build());
+            log.info("🔍 正则表达式提取到图片 {}: {}", images.size(), url);
+        }
+    }
     
     /**
      * 获取模拟图片数据（降级方案）
@@ -1,11 +1,9 @@
 package com.lucius.sparkcraftbackend.ai.node;
 
-import cn.hutool.json.JSONObject;
 import cn.hutool.json.JSONUtil;
 import com.lucius.sparkcraftbackend.ai.WorkflowContext;
 import com.lucius.sparkcraftbackend.dto.TencentCloud3DResponse;
 import com.lucius.sparkcraftbackend.dto.WorkflowProgressEvent;
-import com.lucius.sparkcraftbackend.entity.ImageProject;
 import com.lucius.sparkcraftbackend.entity.ThreeDResult;
 import com.lucius.sparkcraftbackend.service.ImageProjectService;
 import com.lucius.sparkcraftbackend.service.ThreeDResultService;
@@ -22,7 +20,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.bsc.langgraph4j.action.AsyncNodeAction;
 import org.bsc.langgraph4j.prebuilt.MessagesState;
 
-import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -151,12 +148,10 @@ public class ImageThreeDModelNode {
             
             // 调用API
             SubmitHunyuanTo3DJobResponse resp = ai3dClient.SubmitHunyuanTo3DJob(req);
-            String responseJson = AbstractModel.toJsonString(resp);
-            log.info("📋 3D任务提交响应: {}", responseJson);
+            log.debug("📋 3D任务提交响应: {}", AbstractModel.toJsonString(resp));
             
-            // 解析响应获取JobId
-            JSONObject jsonResponse = JSONUtil.parseObj(responseJson);
-            String jobId = jsonResponse.getStr("JobId");
+            // 直接从响应对象获取JobId，不再序列化后重新解析
+            String jobId = resp.getJobId();
             
             if (jobId != null) {
                 log.info("✅ 3D任务提交成功，JobId: {}", jobId);
@@ -271,6 +266,7 @@ public class ImageThreeDModelNode {
     
     /**
      * 保存WorkflowContext数据到ImageProject数据库
+     * 只写入结果列，由ImageProjectService合并后批量更新
      */
     private static void saveToDatabase(WorkflowContext context) {
         try {
@@ -285,34 +281,15 @@ public class ImageThreeDModelNode {
                 return;
             }
             
-            // 根据appId查询ImageProject
-            ImageProject imageProject = imageProjectService.getById(appId);
-            if (imageProject == null) {
-                log.error("❌ 未找到ID为{}的ImageProject", appId);
-                return;
-            }
-            
-            // 更新ImageProject数据
-            imageProject.setProjectImageUrl(context.getAiImage() != null ? context.getAiImage().getUrl() : null);
-            imageProject.setProductionprocess(context.getProductionProcess());
-            imageProject.setThreeDModelUrl(context.getThreeDModelUrl());
-            imageProject.setProjectStatus("COMPLETED");
-            imageProject.setUpdateTime(LocalDateTime.now());
+            String projectImageUrl = context.getAiImage() != null ? context.getAiImage().getUrl() : null;
+            String productionProcess = context.getProductionProcess();
+            imageProjectService.saveWorkflowResult(appId, projectImageUrl, productionProcess, context.getThreeDModelUrl());
             
-            // 保存到数据库
-            boolean success = imageProjectService.updateById(imageProject);
-            
-            if (success) {
-                log.info("✅ 工作流数据已保存到数据库，项目ID: {}", appId);
-                log.info("📊 保存的数据:");
-                log.info("  - 项目图片URL: {}", imageProject.getProjectImageUrl());
-                log.info("  - 生产工艺: {} 字符", 
-                        imageProject.getProductionprocess() != null ? imageProject.getProductionprocess().length() : 0);
-                log.info("  - 3D模型URL: {}", imageProject.getThreeDModelUrl());
-                log.info("  - 项目状态: {}", imageProject.getProjectStatus());
-            } else {
-                log.error("❌ 保存工作流数据到数据库失败");
-            }
+            log.info("✅ 工作流数据已提交保存，项目ID: {}", appId);
+            log.info("📊 保存的数据:");
+            log.info("  - 项目图片URL: {}", projectImageUrl);
+            log.info("  - 生产工艺: {} 字符", productionProcess != null ? productionProcess.length() : 0);
+            log.info("  - 3D模型URL: {}", context.getThreeDModelUrl());
             
         } catch (Exception e) {
             log.error("❌ 保存到数据库时发生错误", e);
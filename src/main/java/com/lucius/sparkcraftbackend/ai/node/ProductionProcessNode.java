@@ -3,14 +3,14 @@ package com.lucius.sparkcraftbackend.ai.node;
 import cn.hutool.core.util.StrUtil;
 import cn.hutool.http.HttpRequest;
 import cn.hutool.http.HttpResponse;
-import cn.hutool.json.JSONArray;
-import cn.hutool.json.JSONObject;
-import cn.hutool.json.JSONUtil;
 import com.lucius.sparkcraftbackend.ai.WorkflowContext;
 import com.lucius.sparkcraftbackend.dto.WorkflowProgressEvent;
+import com.lucius.sparkcraftbackend.dto.upstream.QwenChatRequest;
+import com.lucius.sparkcraftbackend.dto.upstream.QwenChatResponse;
 import com.lucius.sparkcraftbackend.entity.ImageResource;
 import com.lucius.sparkcraftbackend.properties.AiServiceProperties;
 import com.lucius.sparkcraftbackend.service.WorkflowProgressService;
+import com.lucius.sparkcraftbackend.utils.JsonUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.bsc.langgraph4j.action.AsyncNodeAction;
 import org.bsc.langgraph4j.prebuilt.MessagesState;
@@ -18,6 +18,7 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.bsc.langgraph4j.action.AsyncNodeAction.node_async;
@@ -125,41 +126,13 @@ public class ProductionProcessNode {
         try {
             log.info("🚀 调用通义千问多模态 API 分析图片");
             
-            // 构建多模态请求体
-            JSONObject requestBody = new JSONObject();
-            requestBody.set("model", QWEN_MODEL);
-            requestBody.set("stream", false); // 不使用流式响应，简化处理
-            requestBody.set("max_tokens", 700); // 设置最大token数
-            requestBody.set("temperature", 0.7); // 设置创造性参数
-            
-            // 构建消息数组
-            JSONArray messages = new JSONArray();
-            JSONObject message = new JSONObject();
-            message.set("role", "user");
-            
-            // 构建内容数组（包含图片和文本）
-            JSONArray content = new JSONArray();
-            
-            // 添加图片内容
-            JSONObject imageContent = new JSONObject();
-            imageContent.set("type", "image_url");
-            JSONObject imageUrl = new JSONObject();
-            imageUrl.set("url", aiImage.getUrl());
-            // 添加图片详细度设置
-            imageUrl.set("detail", "high");
-            imageContent.set("image_url", imageUrl);
-            content.add(imageContent);
-            
-            // 添加文本内容
-            JSONObject textContent = new JSONObject();
-            textContent.set("type", "text");
+            // 构建多模态请求体：一条用户消息，内容包含高详细度的图片和分析提示词
+            // 不使用流式响应，最多 700 token，temperature 0.7
             String promptText = buildAnalysisPrompt(originalPrompt, enhancedPrompt);
-            textContent.set("text", promptText);
-            content.add(textContent);
-            
-            message.set("content", content);
-            messages.add(message);
-            requestBody.set("messages", messages);
+            QwenChatRequest.Message message = new QwenChatRequest.Message("user", List.of(
+                    QwenChatRequest.Content.image(aiImage.getUrl(), "high"),
+                    QwenChatRequest.Content.text(promptText)));
+            String requestBody = JsonUtils.toJson(new QwenChatRequest(QWEN_MODEL, false, 700, 0.7, List.of(message)));
             
             String apiKey = QWEN_API_KEY;
             if (StrUtil.isBlank(apiKey)) {
@@ -171,14 +144,14 @@ public class ProductionProcessNode {
             log.info("🔑 API Key: {}...{}", apiKey.substring(0, 8), apiKey.substring(apiKey.length() - 8));
             log.info("🎯 模型: {}", QWEN_MODEL);
             log.info("🖼️ 图片URL: {}", aiImage.getUrl());
-            log.debug("📋 请求体: {}", requestBody.toString());
+            log.debug("📋 请求体: {}", requestBody);
             
             // 发送 POST 请求
             HttpResponse response = HttpRequest.post(QWEN_API_URL)
                     .header("Authorization", "Bearer " + apiKey)
                     .header("Content-Type", "application/json")
                     .header("User-Agent", "SparkCraft-Backend/1.0")
-                    .body(requestBody.toString())
+                    .body(requestBody)
                     .timeout(TIMEOUT)
                     .execute();
             
@@ -311,27 +284,22 @@ public class ProductionProcessNode {
      */
     private static String parseQwenResponse(String responseBody) {
         try {
-            JSONObject responseJson = JSONUtil.parseObj(responseBody);
+            QwenChatResponse response = JsonUtils.parse(responseBody, QwenChatResponse.class);
             
             // 通义千问 API 响应格式：{"choices": [{"message": {"content": "..."}}]}
-            if (responseJson.containsKey("choices")) {
-                JSONArray choices = responseJson.getJSONArray("choices");
+            if (response.choices() != null && !response.choices().isEmpty()) {
+                QwenChatResponse.Choice firstChoice = response.choices().get(0);
                 
-                if (choices.size() > 0) {
-                    JSONObject firstChoice = choices.getJSONObject(0);
+                if (firstChoice != null && firstChoice.message() != null) {
+                    String content = firstChoice.message().content();
                     
-                    if (firstChoice.containsKey("message")) {
-                        JSONObject message = firstChoice.getJSONObject("message");
-                        String content = message.getStr("content");
-                        
-                        if (StrUtil.isNotBlank(content)) {
-                            return content.trim();
-                        }
+                    if (StrUtil.isNotBlank(content)) {
+                        return content.trim();
                     }
                 }
             }
             
-            log.warn("通义千问响应中未找到有效内容，响应结构: {}", responseJson.keySet());
+            log.warn("通义千问响应中未找到有效内容，响应: {}", responseBody);
             
         } catch (Exception e) {
             log.error("解析通义千问响应失败", e);
@@ -0,0 +1,21 @@
+package com.lucius.sparkcraftbackend.ai.node;
+
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import lombok.Data;
+
+/**
+ * 提示词增强的结构化输出
+ * 一次调用同时得到更新后的对话总结、增强提示词和图片搜索关键词
+ */
+@Data
+public class PromptEnhancement {
+
+    @JsonPropertyDescription("合并新增对话后的完整对话记忆总结；没有新增对话时原样返回已有总结")
+    private String summary;
+
+    @JsonPropertyDescription("结合对话记忆总结和用户当前输入整理出的完整设计需求描述")
+    private String enhancedPrompt;
+
+    @JsonPropertyDescription("用于图片搜索的1个最关键的具体词汇，例如：兔子摆件")
+    private String keyPoint;
+}
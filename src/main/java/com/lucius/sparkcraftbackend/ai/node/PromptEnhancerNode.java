@@ -1,10 +1,10 @@
 package com.lucius.sparkcraftbackend.ai.node;
 
-import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.StrUtil;
 import com.lucius.sparkcraftbackend.ai.WorkflowContext;
-import com.lucius.sparkcraftbackend.entity.ChatMemoryEntity;
-import com.lucius.sparkcraftbackend.mapper.ChatMemoryMapper;
+import com.lucius.sparkcraftbackend.ai.cache.SemanticCache;
+import com.lucius.sparkcraftbackend.dto.ChatSummaryDraft;
+import com.lucius.sparkcraftbackend.service.ChatSummaryService;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.bsc.langgraph4j.action.AsyncNodeAction;
@@ -12,9 +12,7 @@ import org.bsc.langgraph4j.prebuilt.MessagesState;
 import org.springframework.ai.chat.client.ChatClient;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import static org.bsc.langgraph4j.action.AsyncNodeAction.node_async;
 
@@ -22,22 +20,27 @@ import static org.bsc.langgraph4j.action.AsyncNodeAction.node_async;
 @Data
 public class PromptEnhancerNode {
     
-    private static ChatMemoryMapper chatMemoryMapper;
-    private static ChatClient promptSummeryChatClient;
+    private static ChatSummaryService chatSummaryService;
+    private static ChatClient promptEnhancementChatClient;
     private static ChatClient keyPointExtractionChatClient;
+    private static SemanticCache<PromptEnhancement> promptEnhancementCache;
 
     // 静态方法设置依赖注入的服务
-    public static void setChatMemoryMapper(ChatMemoryMapper mapper) {
-        chatMemoryMapper = mapper;
+    public static void setChatSummaryService(ChatSummaryService service) {
+        chatSummaryService = service;
     }
 
-    public static void setPromptSummeryChatClient(ChatClient client) {
-        promptSummeryChatClient = client;
+    public static void setPromptEnhancementChatClient(ChatClient client) {
+        promptEnhancementChatClient = client;
     }
 
     public static void setKeyPointExtractionChatClient(ChatClient client) {
         keyPointExtractionChatClient = client;
     }
+
+    public static void setPromptEnhancementCache(SemanticCache<PromptEnhancement> cache) {
+        promptEnhancementCache = cache;
+    }
     
     public static AsyncNodeAction<MessagesState<String>> create() {
         return node_async(state -> {
@@ -64,27 +67,23 @@ public class PromptEnhancerNode {
                 
                 log.info("当前处理的 appId: {}, 原始提示词: {}", appId, originalPrompt);
                 
-                // 1. 查询 chatMemory 表获取对话记录
-                List<ChatMemoryEntity> chatMemories = getChatMemoriesByAppId(appId);
-                log.info("查询到 {} 条对话记录", chatMemories.size());
-                
-                // 2. 构建对话记录摘要
-                String chatSummary = buildChatSummary(chatMemories);
-                log.debug("对话记录摘要构建完成，长度: {}", chatSummary.length());
-                
-                // 3. 使用 Spring AI 的 promptSummeryChatClient 进行总结和增强
-                String enhancedPrompt = enhancePromptWithAI(chatSummary, originalPrompt);
-                
-                // 4. 验证增强结果
-                if (StrUtil.isBlank(enhancedPrompt)) {
-                    log.warn("AI 增强提示词失败，使用原始提示词");
-                    enhancedPrompt = originalPrompt != null ? originalPrompt : "默认提示词";
+                // 1. 一次结构化调用同时完成总结合并、提示词增强和关键词提取
+                PromptEnhancement enhancement = enhanceWithStructuredOutput(appId, originalPrompt);
+                String enhancedPrompt;
+                String keyPoint;
+                if (enhancement != null) {
+                    enhancedPrompt = enhancement.getEnhancedPrompt().trim();
+                    keyPoint = cleanKeyPoint(enhancement.getKeyPoint());
+                } else {
+                    // 降级：分别获取对话总结和提取关键词
+                    String chatSummary = getChatSummary(appId);
+                    log.debug("对话总结获取完成，长度: {}", chatSummary.length());
+                    enhancedPrompt = buildEnhancedPrompt(chatSummary, originalPrompt);
+                    // 生成关键词用于图片搜索
+                    keyPoint = extractKeyPointWithAI(enhancedPrompt);
                 }
                 
-                // 5. 生成关键词用于图片搜索
-                String keyPoint = extractKeyPointWithAI(enhancedPrompt);
-                
-                // 6. 更新 WorkflowContext
+                // 2. 更新 WorkflowContext
                 context.setCurrentStep("提示词增强完成");
                 context.setEnhancedPrompt(enhancedPrompt);
                 context.setKeyPoint(keyPoint);
@@ -109,204 +108,95 @@ public class PromptEnhancerNode {
     }
     
     /**
-     * 根据 appId 查询 chatMemory 表中的对话记录
+     * 结构化输出：一次大模型调用得到合并后的对话总结、增强提示词和关键词
+     * 有新对话待合并时不走语义缓存；没有新对话时按应用和总结水位线隔离缓存，总结推进后旧条目自然失效
+     * 结果解析失败或字段缺失时返回 null，由调用方走分步调用的降级流程
      */
-    private static List<ChatMemoryEntity> getChatMemoriesByAppId(Long appId) {
-        if (chatMemoryMapper == null) {
-            log.warn("ChatMemoryMapper 未注入，无法查询对话记录");
-            return List.of();
-        }
-        
-        if (appId == null || appId <= 0) {
-            log.warn("无效的 appId: {}，无法查询对话记录", appId);
-            return List.of();
+    private static PromptEnhancement enhanceWithStructuredOutput(Long appId, String originalPrompt) {
+        if (promptEnhancementChatClient == null || chatSummaryService == null) {
+            log.warn("promptEnhancementChatClient 未注入，使用分步调用");
+            return null;
         }
-        
         try {
-            log.debug("开始查询 appId: {} 的对话记录", appId);
-            
-            // 使用 appId 作为 conversationId 查询最近20条记录
-            String conversationId = String.valueOf(appId);
-            List<ChatMemoryEntity> chatMemories = chatMemoryMapper.getMessages(conversationId, 20);
-            
-            if (chatMemories == null) {
-                log.warn("查询结果为 null，appId: {}", appId);
-                return List.of();
+            ChatSummaryDraft draft = chatSummaryService.prepareDraft(appId);
+            SemanticCache.Lookup<PromptEnhancement> lookup = null;
+            if (promptEnhancementCache != null && !draft.hasNewDialogue()) {
+                lookup = promptEnhancementCache.lookup(appId + ":" + draft.getLastMessageId(),
+                        StrUtil.nullToEmpty(originalPrompt));
+                if (lookup.isHit()) {
+                    log.info("提示词增强命中语义缓存, appId: {}", appId);
+                    return lookup.getValue();
+                }
             }
-            
-            log.debug("成功查询到 {} 条对话记录，appId: {}", chatMemories.size(), appId);
-            return chatMemories;
-            
-        } catch (Exception e) {
-            log.error("查询对话记录时发生异常，appId: {}", appId, e);
-            return List.of();
-        }
-    }
-    
-    /**
-     * 构建对话记录摘要
-     */
-    private static String buildChatSummary(List<ChatMemoryEntity> chatMemories) {
-        if (CollUtil.isEmpty(chatMemories)) {
-            log.debug("对话记录为空");
-            return "暂无历史对话记录。";
-        }
-        
-        try {
-            StringBuilder summary = new StringBuilder();
-            summary.append("=== 历史对话记录 ===\n");
-            
-            // 过滤掉无效记录并按时间排序
-            List<ChatMemoryEntity> validMemories = chatMemories.stream()
-                    .filter(memory -> memory != null && StrUtil.isNotBlank(memory.getContent()))
-                    .sorted((m1, m2) -> {
-                        if (m1.getCreatedAt() == null && m2.getCreatedAt() == null) return 0;
-                        if (m1.getCreatedAt() == null) return 1;
-                        if (m2.getCreatedAt() == null) return -1;
-                        return m1.getCreatedAt().compareTo(m2.getCreatedAt());
-                    })
-                    .collect(Collectors.toList());
-            
-            if (validMemories.isEmpty()) {
-                log.debug("过滤后的对话记录为空");
-                return "暂无有效的历史对话记录。";
+
+            StringBuilder input = new StringBuilder();
+            input.append("已有的对话记忆总结：\n")
+                    .append(StrUtil.isBlank(draft.getSummary()) ? "无" : draft.getSummary())
+                    .append("\n\n新增的对话记录：\n")
+                    .append(draft.hasNewDialogue() ? draft.getNewDialogue() : "无")
+                    .append("\n\n用户当前输入：\n")
+                    .append(StrUtil.blankToDefault(originalPrompt, "无"));
+
+            PromptEnhancement enhancement = promptEnhancementChatClient.prompt()
+                    .user(input.toString())
+                    .call()
+                    .entity(PromptEnhancement.class);
+            if (enhancement == null || StrUtil.isBlank(enhancement.getEnhancedPrompt())
+                    || StrUtil.isBlank(enhancement.getKeyPoint())) {
+                log.warn("结构化输出缺少必要字段，使用分步调用");
+                return null;
             }
-            
-            // 构建对话记录摘要
-            for (ChatMemoryEntity memory : validMemories) {
-                String messageType = determineMessageType(memory.getMessageType());
-                String content = truncateMessage(memory.getContent(), 500); // 限制单条消息长度
-                summary.append(String.format("[%s]: %s\n", messageType, content));
+            if (draft.hasNewDialogue() && StrUtil.isNotBlank(enhancement.getSummary())) {
+                chatSummaryService.saveMergedSummary(draft, enhancement.getSummary());
             }
-            
-            summary.append("=== 对话记录结束 ===\n");
-            
-            String result = summary.toString();
-            log.debug("对话记录摘要构建完成，包含 {} 条记录，总长度: {}", 
-                     validMemories.size(), result.length());
-            
-            return result;
-            
+            if (lookup != null) {
+                promptEnhancementCache.put(lookup, enhancement);
+            }
+            return enhancement;
         } catch (Exception e) {
-            log.error("构建对话记录摘要时发生异常", e);
-            return "构建对话记录摘要失败。";
+            log.warn("结构化输出调用或解析失败，使用分步调用, appId: {}", appId, e);
+            return null;
         }
     }
     
     /**
-     * 确定消息类型的显示名称
+     * 获取应用的滚动对话总结
      */
-    private static String determineMessageType(String messageType) {
-        if (StrUtil.isBlank(messageType)) {
-            return "未知";
+    private static String getChatSummary(Long appId) {
+        if (chatSummaryService == null) {
+            log.warn("ChatSummaryService 未注入，跳过对话总结");
+            return "";
         }
-        
-        switch (messageType.toLowerCase()) {
-            case "usermessage":
-                return "用户";
-            case "assistantmessage":
-                return "AI";
-            default:
-                return "系统";
-        }
-    }
-    
-    /**
-     * 截断过长的消息内容
-     */
-    private static String truncateMessage(String message, int maxLength) {
-        if (StrUtil.isBlank(message)) {
-            return "[空消息]";
-        }
-        
-        if (message.length() <= maxLength) {
-            return message.trim();
-        }
-        
-        return message.substring(0, maxLength).trim() + "...";
-    }
-    
-    /**
-     * 使用 Spring AI 的 promptSummeryChatClient 增强提示词
-     */
-    private static String enhancePromptWithAI(String chatSummary, String originalPrompt) {
         try {
-            // 验证 promptSummeryChatClient 是否可用
-            if (promptSummeryChatClient == null) {
-                log.warn("promptSummeryChatClient 未注入，跳过 AI 总结");
-                return buildFallbackPrompt(chatSummary, originalPrompt);
-            }
-            
-            // 构建用于 AI 总结的输入内容
-            StringBuilder inputContent = new StringBuilder();
-            inputContent.append("请根据以下历史对话记录，总结用户的需求和设计方向：\n\n");
-            inputContent.append(chatSummary);
-            
-            if (StrUtil.isNotBlank(originalPrompt)) {
-                inputContent.append("\n\n当前用户输入：").append(originalPrompt);
-            }
-            
-            log.debug("开始使用 AI 总结对话记录，输入长度: {}", inputContent.length());
-            
-            // 使用 Spring AI 进行总结
-            String aiSummary = promptSummeryChatClient.prompt()
-                    .user(inputContent.toString())
-                    .call()
-                    .content();
-            
-            // 验证 AI 总结结果
-            if (StrUtil.isBlank(aiSummary)) {
-                log.warn("AI 总结结果为空，使用降级方案");
-                return buildFallbackPrompt(chatSummary, originalPrompt);
-            }
-            
-            // 构建最终的增强提示词
-            StringBuilder enhancedPrompt = new StringBuilder();
-            enhancedPrompt.append("=== 对话记忆总结 ===\n");
-            enhancedPrompt.append(aiSummary.trim()).append("\n\n");
-            
-            // 添加用户当前输入
-            if (StrUtil.isNotBlank(originalPrompt)) {
-                enhancedPrompt.append("=== 用户当前输入 ===\n");
-                enhancedPrompt.append(originalPrompt.trim());
-            }
-            
-            String result = enhancedPrompt.toString();
-            log.debug("AI 增强提示词构建成功，总长度: {}", result.length());
-            
-            return result;
-            
+            return StrUtil.nullToEmpty(chatSummaryService.getRollingSummary(appId));
         } catch (Exception e) {
-            log.error("使用 AI 增强提示词时发生异常", e);
-            // 降级处理：使用简单的拼接方式
-            return buildFallbackPrompt(chatSummary, originalPrompt);
+            log.error("获取对话总结时发生异常，appId: {}", appId, e);
+            return "";
         }
     }
     
     /**
-     * 降级方案：不使用 AI 总结，直接拼接历史记录和当前输入
+     * 构建增强提示词：对话记忆总结 + 用户当前输入
      */
-    private static String buildFallbackPrompt(String chatSummary, String originalPrompt) {
-        StringBuilder fallbackPrompt = new StringBuilder();
-        
-        // 添加历史对话记录（如果有的话）
-        if (StrUtil.isNotBlank(chatSummary) && !chatSummary.equals("暂无历史对话记录。")) {
-            fallbackPrompt.append("=== 历史对话记录 ===\n");
-            fallbackPrompt.append(chatSummary.trim()).append("\n\n");
+    private static String buildEnhancedPrompt(String chatSummary, String originalPrompt) {
+        StringBuilder enhancedPrompt = new StringBuilder();
+        if (StrUtil.isNotBlank(chatSummary)) {
+            enhancedPrompt.append("=== 对话记忆总结 ===\n");
+            enhancedPrompt.append(chatSummary.trim()).append("\n\n");
         }
         
-        // 添加当前用户输入
+        // 添加用户当前输入
         if (StrUtil.isNotBlank(originalPrompt)) {
-            fallbackPrompt.append("=== 用户当前输入 ===\n");
-            fallbackPrompt.append(originalPrompt.trim());
+            enhancedPrompt.append("=== 用户当前输入 ===\n");
+            enhancedPrompt.append(originalPrompt.trim());
         }
         
-        String result = fallbackPrompt.toString();
+        String result = enhancedPrompt.toString();
         if (StrUtil.isBlank(result)) {
-            result = "请提供您的需求，我将为您提供帮助。";
+            log.warn("对话总结和用户输入均为空，使用默认提示词");
+            result = "默认提示词";
         }
-        
-        log.info("使用降级方案构建提示词，长度: {}", result.length());
+        log.debug("增强提示词构建完成，总长度: {}", result.length());
         return result;
     }
     
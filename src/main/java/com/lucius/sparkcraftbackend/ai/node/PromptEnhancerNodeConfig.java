@@ -1,10 +1,13 @@
 package com.lucius.sparkcraftbackend.ai.node;
 
-import com.lucius.sparkcraftbackend.mapper.ChatMemoryMapper;
+import com.lucius.sparkcraftbackend.ai.cache.SemanticCache;
+import com.lucius.sparkcraftbackend.service.ChatSummaryService;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
@@ -17,24 +20,28 @@ import org.springframework.stereotype.Component;
 public class PromptEnhancerNodeConfig {
 
     @Resource
-    private ChatMemoryMapper chatMemoryMapper;
+    private ChatSummaryService chatSummaryService;
 
     @Resource
-    @Qualifier("promptSummeryChatClient")
-    private ChatClient promptSummeryChatClient;
+    @Qualifier("promptEnhancementChatClient")
+    private ChatClient promptEnhancementChatClient;
 
     @Resource
     @Qualifier("keyPointExtractionChatClient")
     private ChatClient keyPointExtractionChatClient;
 
+    @Autowired
+    private ObjectProvider<SemanticCache<PromptEnhancement>> promptEnhancementCacheProvider;
+
     /**
      * 在 Bean 初始化后注入依赖到静态方法
      */
     @PostConstruct
     public void init() {
         log.info("初始化 PromptEnhancerNode 依赖注入");
-        PromptEnhancerNode.setChatMemoryMapper(chatMemoryMapper);
-        PromptEnhancerNode.setPromptSummeryChatClient(promptSummeryChatClient);
+        PromptEnhancerNode.setChatSummaryService(chatSummaryService);
+        PromptEnhancerNode.setPromptEnhancementChatClient(promptEnhancementChatClient);
+        PromptEnhancerNode.setPromptEnhancementCache(promptEnhancementCacheProvider.getIfAvailable());
         PromptEnhancerNode.setKeyPointExtractionChatClient(keyPointExtractionChatClient);
         log.info("PromptEnhancerNode 依赖注入完成");
     }
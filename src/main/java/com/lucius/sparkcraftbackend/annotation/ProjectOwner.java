@@ -0,0 +1,24 @@
+package com.lucius.sparkcraftbackend.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 校验当前登录用户是否为项目创建人
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ProjectOwner {
+
+    /**
+     * 项目ID的 SpEL 表达式，如 "#imageProjectId"、"#workflowExecuteRequest?.imageProjectId"
+     */
+    String value();
+
+    /**
+     * 是否允许管理员访问
+     */
+    boolean allowAdmin() default false;
+}
@@ -0,0 +1,92 @@
+package com.lucius.sparkcraftbackend.aop;
+
+import cn.hutool.core.convert.Convert;
+import com.lucius.sparkcraftbackend.annotation.ProjectOwner;
+import com.lucius.sparkcraftbackend.cache.ProjectOwnerCache;
+import com.lucius.sparkcraftbackend.constant.UserConstant;
+import com.lucius.sparkcraftbackend.entity.User;
+import com.lucius.sparkcraftbackend.exception.BusinessException;
+import com.lucius.sparkcraftbackend.exception.ErrorCode;
+import com.lucius.sparkcraftbackend.exception.ThrowUtils;
+import com.lucius.sparkcraftbackend.service.ImageProjectService;
+import com.lucius.sparkcraftbackend.service.UserService;
+import jakarta.annotation.Resource;
+import jakarta.servlet.http.HttpServletRequest;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 项目归属校验，项目创建人通过 ProjectOwnerCache 获取
+ */
+@Aspect
+@Component
+public class ProjectOwnerInterceptor {
+
+    private static final ExpressionParser PARSER = new SpelExpressionParser();
+
+    private static final ParameterNameDiscoverer PARAMETER_NAME_DISCOVERER = new DefaultParameterNameDiscoverer();
+
+    /**
+     * 解析后的表达式，按表达式文本缓存
+     */
+    private final Map<String, Expression> expressions = new ConcurrentHashMap<>();
+
+    @Resource
+    private UserService userService;
+
+    @Resource
+    private ImageProjectService imageProjectService;
+
+    @Resource
+    private ProjectOwnerCache projectOwnerCache;
+
+    /**
+     * 执行拦截
+     *
+     * @param joinPoint    切入点
+     * @param projectOwner 项目归属校验注解
+     */
+    @Around("@annotation(projectOwner)")
+    public Object doInterceptor(ProceedingJoinPoint joinPoint, ProjectOwner projectOwner) throws Throwable {
+        Long projectId = resolveProjectId(joinPoint, projectOwner.value());
+        ThrowUtils.throwIf(projectId == null || projectId <= 0, ErrorCode.PARAMS_ERROR, "项目ID无效");
+        RequestAttributes requestAttributes = RequestContextHolder.currentRequestAttributes();
+        HttpServletRequest request = ((ServletRequestAttributes) requestAttributes).getRequest();
+        User loginUser = userService.getLoginUser(request);
+        Long ownerId = projectOwnerCache.getOwnerId(projectId, imageProjectService::getById);
+        ThrowUtils.throwIf(ownerId == null, ErrorCode.NOT_FOUND_ERROR, "项目不存在");
+        boolean admin = projectOwner.allowAdmin() && UserConstant.ADMIN_ROLE.equals(loginUser.getUserRole());
+        ThrowUtils.throwIf(!ownerId.equals(loginUser.getId()) && !admin, ErrorCode.NO_AUTH_ERROR, "无权限访问该项目");
+        return joinPoint.proceed();
+    }
+
+    private Long resolveProjectId(ProceedingJoinPoint joinPoint, String expressionString) {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(
+                null, signature.getMethod(), joinPoint.getArgs(), PARAMETER_NAME_DISCOVERER);
+        Object value = expressions.computeIfAbsent(expressionString, PARSER::parseExpression).getValue(context);
+        if (value == null || value instanceof Long) {
+            return (Long) value;
+        }
+        Long projectId = Convert.toLong(value, null);
+        if (projectId == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "项目ID格式无效");
+        }
+        return projectId;
+    }
+}
@@ -0,0 +1,116 @@
+package com.lucius.sparkcraftbackend.assembler;
+
+import cn.hutool.core.collection.CollUtil;
+import com.lucius.sparkcraftbackend.entity.ImageProject;
+import com.lucius.sparkcraftbackend.entity.User;
+import com.lucius.sparkcraftbackend.mapper.UserMapper;
+import com.lucius.sparkcraftbackend.utils.BeanMapper;
+import com.lucius.sparkcraftbackend.vo.ImageProjectVO;
+import com.lucius.sparkcraftbackend.vo.LoginUserVO;
+import com.lucius.sparkcraftbackend.vo.UserVO;
+import com.mybatisflex.core.query.QueryWrapper;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * VO 组装器
+ * 属性复制使用预编译的 BeanMapper；一页工程的创建人只用一次 in 查询批量加载，且只查询 UserVO 需要的列
+ */
+@Component
+public class VOAssembler {
+
+    private static final BeanMapper<User, UserVO> USER_VO_MAPPER = BeanMapper.of(User.class, UserVO.class);
+
+    private static final BeanMapper<User, LoginUserVO> LOGIN_USER_VO_MAPPER = BeanMapper.of(User.class, LoginUserVO.class);
+
+    private static final BeanMapper<ImageProject, ImageProjectVO> IMAGE_PROJECT_VO_MAPPER =
+            BeanMapper.of(ImageProject.class, ImageProjectVO.class);
+
+    /**
+     * UserVO 对应的列，不查询密码等字段
+     */
+    private static final String[] USER_VO_COLUMNS = {
+            "id", "userAccount", "userName", "userAvatar", "userProfile", "userRole", "createTime"
+    };
+
+    private final UserMapper userMapper;
+
+    public VOAssembler(UserMapper userMapper) {
+        this.userMapper = userMapper;
+    }
+
+    public UserVO toUserVO(User user) {
+        return USER_VO_MAPPER.map(user);
+    }
+
+    public LoginUserVO toLoginUserVO(User user) {
+        return LOGIN_USER_VO_MAPPER.map(user);
+    }
+
+    public List<UserVO> toUserVOList(List<User> userList) {
+        if (CollUtil.isEmpty(userList)) {
+            return new ArrayList<>();
+        }
+        List<UserVO> userVOList = new ArrayList<>(userList.size());
+        for (User user : userList) {
+            userVOList.add(USER_VO_MAPPER.map(user));
+        }
+        return userVOList;
+    }
+
+    public ImageProjectVO toImageProjectVO(ImageProject imageProject) {
+        if (imageProject == null) {
+            return null;
+        }
+        return toImageProjectVOList(Collections.singletonList(imageProject)).get(0);
+    }
+
+    /**
+     * 转换一页工程，创建人信息批量查询一次
+     */
+    public List<ImageProjectVO> toImageProjectVOList(List<ImageProject> imageProjectList) {
+        if (CollUtil.isEmpty(imageProjectList)) {
+            return new ArrayList<>();
+        }
+        Set<Long> userIds = new LinkedHashSet<>();
+        for (ImageProject imageProject : imageProjectList) {
+            if (imageProject.getUserId() != null) {
+                userIds.add(imageProject.getUserId());
+            }
+        }
+        Map<Long, UserVO> userVOMap = loadUserVOMap(userIds);
+        List<ImageProjectVO> imageProjectVOList = new ArrayList<>(imageProjectList.size());
+        for (ImageProject imageProject : imageProjectList) {
+            ImageProjectVO imageProjectVO = IMAGE_PROJECT_VO_MAPPER.map(imageProject);
+            imageProjectVO.setUser(userVOMap.get(imageProject.getUserId()));
+            imageProjectVOList.add(imageProjectVO);
+        }
+        return imageProjectVOList;
+    }
+
+    /**
+     * 批量加载用户并转换为 UserVO
+     */
+    public Map<Long, UserVO> loadUserVOMap(Collection<Long> userIds) {
+        if (CollUtil.isEmpty(userIds)) {
+            return new HashMap<>();
+        }
+        QueryWrapper queryWrapper = QueryWrapper.create()
+                .select(USER_VO_COLUMNS)
+                .in(User::getId, userIds);
+        List<User> users = userMapper.selectListByQuery(queryWrapper);
+        Map<Long, UserVO> userVOMap = new HashMap<>(users.size() * 2);
+        for (User user : users) {
+            userVOMap.put(user.getId(), USER_VO_MAPPER.map(user));
+        }
+        return userVOMap;
+    }
+}
@@ -0,0 +1,30 @@
+package com.lucius.sparkcraftbackend.auth;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 登录令牌中携带的信息
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginToken {
+
+    /**
+     * 令牌id，注销时按 id 吊销
+     */
+    private String tokenId;
+
+    private Long userId;
+
+    private String userRole;
+
+    /**
+     * 过期时间（秒级时间戳）
+     */
+    private long expireAt;
+}
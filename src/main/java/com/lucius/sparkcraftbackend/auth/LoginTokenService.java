@@ -0,0 +1,207 @@
+package com.lucius.sparkcraftbackend.auth;
+
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.core.util.StrUtil;
+import com.lucius.sparkcraftbackend.entity.User;
+import com.lucius.sparkcraftbackend.properties.AuthProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 无状态登录令牌
+ * 令牌格式为 base64url(令牌id:用户id:角色:过期时间).base64url(HMAC-SHA256 签名)，
+ * 校验只做一次本地 HMAC 计算和注销列表查询，不访问 Session 存储
+ */
+@Slf4j
+@Component
+public class LoginTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private static final PathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final AuthProperties authProperties;
+
+    private final LongSupplier epochSeconds;
+
+    private final TokenRevocationList revocationList;
+
+    /**
+     * Mac 实例不是线程安全的，每个线程持有一份
+     */
+    private final ThreadLocal<Mac> macs;
+
+    private ScheduledExecutorService scheduler;
+
+    public LoginTokenService(AuthProperties authProperties, ObjectProvider<StringRedisTemplate> redisTemplateProvider) {
+        this(authProperties, authProperties.isTokenMode() ? redisTemplateProvider.getIfAvailable() : null,
+                () -> System.currentTimeMillis() / 1000);
+    }
+
+    LoginTokenService(AuthProperties authProperties, StringRedisTemplate redisTemplate, LongSupplier epochSeconds) {
+        this.authProperties = authProperties;
+        this.epochSeconds = epochSeconds;
+        AuthProperties.Token config = authProperties.getToken();
+        this.revocationList = new TokenRevocationList(redisTemplate, config.getRevocationKey(), epochSeconds);
+        if (!authProperties.isTokenMode()) {
+            this.macs = null;
+            return;
+        }
+        if (StrUtil.length(config.getSecret()) < 32) {
+            throw new IllegalStateException("token 登录模式需要配置至少 32 个字符的 spark.auth.token.secret");
+        }
+        SecretKeySpec key = new SecretKeySpec(config.getSecret().getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("初始化令牌签名失败", e);
+            }
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "token-revocation-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = authProperties.getToken().getRevocationSyncInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::syncQuietly, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 是否启用 token 登录模式
+     */
+    public boolean isEnabled() {
+        return authProperties.isTokenMode();
+    }
+
+    /**
+     * 签发令牌
+     */
+    public String issue(User user) {
+        long expireAt = epochSeconds.getAsLong() + authProperties.getToken().getTtl().toSeconds();
+        String payload = IdUtil.fastSimpleUUID() + ":" + user.getId() + ":" + user.getUserRole() + ":" + expireAt;
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(sign(payloadBytes));
+    }
+
+    /**
+     * 校验令牌
+     *
+     * @return 令牌信息，签名错误、格式错误、已过期或已注销时返回 null
+     */
+    public LoginToken parse(String token) {
+        if (StrUtil.isBlank(token)) {
+            return null;
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        try {
+            byte[] payloadBytes = DECODER.decode(token.substring(0, dot));
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(sign(payloadBytes), signature)) {
+                return null;
+            }
+            String[] parts = new String(payloadBytes, StandardCharsets.UTF_8).split(":");
+            if (parts.length != 4) {
+                return null;
+            }
+            LoginToken loginToken = LoginToken.builder()
+                    .tokenId(parts[0])
+                    .userId(Long.parseLong(parts[1]))
+                    .userRole(parts[2])
+                    .expireAt(Long.parseLong(parts[3]))
+                    .build();
+            if (loginToken.getExpireAt() <= epochSeconds.getAsLong() || revocationList.isRevoked(loginToken.getTokenId())) {
+                return null;
+            }
+            return loginToken;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 从请求头中读取并校验令牌，请求头缺失时，配置的 GET 流式接口再从查询参数读取
+     */
+    public LoginToken resolve(HttpServletRequest request) {
+        AuthProperties.Token config = authProperties.getToken();
+        String header = request.getHeader(config.getHeader());
+        if (header != null) {
+            return header.startsWith(BEARER_PREFIX) ? parse(header.substring(BEARER_PREFIX.length()).trim()) : null;
+        }
+        if (!"GET".equals(request.getMethod()) || !matchesQueryParamPath(request.getServletPath())) {
+            return null;
+        }
+        return parse(request.getParameter(config.getQueryParam()));
+    }
+
+    /**
+     * 注销令牌，令牌过期前都会被拒绝
+     */
+    public void revoke(LoginToken loginToken) {
+        revocationList.revoke(loginToken.getTokenId(), loginToken.getExpireAt());
+    }
+
+    private boolean matchesQueryParamPath(String path) {
+        for (String pattern : authProperties.getToken().getQueryParamPaths()) {
+            if (PATH_MATCHER.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private byte[] sign(byte[] payload) {
+        return macs.get().doFinal(payload);
+    }
+
+    private void syncQuietly() {
+        try {
+            revocationList.sync();
+        } catch (Exception e) {
+            log.warn("同步令牌注销列表失败", e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.lucius.sparkcraftbackend.auth;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 已注销令牌列表
+ * 请求校验只查本地集合；注销时同时写入 Redis 有序集合（分数为令牌过期时间），
+ * 各实例定期从 Redis 拉取，其他实例注销的令牌最迟一个同步周期后失效。过期的令牌会被清理
+ */
+@Slf4j
+public class TokenRevocationList {
+
+    /**
+     * 令牌id -> 过期时间（秒）
+     */
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final String redisKey;
+
+    private final LongSupplier epochSeconds;
+
+    /**
+     * @param redisTemplate 为 null 时只在本实例内生效
+     */
+    public TokenRevocationList(StringRedisTemplate redisTemplate, String redisKey, LongSupplier epochSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.redisKey = redisKey;
+        this.epochSeconds = epochSeconds;
+    }
+
+    public void revoke(String tokenId, long expireAt) {
+        revoked.put(tokenId, expireAt);
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.opsForZSet().add(redisKey, tokenId, expireAt);
+        } catch (Exception e) {
+            log.warn("写入 Redis 注销列表失败，仅本实例生效，tokenId: {}", tokenId, e);
+        }
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return revoked.containsKey(tokenId);
+    }
+
+    /**
+     * 清理已过期的令牌，并从 Redis 拉取其他实例注销的令牌
+     */
+    public void sync() {
+        long now = epochSeconds.getAsLong();
+        revoked.values().removeIf(expireAt -> expireAt <= now);
+        if (redisTemplate == null) {
+            return;
+        }
+        ZSetOperations<String, String> zSet = redisTemplate.opsForZSet();
+        zSet.removeRangeByScore(redisKey, Double.NEGATIVE_INFINITY, now);
+        Set<ZSetOperations.TypedTuple<String>> tuples = zSet.rangeByScoreWithScores(redisKey, now, Double.POSITIVE_INFINITY);
+        if (tuples == null) {
+            return;
+        }
+        for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+            if (tuple.getValue() != null && tuple.getScore() != null) {
+                revoked.put(tuple.getValue(), tuple.getScore().longValue());
+            }
+        }
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+}
@@ -0,0 +1,242 @@
+package com.lucius.sparkcraftbackend.cache;
+
+import cn.hutool.core.util.StrUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lucius.sparkcraftbackend.common.ResultUtils;
+import com.lucius.sparkcraftbackend.constant.ImageProjectConstant;
+import com.lucius.sparkcraftbackend.dto.ImageProjectQueryRequest;
+import com.lucius.sparkcraftbackend.entity.ImageProject;
+import com.lucius.sparkcraftbackend.exception.BusinessException;
+import com.lucius.sparkcraftbackend.exception.ErrorCode;
+import com.lucius.sparkcraftbackend.properties.FeaturedFeedProperties;
+import com.lucius.sparkcraftbackend.service.ImageProjectService;
+import com.lucius.sparkcraftbackend.vo.ImageProjectVO;
+import com.mybatisflex.core.paginate.Page;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 精选工程列表缓存
+ * 所有访客看到的精选列表相同，前几页的响应（含创建人信息）组装后直接序列化为字节保存，
+ * 请求命中时不查数据库也不再序列化；响应带 ETag，客户端缓存未过期时返回 304。
+ * 精选工程被修改、删除或有工程设为精选时清空缓存，并定时重建已缓存的页
+ */
+@Slf4j
+@Component
+public class FeaturedFeedCache {
+
+    private final ObjectProvider<ImageProjectService> imageProjectServiceProvider;
+
+    private final ObjectMapper objectMapper;
+
+    private final FeaturedFeedProperties properties;
+
+    /**
+     * "页码:每页条数" -> 已序列化的页
+     */
+    private final Map<String, FeedPage> pages = new ConcurrentHashMap<>();
+
+    /**
+     * 已缓存页中的工程id，用于判断工程变更是否影响缓存
+     */
+    private volatile Set<Long> cachedProjectIds = Set.of();
+
+    /**
+     * 每次清空缓存时递增，构建期间发生过清空的结果不写入缓存
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private ScheduledExecutorService scheduler;
+
+    public FeaturedFeedCache(ObjectProvider<ImageProjectService> imageProjectServiceProvider, ObjectMapper objectMapper,
+                             FeaturedFeedProperties properties) {
+        this.imageProjectServiceProvider = imageProjectServiceProvider;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "featured-feed-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getRefreshInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 获取一页精选工程，不带筛选条件的前几页走缓存
+     */
+    public FeedPage getPage(ImageProjectQueryRequest request) {
+        request.setPriority(ImageProjectConstant.GOOD_APP_PRIORITY);
+        if (!isCacheable(request)) {
+            return build(request);
+        }
+        String key = request.getPageNum() + ":" + request.getPageSize();
+        FeedPage cached = pages.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long current = generation.get();
+        FeedPage page = build(request);
+        putIfNotInvalidated(key, page, current);
+        return page;
+    }
+
+    /**
+     * 工程新增、修改或删除后调用，影响精选列表时清空缓存
+     *
+     * @param projectId 工程id
+     * @param priority  写入的优先级，未修改优先级时为 null
+     */
+    public void onProjectChanged(Long projectId, Integer priority) {
+        if (ImageProjectConstant.GOOD_APP_PRIORITY.equals(priority) || cachedProjectIds.contains(projectId)) {
+            invalidate();
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidate() {
+        synchronized (pages) {
+            generation.incrementAndGet();
+            pages.clear();
+            cachedProjectIds = Set.of();
+        }
+    }
+
+    /**
+     * 重建已缓存的页
+     */
+    void refresh() {
+        for (String key : List.copyOf(pages.keySet())) {
+            String[] parts = key.split(":");
+            ImageProjectQueryRequest request = new ImageProjectQueryRequest();
+            request.setPageNum(Integer.parseInt(parts[0]));
+            request.setPageSize(Integer.parseInt(parts[1]));
+            request.setPriority(ImageProjectConstant.GOOD_APP_PRIORITY);
+            long current = generation.get();
+            putIfNotInvalidated(key, build(request), current);
+        }
+    }
+
+    private boolean isCacheable(ImageProjectQueryRequest request) {
+        return properties.isEnabled()
+                && request.getId() == null
+                && request.getUserId() == null
+                && StrUtil.isAllBlank(request.getProjectName(), request.getProjectDesc(), request.getSortField())
+                && request.getPageNum() >= 1
+                && request.getPageNum() <= properties.getMaxCachedPages();
+    }
+
+    private void putIfNotInvalidated(String key, FeedPage page, long expectedGeneration) {
+        synchronized (pages) {
+            if (generation.get() != expectedGeneration) {
+                return;
+            }
+            pages.put(key, page);
+            Set<Long> ids = new HashSet<>(cachedProjectIds);
+            ids.addAll(page.getProjectIds());
+            cachedProjectIds = Set.copyOf(ids);
+        }
+    }
+
+    private FeedPage build(ImageProjectQueryRequest request) {
+        ImageProjectService imageProjectService = imageProjectServiceProvider.getObject();
+        long pageNum = request.getPageNum();
+        long pageSize = request.getPageSize();
+        Page<ImageProject> projectPage = imageProjectService.pageImageProjects(request);
+        Page<ImageProjectVO> voPage = new Page<>(pageNum, pageSize, projectPage.getTotalRow());
+        voPage.setRecords(imageProjectService.getImageVOList(projectPage.getRecords()));
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(ResultUtils.success(voPage));
+        } catch (JsonProcessingException e) {
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "精选列表序列化失败");
+        }
+        Set<Long> projectIds = new HashSet<>();
+        for (ImageProject imageProject : projectPage.getRecords()) {
+            projectIds.add(imageProject.getId());
+        }
+        return new FeedPage(body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"", projectIds);
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("重建精选列表缓存失败", e);
+        }
+    }
+
+    /**
+     * 已序列化的一页精选工程
+     */
+    @Getter
+    public static class FeedPage {
+
+        /**
+         * 完整的 JSON 响应体
+         */
+        private final byte[] body;
+
+        /**
+         * 强 ETag，响应体的 MD5
+         */
+        private final String etag;
+
+        private final Set<Long> projectIds;
+
+        FeedPage(byte[] body, String etag, Set<Long> projectIds) {
+            this.body = body;
+            this.etag = etag;
+            this.projectIds = projectIds;
+        }
+
+        /**
+         * If-None-Match 请求头是否命中当前 ETag
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (StrUtil.isBlank(ifNoneMatch)) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = StrUtil.removePrefix(candidate.trim(), "W/");
+                if ("*".equals(tag) || Objects.equals(tag, etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
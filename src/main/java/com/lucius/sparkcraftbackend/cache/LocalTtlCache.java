@@ -0,0 +1,113 @@
+package com.lucius.sparkcraftbackend.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * 本地 LRU 缓存，条目写入后 ttlMillis 毫秒过期
+ * 加载期间如果发生过 invalidate，加载结果不写入缓存，避免旧数据覆盖刚清除的条目
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ */
+public class LocalTtlCache<K, V> {
+
+    private final long ttlMillis;
+
+    private final LongSupplier clock;
+
+    /**
+     * 按访问顺序淘汰，访问需持有自身锁
+     */
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    /**
+     * 每次清除条目时递增
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public LocalTtlCache(int maxEntries, long ttlMillis, LongSupplier clock) {
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * 读取缓存，未命中或已过期时返回 null
+     */
+    public V getIfPresent(K key) {
+        long now = clock.getAsLong();
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expireAt > now) {
+                return entry.value;
+            }
+            entries.remove(key);
+            return null;
+        }
+    }
+
+    /**
+     * 读取缓存，未命中时调用 loader 加载；loader 返回 null 时不缓存
+     */
+    public V get(K key, Function<K, V> loader) {
+        V value = getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        long generation = invalidations.get();
+        value = loader.apply(key);
+        if (value != null) {
+            putIfNotInvalidated(key, value, generation);
+        }
+        return value;
+    }
+
+    /**
+     * 当前清除次数，配合 putIfNotInvalidated 使用
+     */
+    public long generation() {
+        return invalidations.get();
+    }
+
+    /**
+     * 自 generation 以来没有发生过清除时才写入
+     */
+    public void putIfNotInvalidated(K key, V value, long generation) {
+        synchronized (entries) {
+            if (invalidations.get() == generation) {
+                entries.put(key, new Entry<>(value, clock.getAsLong() + ttlMillis));
+            }
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            entries.remove(key);
+        }
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+
+        private final long expireAt;
+
+        private Entry(V value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+    }
+}
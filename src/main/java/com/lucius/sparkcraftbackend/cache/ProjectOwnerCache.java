@@ -0,0 +1,50 @@
+package com.lucius.sparkcraftbackend.cache;
+
+import com.lucius.sparkcraftbackend.entity.ImageProject;
+import com.lucius.sparkcraftbackend.properties.ProjectOwnerCacheProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * 项目归属缓存（项目ID -> 创建人ID）
+ * 同一项目的 SSE 连接和工作流执行请求往往前后相隔几毫秒，归属校验只需查一次数据库；
+ * 项目删除后调用 evict 清除
+ */
+@Component
+public class ProjectOwnerCache {
+
+    private final LocalTtlCache<Long, Long> cache;
+
+    @Autowired
+    public ProjectOwnerCache(ProjectOwnerCacheProperties properties) {
+        this(properties, System::currentTimeMillis);
+    }
+
+    ProjectOwnerCache(ProjectOwnerCacheProperties properties, LongSupplier clock) {
+        this.cache = new LocalTtlCache<>(properties.getMaxEntries(), properties.getTtl().toMillis(), clock);
+    }
+
+    /**
+     * 获取项目创建人ID，缓存未命中时通过 loader 从数据库加载
+     *
+     * @return 创建人ID，项目不存在时返回 null
+     */
+    public Long getOwnerId(Long projectId, Function<Long, ImageProject> loader) {
+        return cache.get(projectId, id -> {
+            ImageProject imageProject = loader.apply(id);
+            return imageProject == null ? null : imageProject.getUserId();
+        });
+    }
+
+    /**
+     * 清除项目归属缓存
+     */
+    public void evict(Long projectId) {
+        if (projectId != null) {
+            cache.invalidate(projectId);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.lucius.sparkcraftbackend.cache;
+
+import cn.hutool.core.util.StrUtil;
+import com.lucius.sparkcraftbackend.entity.User;
+import com.lucius.sparkcraftbackend.properties.UserCacheProperties;
+import com.lucius.sparkcraftbackend.utils.BeanMapper;
+import com.lucius.sparkcraftbackend.utils.JsonUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * 登录用户缓存
+ * 本地 LRU 缓存（短过期时间）在前，可选的 Redis 缓存在后，都未命中时才查询数据库；
+ * 用户信息修改或删除后调用 evict 清除两级缓存。缓存中不保存密码
+ */
+@Slf4j
+@Component
+public class UserCache {
+
+    private static final BeanMapper<User, User> USER_COPIER = BeanMapper.of(User.class, User.class);
+
+    private final UserCacheProperties properties;
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final LocalTtlCache<Long, User> localCache;
+
+    public UserCache(UserCacheProperties properties, ObjectProvider<StringRedisTemplate> redisTemplateProvider) {
+        this(properties, properties.isRedisEnabled() ? redisTemplateProvider.getObject() : null, System::currentTimeMillis);
+    }
+
+    UserCache(UserCacheProperties properties, StringRedisTemplate redisTemplate, LongSupplier clock) {
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        this.localCache = new LocalTtlCache<>(properties.getMaxEntries(), properties.getLocalTtl().toMillis(), clock);
+    }
+
+    /**
+     * 获取用户，缓存未命中时通过 loader 从数据库加载
+     *
+     * @return 用户副本，用户不存在时返回 null
+     */
+    public User get(Long userId, Function<Long, User> loader) {
+        if (!properties.isEnabled()) {
+            return loader.apply(userId);
+        }
+        User cached = localCache.getIfPresent(userId);
+        if (cached != null) {
+            return copy(cached);
+        }
+        // 加载期间发生过清除的结果不写入缓存，避免旧数据覆盖清除
+        long generation = localCache.generation();
+        User user = getFromRedis(userId);
+        if (user == null) {
+            user = loader.apply(userId);
+            if (user == null) {
+                return null;
+            }
+            user = copy(user);
+            user.setUserPassword(null);
+            if (localCache.generation() == generation) {
+                putToRedis(user);
+            }
+        }
+        localCache.putIfNotInvalidated(userId, user, generation);
+        return copy(user);
+    }
+
+    /**
+     * 清除用户缓存
+     */
+    public void evict(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        localCache.invalidate(userId);
+        if (redisTemplate != null) {
+            try {
+                redisTemplate.delete(key(userId));
+            } catch (Exception e) {
+                log.warn("清除 Redis 用户缓存失败，userId: {}", userId, e);
+            }
+        }
+    }
+
+    private User getFromRedis(Long userId) {
+        if (redisTemplate == null) {
+            return null;
+        }
+        try {
+            String json = redisTemplate.opsForValue().get(key(userId));
+            return StrUtil.isBlank(json) ? null : JsonUtils.parse(json, User.class);
+        } catch (Exception e) {
+            log.warn("读取 Redis 用户缓存失败，直接查询数据库，userId: {}", userId, e);
+            return null;
+        }
+    }
+
+    private void putToRedis(User user) {
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(key(user.getId()), JsonUtils.toJson(user), properties.getRedisTtl());
+        } catch (Exception e) {
+            log.warn("写入 Redis 用户缓存失败，userId: {}", user.getId(), e);
+        }
+    }
+
+    private String key(Long userId) {
+        return properties.getKeyPrefix() + userId;
+    }
+
+    /**
+     * 缓存中的对象可能被多个请求读取，返回副本避免调用方修改缓存内容
+     */
+    private static User copy(User user) {
+        return USER_COPIER.map(user);
+    }
+}
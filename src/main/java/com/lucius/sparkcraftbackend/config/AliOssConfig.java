@@ -0,0 +1,24 @@
+package com.lucius.sparkcraftbackend.config;
+
+import com.lucius.sparkcraftbackend.properties.AliOssProperties;
+import com.lucius.sparkcraftbackend.utils.AliOssUtil;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 阿里云 OSS 配置类
+ * 整个应用共用一个 AliOssUtil，OSS 客户端在其中复用，应用停止时关闭
+ */
+@Configuration
+public class AliOssConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public AliOssUtil aliOssUtil(AliOssProperties aliOssProperties) {
+        return new AliOssUtil(
+                aliOssProperties.getEndpoint(),
+                aliOssProperties.getAccessKeyId(),
+                aliOssProperties.getAccessKeySecret(),
+                aliOssProperties.getBucketName()
+        );
+    }
+}
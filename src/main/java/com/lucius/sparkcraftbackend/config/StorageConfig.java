@@ -0,0 +1,62 @@
+package com.lucius.sparkcraftbackend.config;
+
+import cn.hutool.core.util.StrUtil;
+import com.lucius.sparkcraftbackend.properties.StorageProperties;
+import com.lucius.sparkcraftbackend.storage.BlobStore;
+import com.lucius.sparkcraftbackend.storage.LocalBlobStore;
+import com.lucius.sparkcraftbackend.storage.OssBlobStore;
+import com.lucius.sparkcraftbackend.storage.S3BlobStore;
+import com.lucius.sparkcraftbackend.utils.AliOssUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.net.URI;
+
+/**
+ * 对象存储配置类
+ * 根据 spark.storage.type 选择 BlobStore 实现
+ */
+@Slf4j
+@Configuration
+public class StorageConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "spark.storage", name = "type", havingValue = "oss", matchIfMissing = true)
+    public BlobStore ossBlobStore(AliOssUtil aliOssUtil) {
+        log.info("使用阿里云 OSS 存储");
+        return new OssBlobStore(aliOssUtil);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "spark.storage", name = "type", havingValue = "local")
+    public LocalBlobStore localBlobStore(StorageProperties storageProperties) {
+        StorageProperties.Local local = storageProperties.getLocal();
+        log.info("使用本地磁盘存储");
+        return new LocalBlobStore(local.getRoot(), local.getUrlPrefix());
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "spark.storage", name = "type", havingValue = "s3")
+    public BlobStore s3BlobStore(StorageProperties storageProperties) {
+        StorageProperties.S3 s3 = storageProperties.getS3();
+        S3Client s3Client = S3Client.builder()
+                .endpointOverride(URI.create(s3.getEndpoint()))
+                .region(Region.of(s3.getRegion()))
+                .credentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create(s3.getAccessKey(), s3.getSecretKey())))
+                // MinIO 使用路径风格访问
+                .forcePathStyle(true)
+                .build();
+        String publicUrl = StrUtil.isNotBlank(s3.getPublicUrl())
+                ? s3.getPublicUrl()
+                : StrUtil.removeSuffix(s3.getEndpoint(), "/") + "/" + s3.getBucket() + "/";
+        log.info("使用 S3 兼容存储，endpoint: {}, bucket: {}", s3.getEndpoint(), s3.getBucket());
+        return new S3BlobStore(s3Client, s3.getBucket(), publicUrl);
+    }
+}
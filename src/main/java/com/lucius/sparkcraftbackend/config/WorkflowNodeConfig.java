@@ -1,8 +1,10 @@
 package com.lucius.sparkcraftbackend.config;
 
 import com.lucius.sparkcraftbackend.ai.node.BaseWorkflowNode;
+import com.lucius.sparkcraftbackend.ai.node.ImageSearchNode;
 import com.lucius.sparkcraftbackend.ai.node.WorkflowNodeWrapper;
 import com.lucius.sparkcraftbackend.service.WorkflowProgressService;
+import com.lucius.sparkcraftbackend.utils.ImageUrlFilter;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
@@ -19,6 +21,9 @@ public class WorkflowNodeConfig {
     @Autowired
     private WorkflowProgressService workflowProgressService;
 
+    @Autowired
+    private ImageUrlFilter imageUrlFilter;
+
     /**
      * 在Spring容器初始化完成后，将服务注入到节点基类
      */
@@ -29,5 +34,8 @@ public class WorkflowNodeConfig {
         
         // 设置包装器的服务
         WorkflowNodeWrapper.setWorkflowProgressService(workflowProgressService);
+
+        // 设置图片搜索节点共用的 URL 过滤器
+        ImageSearchNode.setImageUrlFilter(imageUrlFilter);
     }
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.lucius.sparkcraftbackend.constant;
+
+public interface ChatHistoryConstant {
+    /**
+     * 对话历史单页最大条数
+     */
+    int MAX_PAGE_SIZE = 50;
+}
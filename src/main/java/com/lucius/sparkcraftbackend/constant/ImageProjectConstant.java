@@ -10,4 +10,14 @@ public interface ImageProjectConstant {
      * 默认应用优先级
      */
     Integer DEFAULT_APP_PRIORITY = 0;
+
+    /**
+     * 列表每页最多条数
+     */
+    int MAX_PAGE_SIZE = 20;
+
+    /**
+     * 工作流执行完成的工程状态
+     */
+    String COMPLETED_STATUS = "COMPLETED";
 }
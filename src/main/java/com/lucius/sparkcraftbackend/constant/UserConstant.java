@@ -7,6 +7,11 @@ public interface UserConstant {
      */
     String USER_LOGIN_STATE = "user_login";
 
+    /**
+     * 请求内已加载的登录用户属性键
+     */
+    String LOGIN_USER_ATTRIBUTE = "login_user";
+
     //  region 权限
 
     /**
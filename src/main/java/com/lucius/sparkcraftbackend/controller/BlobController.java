@@ -0,0 +1,66 @@
+package com.lucius.sparkcraftbackend.controller;
+
+import com.lucius.sparkcraftbackend.storage.LocalBlobStore;
+import jakarta.annotation.Resource;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 本地存储文件访问
+ * 仅在 spark.storage.type=local 时启用。返回 FileSystemResource，由 Spring MVC 处理 Range 请求（206/416）、
+ * ETag/Last-Modified 缓存校验（304）和 HEAD 请求，正文按固定大小的缓冲区流式写出，不会把整个文件读入内存
+ */
+@Slf4j
+@RestController
+@RequestMapping("/blob")
+@ConditionalOnProperty(prefix = "spark.storage", name = "type", havingValue = "local")
+public class BlobController {
+
+    private static final String PATH_PREFIX = "/blob/";
+
+    /**
+     * 对象名由原始地址或内容哈希决定，内容不会变化，可以长期缓存
+     */
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(7, TimeUnit.DAYS).cachePublic();
+
+    @Resource
+    private LocalBlobStore localBlobStore;
+
+    @GetMapping("/**")
+    public ResponseEntity<org.springframework.core.io.Resource> getBlob(HttpServletRequest request) throws IOException {
+        String uri = request.getRequestURI().substring(request.getContextPath().length());
+        String key = URLDecoder.decode(uri.substring(PATH_PREFIX.length()), StandardCharsets.UTF_8);
+        Path file = localBlobStore.resolve(key);
+        if (!Files.isRegularFile(file)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        long fileSize = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        String eTag = "\"" + Long.toHexString(fileSize) + "-" + Long.toHexString(lastModified) + "\"";
+        MediaType contentType = MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .lastModified(lastModified)
+                .cacheControl(CACHE_CONTROL)
+                .contentType(contentType)
+                .body(new FileSystemResource(file));
+    }
+}
@@ -1,11 +1,20 @@
 package com.lucius.sparkcraftbackend.controller;
 
 
+import com.lucius.sparkcraftbackend.annotation.ProjectOwner;
+import com.lucius.sparkcraftbackend.common.BaseResponse;
+import com.lucius.sparkcraftbackend.common.ResultUtils;
+import com.lucius.sparkcraftbackend.constant.ChatHistoryConstant;
+import com.lucius.sparkcraftbackend.dto.ChatHistoryQueryRequest;
 import com.lucius.sparkcraftbackend.entity.ChatHistory;
+import com.lucius.sparkcraftbackend.exception.ErrorCode;
+import com.lucius.sparkcraftbackend.exception.ThrowUtils;
 import com.lucius.sparkcraftbackend.service.ChatHistoryService;
 import com.lucius.sparkcraftbackend.service.UserService;
 import com.mybatisflex.core.paginate.Page;
+import com.mybatisflex.core.query.QueryWrapper;
 import jakarta.annotation.Resource;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -24,6 +33,7 @@ public class ChatHistoryController {
 
     @Resource
     private UserService userService;
+
     /**
      * 保存对话历史。
      *
@@ -58,13 +68,15 @@ public class ChatHistoryController {
     }
 
     /**
-     * 查询所有对话历史。
+     * 查询最近的对话历史，最多返回 {@link ChatHistoryConstant#MAX_PAGE_SIZE} 条。
      *
-     * @return 所有数据
+     * @return 最近的对话历史
      */
     @GetMapping("list")
     public List<ChatHistory> list() {
-        return chatHistoryService.list();
+        return chatHistoryService.list(QueryWrapper.create()
+                .orderBy(ChatHistory::getId, false)
+                .limit(ChatHistoryConstant.MAX_PAGE_SIZE));
     }
 
     /**
@@ -86,7 +98,43 @@ public class ChatHistoryController {
      */
     @GetMapping("page")
     public Page<ChatHistory> page(Page<ChatHistory> page) {
+        ThrowUtils.throwIf(page.getPageSize() > ChatHistoryConstant.MAX_PAGE_SIZE, ErrorCode.PARAMS_ERROR,
+                "每页最多查询 " + ChatHistoryConstant.MAX_PAGE_SIZE + " 条对话");
         return chatHistoryService.page(page);
     }
 
+    /**
+     * 游标分页查询应用的对话历史（仅本人或管理员）。
+     * 首页不传游标，之后传上一页最后一条记录的 createTime 和 id
+     *
+     * @param chatHistoryQueryRequest 查询请求
+     * @param request                 请求
+     * @return 按时间倒序的一页对话历史
+     */
+    @ProjectOwner(value = "#chatHistoryQueryRequest?.appId", allowAdmin = true)
+    @PostMapping("/app/list/cursor")
+    public BaseResponse<List<ChatHistory>> listAppChatHistoryByCursor(@RequestBody ChatHistoryQueryRequest chatHistoryQueryRequest,
+                                                                      HttpServletRequest request) {
+        ThrowUtils.throwIf(chatHistoryQueryRequest == null, ErrorCode.PARAMS_ERROR);
+        return ResultUtils.success(chatHistoryService.listAppChatHistoryByCursor(chatHistoryQueryRequest));
+    }
+
+    /**
+     * 全文检索应用的对话历史（仅本人或管理员），按相关度排序。
+     *
+     * @param appId   应用ID
+     * @param keyword 关键词
+     * @param limit   最多返回条数
+     * @param request 请求
+     * @return 命中的对话历史
+     */
+    @ProjectOwner(value = "#appId", allowAdmin = true)
+    @GetMapping("/app/search")
+    public BaseResponse<List<ChatHistory>> searchAppChatHistory(@RequestParam Long appId,
+                                                                @RequestParam String keyword,
+                                                                @RequestParam(defaultValue = "20") int limit,
+                                                                HttpServletRequest request) {
+        return ResultUtils.success(chatHistoryService.searchAppChatHistory(appId, keyword, limit));
+    }
+
 }
@@ -3,6 +3,8 @@ package com.lucius.sparkcraftbackend.controller;
 import cn.hutool.core.bean.BeanUtil;
 import cn.hutool.core.util.StrUtil;
 import com.lucius.sparkcraftbackend.annotation.AuthCheck;
+import com.lucius.sparkcraftbackend.annotation.ProjectOwner;
+import com.lucius.sparkcraftbackend.cache.FeaturedFeedCache;
 import com.lucius.sparkcraftbackend.common.BaseResponse;
 import com.lucius.sparkcraftbackend.common.DeleteRequest;
 import com.lucius.sparkcraftbackend.common.ResultUtils;
@@ -17,8 +19,11 @@ import com.lucius.sparkcraftbackend.exception.BusinessException;
 import com.lucius.sparkcraftbackend.exception.ErrorCode;
 import com.lucius.sparkcraftbackend.exception.ThrowUtils;
 import com.lucius.sparkcraftbackend.service.UserService;
+import com.lucius.sparkcraftbackend.service.WorkflowArtifactService;
 import com.lucius.sparkcraftbackend.service.WorkflowExecutionService;
 import com.lucius.sparkcraftbackend.service.WorkflowProgressService;
+import com.lucius.sparkcraftbackend.utils.JsonUtils;
+import com.lucius.sparkcraftbackend.vo.CursorPageVO;
 import com.lucius.sparkcraftbackend.vo.ImageProjectVO;
 import com.lucius.sparkcraftbackend.vo.WorkflowExecuteVO;
 import com.mybatisflex.core.paginate.Page;
@@ -26,7 +31,11 @@ import com.mybatisflex.core.query.QueryWrapper;
 import jakarta.annotation.Resource;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import com.lucius.sparkcraftbackend.entity.ImageProject;
@@ -60,6 +69,12 @@ public class ImageProjectController {
     @Resource
     private WorkflowProgressService workflowProgressService;
 
+    @Resource
+    private FeaturedFeedCache featuredFeedCache;
+
+    @Resource
+    private WorkflowArtifactService workflowArtifactService;
+
 
     /**
      * 创建应用
@@ -178,8 +193,7 @@ public class ImageProjectController {
         long pageNum = imageProjectQueryRequest.getPageNum();
         // 只查询当前用户的应用
         imageProjectQueryRequest.setUserId(loginUser.getId());
-        QueryWrapper queryWrapper = imageProjectService .getQueryWrapper(imageProjectQueryRequest);
-        Page<ImageProject> appPage = imageProjectService.page(Page.of(pageNum, pageSize), queryWrapper);
+        Page<ImageProject> appPage = imageProjectService.pageImageProjects(imageProjectQueryRequest);
         // 数据封装
         Page<ImageProjectVO> appVOPage = new Page<>(pageNum, pageSize, appPage.getTotalRow());
         List<ImageProjectVO> appVOList = imageProjectService.getImageVOList(appPage.getRecords());
@@ -187,29 +201,104 @@ public class ImageProjectController {
         return ResultUtils.success(appVOPage);
     }
 
+    /**
+     * 游标分页获取当前用户创建的应用列表，按创建时间倒序
+     * 首页不传游标，之后传上一页返回的 lastCreateTime 和 lastId
+     *
+     * @param imageProjectQueryRequest 查询请求
+     * @param request                  请求
+     * @return 一页应用
+     */
+    @PostMapping("/my/list/cursor")
+    public BaseResponse<CursorPageVO<ImageProjectVO>> listMyAppVOByCursor(@RequestBody ImageProjectQueryRequest imageProjectQueryRequest,
+                                                                         HttpServletRequest request) {
+        ThrowUtils.throwIf(imageProjectQueryRequest == null, ErrorCode.PARAMS_ERROR);
+        User loginUser = userService.getLoginUser(request);
+        imageProjectQueryRequest.setUserId(loginUser.getId());
+        imageProjectQueryRequest.setPriority(null);
+        return ResultUtils.success(imageProjectService.listImageProjectVOByCursor(imageProjectQueryRequest));
+    }
+
+    /**
+     * 游标分页获取精选应用列表，按创建时间倒序
+     *
+     * @param imageProjectQueryRequest 查询请求
+     * @return 一页精选应用
+     */
+    @PostMapping("/good/list/cursor")
+    public BaseResponse<CursorPageVO<ImageProjectVO>> listGoodAppVOByCursor(@RequestBody ImageProjectQueryRequest imageProjectQueryRequest) {
+        ThrowUtils.throwIf(imageProjectQueryRequest == null, ErrorCode.PARAMS_ERROR);
+        imageProjectQueryRequest.setUserId(null);
+        imageProjectQueryRequest.setPriority(ImageProjectConstant.GOOD_APP_PRIORITY);
+        return ResultUtils.success(imageProjectService.listImageProjectVOByCursor(imageProjectQueryRequest));
+    }
+
+    /**
+     * 全文检索当前用户的工程（名称和描述），按相关度排序
+     *
+     * @param keyword 关键词
+     * @param limit   最多返回条数
+     * @param request 请求
+     * @return 工程列表
+     */
+    @GetMapping("/my/search")
+    public BaseResponse<List<ImageProjectVO>> searchMyImageProjects(@RequestParam String keyword,
+                                                                    @RequestParam(defaultValue = "20") int limit,
+                                                                    HttpServletRequest request) {
+        User loginUser = userService.getLoginUser(request);
+        List<ImageProject> imageProjects = imageProjectService.searchImageProjects(loginUser.getId(), keyword, limit);
+        return ResultUtils.success(imageProjectService.getImageVOList(imageProjects));
+    }
+
     /**
      * 分页获取精选应用列表
+     * 不带筛选条件的前几页直接返回缓存中已序列化的响应，支持 If-None-Match
      *
      * @param imageProjectQueryRequest 查询请求
+     * @param ifNoneMatch              客户端缓存的 ETag
      * @return 精选应用列表
      */
     @PostMapping("/good/list/page/vo")
-    public BaseResponse<Page<ImageProjectVO>> listGoodAppVOByPage(@RequestBody ImageProjectQueryRequest imageProjectQueryRequest) {
+    public ResponseEntity<byte[]> listGoodAppVOByPage(@RequestBody ImageProjectQueryRequest imageProjectQueryRequest,
+                                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         ThrowUtils.throwIf(imageProjectQueryRequest == null, ErrorCode.PARAMS_ERROR);
         // 限制每页最多 20 个
         long pageSize = imageProjectQueryRequest.getPageSize();
         ThrowUtils.throwIf(pageSize > 20, ErrorCode.PARAMS_ERROR, "每页最多查询 20 个应用");
-        long pageNum = imageProjectQueryRequest.getPageNum();
-        // 只查询精选的应用
-        imageProjectQueryRequest.setPriority(ImageProjectConstant.GOOD_APP_PRIORITY);
-        QueryWrapper queryWrapper = imageProjectService.getQueryWrapper(imageProjectQueryRequest);
-        // 分页查询
-        Page<ImageProject> appPage = imageProjectService.page(Page.of(pageNum, pageSize), queryWrapper);
-        // 数据封装
-        Page<ImageProjectVO> appVOPage = new Page<>(pageNum, pageSize, appPage.getTotalRow());
-        List<ImageProjectVO> appVOList = imageProjectService.getImageVOList(appPage.getRecords());
-        appVOPage.setRecords(appVOList);
-        return ResultUtils.success(appVOPage);
+        return toFeedResponse(featuredFeedCache.getPage(imageProjectQueryRequest), ifNoneMatch);
+    }
+
+    /**
+     * 分页获取精选应用列表（GET，便于浏览器和 CDN 按 ETag 缓存）
+     *
+     * @param pageNum     页码
+     * @param pageSize    每页条数
+     * @param ifNoneMatch 客户端缓存的 ETag
+     * @return 精选应用列表
+     */
+    @GetMapping("/good/list/page/vo")
+    public ResponseEntity<byte[]> getGoodAppVOByPage(@RequestParam(defaultValue = "1") int pageNum,
+                                                     @RequestParam(defaultValue = "10") int pageSize,
+                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        ThrowUtils.throwIf(pageSize > 20, ErrorCode.PARAMS_ERROR, "每页最多查询 20 个应用");
+        ImageProjectQueryRequest imageProjectQueryRequest = new ImageProjectQueryRequest();
+        imageProjectQueryRequest.setPageNum(pageNum);
+        imageProjectQueryRequest.setPageSize(pageSize);
+        return toFeedResponse(featuredFeedCache.getPage(imageProjectQueryRequest), ifNoneMatch);
+    }
+
+    private ResponseEntity<byte[]> toFeedResponse(FeaturedFeedCache.FeedPage feedPage, String ifNoneMatch) {
+        if (feedPage.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(feedPage.getEtag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(feedPage.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(feedPage.getBody());
     }
 
     /**
@@ -241,6 +330,7 @@ public class ImageProjectController {
      * @param request               HTTP请求
      * @return 工作流执行结果
      */
+    @ProjectOwner("#workflowExecuteRequest?.imageProjectId")
     @PostMapping("/workflow/execute")
     public BaseResponse<WorkflowExecuteVO> executeWorkflow(@RequestBody WorkflowExecuteRequest workflowExecuteRequest, 
                                                           HttpServletRequest request) {
@@ -254,12 +344,7 @@ public class ImageProjectController {
         // 获取当前登录用户
         User loginUser = userService.getLoginUser(request);
         log.info("任务ID为{}", workflowExecuteRequest.getImageProjectId());
-        // 验证项目是否存在且用户有权限
-        ImageProject imageProject = imageProjectService.getById(workflowExecuteRequest.getImageProjectId());
-        ThrowUtils.throwIf(imageProject == null, ErrorCode.NOT_FOUND_ERROR, "项目不存在");
-        ThrowUtils.throwIf(!imageProject.getUserId().equals(loginUser.getId()), 
-                          ErrorCode.NO_AUTH_ERROR, "无权限访问该项目");
-        
+
         // 执行工作流
         WorkflowExecuteVO result = workflowExecutionService.executeWorkflow(
                 workflowExecuteRequest.getImageProjectId(),
@@ -277,6 +362,7 @@ public class ImageProjectController {
      * @param request HTTP请求
      * @return SSE连接
      */
+    @ProjectOwner("#imageProjectId")
     @GetMapping("/workflow/sse/{imageProjectId}")
     public SseEmitter establishWorkflowSSE(@PathVariable String imageProjectId, HttpServletRequest request) {
         // 参数校验
@@ -285,17 +371,6 @@ public class ImageProjectController {
         // 获取当前登录用户
         User loginUser = userService.getLoginUser(request);
         
-        // 验证项目是否存在且用户有权限
-        try {
-            Long projectId = Long.valueOf(imageProjectId);
-            ImageProject imageProject = imageProjectService.getById(projectId);
-            ThrowUtils.throwIf(imageProject == null, ErrorCode.NOT_FOUND_ERROR, "项目不存在");
-            ThrowUtils.throwIf(!imageProject.getUserId().equals(loginUser.getId()), 
-                              ErrorCode.NO_AUTH_ERROR, "无权限访问该项目");
-        } catch (NumberFormatException e) {
-            throw new BusinessException(ErrorCode.PARAMS_ERROR, "项目ID格式无效");
-        }
-        
         // 创建SSE连接
         return workflowProgressService.createConnection(imageProjectId, loginUser.getId());
     }
@@ -307,6 +382,7 @@ public class ImageProjectController {
      * @param request HTTP请求
      * @return SSE连接
      */
+    @ProjectOwner("#imageProjectId")
     @GetMapping("/workflow/progress/{imageProjectId}")
     @Deprecated
     public SseEmitter getWorkflowProgress(@PathVariable String imageProjectId, HttpServletRequest request) {
@@ -321,6 +397,7 @@ public class ImageProjectController {
      * @param request               HTTP请求
      * @return 工作流任务信息（包含jobId）
      */
+    @ProjectOwner("#workflowExecuteRequest?.imageProjectId")
     @PostMapping("/workflow/execute/async")
     public BaseResponse<WorkflowExecuteVO> executeWorkflowAsync(@RequestBody WorkflowExecuteRequest workflowExecuteRequest, 
                                                                HttpServletRequest request) {
@@ -334,12 +411,6 @@ public class ImageProjectController {
         // 获取当前登录用户
         User loginUser = userService.getLoginUser(request);
         
-        // 验证项目是否存在且用户有权限
-        ImageProject imageProject = imageProjectService.getById(workflowExecuteRequest.getImageProjectId());
-        ThrowUtils.throwIf(imageProject == null, ErrorCode.NOT_FOUND_ERROR, "项目不存在");
-        ThrowUtils.throwIf(!imageProject.getUserId().equals(loginUser.getId()), 
-                          ErrorCode.NO_AUTH_ERROR, "无权限访问该项目");
-        
         // 异步执行工作流
         WorkflowExecuteVO result = workflowExecutionService.executeWorkflowAsync(
                 workflowExecuteRequest.getImageProjectId(),
@@ -357,6 +428,7 @@ public class ImageProjectController {
      * @param request               HTTP请求
      * @return 工作流任务信息（包含jobId）
      */
+    @ProjectOwner("#workflowExecuteRequest?.imageProjectId")
     @PostMapping("/workflow/execute/sse")
     public BaseResponse<WorkflowExecuteVO> executeWorkflowWithSSE(@RequestBody WorkflowExecuteRequest workflowExecuteRequest, 
                                                                  HttpServletRequest request) {
@@ -370,12 +442,6 @@ public class ImageProjectController {
         // 获取当前登录用户
         User loginUser = userService.getLoginUser(request);
         
-        // 验证项目是否存在且用户有权限
-        ImageProject imageProject = imageProjectService.getById(workflowExecuteRequest.getImageProjectId());
-        ThrowUtils.throwIf(imageProject == null, ErrorCode.NOT_FOUND_ERROR, "项目不存在");
-        ThrowUtils.throwIf(!imageProject.getUserId().equals(loginUser.getId()), 
-                          ErrorCode.NO_AUTH_ERROR, "无权限访问该项目");
-        
         // 异步执行工作流（带SSE推送）
         WorkflowExecuteVO result = workflowExecutionService.executeWorkflowAsyncWithSSE(
                 workflowExecuteRequest.getImageProjectId(),
@@ -393,6 +459,7 @@ public class ImageProjectController {
      * @param request               HTTP请求
      * @return 工作流执行状态流
      */
+    @ProjectOwner("#workflowExecuteRequest?.imageProjectId")
     @PostMapping(value = "/workflow/execute/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public Flux<ServerSentEvent<WorkflowExecuteVO>> executeWorkflowStream(@RequestBody WorkflowExecuteRequest workflowExecuteRequest,
                                                                           HttpServletRequest request) {
@@ -406,12 +473,6 @@ public class ImageProjectController {
         // 获取当前登录用户
         User loginUser = userService.getLoginUser(request);
 
-        // 验证项目是否存在且用户有权限
-        ImageProject imageProject = imageProjectService.getById(workflowExecuteRequest.getImageProjectId());
-        ThrowUtils.throwIf(imageProject == null, ErrorCode.NOT_FOUND_ERROR, "项目不存在");
-        ThrowUtils.throwIf(!imageProject.getUserId().equals(loginUser.getId()),
-                          ErrorCode.NO_AUTH_ERROR, "无权限访问该项目");
-
         // 执行流式工作流
         Flux<WorkflowExecuteVO> workflowStream = workflowExecutionService.executeWorkflowStream(
                 workflowExecuteRequest.getImageProjectId(),
@@ -539,7 +600,9 @@ public class ImageProjectController {
      */
     @GetMapping("list")
     public List<ImageProject> list() {
-        return imageProjectService.list();
+        List<ImageProject> imageProjects = imageProjectService.list();
+        imageProjects.forEach(this::resolveArtifacts);
+        return imageProjects;
     }
 
     /**
@@ -550,7 +613,7 @@ public class ImageProjectController {
      */
     @GetMapping("getInfo/{id}")
     public ImageProject getInfo(@PathVariable Long id) {
-        return imageProjectService.getById(id);
+        return resolveArtifacts(imageProjectService.getById(id));
     }
 
     /**
@@ -561,22 +624,60 @@ public class ImageProjectController {
      */
     @GetMapping("page")
     public Page<ImageProject> page(Page<ImageProject> page) {
-        return imageProjectService.page(page);
+        Page<ImageProject> result = imageProjectService.page(page);
+        result.getRecords().forEach(this::resolveArtifacts);
+        return result;
     }
 
+    /**
+     * 直接返回实体的接口需要把产物引用还原为原文
+     */
+    private ImageProject resolveArtifacts(ImageProject imageProject) {
+        if (imageProject != null) {
+            imageProject.setProductionprocess(workflowArtifactService.resolve(imageProject.getProductionprocess()));
+        }
+        return imageProject;
+    }
 
-    @GetMapping(value = "/chat/get/idea", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public SseEmitter chatToGetIdea(@RequestParam Long imageProjectId,
-                                    @RequestParam String message,
-                                    HttpServletRequest request){
-        SseEmitter emitter=new SseEmitter(60000000L);
 
+    /**
+     * 与 AI 对话获取创意灵感（流式）
+     * 客户端断开时 Spring 会取消订阅，上游模型请求随之中止
+     *
+     * @param imageProjectId 项目ID
+     * @param message        用户消息
+     * @param request        HTTP请求
+     * @return 回复片段流，每条数据为 {"d": 片段}，结束时发送 end
+     */
+    @GetMapping(value = "/chat/get/idea", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> chatToGetIdea(@RequestParam Long imageProjectId,
+                                                       @RequestParam String message,
+                                                       HttpServletRequest request) {
         // 参数校验
         ThrowUtils.throwIf(imageProjectId == null || imageProjectId <= 0, ErrorCode.PARAMS_ERROR, "应用ID无效");
         ThrowUtils.throwIf(StrUtil.isBlank(message), ErrorCode.PARAMS_ERROR, "用户消息不能为空");
         // 获取当前登录用户
         User loginUser = userService.getLoginUser(request);
-        imageProjectService.chatToGetTheIdea(imageProjectId,message, loginUser,emitter);
-        return emitter;
+        return imageProjectService.chatToGetTheIdea(imageProjectId, message, loginUser)
+                .map(chunk -> ServerSentEvent.<String>builder()
+                        .data(JsonUtils.write(generator -> {
+                            generator.writeStartObject();
+                            generator.writeStringField("d", chunk);
+                            generator.writeEndObject();
+                        }))
+                        .build())
+                .concatWith(Mono.just(ServerSentEvent.<String>builder().data("end").build()))
+                .onErrorResume(e -> {
+                    log.error("获取灵感对话失败，imageProjectId: {}", imageProjectId, e);
+                    String errorMessage = e instanceof BusinessException ? e.getMessage() : "回复的时候出错";
+                    return Mono.just(ServerSentEvent.<String>builder()
+                            .event("error")
+                            .data(JsonUtils.write(generator -> {
+                                generator.writeStartObject();
+                                generator.writeStringField("error", errorMessage);
+                                generator.writeEndObject();
+                            }))
+                            .build());
+                });
     }
 }
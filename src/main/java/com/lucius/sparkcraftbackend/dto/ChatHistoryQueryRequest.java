@@ -44,6 +44,17 @@ public class ChatHistoryQueryRequest extends PageRequest implements Serializable
      */
     private LocalDateTime lastCreateTime;
 
+    /**
+     * 游标查询 - 最后一条记录的id
+     * 创建时间相同时按 id 区分先后，避免同一秒内的消息被跳过或重复
+     */
+    private Long lastId;
+
+    /**
+     * 是否返回消息内容，列表视图可传 false 只查询元数据
+     */
+    private boolean withMessage = true;
+
     @Serial
     private static final long serialVersionUID = 1L;
 }
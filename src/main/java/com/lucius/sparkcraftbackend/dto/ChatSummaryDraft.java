@@ -0,0 +1,52 @@
+package com.lucius.sparkcraftbackend.dto;
+
+import cn.hutool.core.util.StrUtil;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 待合并的对话总结
+ * 包含已保存的总结和水位线之后的新对话，由调用方交给大模型合并后再保存
+ *
+ * @author <a href="https://github.com/LuciusWan">LuciusWan</a>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatSummaryDraft {
+
+    /**
+     * 应用ID
+     */
+    private Long appId;
+
+    /**
+     * 已保存的总结，没有时为空字符串
+     */
+    private String summary;
+
+    /**
+     * 新增的对话记录（已按 token 预算截取），没有时为空字符串
+     */
+    private String newDialogue;
+
+    /**
+     * 已保存总结的水位线，总结不存在时为 null
+     */
+    private Long previousLastMessageId;
+
+    /**
+     * 合并新对话后的水位线
+     */
+    private Long lastMessageId;
+
+    /**
+     * 是否有需要合并的新对话
+     */
+    public boolean hasNewDialogue() {
+        return StrUtil.isNotBlank(newDialogue);
+    }
+}
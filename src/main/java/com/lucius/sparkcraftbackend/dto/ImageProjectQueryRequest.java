@@ -10,6 +10,8 @@ import lombok.EqualsAndHashCode;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.time.LocalDateTime;
+
 @EqualsAndHashCode(callSuper = true)
 @Data
 public class ImageProjectQueryRequest extends PageRequest implements Serializable {
@@ -43,6 +45,20 @@ public class ImageProjectQueryRequest extends PageRequest implements Serializabl
     @Column("priority")
     private Integer priority;
 
+    /**
+     * 游标查询 - 上一页最后一条记录的创建时间
+     */
+    private LocalDateTime lastCreateTime;
+
+    /**
+     * 游标查询 - 上一页最后一条记录的id，创建时间相同时按 id 区分先后
+     */
+    private Long lastId;
+
+    /**
+     * 游标查询是否返回总数
+     */
+    private boolean withTotal;
 
     @Serial
     private static final long serialVersionUID = 1L;
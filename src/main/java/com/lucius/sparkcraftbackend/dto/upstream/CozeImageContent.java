@@ -0,0 +1,17 @@
+package com.lucius.sparkcraftbackend.dto.upstream;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Coze 图片搜索节点的输出：{"imageurl": [{"picture_info": {"display_url": "...", "title": "..."}}]}
+ */
+public record CozeImageContent(List<Image> imageurl) {
+
+    public record Image(@JsonProperty("picture_info") PictureInfo pictureInfo) {
+    }
+
+    public record PictureInfo(@JsonProperty("display_url") String displayUrl, String title) {
+    }
+}
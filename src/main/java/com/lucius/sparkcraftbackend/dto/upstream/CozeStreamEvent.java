@@ -0,0 +1,14 @@
+package com.lucius.sparkcraftbackend.dto.upstream;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Coze 流式响应中一条 data 事件
+ *
+ * @param content 节点输出，本身是 JSON 字符串，图片搜索节点的格式见 CozeImageContent
+ */
+public record CozeStreamEvent(@JsonProperty("node_type") String nodeType,
+                              @JsonProperty("node_title") String nodeTitle,
+                              @JsonProperty("node_is_finish") boolean nodeIsFinish,
+                              String content) {
+}
@@ -0,0 +1,15 @@
+package com.lucius.sparkcraftbackend.dto.upstream;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Coze 工作流运行请求
+ */
+public record CozeWorkflowRequest(@JsonProperty("workflow_id") String workflowId, Parameters parameters) {
+
+    /**
+     * 工作流入参，mainpotic 为搜索关键词
+     */
+    public record Parameters(String mainpotic) {
+    }
+}
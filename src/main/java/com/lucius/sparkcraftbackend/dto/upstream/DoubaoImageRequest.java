@@ -0,0 +1,24 @@
+package com.lucius.sparkcraftbackend.dto.upstream;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * 豆包图片生成请求
+ *
+ * @param image 参考图片地址，没有参考图片时为 null
+ */
+public record DoubaoImageRequest(String model,
+                                 String prompt,
+                                 @JsonProperty("response_format") String responseFormat,
+                                 String size,
+                                 boolean stream,
+                                 boolean watermark,
+                                 List<String> image,
+                                 @JsonProperty("sequential_image_generation") String sequentialImageGeneration,
+                                 @JsonProperty("sequential_image_generation_options") SequentialOptions sequentialImageGenerationOptions) {
+
+    public record SequentialOptions(@JsonProperty("max_images") int maxImages) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.lucius.sparkcraftbackend.dto.upstream;
+
+import java.util.List;
+
+/**
+ * 豆包图片生成响应：{"data": [{"url": "图片URL"}]}
+ */
+public record DoubaoImageResponse(List<Image> data) {
+
+    public record Image(String url) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.lucius.sparkcraftbackend.dto.upstream;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * 通义千问多模态对话请求
+ */
+public record QwenChatRequest(String model,
+                              boolean stream,
+                              @JsonProperty("max_tokens") int maxTokens,
+                              double temperature,
+                              List<Message> messages) {
+
+    public record Message(String role, List<Content> content) {
+    }
+
+    /**
+     * 消息内容，图片和文本二选一
+     */
+    public record Content(String type, @JsonProperty("image_url") ImageUrl imageUrl, String text) {
+
+        public static Content image(String url, String detail) {
+            return new Content("image_url", new ImageUrl(url, detail), null);
+        }
+
+        public static Content text(String text) {
+            return new Content("text", null, text);
+        }
+    }
+
+    public record ImageUrl(String url, String detail) {
+    }
+}
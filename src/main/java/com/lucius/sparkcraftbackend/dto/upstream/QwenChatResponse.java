@@ -0,0 +1,15 @@
+package com.lucius.sparkcraftbackend.dto.upstream;
+
+import java.util.List;
+
+/**
+ * 通义千问对话响应：{"choices": [{"message": {"content": "..."}}]}
+ */
+public record QwenChatResponse(List<Choice> choices) {
+
+    public record Choice(Message message) {
+    }
+
+    public record Message(String content) {
+    }
+}
@@ -0,0 +1,87 @@
+package com.lucius.sparkcraftbackend.entity;
+
+import com.mybatisflex.annotation.Column;
+import com.mybatisflex.annotation.Id;
+import com.mybatisflex.annotation.KeyType;
+import com.mybatisflex.annotation.Table;
+import com.mybatisflex.core.keygen.KeyGenerators;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 资源镜像 实体类。
+ * 记录外部图片地址与 OSS 地址的对应关系
+ *
+ * @author <a href="https://github.com/LuciusWan">LuciusWan</a>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("asset_mirror")
+public class AssetMirror implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * id
+     */
+    @Id(keyType = KeyType.Generator, value = KeyGenerators.snowFlakeId)
+    private Long id;
+
+    /**
+     * 原始地址
+     */
+    @Column("sourceUrl")
+    private String sourceUrl;
+
+    /**
+     * 原始地址的 SHA-256
+     */
+    @Column("sourceUrlHash")
+    private String sourceUrlHash;
+
+    /**
+     * 内容的 SHA-256
+     */
+    @Column("contentHash")
+    private String contentHash;
+
+    /**
+     * OSS 地址
+     */
+    @Column("ossUrl")
+    private String ossUrl;
+
+    /**
+     * 内容大小（字节）
+     */
+    @Column("contentLength")
+    private Long contentLength;
+
+    /**
+     * 创建时间
+     */
+    @Column("createTime")
+    private LocalDateTime createTime;
+
+    /**
+     * 更新时间
+     */
+    @Column("updateTime")
+    private LocalDateTime updateTime;
+
+    /**
+     * 是否删除
+     */
+    @Column(value = "isDelete", isLogicDelete = true)
+    private Integer isDelete;
+
+}
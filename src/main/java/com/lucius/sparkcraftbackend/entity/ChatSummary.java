@@ -0,0 +1,80 @@
+package com.lucius.sparkcraftbackend.entity;
+
+import com.mybatisflex.annotation.Column;
+import com.mybatisflex.annotation.Id;
+import com.mybatisflex.annotation.KeyType;
+import com.mybatisflex.annotation.Table;
+import com.mybatisflex.core.keygen.KeyGenerators;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 对话总结 实体类。
+ * 每个应用一条滚动总结，记录已合并到总结中的最后一条对话历史
+ *
+ * @author <a href="https://github.com/LuciusWan">LuciusWan</a>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("chat_summary")
+public class ChatSummary implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * id
+     */
+    @Id(keyType = KeyType.Generator, value = KeyGenerators.snowFlakeId)
+    private Long id;
+
+    /**
+     * 应用id
+     */
+    @Column("appId")
+    private Long appId;
+
+    /**
+     * 总结内容
+     */
+    private String summary;
+
+    /**
+     * 总结的 token 数
+     */
+    @Column("summaryTokens")
+    private Integer summaryTokens;
+
+    /**
+     * 已合并到总结中的最后一条对话历史 id
+     */
+    @Column("lastMessageId")
+    private Long lastMessageId;
+
+    /**
+     * 创建时间
+     */
+    @Column("createTime")
+    private LocalDateTime createTime;
+
+    /**
+     * 更新时间
+     */
+    @Column("updateTime")
+    private LocalDateTime updateTime;
+
+    /**
+     * 是否删除
+     */
+    @Column(value = "isDelete", isLogicDelete = true)
+    private Integer isDelete;
+
+}
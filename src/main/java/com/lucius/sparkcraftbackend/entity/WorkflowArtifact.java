@@ -0,0 +1,74 @@
+package com.lucius.sparkcraftbackend.entity;
+
+import com.mybatisflex.annotation.Column;
+import com.mybatisflex.annotation.Id;
+import com.mybatisflex.annotation.KeyType;
+import com.mybatisflex.annotation.Table;
+import com.mybatisflex.core.keygen.KeyGenerators;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 工作流产物 实体类。
+ * 保存制造流程、任务结果等大文本，业务表中只保留引用
+ *
+ * @author <a href="https://github.com/LuciusWan">LuciusWan</a>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("workflow_artifact")
+public class WorkflowArtifact implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * id
+     */
+    @Id(keyType = KeyType.Generator, value = KeyGenerators.snowFlakeId)
+    private Long id;
+
+    /**
+     * 内容的 SHA-256
+     */
+    @Column("contentHash")
+    private String contentHash;
+
+    /**
+     * 内容
+     */
+    private String content;
+
+    /**
+     * 内容长度（字符）
+     */
+    @Column("contentLength")
+    private Integer contentLength;
+
+    /**
+     * 创建时间
+     */
+    @Column("createTime")
+    private LocalDateTime createTime;
+
+    /**
+     * 更新时间
+     */
+    @Column("updateTime")
+    private LocalDateTime updateTime;
+
+    /**
+     * 是否删除
+     */
+    @Column(value = "isDelete", isLogicDelete = true)
+    private Integer isDelete;
+
+}
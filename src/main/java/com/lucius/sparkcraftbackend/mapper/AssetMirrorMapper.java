@@ -0,0 +1,15 @@
+package com.lucius.sparkcraftbackend.mapper;
+
+import com.lucius.sparkcraftbackend.entity.AssetMirror;
+import com.mybatisflex.core.BaseMapper;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * 资源镜像 映射层。
+ *
+ * @author <a href="https://github.com/LuciusWan">LuciusWan</a>
+ */
+@Mapper
+public interface AssetMirrorMapper extends BaseMapper<AssetMirror> {
+
+}
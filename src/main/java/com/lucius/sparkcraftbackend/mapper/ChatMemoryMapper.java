@@ -15,22 +15,44 @@ public interface ChatMemoryMapper {
     @Options(useGeneratedKeys = true, keyProperty = "id")
     void insertMessage(ChatMemoryEntity entity);
 
+    /**
+     * 批量插入消息
+     */
+    @Insert("<script>" +
+            "INSERT INTO chat_memory (conversation_id, message_type, content, metadata) VALUES " +
+            "<foreach collection='list' item='m' separator=','>" +
+            "(#{m.conversationId}, #{m.messageType}, #{m.content}, #{m.metadata})" +
+            "</foreach>" +
+            "</script>")
+    int insertMessages(@Param("list") List<ChatMemoryEntity> entities);
+
+    // 按自增 id 排序：批量插入的消息 created_at 相同，只有 id 能保证先后顺序
     @Select("SELECT * FROM (" +
-            // 子查询：获取最近20条（按created_at降序）
+            // 子查询：获取最近 limit 条（按id降序）
             "SELECT * FROM chat_memory " +
             "WHERE conversation_id = #{conversationId} " +
-            "ORDER BY created_at DESC LIMIT #{limit}" +
+            "ORDER BY id DESC LIMIT #{limit}" +
             ") AS temp " +
-            // 外层查询：对临时结果按created_at升序（反转顺序）
-            "ORDER BY created_at ASC")
+            // 外层查询：对临时结果按id升序（反转顺序）
+            "ORDER BY id ASC")
     List<ChatMemoryEntity> getMessages(@Param("conversationId") String conversationId,
                                        @Param("limit") int limit);
-    
-    @Delete("DELETE FROM chat_memory WHERE conversation_id = #{conversationId} " +
-            "AND id NOT IN (SELECT id FROM (SELECT id FROM chat_memory " +
-            "WHERE conversation_id = #{conversationId} ORDER BY created_at DESC LIMIT #{keepCount}) t)")
-    void cleanOldMessages(@Param("conversationId") String conversationId, 
-                         @Param("keepCount") int keepCount);
+
+    /**
+     * 获取裁剪水位线：倒数第 keepCount 条消息的 id，比它更早的消息都可以删除
+     */
+    @Select("SELECT id FROM chat_memory WHERE conversation_id = #{conversationId} " +
+            "ORDER BY id DESC LIMIT 1 OFFSET #{offset}")
+    Long getTrimWatermark(@Param("conversationId") String conversationId,
+                          @Param("offset") int offset);
+
+    @Delete("DELETE FROM chat_memory WHERE conversation_id = #{conversationId} AND id < #{watermarkId}")
+    int deleteBeforeId(@Param("conversationId") String conversationId,
+                       @Param("watermarkId") Long watermarkId);
+
+    @Delete("DELETE FROM chat_memory WHERE conversation_id = #{conversationId}")
+    int deleteByConversationId(@Param("conversationId") String conversationId);
+
     @Update("UPDATE chat_memory SET image_url = #{finalFilePath} WHERE id = #{chatMemoryId}")
     Boolean setImageUrl(Long chatMemoryId, String finalFilePath);
     @Select("SELECT message_type as role, content, created_at FROM chat_memory WHERE conversation_id = #{chatId} ORDER BY created_at ASC limit #{i}")
@@ -0,0 +1,15 @@
+package com.lucius.sparkcraftbackend.mapper;
+
+import com.lucius.sparkcraftbackend.entity.ChatSummary;
+import com.mybatisflex.core.BaseMapper;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * 对话总结 映射层。
+ *
+ * @author <a href="https://github.com/LuciusWan">LuciusWan</a>
+ */
+@Mapper
+public interface ChatSummaryMapper extends BaseMapper<ChatSummary> {
+
+}
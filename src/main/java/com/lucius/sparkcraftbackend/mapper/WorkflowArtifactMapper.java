@@ -0,0 +1,15 @@
+package com.lucius.sparkcraftbackend.mapper;
+
+import com.lucius.sparkcraftbackend.entity.WorkflowArtifact;
+import com.mybatisflex.core.BaseMapper;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * 工作流产物 映射层。
+ *
+ * @author <a href="https://github.com/LuciusWan">LuciusWan</a>
+ */
+@Mapper
+public interface WorkflowArtifactMapper extends BaseMapper<WorkflowArtifact> {
+
+}
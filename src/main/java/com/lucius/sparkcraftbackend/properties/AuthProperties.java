@@ -0,0 +1,70 @@
+package com.lucius.sparkcraftbackend.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 登录态配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "spark.auth")
+public class AuthProperties {
+
+    /**
+     * 登录态模式：session（Spring Session，默认）/ token（无状态签名令牌）
+     */
+    private String mode = "session";
+
+    private Token token = new Token();
+
+    public boolean isTokenMode() {
+        return "token".equals(mode);
+    }
+
+    @Data
+    public static class Token {
+
+        /**
+         * HMAC 签名密钥，token 模式下必填，多实例部署需保持一致
+         */
+        private String secret;
+
+        /**
+         * 令牌有效期
+         */
+        private Duration ttl = Duration.ofDays(7);
+
+        /**
+         * 携带令牌的请求头，值为 "Bearer 令牌"
+         */
+        private String header = "Authorization";
+
+        /**
+         * 浏览器 EventSource 无法设置请求头，以下 GET 流式接口额外从该查询参数读取令牌
+         */
+        private String queryParam = "access_token";
+
+        /**
+         * 允许从查询参数读取令牌的接口路径（不含 context-path，支持 Ant 通配符）
+         */
+        private List<String> queryParamPaths = List.of(
+                "/imageProject/chat/get/idea",
+                "/imageProject/workflow/sse/*",
+                "/imageProject/workflow/progress/*");
+
+        /**
+         * 从 Redis 同步其他实例注销令牌的间隔
+         */
+        private Duration revocationSyncInterval = Duration.ofSeconds(5);
+
+        /**
+         * 已注销令牌在 Redis 中的键
+         */
+        private String revocationKey = "spark:auth:revoked";
+    }
+}
@@ -0,0 +1,94 @@
+package com.lucius.sparkcraftbackend.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 对话记忆配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "spark.chat-memory")
+public class ChatMemoryProperties {
+
+    /**
+     * 存储类型：mysql、redis、tiered（Redis + MySQL 两级）
+     */
+    private String type = "mysql";
+
+    private Cache cache = new Cache();
+
+    private Redis redis = new Redis();
+
+    private Summary summary = new Summary();
+
+    @Data
+    public static class Cache {
+
+        /**
+         * 是否启用本地窗口缓存
+         */
+        private boolean enabled = true;
+
+        /**
+         * 每个会话缓存的消息条数
+         */
+        private int windowSize = 20;
+
+        /**
+         * 最多缓存的会话数
+         */
+        private int maxConversations = 1000;
+
+        /**
+         * 缓存消息内容的总大小上限（字节）
+         */
+        private long maxBytes = 64L * 1024 * 1024;
+
+        /**
+         * 窗口从加载起的有效时间，多实例部署时其他实例写入的消息最多延迟这么久可见
+         */
+        private Duration ttl = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Redis {
+
+        /**
+         * 会话列表的 key 前缀
+         */
+        private String keyPrefix = "spark:chat-memory:";
+
+        /**
+         * 每个会话保留的消息条数
+         */
+        private int maxMessages = 20;
+
+        /**
+         * 会话列表过期时间，每次写入时刷新
+         */
+        private Duration ttl = Duration.ofDays(7);
+    }
+
+    @Data
+    public static class Summary {
+
+        /**
+         * 滚动总结的 token 上限
+         */
+        private int summaryTokenBudget = 800;
+
+        /**
+         * 每次合并的新对话 token 上限，超出时只保留最近的对话
+         */
+        private int newMessagesTokenBudget = 2000;
+
+        /**
+         * 单条消息的 token 上限，超出时截断
+         */
+        private int maxMessageTokens = 300;
+    }
+}
@@ -0,0 +1,31 @@
+package com.lucius.sparkcraftbackend.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 精选工程列表缓存配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "spark.featured-feed")
+public class FeaturedFeedProperties {
+
+    /**
+     * 是否启用缓存
+     */
+    private boolean enabled = true;
+
+    /**
+     * 缓存前几页，更靠后的页直接查询数据库
+     */
+    private int maxCachedPages = 5;
+
+    /**
+     * 定时重建已缓存页的间隔，用户昵称、头像等变更最迟在此时间后反映到列表
+     */
+    private Duration refreshInterval = Duration.ofMinutes(5);
+}
@@ -0,0 +1,26 @@
+package com.lucius.sparkcraftbackend.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 项目归属缓存配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "spark.project-owner-cache")
+public class ProjectOwnerCacheProperties {
+
+    /**
+     * 最大缓存项目数
+     */
+    private int maxEntries = 20000;
+
+    /**
+     * 过期时间，多实例部署时其他实例删除项目后最迟在此时间后感知
+     */
+    private Duration ttl = Duration.ofSeconds(60);
+}
@@ -0,0 +1,41 @@
+package com.lucius.sparkcraftbackend.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 提示词增强语义缓存配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "spark.prompt-cache")
+public class PromptCacheProperties {
+
+    /**
+     * 是否启用缓存
+     */
+    private boolean enabled = true;
+
+    /**
+     * 最大缓存条数
+     */
+    private int maxEntries = 2000;
+
+    /**
+     * 缓存过期时间
+     */
+    private Duration ttl = Duration.ofHours(6);
+
+    /**
+     * 是否启用向量相似度匹配，关闭时只做归一化文本的精确匹配
+     */
+    private boolean similarityEnabled = true;
+
+    /**
+     * 余弦相似度阈值
+     */
+    private double similarityThreshold = 0.95;
+}
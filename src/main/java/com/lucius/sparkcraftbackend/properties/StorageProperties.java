@@ -0,0 +1,59 @@
+package com.lucius.sparkcraftbackend.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 对象存储配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "spark.storage")
+public class StorageProperties {
+
+    /**
+     * 存储类型：oss / local / s3
+     */
+    private String type = "oss";
+
+    private Local local = new Local();
+
+    private S3 s3 = new S3();
+
+    @Data
+    public static class Local {
+
+        /**
+         * 本地存储根目录
+         */
+        private String root = "./data/blobs";
+
+        /**
+         * 文件访问地址前缀，对应 BlobController
+         */
+        private String urlPrefix = "/api/blob/";
+    }
+
+    @Data
+    public static class S3 {
+
+        /**
+         * 服务地址，例如 http://localhost:9000
+         */
+        private String endpoint;
+
+        private String region = "us-east-1";
+
+        private String accessKey;
+
+        private String secretKey;
+
+        private String bucket;
+
+        /**
+         * 文件访问地址前缀，为空时使用 endpoint/bucket/
+         */
+        private String publicUrl;
+    }
+}
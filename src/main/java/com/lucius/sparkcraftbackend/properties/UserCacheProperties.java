@@ -0,0 +1,46 @@
+package com.lucius.sparkcraftbackend.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 登录用户缓存配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "spark.user-cache")
+public class UserCacheProperties {
+
+    /**
+     * 是否启用缓存
+     */
+    private boolean enabled = true;
+
+    /**
+     * 本地缓存最大用户数
+     */
+    private int maxEntries = 10000;
+
+    /**
+     * 本地缓存过期时间，多实例部署时也是其他实例感知用户变更的最长延迟
+     */
+    private Duration localTtl = Duration.ofSeconds(30);
+
+    /**
+     * 是否启用 Redis 二级缓存
+     */
+    private boolean redisEnabled = false;
+
+    /**
+     * Redis 缓存过期时间
+     */
+    private Duration redisTtl = Duration.ofMinutes(10);
+
+    /**
+     * Redis 键前缀
+     */
+    private String keyPrefix = "spark:user:";
+}
@@ -0,0 +1,21 @@
+package com.lucius.sparkcraftbackend.service;
+
+import com.lucius.sparkcraftbackend.entity.AssetMirror;
+import com.mybatisflex.core.service.IService;
+
+/**
+ * 资源镜像 服务层。
+ *
+ * @author <a href="https://github.com/LuciusWan">LuciusWan</a>
+ */
+public interface AssetMirrorService extends IService<AssetMirror> {
+
+    /**
+     * 将外部图片镜像到 OSS
+     * 同一地址只下载、上传一次，之后直接返回已有的 OSS 地址；内容相同的图片共用同一个对象
+     *
+     * @param sourceUrl 外部图片地址
+     * @return OSS 地址
+     */
+    String mirror(String sourceUrl);
+}
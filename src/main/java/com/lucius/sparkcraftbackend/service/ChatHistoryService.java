@@ -9,6 +9,7 @@ import com.mybatisflex.core.service.IService;
 import dev.langchain4j.memory.chat.MessageWindowChatMemory;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 对话历史 服务层。
@@ -25,6 +26,14 @@ public interface ChatHistoryService extends IService<ChatHistory> {
      * @return 是否添加成功
      */
     boolean addChatMessage(Long appId, String message, String messageType, Long userId);
+    /**
+     * 异步添加对话消息，参数校验后放入队列，由后台线程批量落库
+     * @param appId 应用ID
+     * @param message 发送的信息
+     * @param messageType 信息的类型
+     * @param userId 用户的ID
+     */
+    void addChatMessageAsync(Long appId, String message, String messageType, Long userId);
     /**
      * 通过应用ID删除对话消息
      * @param appId 应用ID
@@ -38,6 +47,22 @@ public interface ChatHistoryService extends IService<ChatHistory> {
      */
     QueryWrapper getQueryWrapper(ChatHistoryQueryRequest chatHistoryQueryRequest);
 
+    /**
+     * 按 (createTime, id) 游标倒序查询应用下的对话历史
+     * @param chatHistoryQueryRequest 查询条件，appId 必填，lastCreateTime/lastId 为上一页最后一条记录
+     * @return 一页对话历史
+     */
+    List<ChatHistory> listAppChatHistoryByCursor(ChatHistoryQueryRequest chatHistoryQueryRequest);
+
+    /**
+     * 全文检索应用下的对话消息，按相关度排序
+     * @param appId 应用ID
+     * @param keyword 关键词
+     * @param limit 最多返回条数
+     * @return 命中的对话消息
+     */
+    List<ChatHistory> searchAppChatHistory(Long appId, String keyword, int limit);
+
     /**
      * 加载应用下的对话消息到内存中
      * @param appId 应用ID
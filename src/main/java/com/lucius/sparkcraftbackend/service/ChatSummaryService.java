@@ -0,0 +1,40 @@
+package com.lucius.sparkcraftbackend.service;
+
+import com.lucius.sparkcraftbackend.dto.ChatSummaryDraft;
+import com.lucius.sparkcraftbackend.entity.ChatSummary;
+import com.mybatisflex.core.service.IService;
+
+/**
+ * 对话总结 服务层。
+ *
+ * @author <a href="https://github.com/LuciusWan">LuciusWan</a>
+ */
+public interface ChatSummaryService extends IService<ChatSummary> {
+
+    /**
+     * 获取应用的滚动对话总结
+     * 只把上次总结之后新增的对话合并进已有总结，没有新对话时直接返回已保存的总结，不调用大模型
+     *
+     * @param appId 应用ID
+     * @return 对话总结，没有任何对话时返回空字符串
+     */
+    String getRollingSummary(Long appId);
+
+    /**
+     * 读取已保存的总结和水位线之后的新对话，不调用大模型
+     * 调用方可以把合并总结并入自己的大模型调用，再通过 saveMergedSummary 保存
+     *
+     * @param appId 应用ID
+     * @return 待合并的对话总结
+     */
+    ChatSummaryDraft prepareDraft(Long appId);
+
+    /**
+     * 保存合并后的总结并推进水位线
+     *
+     * @param draft         prepareDraft 返回的待合并总结
+     * @param mergedSummary 合并后的总结
+     * @return 按 token 预算截断后实际保存的总结
+     */
+    String saveMergedSummary(ChatSummaryDraft draft, String mergedSummary);
+}
@@ -2,11 +2,12 @@ package com.lucius.sparkcraftbackend.service;
 
 import com.lucius.sparkcraftbackend.dto.ImageProjectQueryRequest;
 import com.lucius.sparkcraftbackend.entity.User;
+import com.lucius.sparkcraftbackend.vo.CursorPageVO;
 import com.lucius.sparkcraftbackend.vo.ImageProjectVO;
+import com.mybatisflex.core.paginate.Page;
 import com.mybatisflex.core.query.QueryWrapper;
 import com.mybatisflex.core.service.IService;
 import com.lucius.sparkcraftbackend.entity.ImageProject;
-import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import reactor.core.publisher.Flux;
 
 import java.util.List;
@@ -24,5 +25,41 @@ public interface ImageProjectService extends IService<ImageProject> {
 
     List<ImageProjectVO> getImageVOList(List<ImageProject> records);
 
-    void chatToGetTheIdea(Long imageProjectId, String message, User loginUser, SseEmitter emitter);
+    /**
+     * 按页码分页查询，没有关键词筛选时使用缓存的总数，不再每页执行 count
+     */
+    Page<ImageProject> pageImageProjects(ImageProjectQueryRequest imageProjectQueryRequest);
+
+    /**
+     * 按 (createTime, id) 倒序游标分页，必须指定 userId 或 priority
+     */
+    CursorPageVO<ImageProjectVO> listImageProjectVOByCursor(ImageProjectQueryRequest imageProjectQueryRequest);
+
+    /**
+     * 统计用户或某优先级的工程数，结果短时间缓存
+     */
+    long countImageProjects(Long userId, Integer priority);
+
+    /**
+     * 全文检索用户的工程名称和描述，按相关度排序
+     */
+    List<ImageProject> searchImageProjects(Long userId, String keyword, int limit);
+
+    /**
+     * 记录工作流结果，由后台线程合并后只更新结果列和状态；为 null 的结果不覆盖原值。
+     * 制造流程保存为工作流产物，工程表中只保存引用
+     */
+    void saveWorkflowResult(Long imageProjectId, String projectImageUrl, String productionProcess, String threeDModelUrl);
+
+    /**
+     * 立即写入所有待保存的工作流结果
+     *
+     * @return 实际更新的工程数，被状态条件跳过的不计入
+     */
+    int flushWorkflowResults();
+
+    /**
+     * 与 AI 对话获取创意灵感，返回合并后的回复片段流，取消订阅即中止对话
+     */
+    Flux<String> chatToGetTheIdea(Long imageProjectId, String message, User loginUser);
 }
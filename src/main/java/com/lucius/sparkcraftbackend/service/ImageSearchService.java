@@ -19,11 +19,11 @@ public interface ImageSearchService {
     List<ImageResource> searchImages(String keywords, int count);
 
     /**
-     * 下载图片并上传到阿里云 OSS
+     * 下载图片并上传到阿里云 OSS，已镜像过的图片直接返回已有地址
      *
      * @param imageUrl 图片 URL
-     * @param fileName 文件名
+     * @param fileName 文件名（镜像对象按原始地址命名，不再使用）
      * @return OSS 中的图片 URL
      */
     String downloadAndUploadToOss(String imageUrl, String fileName);
-}
\ No newline at end of file
+}
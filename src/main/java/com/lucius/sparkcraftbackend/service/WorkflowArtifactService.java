@@ -0,0 +1,29 @@
+package com.lucius.sparkcraftbackend.service;
+
+import com.lucius.sparkcraftbackend.entity.WorkflowArtifact;
+import com.mybatisflex.core.service.IService;
+
+/**
+ * 工作流产物 服务层。
+ *
+ * @author <a href="https://github.com/LuciusWan">LuciusWan</a>
+ */
+public interface WorkflowArtifactService extends IService<WorkflowArtifact> {
+
+    /**
+     * 保存大文本，返回写入业务表的值
+     * 内容相同的文本只保存一份；较短的文本不单独保存，原样返回
+     *
+     * @param content 文本内容
+     * @return 产物引用，或原文本
+     */
+    String store(String content);
+
+    /**
+     * 把业务表中的值还原为文本，不是产物引用的值（包括旧数据中的原文）原样返回
+     *
+     * @param value 业务表中的值
+     * @return 文本内容，引用的产物不存在时返回 null
+     */
+    String resolve(String value);
+}
@@ -0,0 +1,210 @@
+package com.lucius.sparkcraftbackend.service.impl;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import cn.hutool.http.HttpRequest;
+import cn.hutool.http.HttpResponse;
+import com.lucius.sparkcraftbackend.entity.AssetMirror;
+import com.lucius.sparkcraftbackend.exception.BusinessException;
+import com.lucius.sparkcraftbackend.exception.ErrorCode;
+import com.lucius.sparkcraftbackend.exception.ThrowUtils;
+import com.lucius.sparkcraftbackend.mapper.AssetMirrorMapper;
+import com.lucius.sparkcraftbackend.service.AssetMirrorService;
+import com.lucius.sparkcraftbackend.storage.BlobStore;
+import com.mybatisflex.core.query.QueryWrapper;
+import com.mybatisflex.spring.service.impl.ServiceImpl;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 资源镜像 服务层实现。
+ *
+ * @author <a href="https://github.com/LuciusWan">LuciusWan</a>
+ */
+@Service
+@Slf4j
+public class AssetMirrorServiceImpl extends ServiceImpl<AssetMirrorMapper, AssetMirror> implements AssetMirrorService {
+
+    private static final String MIRROR_PREFIX = "images/mirror/";
+
+    private static final int LOCAL_CACHE_SIZE = 2048;
+
+    @Resource
+    private BlobStore blobStore;
+
+    /**
+     * 原始地址 -> OSS 地址的本地缓存（LRU）
+     */
+    private final Map<String, String> localCache = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                    return size() > LOCAL_CACHE_SIZE;
+                }
+            });
+
+    /**
+     * 正在镜像中的地址，同一地址的并发请求共用一次下载
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    @Override
+    public String mirror(String sourceUrl) {
+        ThrowUtils.throwIf(sourceUrl == null || sourceUrl.isBlank(), ErrorCode.PARAMS_ERROR, "图片地址不能为空");
+        String cached = localCache.get(sourceUrl);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<String> created = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(sourceUrl, created);
+        if (existing != null) {
+            log.debug("图片正在镜像中，等待结果: {}", sourceUrl);
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException re ? re : e;
+            }
+        }
+
+        try {
+            String ossUrl = loadOrMirror(sourceUrl);
+            localCache.put(sourceUrl, ossUrl);
+            created.complete(ossUrl);
+            return ossUrl;
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(sourceUrl, created);
+        }
+    }
+
+    /**
+     * 先查镜像表，未命中时下载到临时文件并计算内容哈希
+     * 内容已存在时直接复用已有对象，不再上传；否则按实际字节数上传
+     */
+    private String loadOrMirror(String sourceUrl) {
+        String sourceUrlHash = DigestUtil.sha256Hex(sourceUrl);
+        AssetMirror mirrored = getBySourceUrlHash(sourceUrlHash);
+        if (mirrored != null) {
+            log.info("命中图片镜像，跳过下载: {} -> {}", sourceUrl, mirrored.getOssUrl());
+            return mirrored.getOssUrl();
+        }
+
+        Path tempFile = null;
+        String ossUrl;
+        String contentHash;
+        long contentLength;
+        try {
+            tempFile = Files.createTempFile("asset-mirror-", ".tmp");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            contentLength = download(sourceUrl, tempFile, digest);
+            contentHash = HexFormat.of().formatHex(digest.digest());
+
+            // 不同地址但内容相同的图片，复用已有对象
+            AssetMirror sameContent = getOne(QueryWrapper.create().eq("contentHash", contentHash).limit(1));
+            if (sameContent != null) {
+                log.info("图片内容已存在，复用已有对象: {}", sameContent.getOssUrl());
+                ossUrl = sameContent.getOssUrl();
+            } else {
+                // 对象名由原始地址决定，重复上传只会覆盖同一个对象
+                String objectName = MIRROR_PREFIX + sourceUrlHash + getFileExtension(sourceUrl);
+                try (InputStream body = Files.newInputStream(tempFile)) {
+                    ossUrl = blobStore.put(objectName, body, contentLength);
+                }
+            }
+        } catch (BusinessException e) {
+            throw e;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (Exception e) {
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "镜像图片失败: " + e.getMessage());
+        } finally {
+            deleteQuietly(tempFile);
+        }
+
+        AssetMirror assetMirror = AssetMirror.builder()
+                .sourceUrl(sourceUrl)
+                .sourceUrlHash(sourceUrlHash)
+                .contentHash(contentHash)
+                .ossUrl(ossUrl)
+                .contentLength(contentLength)
+                .build();
+        try {
+            save(assetMirror);
+        } catch (DuplicateKeyException e) {
+            // 其他实例已经写入了同一地址的镜像，以已有记录为准
+            AssetMirror winner = getBySourceUrlHash(sourceUrlHash);
+            if (winner != null) {
+                return winner.getOssUrl();
+            }
+        }
+        log.info("图片镜像完成: {} -> {}", sourceUrl, ossUrl);
+        return ossUrl;
+    }
+
+    /**
+     * 下载到临时文件，同时计算摘要
+     *
+     * @return 实际下载的字节数，不依赖响应头中的 Content-Length
+     */
+    private long download(String sourceUrl, Path target, MessageDigest digest) throws IOException {
+        try (HttpResponse response = HttpRequest.get(sourceUrl)
+                .timeout(15000)
+                .executeAsync()) {
+            if (!response.isOk()) {
+                throw new BusinessException(ErrorCode.OPERATION_ERROR, "下载图片失败，状态码: " + response.getStatus());
+            }
+            try (DigestInputStream body = new DigestInputStream(response.bodyStream(), digest);
+                 OutputStream out = Files.newOutputStream(target)) {
+                return body.transferTo(out);
+            }
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("删除临时文件失败: {}", file, e);
+        }
+    }
+
+    private AssetMirror getBySourceUrlHash(String sourceUrlHash) {
+        return getOne(QueryWrapper.create().eq("sourceUrlHash", sourceUrlHash));
+    }
+
+    /**
+     * 获取文件扩展名
+     */
+    private String getFileExtension(String url) {
+        String path = url.split("\\?")[0]; // 移除查询参数
+        int lastDotIndex = path.lastIndexOf('.');
+        int lastSlashIndex = path.lastIndexOf('/');
+        if (lastDotIndex > lastSlashIndex && lastDotIndex < path.length() - 1 && path.length() - lastDotIndex <= 6) {
+            return path.substring(lastDotIndex);
+        }
+        return ".jpg"; // 默认扩展名
+    }
+}
@@ -2,6 +2,7 @@ package com.lucius.sparkcraftbackend.service.impl;
 
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.StrUtil;
+import com.lucius.sparkcraftbackend.constant.ChatHistoryConstant;
 import com.lucius.sparkcraftbackend.dto.ChatHistoryQueryRequest;
 import com.lucius.sparkcraftbackend.entity.ChatHistory;
 import com.lucius.sparkcraftbackend.enums.ChatHistoryMessageTypeEnum;
@@ -9,20 +10,31 @@ import com.lucius.sparkcraftbackend.exception.ErrorCode;
 import com.lucius.sparkcraftbackend.exception.ThrowUtils;
 import com.lucius.sparkcraftbackend.mapper.ChatHistoryMapper;
 import com.lucius.sparkcraftbackend.service.ChatHistoryService;
+import com.lucius.sparkcraftbackend.utils.FullTextSearchUtils;
+import com.mybatisflex.core.query.QueryMethods;
 import com.mybatisflex.core.query.QueryWrapper;
 import com.mybatisflex.spring.service.impl.ServiceImpl;
 import dev.langchain4j.data.message.AiMessage;
 import dev.langchain4j.data.message.UserMessage;
 import dev.langchain4j.memory.chat.MessageWindowChatMemory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 对话历史 服务层实现。
+ * 流式对话产生的消息通过 addChatMessageAsync 进入内存队列，由后台线程合并成多行 INSERT 写入
  *
  * @author <a href="https://github.com/LuciusWan">LuciusWan</a>
  */
@@ -31,8 +43,90 @@ import java.util.List;
 public class ChatHistoryServiceImpl extends ServiceImpl<ChatHistoryMapper, ChatHistory>  implements ChatHistoryService {
 
 
+    private static final int BATCH_SIZE = 100;
+
+    private static final int QUEUE_CAPACITY = 10000;
+
+    private static final long FLUSH_INTERVAL_MS = 200;
+
+    /**
+     * 等待落库的对话消息
+     */
+    private final BlockingDeque<ChatHistory> pendingQueue = new LinkedBlockingDeque<>(QUEUE_CAPACITY);
+
+    private final Object flushLock = new Object();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "chat-history-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("应用关闭，写入剩余的对话历史: {} 条", pendingQueue.size());
+        flush();
+    }
+
     @Override
     public boolean addChatMessage(Long appId, String message, String messageType, Long userId) {
+        return this.save(buildChatHistory(appId, message, messageType, userId));
+    }
+
+    @Override
+    public void addChatMessageAsync(Long appId, String message, String messageType, Long userId) {
+        ChatHistory chatHistory = buildChatHistory(appId, message, messageType, userId);
+        // 入队时记录时间，落库延迟不影响按 createTime 排序
+        LocalDateTime now = LocalDateTime.now();
+        chatHistory.setCreateTime(now);
+        chatHistory.setUpdateTime(now);
+        chatHistory.setIsDelete(0);
+        // 队列已满时由调用线程直接落库，避免无限堆积
+        while (!pendingQueue.offer(chatHistory)) {
+            flush();
+        }
+    }
+
+    /**
+     * 把队列中的消息按批次以多行 INSERT 写入数据库，写入失败的批次放回队首等待下次重试
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            List<ChatHistory> batch = new ArrayList<>(BATCH_SIZE);
+            while (pendingQueue.drainTo(batch, BATCH_SIZE) > 0) {
+                try {
+                    this.getMapper().insertBatch(batch);
+                } catch (RuntimeException e) {
+                    for (int i = batch.size() - 1; i >= 0; i--) {
+                        pendingQueue.offerFirst(batch.get(i));
+                    }
+                    throw e;
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("对话历史批量写入失败，稍后重试", e);
+        }
+    }
+
+    private static ChatHistory buildChatHistory(Long appId, String message, String messageType, Long userId) {
         ThrowUtils.throwIf(appId == null || appId <= 0, ErrorCode.PARAMS_ERROR, "应用ID不能为空");
         ThrowUtils.throwIf(StrUtil.isBlank(message), ErrorCode.PARAMS_ERROR, "消息内容不能为空");
         ThrowUtils.throwIf(StrUtil.isBlank(messageType), ErrorCode.PARAMS_ERROR, "消息类型不能为空");
@@ -40,14 +134,14 @@ public class ChatHistoryServiceImpl extends ServiceImpl<ChatHistoryMapper, ChatH
         // 验证消息类型是否有效
         ChatHistoryMessageTypeEnum messageTypeEnum = ChatHistoryMessageTypeEnum.getEnumByValue(messageType);
         ThrowUtils.throwIf(messageTypeEnum == null, ErrorCode.PARAMS_ERROR, "不支持的消息类型: " + messageType);
-        ChatHistory chatHistory = ChatHistory.builder()
+        return ChatHistory.builder()
                 .appId(appId)
                 .message(message)
                 .messageType(messageType)
                 .userId(userId)
                 .build();
-        return this.save(chatHistory);
     }
+
     @Override
     public boolean deleteByAppId(Long appId) {
         ThrowUtils.throwIf(appId == null || appId <= 0, ErrorCode.PARAMS_ERROR, "应用ID不能为空");
@@ -77,10 +171,10 @@ public class ChatHistoryServiceImpl extends ServiceImpl<ChatHistoryMapper, ChatH
         String sortOrder = chatHistoryQueryRequest.getSortOrder();
         // 拼接查询条件
         queryWrapper.eq("id", id)
-                .like("message", message)
                 .eq("messageType", messageType)
                 .eq("appId", appId)
                 .eq("userId", userId);
+        FullTextSearchUtils.containsPhrase(queryWrapper, "message", message);
         // 游标查询逻辑 - 只使用 createTime 作为游标
         if (lastCreateTime != null) {
             queryWrapper.lt("createTime", lastCreateTime);
@@ -94,6 +188,53 @@ public class ChatHistoryServiceImpl extends ServiceImpl<ChatHistoryMapper, ChatH
         }
         return queryWrapper;
     }
+    /**
+     * 游标分页走 (appId, createTime, id) 索引，翻到多深都只扫描一页的数据
+     */
+    @Override
+    public List<ChatHistory> listAppChatHistoryByCursor(ChatHistoryQueryRequest chatHistoryQueryRequest) {
+        ThrowUtils.throwIf(chatHistoryQueryRequest == null, ErrorCode.PARAMS_ERROR);
+        Long appId = chatHistoryQueryRequest.getAppId();
+        ThrowUtils.throwIf(appId == null || appId <= 0, ErrorCode.PARAMS_ERROR, "应用ID不能为空");
+        int pageSize = chatHistoryQueryRequest.getPageSize();
+        ThrowUtils.throwIf(pageSize <= 0 || pageSize > ChatHistoryConstant.MAX_PAGE_SIZE, ErrorCode.PARAMS_ERROR,
+                "每页最多查询 " + ChatHistoryConstant.MAX_PAGE_SIZE + " 条对话");
+        QueryWrapper queryWrapper = QueryWrapper.create();
+        if (!chatHistoryQueryRequest.isWithMessage()) {
+            // 列表视图不读取消息正文，查询可由索引覆盖
+            queryWrapper.select("id", "messageType", "appId", "userId", "createTime");
+        }
+        queryWrapper.eq(ChatHistory::getAppId, appId);
+        LocalDateTime lastCreateTime = chatHistoryQueryRequest.getLastCreateTime();
+        Long lastId = chatHistoryQueryRequest.getLastId();
+        // createTime < 游标时间，或同一时间下 id < 游标 id；未传游标时查询第一页
+        queryWrapper.and(wrapper -> wrapper.lt(ChatHistory::getCreateTime, lastCreateTime)
+                .or(tie -> tie.eq(ChatHistory::getCreateTime, lastCreateTime).lt(ChatHistory::getId, lastId),
+                        lastId != null), lastCreateTime != null);
+        queryWrapper.orderBy(ChatHistory::getCreateTime, false)
+                .orderBy(ChatHistory::getId, false)
+                .limit(pageSize);
+        return this.list(queryWrapper);
+    }
+
+    @Override
+    public List<ChatHistory> searchAppChatHistory(Long appId, String keyword, int limit) {
+        ThrowUtils.throwIf(appId == null || appId <= 0, ErrorCode.PARAMS_ERROR, "应用ID不能为空");
+        ThrowUtils.throwIf(!FullTextSearchUtils.isIndexable(keyword), ErrorCode.PARAMS_ERROR,
+                "关键词至少 " + FullTextSearchUtils.MIN_KEYWORD_LENGTH + " 个字符");
+        ThrowUtils.throwIf(limit <= 0 || limit > ChatHistoryConstant.MAX_PAGE_SIZE, ErrorCode.PARAMS_ERROR,
+                "最多返回 " + ChatHistoryConstant.MAX_PAGE_SIZE + " 条结果");
+        String text = keyword.trim();
+        String match = FullTextSearchUtils.naturalMatch("message");
+        QueryWrapper queryWrapper = QueryWrapper.create()
+                .select(QueryMethods.allColumns(), FullTextSearchUtils.scoreColumn(match, "score", text))
+                .eq(ChatHistory::getAppId, appId)
+                .and(match, text)
+                .orderBy("score desc", "id desc")
+                .limit(limit);
+        return this.list(queryWrapper);
+    }
+
     @Override
     public int loadChatHistoryToMemory(Long appId, MessageWindowChatMemory chatMemory, int maxCount) {
         try {
@@ -0,0 +1,205 @@
+package com.lucius.sparkcraftbackend.service.impl;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.StrUtil;
+import com.lucius.sparkcraftbackend.dto.ChatSummaryDraft;
+import com.lucius.sparkcraftbackend.entity.ChatHistory;
+import com.lucius.sparkcraftbackend.entity.ChatSummary;
+import com.lucius.sparkcraftbackend.enums.ChatHistoryMessageTypeEnum;
+import com.lucius.sparkcraftbackend.exception.ErrorCode;
+import com.lucius.sparkcraftbackend.exception.ThrowUtils;
+import com.lucius.sparkcraftbackend.mapper.ChatSummaryMapper;
+import com.lucius.sparkcraftbackend.properties.ChatMemoryProperties;
+import com.lucius.sparkcraftbackend.service.ChatHistoryService;
+import com.lucius.sparkcraftbackend.service.ChatSummaryService;
+import com.mybatisflex.core.query.QueryWrapper;
+import com.mybatisflex.spring.service.impl.ServiceImpl;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 对话总结 服务层实现。
+ * 总结按 appId 持久化，并记录已合并的最后一条对话历史 id；每次只把水位线之后的新对话（按 token 预算截取最近部分）
+ * 与已有总结一起交给大模型合并，提示词长度不随对话轮数增长
+ *
+ * @author <a href="https://github.com/LuciusWan">LuciusWan</a>
+ */
+@Service
+@Slf4j
+public class ChatSummaryServiceImpl extends ServiceImpl<ChatSummaryMapper, ChatSummary> implements ChatSummaryService {
+
+    /**
+     * 单次最多读取的新对话条数
+     */
+    private static final int FETCH_LIMIT = 100;
+
+    private static final TokenCountEstimator TOKEN_COUNT_ESTIMATOR = new JTokkitTokenCountEstimator();
+
+    @Resource
+    private ChatHistoryService chatHistoryService;
+
+    @Resource
+    @Qualifier("promptSummeryChatClient")
+    private ChatClient promptSummeryChatClient;
+
+    @Resource
+    private ChatMemoryProperties chatMemoryProperties;
+
+    @Override
+    public String getRollingSummary(Long appId) {
+        ChatSummaryDraft draft = prepareDraft(appId);
+        if (!draft.hasNewDialogue()) {
+            return draft.getSummary();
+        }
+        String merged = mergeSummary(draft.getSummary(), draft.getNewDialogue(),
+                chatMemoryProperties.getSummary().getSummaryTokenBudget());
+        if (merged == null) {
+            // 合并失败时不推进水位线，本次直接带上原始对话，下次再重试合并
+            return StrUtil.isBlank(draft.getSummary())
+                    ? draft.getNewDialogue()
+                    : draft.getSummary() + "\n\n" + draft.getNewDialogue();
+        }
+        return saveMergedSummary(draft, merged);
+    }
+
+    @Override
+    public ChatSummaryDraft prepareDraft(Long appId) {
+        ThrowUtils.throwIf(appId == null || appId <= 0, ErrorCode.PARAMS_ERROR, "应用ID不能为空");
+        ChatMemoryProperties.Summary config = chatMemoryProperties.getSummary();
+
+        ChatSummary chatSummary = this.getOne(QueryWrapper.create().eq(ChatSummary::getAppId, appId));
+        String summary = chatSummary != null ? StrUtil.nullToEmpty(chatSummary.getSummary()) : "";
+        Long previousWatermark = chatSummary != null ? chatSummary.getLastMessageId() : null;
+        ChatSummaryDraft draft = ChatSummaryDraft.builder()
+                .appId(appId)
+                .summary(summary)
+                .newDialogue("")
+                .previousLastMessageId(previousWatermark)
+                .lastMessageId(previousWatermark)
+                .build();
+
+        // 按 id 倒序取新对话，从最新的开始装入预算
+        List<ChatHistory> newMessages = chatHistoryService.list(QueryWrapper.create()
+                .eq(ChatHistory::getAppId, appId)
+                .gt(ChatHistory::getId, previousWatermark != null ? previousWatermark : 0L)
+                .orderBy(ChatHistory::getId, false)
+                .limit(FETCH_LIMIT));
+        if (CollUtil.isEmpty(newMessages)) {
+            return draft;
+        }
+        List<String> lines = new ArrayList<>();
+        int tokens = 0;
+        for (ChatHistory message : newMessages) {
+            String line = formatMessage(message, config.getMaxMessageTokens());
+            int lineTokens = estimateTokens(line);
+            if (!lines.isEmpty() && tokens + lineTokens > config.getNewMessagesTokenBudget()) {
+                log.info("新对话超出 token 预算，appId: {}, 合并 {} 条，跳过更早的 {} 条",
+                        appId, lines.size(), newMessages.size() - lines.size());
+                break;
+            }
+            lines.add(line);
+            tokens += lineTokens;
+        }
+        Collections.reverse(lines);
+        draft.setNewDialogue(String.join("\n", lines));
+        draft.setLastMessageId(newMessages.get(0).getId());
+        return draft;
+    }
+
+    /**
+     * 保存总结并推进水位线
+     * 更新时以旧水位线作为条件，并发合并时只有一个结果生效
+     */
+    @Override
+    public String saveMergedSummary(ChatSummaryDraft draft, String mergedSummary) {
+        Long appId = draft.getAppId();
+        String summary = truncateToTokens(StrUtil.trim(mergedSummary), chatMemoryProperties.getSummary().getSummaryTokenBudget());
+        ChatSummary update = ChatSummary.builder()
+                .appId(appId)
+                .summary(summary)
+                .summaryTokens(estimateTokens(summary))
+                .lastMessageId(draft.getLastMessageId())
+                .build();
+        if (draft.getPreviousLastMessageId() == null) {
+            try {
+                this.save(update);
+            } catch (DuplicateKeyException e) {
+                log.info("对话总结已由其他请求创建，appId: {}", appId);
+            }
+            return summary;
+        }
+        boolean updated = this.update(update, QueryWrapper.create()
+                .eq(ChatSummary::getAppId, appId)
+                .eq(ChatSummary::getLastMessageId, draft.getPreviousLastMessageId()));
+        if (!updated) {
+            log.info("对话总结已被其他请求更新，appId: {}", appId);
+        }
+        return summary;
+    }
+
+    /**
+     * 让大模型把新对话合并进已有总结
+     *
+     * @return 合并后的总结，失败时返回 null
+     */
+    private String mergeSummary(String summary, String newDialogue, int summaryTokenBudget) {
+        StringBuilder input = new StringBuilder();
+        input.append("已有的对话记忆总结：\n")
+                .append(StrUtil.isBlank(summary) ? "无" : summary)
+                .append("\n\n新增的对话记录：\n")
+                .append(newDialogue)
+                .append("\n\n请把新增对话中的信息合并进已有总结，输出更新后的完整总结，不超过 ")
+                .append(summaryTokenBudget)
+                .append(" 个 token。");
+        try {
+            String merged = promptSummeryChatClient.prompt()
+                    .user(input.toString())
+                    .call()
+                    .content();
+            if (StrUtil.isBlank(merged)) {
+                log.warn("AI 合并对话总结结果为空");
+                return null;
+            }
+            return merged.trim();
+        } catch (Exception e) {
+            log.error("AI 合并对话总结失败", e);
+            return null;
+        }
+    }
+
+    private static String formatMessage(ChatHistory message, int maxMessageTokens) {
+        ChatHistoryMessageTypeEnum type = ChatHistoryMessageTypeEnum.getEnumByValue(message.getMessageType());
+        String role = type != null ? type.getText() : "系统";
+        String content = truncateToTokens(StrUtil.trim(message.getMessage()), maxMessageTokens);
+        return "[" + role + "]: " + content;
+    }
+
+    /**
+     * 按 token 数截断，按字符比例估算截断位置，避免逐 token 解码
+     */
+    private static String truncateToTokens(String text, int maxTokens) {
+        if (StrUtil.isEmpty(text)) {
+            return "";
+        }
+        int tokens = estimateTokens(text);
+        if (tokens <= maxTokens) {
+            return text;
+        }
+        int end = (int) ((long) text.length() * maxTokens / tokens);
+        return text.substring(0, end).trim() + "...";
+    }
+
+    private static int estimateTokens(String text) {
+        return TOKEN_COUNT_ESTIMATOR.estimate(text);
+    }
+}
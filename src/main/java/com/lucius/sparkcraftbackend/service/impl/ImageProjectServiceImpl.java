@@ -1,40 +1,52 @@
 package com.lucius.sparkcraftbackend.service.impl;
 
-import cn.hutool.core.bean.BeanUtil;
-import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.convert.Convert;
 import cn.hutool.core.util.StrUtil;
-import cn.hutool.json.JSONException;
-import cn.hutool.json.JSONObject;
 import com.lucius.sparkcraftbackend.ai.handler.StreamHandlerExecutor;
+import com.lucius.sparkcraftbackend.assembler.VOAssembler;
+import com.lucius.sparkcraftbackend.cache.FeaturedFeedCache;
+import com.lucius.sparkcraftbackend.cache.LocalTtlCache;
+import com.lucius.sparkcraftbackend.cache.ProjectOwnerCache;
+import com.lucius.sparkcraftbackend.constant.ImageProjectConstant;
 import com.lucius.sparkcraftbackend.dto.ImageProjectQueryRequest;
 import com.lucius.sparkcraftbackend.entity.User;
 import com.lucius.sparkcraftbackend.enums.ChatHistoryMessageTypeEnum;
 import com.lucius.sparkcraftbackend.exception.BusinessException;
 import com.lucius.sparkcraftbackend.exception.ErrorCode;
+import com.lucius.sparkcraftbackend.exception.ThrowUtils;
 import com.lucius.sparkcraftbackend.service.ChatHistoryService;
-import com.lucius.sparkcraftbackend.service.UserService;
+import com.lucius.sparkcraftbackend.service.WorkflowArtifactService;
+import com.lucius.sparkcraftbackend.utils.FullTextSearchUtils;
+import com.lucius.sparkcraftbackend.vo.CursorPageVO;
 import com.lucius.sparkcraftbackend.vo.ImageProjectVO;
-import com.lucius.sparkcraftbackend.vo.UserVO;
+import com.mybatisflex.core.paginate.Page;
+import com.mybatisflex.core.query.QueryMethods;
 import com.mybatisflex.core.query.QueryWrapper;
+import com.mybatisflex.core.row.Db;
 import com.mybatisflex.spring.service.impl.ServiceImpl;
 import com.lucius.sparkcraftbackend.entity.ImageProject;
 import com.lucius.sparkcraftbackend.mapper.ImageProjectMapper;
 import com.lucius.sparkcraftbackend.service.ImageProjectService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.advisor.AbstractChatMemoryAdvisor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import reactor.core.publisher.Flux;
 
-import java.io.IOException;
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
-import java.util.stream.Collectors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  *  服务层实现。
@@ -44,33 +56,101 @@ import java.util.stream.Collectors;
 @Service
 @Slf4j
 public class ImageProjectServiceImpl extends ServiceImpl<ImageProjectMapper, ImageProject>  implements ImageProjectService{
-    @Resource
-    private UserService userService;
     @Resource
     private ChatHistoryService chatHistoryService;
     @Resource
     private StreamHandlerExecutor streamHandlerExecutor;
+    @Resource
+    private ProjectOwnerCache projectOwnerCache;
+    @Resource
+    private VOAssembler voAssembler;
+    @Resource
+    private FeaturedFeedCache featuredFeedCache;
+    @Resource
+    private WorkflowArtifactService workflowArtifactService;
     @Autowired
     private ChatClient getIdeaChatClient;
 
-    private final ExecutorService executorService = Executors.newSingleThreadExecutor();
+
+    /**
+     * 每个用户同时进行的灵感对话数上限
+     */
+    @Value("${spark.idea-chat.max-concurrent-per-user:2}")
+    private int ideaChatMaxConcurrentPerUser;
+
+    /**
+     * 合并发送的最大片段数
+     */
+    @Value("${spark.idea-chat.batch-size:16}")
+    private int ideaChatBatchSize;
+
+    /**
+     * 合并发送的最长等待时间（毫秒）
+     */
+    @Value("${spark.idea-chat.batch-window-ms:50}")
+    private long ideaChatBatchWindowMs;
+
+    /**
+     * 各用户正在进行的灵感对话数，计数归零时移除
+     */
+    private final ConcurrentHashMap<Long, Integer> activeIdeaChats = new ConcurrentHashMap<>();
+
+    /**
+     * 工程总数缓存（"用户id:优先级" -> 总数），翻页时不再每页 count
+     */
+    private final LocalTtlCache<String, Long> projectCounts = new LocalTtlCache<>(10000, 30_000, System::currentTimeMillis);
+
+    private static final int RESULT_BATCH_SIZE = 100;
+
+    private static final long RESULT_FLUSH_INTERVAL_MS = 500;
+
+    /**
+     * 等待写入的工作流结果（工程id -> 结果列），同一工程只保留最新的结果
+     */
+    private final ConcurrentHashMap<Long, ImageProject> pendingResults = new ConcurrentHashMap<>();
+
+    private final Object resultFlushLock = new Object();
+
+    private final ScheduledExecutorService resultFlusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "workflow-result-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void start() {
+        resultFlusher.scheduleWithFixedDelay(this::flushWorkflowResultsQuietly,
+                RESULT_FLUSH_INTERVAL_MS, RESULT_FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        resultFlusher.shutdown();
+        try {
+            resultFlusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushWorkflowResultsQuietly();
+    }
+
     @Override
     public ImageProjectVO getImageVO(ImageProject imageProject) {
-        if (imageProject == null) {
-            return null;
-        }
-        ImageProjectVO imageProjectVO = new ImageProjectVO();
-        BeanUtil.copyProperties(imageProject, imageProjectVO);
-        // 关联查询用户信息
-        Long userId = imageProject.getUserId();
-        if (userId != null) {
-            User user = userService.getById(userId);
-            UserVO userVO = userService.getUserVO(user);
-            imageProjectVO.setUser(userVO);
+        ImageProjectVO imageProjectVO = voAssembler.toImageProjectVO(imageProject);
+        if (imageProjectVO != null) {
+            imageProjectVO.setProductionprocess(workflowArtifactService.resolve(imageProjectVO.getProductionprocess()));
         }
         return imageProjectVO;
     }
 
+    /**
+     * 列表只读取这些列，制造流程只在详情中返回
+     */
+    private static QueryWrapper selectListColumns(QueryWrapper queryWrapper) {
+        return queryWrapper.select("id", "userId", "projectName", "projectDesc", "projectImageUrl", "projectStatus",
+                "3DModelUrl", "priority", "createTime", "updateTime");
+    }
+
 
     @Override
     public QueryWrapper getQueryWrapper(ImageProjectQueryRequest imageProjectQueryRequest) {
@@ -81,68 +161,285 @@ public class ImageProjectServiceImpl extends ServiceImpl<ImageProjectMapper, Ima
         String projectName = imageProjectQueryRequest.getProjectName();
         String projectDesc = imageProjectQueryRequest.getProjectDesc();
         Long userId = imageProjectQueryRequest.getUserId();
+        Integer priority = imageProjectQueryRequest.getPriority();
         String sortOrder = imageProjectQueryRequest.getSortOrder();
         String sortField = imageProjectQueryRequest.getSortField();
-        return QueryWrapper.create()
+        QueryWrapper queryWrapper = selectListColumns(QueryWrapper.create())
                 .eq("id", id)
-                .like("projectName", projectName)
-                .like("projectDesc", projectDesc)
                 .eq("userId", userId)
-                .orderBy(sortField, "ascend".equals(sortOrder));
+                .eq("priority", priority);
+        FullTextSearchUtils.containsPhrase(queryWrapper, "projectName", projectName);
+        FullTextSearchUtils.containsPhrase(queryWrapper, "projectDesc", projectDesc);
+        return queryWrapper.orderBy(sortField, "ascend".equals(sortOrder));
+    }
+
+    @Override
+    public Page<ImageProject> pageImageProjects(ImageProjectQueryRequest imageProjectQueryRequest) {
+        long pageNum = imageProjectQueryRequest.getPageNum();
+        long pageSize = imageProjectQueryRequest.getPageSize();
+        QueryWrapper queryWrapper = getQueryWrapper(imageProjectQueryRequest);
+        boolean countCacheable = imageProjectQueryRequest.getId() == null
+                && StrUtil.isAllBlank(imageProjectQueryRequest.getProjectName(), imageProjectQueryRequest.getProjectDesc())
+                && (imageProjectQueryRequest.getUserId() != null || imageProjectQueryRequest.getPriority() != null);
+        if (!countCacheable) {
+            return this.page(Page.of(pageNum, pageSize), queryWrapper);
+        }
+        // 传入总数后 MyBatis-Flex 不再执行 count 查询
+        long totalRow = countImageProjects(imageProjectQueryRequest.getUserId(), imageProjectQueryRequest.getPriority());
+        return this.page(Page.of(pageNum, pageSize, totalRow), queryWrapper);
+    }
+
+    @Override
+    public CursorPageVO<ImageProjectVO> listImageProjectVOByCursor(ImageProjectQueryRequest imageProjectQueryRequest) {
+        ThrowUtils.throwIf(imageProjectQueryRequest == null, ErrorCode.PARAMS_ERROR);
+        Long userId = imageProjectQueryRequest.getUserId();
+        Integer priority = imageProjectQueryRequest.getPriority();
+        ThrowUtils.throwIf(userId == null && priority == null, ErrorCode.PARAMS_ERROR, "必须指定用户或优先级");
+        int pageSize = imageProjectQueryRequest.getPageSize();
+        ThrowUtils.throwIf(pageSize <= 0 || pageSize > ImageProjectConstant.MAX_PAGE_SIZE, ErrorCode.PARAMS_ERROR,
+                "每页最多查询 " + ImageProjectConstant.MAX_PAGE_SIZE + " 个工程");
+        LocalDateTime lastCreateTime = imageProjectQueryRequest.getLastCreateTime();
+        Long lastId = imageProjectQueryRequest.getLastId();
+        // 多查一条判断是否还有下一页；走 (userId|priority, isDelete, createTime, id) 索引，页码再深也不扫描前面的行
+        QueryWrapper queryWrapper = selectListColumns(QueryWrapper.create())
+                .eq(ImageProject::getUserId, userId)
+                .eq(ImageProject::getPriority, priority)
+                .and(wrapper -> wrapper.lt(ImageProject::getCreateTime, lastCreateTime)
+                        .or(tie -> tie.eq(ImageProject::getCreateTime, lastCreateTime).lt(ImageProject::getId, lastId),
+                                lastId != null), lastCreateTime != null)
+                .orderBy(ImageProject::getCreateTime, false)
+                .orderBy(ImageProject::getId, false)
+                .limit(pageSize + 1);
+        List<ImageProject> imageProjects = this.list(queryWrapper);
+        boolean hasMore = imageProjects.size() > pageSize;
+        if (hasMore) {
+            imageProjects = imageProjects.subList(0, pageSize);
+        }
+        CursorPageVO<ImageProjectVO> cursorPage = new CursorPageVO<>();
+        cursorPage.setRecords(getImageVOList(imageProjects));
+        cursorPage.setHasMore(hasMore);
+        if (!imageProjects.isEmpty()) {
+            ImageProject last = imageProjects.get(imageProjects.size() - 1);
+            cursorPage.setLastCreateTime(last.getCreateTime());
+            cursorPage.setLastId(last.getId());
+        }
+        if (imageProjectQueryRequest.isWithTotal()) {
+            cursorPage.setTotalRow(countImageProjects(userId, priority));
+        }
+        return cursorPage;
+    }
+
+    @Override
+    public long countImageProjects(Long userId, Integer priority) {
+        return projectCounts.get(countKey(userId, priority), key -> this.count(QueryWrapper.create()
+                .eq(ImageProject::getUserId, userId)
+                .eq(ImageProject::getPriority, priority)));
+    }
+
+    private static String countKey(Long userId, Integer priority) {
+        return userId + ":" + priority;
+    }
+
+    @Override
+    public List<ImageProject> searchImageProjects(Long userId, String keyword, int limit) {
+        ThrowUtils.throwIf(userId == null || userId <= 0, ErrorCode.PARAMS_ERROR, "用户ID不能为空");
+        ThrowUtils.throwIf(!FullTextSearchUtils.isIndexable(keyword), ErrorCode.PARAMS_ERROR,
+                "关键词至少 " + FullTextSearchUtils.MIN_KEYWORD_LENGTH + " 个字符");
+        ThrowUtils.throwIf(limit <= 0 || limit > 20, ErrorCode.PARAMS_ERROR, "最多返回 20 个工程");
+        String text = keyword.trim();
+        String nameMatch = FullTextSearchUtils.naturalMatch("projectName");
+        String descMatch = FullTextSearchUtils.naturalMatch("projectDesc");
+        // 名称命中的权重高于描述
+        QueryWrapper queryWrapper = selectListColumns(QueryWrapper.create())
+                .select(FullTextSearchUtils.scoreColumn(nameMatch + " * 2 + " + descMatch, "score", text, text))
+                .eq(ImageProject::getUserId, userId)
+                .and("(" + nameMatch + " OR " + descMatch + ")", text, text)
+                .orderBy("score desc", "id desc")
+                .limit(limit);
+        return this.list(queryWrapper);
     }
 
     @Override
     public List<ImageProjectVO> getImageVOList(List<ImageProject> imageProjectList) {
-        if (CollUtil.isEmpty(imageProjectList)) {
-            return new ArrayList<>();
+        // 一页工程只批量查询一次创建人
+        return voAssembler.toImageProjectVOList(imageProjectList);
+    }
+
+    @Override
+    public boolean save(ImageProject imageProject) {
+        boolean result = super.save(imageProject);
+        // 新建工程后本人的列表总数立即更新，删除工程在总数缓存过期后反映
+        projectCounts.invalidate(countKey(imageProject.getUserId(), null));
+        onProjectWritten(imageProject);
+        return result;
+    }
+
+    @Override
+    public boolean updateById(ImageProject imageProject) {
+        boolean result = super.updateById(imageProject);
+        onProjectWritten(imageProject);
+        return result;
+    }
+
+    @Override
+    public boolean updateById(ImageProject imageProject, boolean ignoreNulls) {
+        boolean result = super.updateById(imageProject, ignoreNulls);
+        onProjectWritten(imageProject);
+        return result;
+    }
+
+    @Override
+    public boolean removeById(Serializable id) {
+        boolean result = super.removeById(id);
+        Long projectId = Convert.toLong(id);
+        projectOwnerCache.evict(projectId);
+        featuredFeedCache.onProjectChanged(projectId, null);
+        return result;
+    }
+
+    @Override
+    public boolean removeByIds(Collection<? extends Serializable> ids) {
+        boolean result = super.removeByIds(ids);
+        for (Serializable id : ids) {
+            Long projectId = Convert.toLong(id);
+            projectOwnerCache.evict(projectId);
+            featuredFeedCache.onProjectChanged(projectId, null);
         }
-        // 批量获取用户信息，避免 N+1 查询问题
-        Set<Long> userIds = imageProjectList.stream()
-                .map(ImageProject::getUserId)
-                .collect(Collectors.toSet());
-        Map<Long, UserVO> userVOMap = userService.listByIds(userIds).stream()
-                .collect(Collectors.toMap(User::getId, userService::getUserVO));
-        return imageProjectList.stream().map(app -> {
-            ImageProjectVO appVO = getImageVO(app);
-            UserVO userVO = userVOMap.get(app.getUserId());
-            appVO.setUser(userVO);
-            return appVO;
-        }).collect(Collectors.toList());
+        return result;
     }
 
+    @Override
+    public void saveWorkflowResult(Long imageProjectId, String projectImageUrl, String productionProcess, String threeDModelUrl) {
+        ThrowUtils.throwIf(imageProjectId == null || imageProjectId <= 0, ErrorCode.PARAMS_ERROR, "工程ID不能为空");
+        // 记录结果产生的时间，作为写入时的状态条件
+        ImageProject result = ImageProject.builder()
+                .projectImageUrl(projectImageUrl)
+                .productionprocess(workflowArtifactService.store(productionProcess))
+                .ThreeDModelUrl(threeDModelUrl)
+                .projectStatus(ImageProjectConstant.COMPLETED_STATUS)
+                .updateTime(LocalDateTime.now())
+                .build();
+        pendingResults.put(imageProjectId, result);
+    }
 
+    /**
+     * 多个结果以 JDBC 批量执行，写入失败的结果放回队列等待下次重试
+     */
     @Override
-    public void chatToGetTheIdea(Long imageProjectId, String message, User loginUser, SseEmitter emitter) {
-        StringBuilder stringBuilder=new StringBuilder();
-        executorService.submit(() -> {
-            getIdeaChatClient.prompt()
+    public int flushWorkflowResults() {
+        synchronized (resultFlushLock) {
+            List<Map.Entry<Long, ImageProject>> batch = new ArrayList<>();
+            for (Long imageProjectId : List.copyOf(pendingResults.keySet())) {
+                ImageProject result = pendingResults.remove(imageProjectId);
+                if (result != null) {
+                    batch.add(Map.entry(imageProjectId, result));
+                }
+            }
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            int[] counts;
+            try {
+                counts = batch.size() == 1
+                        ? new int[]{updateWorkflowResult(this.getMapper(), batch.get(0))}
+                        : Db.executeBatch(batch, RESULT_BATCH_SIZE, ImageProjectMapper.class, ImageProjectServiceImpl::updateWorkflowResult);
+            } catch (RuntimeException e) {
+                // 期间又产生了新结果的工程保留新结果
+                for (Map.Entry<Long, ImageProject> entry : batch) {
+                    pendingResults.putIfAbsent(entry.getKey(), entry.getValue());
+                }
+                throw e;
+            }
+            int updated = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                // 批量执行时驱动可能只返回 SUCCESS_NO_INFO
+                if (i >= counts.length || counts[i] != 0) {
+                    updated++;
+                }
+                featuredFeedCache.onProjectChanged(batch.get(i).getKey(), null);
+            }
+            return updated;
+        }
+    }
+
+    /**
+     * 只更新结果列、状态和更新时间；工程已完成且之后被修改过时说明结果已过期，不再覆盖
+     */
+    private static int updateWorkflowResult(ImageProjectMapper mapper, Map.Entry<Long, ImageProject> entry) {
+        ImageProject result = entry.getValue();
+        QueryWrapper queryWrapper = QueryWrapper.create()
+                .eq("id", entry.getKey())
+                .and(QueryMethods.column("projectStatus").ne(ImageProjectConstant.COMPLETED_STATUS)
+                        .or(QueryMethods.column("updateTime").le(result.getUpdateTime())));
+        return mapper.updateByQuery(result, true, queryWrapper);
+    }
+
+    private void flushWorkflowResultsQuietly() {
+        try {
+            flushWorkflowResults();
+        } catch (Exception e) {
+            log.error("工作流结果批量写入失败，稍后重试", e);
+        }
+    }
+
+    /**
+     * 工程写入后刷新受影响的精选列表和精选总数缓存
+     */
+    private void onProjectWritten(ImageProject imageProject) {
+        if (imageProject.getPriority() != null) {
+            projectCounts.invalidate(countKey(null, ImageProjectConstant.GOOD_APP_PRIORITY));
+        }
+        featuredFeedCache.onProjectChanged(imageProject.getId(), imageProject.getPriority());
+    }
+
+    @Override
+    public Flux<String> chatToGetTheIdea(Long imageProjectId, String message, User loginUser) {
+        Long userId = loginUser.getId();
+        return Flux.defer(() -> {
+            if (!tryAcquireIdeaChat(userId)) {
+                return Flux.error(new BusinessException(ErrorCode.OPERATION_ERROR, "对话请求过多，请稍后再试"));
+            }
+            // 名额占用后到流订阅前的任何异常都要归还名额，否则该用户的名额会一直被占着
+            try {
+                // 对话历史异步批量落库，流式输出不等待数据库写入
+                chatHistoryService.addChatMessageAsync(imageProjectId, message, ChatHistoryMessageTypeEnum.USER.getValue(), userId);
+                Flux<String> contentFlux = getIdeaChatClient.prompt()
                         .user(message)
                         .advisors(a -> a.param(AbstractChatMemoryAdvisor.CHAT_MEMORY_CONVERSATION_ID_KEY, imageProjectId))
                         .stream()
-                        .content()
-                        .subscribe(
-                                chunk -> {
-                                    try {
-                                        stringBuilder.append(chunk);
-                                        JSONObject jsonObject = new JSONObject();
-                                        jsonObject.put("d", chunk);
-                                        emitter.send(jsonObject.toString());
-                                    } catch (JSONException | IOException e) {
-                                        throw new RuntimeException(e);
-                                    }
-                                },
-                                error -> {throw new BusinessException(ErrorCode.NO_AUTH_ERROR,"回复的时候出错");},
-                                () -> {
-                                    try {
-                                        emitter.send("end");
-                                    } catch (IOException e) {
-                                        throw new RuntimeException(e);
-                                    }
-                                    log.info("回复完成{}", stringBuilder);
-                                    emitter.complete();
-                                }
-                        );
+                        .content();
+                return streamHandlerExecutor.doExecute(contentFlux, chatHistoryService, imageProjectId, loginUser)
+                        // 把短时间内到达的多个小片段合并成一次发送，减少 SSE 帧数；
+                        // SSE 每写完一帧才请求下一帧，必须用 fair 模式按下游需求发出批次，否则窗口到期时会抛出 OverflowException
+                        .bufferTimeout(ideaChatBatchSize, Duration.ofMillis(ideaChatBatchWindowMs), true)
+                        .map(chunks -> String.join("", chunks))
+                        .doOnComplete(() -> log.info("回复完成，imageProjectId: {}", imageProjectId))
+                        .doOnCancel(() -> log.info("客户端断开连接，取消对话，imageProjectId: {}", imageProjectId))
+                        .doFinally(signal -> releaseIdeaChat(userId));
+            } catch (RuntimeException e) {
+                releaseIdeaChat(userId);
+                throw e;
+            }
+        });
+    }
 
+    /**
+     * 占用一个对话名额，同一用户同时进行的对话数超过上限时返回 false
+     */
+    private boolean tryAcquireIdeaChat(Long userId) {
+        boolean[] acquired = {false};
+        activeIdeaChats.compute(userId, (key, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= ideaChatMaxConcurrentPerUser) {
+                return count;
+            }
+            acquired[0] = true;
+            return current + 1;
         });
+        return acquired[0];
+    }
+
+    private void releaseIdeaChat(Long userId) {
+        activeIdeaChats.computeIfPresent(userId, (key, count) -> count <= 1 ? null : count - 1);
     }
 }
@@ -1,6 +1,5 @@
 package com.lucius.sparkcraftbackend.service.impl;
 
-import cn.hutool.core.util.IdUtil;
 import cn.hutool.core.util.StrUtil;
 import cn.hutool.http.HttpRequest;
 import cn.hutool.http.HttpResponse;
@@ -8,18 +7,32 @@ import cn.hutool.json.JSONArray;
 import cn.hutool.json.JSONObject;
 import cn.hutool.json.JSONUtil;
 import com.lucius.sparkcraftbackend.entity.ImageResource;
-import com.lucius.sparkcraftbackend.properties.AliOssProperties;
+import com.lucius.sparkcraftbackend.service.AssetMirrorService;
 import com.lucius.sparkcraftbackend.service.ImageSearchService;
-import com.lucius.sparkcraftbackend.utils.AliOssUtil;
+import com.lucius.sparkcraftbackend.utils.BaiduImageHtmlExtractor;
+import com.lucius.sparkcraftbackend.utils.ImageUrlFilter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 图片搜索服务实现类
@@ -29,7 +42,10 @@ import java.util.List;
 public class ImageSearchServiceImpl implements ImageSearchService {
 
     @Autowired
-    private AliOssProperties aliOssProperties;
+    private AssetMirrorService assetMirrorService;
+
+    @Autowired
+    private ImageUrlFilter imageUrlFilter;
 
     // 百度图片搜索 URL
     private static final String BAIDU_IMAGE_SEARCH_URL = "https://image.baidu.com/search/index?tn=baiduimage&ipn=r&ct=201326592&cl=2&lm=&st=-1&fm=index&fr=&hs=0&xthttps=111110&sf=1&fmq=&pv=&ic=0&nc=1&z=&se=&showtab=0&fb=0&width=&height=&face=0&istype=2&ie=utf-8&word=";
@@ -41,30 +57,83 @@ public class ImageSearchServiceImpl implements ImageSearchService {
     private static final String PIXABAY_API_URL = "https://pixabay.com/api/";
     private static final String PIXABAY_API_KEY = "YOUR_PIXABAY_API_KEY"; // 需要配置
 
+    /**
+     * 是否并发查询所有图片源（关闭时退回到逐个源顺序尝试）
+     */
+    @Value("${spark.image-search.fan-out:true}")
+    private boolean fanOutEnabled;
+
+    /**
+     * 并发搜索的全局截止时间（毫秒）
+     */
+    @Value("${spark.image-search.deadline-ms:15000}")
+    private long searchDeadlineMs;
+
+    /**
+     * 并发搜索线程数上限，每次搜索每个图片源占用一个线程
+     */
+    @Value("${spark.image-search.max-threads:12}")
+    private int searchMaxThreads;
+
+    // 并发搜索线程池，线程数和排队数都有上限，排满时跳过该图片源
+    private ThreadPoolExecutor searchExecutor;
+
+    // 参与并发搜索的图片源，按提交顺序排列
+    List<ImageSource> imageSources = List.of(this::searchFromBaidu, this::searchFromUnsplash, this::searchFromPixabay);
+
+    @PostConstruct
+    public void init() {
+        int threads = Math.max(1, searchMaxThreads);
+        AtomicInteger threadIndex = new AtomicInteger();
+        searchExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(threads * 2), r -> {
+                    Thread thread = new Thread(r, "image-search-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        searchExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        searchExecutor.shutdownNow();
+    }
+
     @Override
     public List<ImageResource> searchImages(String keywords, int count) {
-        log.info("开始搜索图片，关键词: {}, 数量: {}", keywords, count);
+        log.info("开始搜索图片，关键词: {}, 数量: {}, 并发模式: {}", keywords, count, fanOutEnabled);
         
         List<ImageResource> images = new ArrayList<>();
         
         try {
+            if (fanOutEnabled) {
+                // 并发模式下不做单独的网络探测，全局截止时间已经兜底
+                images = searchConcurrently(keywords, count);
+                if (images.isEmpty()) {
+                    log.warn("所有外部图片搜索 API 都失败，使用高质量模拟数据");
+                    images = getMockImages(keywords, count);
+                }
+                log.info("图片搜索完成，找到 {} 张图片", images.size());
+                return images;
+            }
+
             // 检测网络连接状态
             boolean networkAvailable = checkNetworkConnectivity();
             
             if (networkAvailable) {
                 // 优先尝试使用百度图片搜索
-                images = searchFromBaidu(keywords, count);
+                images = searchFromBaidu(keywords, count, 15000);
                 
                 // 如果百度搜索失败，尝试 Unsplash API
                 if (images.isEmpty()) {
                     log.warn("百度图片搜索失败，尝试使用 Unsplash");
-                    images = searchFromUnsplash(keywords, count);
+                    images = searchFromUnsplash(keywords, count, 10000);
                 }
                 
                 // 如果 Unsplash 搜索失败，尝试 Pixabay
                 if (images.isEmpty()) {
                     log.warn("Unsplash 搜索失败，尝试使用 Pixabay");
-                    images = searchFromPixabay(keywords, count);
+                    images = searchFromPixabay(keywords, count, 10000);
                 }
             } else {
                 log.warn("网络连接不可用，直接使用模拟数据");
@@ -86,10 +155,72 @@ public class ImageSearchServiceImpl implements ImageSearchService {
         return images;
     }
 
+    /**
+     * 并发查询所有图片源，按到达顺序合并去重
+     * 凑够 count 张或到达全局截止时间后立即返回，并取消仍在进行中的请求。
+     * 中断无法打断阻塞中的 HTTP 调用，因此每个请求的连接和读取超时都取自剩余时间，线程最晚在截止时间附近释放
+     */
+    private List<ImageResource> searchConcurrently(String keywords, int count) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(searchDeadlineMs);
+        ExecutorCompletionService<List<ImageResource>> completionService = new ExecutorCompletionService<>(searchExecutor);
+        List<Future<List<ImageResource>>> futures = new ArrayList<>(imageSources.size());
+        for (ImageSource source : imageSources) {
+            try {
+                futures.add(completionService.submit(() -> {
+                    // 排队等待的时间也计入截止时间
+                    int timeoutMs = (int) TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    return timeoutMs > 0 ? source.search(keywords, count, timeoutMs) : List.of();
+                }));
+            } catch (RejectedExecutionException e) {
+                log.warn("图片搜索线程池已满，跳过一个图片源");
+            }
+        }
+
+        // 以 URL 为键去重，LinkedHashMap 保持先到先得的顺序
+        Map<String, ImageResource> merged = new LinkedHashMap<>();
+
+        try {
+            for (int finished = 0; finished < futures.size() && merged.size() < count; finished++) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    log.warn("并发图片搜索到达截止时间 {}ms，已收集 {} 张", searchDeadlineMs, merged.size());
+                    break;
+                }
+                Future<List<ImageResource>> done = completionService.poll(remaining, TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    log.warn("并发图片搜索到达截止时间 {}ms，已收集 {} 张", searchDeadlineMs, merged.size());
+                    break;
+                }
+                try {
+                    for (ImageResource image : done.get()) {
+                        if (merged.size() >= count) {
+                            break;
+                        }
+                        if (image != null && StrUtil.isNotBlank(image.getUrl())) {
+                            merged.putIfAbsent(image.getUrl(), image);
+                        }
+                    }
+                } catch (ExecutionException e) {
+                    log.warn("图片源搜索失败: {}", e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("并发图片搜索被中断，已收集 {} 张", merged.size());
+        } finally {
+            // 取消仍在排队或进行中的请求
+            for (Future<List<ImageResource>> future : futures) {
+                future.cancel(true);
+            }
+        }
+
+        return new ArrayList<>(merged.values());
+    }
+
     /**
      * 从百度图片搜索
      */
-    private List<ImageResource> searchFromBaidu(String keywords, int count) {
+    private List<ImageResource> searchFromBaidu(String keywords, int count, int timeoutMs) {
         List<ImageResource> images = new ArrayList<>();
         
         try {
@@ -102,7 +233,7 @@ public class ImageSearchServiceImpl implements ImageSearchService {
                     .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/91.0.4472.124 Safari/537.36")
                     .header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,image/webp,*/*;q=0.8")
                     .header("Accept-Language", "zh-CN,zh;q=0.9,en;q=0.8")
-                    .timeout(15000)
+                    .timeout(timeoutMs)
                     .execute();
             
             if (response.isOk()) {
@@ -122,7 +253,7 @@ public class ImageSearchServiceImpl implements ImageSearchService {
 
     /**
      * 解析百度图片搜索结果页面，提取图片 URL
-     * 重新设计解析逻辑，确保获取最前面、最准确的图片
+     * 单次遍历页面同时匹配 objURL、middleURL、thumbURL、hoverURL，凑够数量即停止
      */
     private List<ImageResource> parseImageUrlsFromBaiduHtml(String html, String keywords, int count) {
         List<ImageResource> images = new ArrayList<>();
@@ -130,25 +261,20 @@ public class ImageSearchServiceImpl implements ImageSearchService {
         try {
             log.info("开始解析百度图片搜索结果，目标数量: {}", count);
             
-            // 方法1: 解析 app.setData 中的图片数据（最准确的方法）
-            images = parseFromAppSetData(html, keywords, count);
-            
-            // 方法2: 如果方法1失败，尝试解析 JSON 数据块
-            if (images.isEmpty()) {
-                log.info("app.setData 解析失败，尝试 JSON 数据块解析");
-                images = parseFromJsonBlocks(html, keywords, count);
-            }
+            List<String> urls = BaiduImageHtmlExtractor.extractImageUrls(html, count, imageUrlFilter::isValidImageUrl);
             
-            // 方法3: 如果前两种方法都失败，使用正则表达式逐个匹配
-            if (images.isEmpty()) {
-                log.info("JSON 数据块解析失败，尝试正则表达式匹配");
-                images = parseWithRegexPatterns(html, keywords, count);
+            // 备用方法：解析 img 标签，过滤掉百度自身的图标和无关图片
+            if (urls.isEmpty()) {
+                log.info("图片数据字段解析失败，尝试解析 img 标签");
+                urls = BaiduImageHtmlExtractor.extractImgTagUrls(html, count,
+                        url -> imageUrlFilter.isValidImageUrl(url) && !url.contains("baidu.com"));
             }
             
-            // 方法4: 最后的备用方法，解析 img 标签
-            if (images.isEmpty()) {
-                log.info("正则表达式匹配失败，尝试解析 img 标签");
-                images = parseFromImgTags(html, keywords, count);
+            for (String url : urls) {
+                images.add(ImageResource.builder()
+                        .description(generateImageDescription(keywords, images.size() + 1))
+                        .url(url)
+                        .build());
             }
             
             log.info("百度图片解析完成，成功获取 {} 张图片", images.size());
@@ -160,246 +286,6 @@ public class ImageSearchServiceImpl implements ImageSearchService {
         return images;
     }
 
-    /**
-     * 方法1: 解析 app.setData 中的图片数据
-     * 这是百度图片搜索页面最主要的数据源
-     */
-    private List<ImageResource> parseFromAppSetData(String html, String keywords, int count) {
-        List<ImageResource> images = new ArrayList<>();
-        
-        try {
-            // 查找 app.setData 函数调用
-            String pattern = "app\\.setData\\(([^;]+)\\);";
-            java.util.regex.Pattern regex = java.util.regex.Pattern.compile(pattern, java.util.regex.Pattern.DOTALL);
-            java.util.regex.Matcher matcher = regex.matcher(html);
-            
-            if (matcher.find()) {
-                String dataContent = matcher.group(1);
-                log.debug("找到 app.setData 数据块，长度: {}", dataContent.length());
-                
-                // 在数据块中查找图片 URL
-                images = extractImageUrlsFromDataBlock(dataContent, keywords, count);
-            }
-            
-        } catch (Exception e) {
-            log.error("解析 app.setData 失败", e);
-        }
-        
-        return images;
-    }
-
-    /**
-     * 方法2: 解析 JSON 数据块
-     */
-    private List<ImageResource> parseFromJsonBlocks(String html, String keywords, int count) {
-        List<ImageResource> images = new ArrayList<>();
-        
-        try {
-            // 查找包含图片数据的 JSON 块
-            String[] jsonPatterns = {
-                "\"data\":\\s*\\{[^}]*\"imgData\":\\s*\\[([^\\]]+)\\]",
-                "\"imgData\":\\s*\\[([^\\]]+)\\]",
-                "\"listData\":\\s*\\[([^\\]]+)\\]"
-            };
-            
-            for (String pattern : jsonPatterns) {
-                if (!images.isEmpty()) break;
-                
-                java.util.regex.Pattern regex = java.util.regex.Pattern.compile(pattern, java.util.regex.Pattern.DOTALL);
-                java.util.regex.Matcher matcher = regex.matcher(html);
-                
-                if (matcher.find()) {
-                    String jsonData = matcher.group(1);
-                    log.debug("找到 JSON 数据块，模式: {}", pattern);
-                    images = extractImageUrlsFromJsonData(jsonData, keywords, count);
-                }
-            }
-            
-        } catch (Exception e) {
-            log.error("解析 JSON 数据块失败", e);
-        }
-        
-        return images;
-    }
-
-    /**
-     * 方法3: 使用正则表达式逐个匹配
-     */
-    private List<ImageResource> parseWithRegexPatterns(String html, String keywords, int count) {
-        List<ImageResource> images = new ArrayList<>();
-        
-        try {
-            // 按优先级排序的正则表达式模式
-            String[] patterns = {
-                "\"objURL\"\\s*:\\s*\"([^\"]+)\"",           // 原图 URL
-                "\"middleURL\"\\s*:\\s*\"([^\"]+)\"",       // 中等尺寸图片
-                "\"thumbURL\"\\s*:\\s*\"([^\"]+)\"",        // 缩略图
-                "\"hoverURL\"\\s*:\\s*\"([^\"]+)\"",        // 悬停图片
-                "\"replaceUrl\"\\s*:\\s*\\[\\s*\\{[^}]*\"ObjURL\"\\s*:\\s*\"([^\"]+)\"" // 替换 URL
-            };
-            
-            for (String pattern : patterns) {
-                if (images.size() >= count) break;
-                
-                java.util.regex.Pattern regex = java.util.regex.Pattern.compile(pattern);
-                java.util.regex.Matcher matcher = regex.matcher(html);
-                
-                int foundInThisPattern = 0;
-                while (matcher.find() && images.size() < count && foundInThisPattern < count) {
-                    String imageUrl = matcher.group(1);
-                    
-                    try {
-                        // 解码 URL
-                        imageUrl = java.net.URLDecoder.decode(imageUrl, StandardCharsets.UTF_8);
-                        
-                        // 验证并添加图片
-                        if (isValidImageUrl(imageUrl) && !isDuplicateUrl(images, imageUrl)) {
-                            ImageResource image = ImageResource.builder()
-                                    .description(generateImageDescription(keywords, images.size() + 1))
-                                    .url(imageUrl)
-                                    .build();
-                            
-                            images.add(image);
-                            foundInThisPattern++;
-                            
-                            log.debug("找到图片 URL (模式 {}): {}", pattern, imageUrl);
-                        }
-                    } catch (Exception e) {
-                        log.warn("处理图片 URL 失败: {}", imageUrl, e);
-                    }
-                }
-                
-                log.debug("模式 {} 找到 {} 张有效图片", pattern, foundInThisPattern);
-            }
-            
-        } catch (Exception e) {
-            log.error("正则表达式匹配失败", e);
-        }
-        
-        return images;
-    }
-
-    /**
-     * 方法4: 解析 img 标签（备用方法）
-     */
-    private List<ImageResource> parseFromImgTags(String html, String keywords, int count) {
-        List<ImageResource> images = new ArrayList<>();
-        
-        try {
-            // 查找 img 标签中的图片
-            String pattern = "<img[^>]+src\\s*=\\s*[\"']([^\"']+)[\"'][^>]*>";
-            java.util.regex.Pattern regex = java.util.regex.Pattern.compile(pattern, java.util.regex.Pattern.CASE_INSENSITIVE);
-            java.util.regex.Matcher matcher = regex.matcher(html);
-            
-            while (matcher.find() && images.size() < count) {
-                String imageUrl = matcher.group(1);
-                
-                // 过滤掉百度自身的图标和无关图片
-                if (isValidImageUrl(imageUrl) && !imageUrl.contains("baidu.com") && !isDuplicateUrl(images, imageUrl)) {
-                    ImageResource image = ImageResource.builder()
-                            .description(generateImageDescription(keywords, images.size() + 1))
-                            .url(imageUrl)
-                            .build();
-                    
-                    images.add(image);
-                    log.debug("从 img 标签找到图片: {}", imageUrl);
-                }
-            }
-            
-        } catch (Exception e) {
-            log.error("解析 img 标签失败", e);
-        }
-        
-        return images;
-    }
-
-    /**
-     * 从数据块中提取图片 URL
-     */
-    private List<ImageResource> extractImageUrlsFromDataBlock(String dataContent, String keywords, int count) {
-        List<ImageResource> images = new ArrayList<>();
-        
-        try {
-            // 在数据块中查找图片 URL 的多种模式
-            String[] patterns = {
-                "\"objURL\"\\s*:\\s*\"([^\"]+)\"",
-                "\"middleURL\"\\s*:\\s*\"([^\"]+)\"",
-                "\"thumbURL\"\\s*:\\s*\"([^\"]+)\""
-            };
-            
-            for (String pattern : patterns) {
-                if (images.size() >= count) break;
-                
-                java.util.regex.Pattern regex = java.util.regex.Pattern.compile(pattern);
-                java.util.regex.Matcher matcher = regex.matcher(dataContent);
-                
-                while (matcher.find() && images.size() < count) {
-                    String imageUrl = matcher.group(1);
-                    
-                    try {
-                        imageUrl = java.net.URLDecoder.decode(imageUrl, StandardCharsets.UTF_8);
-                        
-                        if (isValidImageUrl(imageUrl) && !isDuplicateUrl(images, imageUrl)) {
-                            ImageResource image = ImageResource.builder()
-                                    .description(generateImageDescription(keywords, images.size() + 1))
-                                    .url(imageUrl)
-                                    .build();
-                            
-                            images.add(image);
-                            log.debug("从数据块提取图片: {}", imageUrl);
-                        }
-                    } catch (Exception e) {
-                        log.warn("处理数据块图片 URL 失败: {}", imageUrl);
-                    }
-                }
-            }
-            
-        } catch (Exception e) {
-            log.error("从数据块提取图片失败", e);
-        }
-        
-        return images;
-    }
-
-    /**
-     * 从 JSON 数据中提取图片 URL
-     */
-    private List<ImageResource> extractImageUrlsFromJsonData(String jsonData, String keywords, int count) {
-        List<ImageResource> images = new ArrayList<>();
-        
-        try {
-            // 在 JSON 数据中查找图片 URL
-            String pattern = "\"objURL\"\\s*:\\s*\"([^\"]+)\"";
-            java.util.regex.Pattern regex = java.util.regex.Pattern.compile(pattern);
-            java.util.regex.Matcher matcher = regex.matcher(jsonData);
-            
-            while (matcher.find() && images.size() < count) {
-                String imageUrl = matcher.group(1);
-                
-                try {
-                    imageUrl = java.net.URLDecoder.decode(imageUrl, StandardCharsets.UTF_8);
-                    
-                    if (isValidImageUrl(imageUrl) && !isDuplicateUrl(images, imageUrl)) {
-                        ImageResource image = ImageResource.builder()
-                                .description(generateImageDescription(keywords, images.size() + 1))
-                                .url(imageUrl)
-                                .build();
-                        
-                        images.add(image);
-                        log.debug("从 JSON 数据提取图片: {}", imageUrl);
-                    }
-                } catch (Exception e) {
-                    log.warn("处理 JSON 图片 URL 失败: {}", imageUrl);
-                }
-            }
-            
-        } catch (Exception e) {
-            log.error("从 JSON 数据提取图片失败", e);
-        }
-        
-        return images;
-    }
-
     /**
      * 生成更好的图片描述
      */
@@ -430,76 +316,10 @@ public class ImageSearchServiceImpl implements ImageSearchService {
 
 
 
-    /**
-     * 验证图片 URL 是否有效
-     * 优化验证逻辑，确保获取高质量图片
-     */
-    private boolean isValidImageUrl(String url) {
-        if (StrUtil.isBlank(url)) {
-            return false;
-        }
-        
-        String lowerUrl = url.toLowerCase();
-        
-        // 必须是 http 或 https 开头
-        if (!lowerUrl.startsWith("http://") && !lowerUrl.startsWith("https://")) {
-            return false;
-        }
-        
-        // 过滤掉百度自身的图标、logo 和系统图片
-        String[] blacklist = {
-            "baidu.com/img/",
-            "bdimg.com/static/",
-            "bdstatic.com",
-            "favicon.ico",
-            "logo.png",
-            "logo.jpg",
-            "avatar",
-            "placeholder",
-            "loading.gif",
-            "default.jpg",
-            "noimage",
-            "blank.gif",
-            "spacer.gif",
-            "icon_",
-            "btn_",
-            "bg_"
-        };
-        
-        for (String blackItem : blacklist) {
-            if (lowerUrl.contains(blackItem)) {
-                return false;
-            }
-        }
-        
-        // 检查 URL 长度，过短的 URL 通常不是有效的图片
-        if (url.length() < 20) {
-            return false;
-        }
-        
-        // 检查是否包含常见的图片文件扩展名或图片相关参数
-        boolean hasImageExtension = lowerUrl.contains(".jpg") || lowerUrl.contains(".jpeg") || 
-                                   lowerUrl.contains(".png") || lowerUrl.contains(".gif") || 
-                                   lowerUrl.contains(".webp") || lowerUrl.contains(".bmp");
-        
-        // 有些图片 URL 可能没有扩展名，但包含图片相关的参数
-        boolean hasImageParams = lowerUrl.contains("image") || lowerUrl.contains("photo") || 
-                                lowerUrl.contains("pic") || lowerUrl.contains("img");
-        
-        return hasImageExtension || hasImageParams;
-    }
-
-    /**
-     * 检查是否为重复的 URL
-     */
-    private boolean isDuplicateUrl(List<ImageResource> images, String url) {
-        return images.stream().anyMatch(img -> img.getUrl().equals(url));
-    }
-
     /**
      * 从 Unsplash 搜索图片
      */
-    private List<ImageResource> searchFromUnsplash(String keywords, int count) {
+    private List<ImageResource> searchFromUnsplash(String keywords, int count, int timeoutMs) {
         List<ImageResource> images = new ArrayList<>();
         
         try {
@@ -508,7 +328,7 @@ public class ImageSearchServiceImpl implements ImageSearchService {
                     UNSPLASH_API_URL, encodedKeywords, count, UNSPLASH_ACCESS_KEY);
             
             HttpResponse response = HttpRequest.get(url)
-                    .timeout(10000)
+                    .timeout(timeoutMs)
                     .execute();
             
             if (response.isOk()) {
@@ -538,7 +358,7 @@ public class ImageSearchServiceImpl implements ImageSearchService {
     /**
      * 从 Pixabay 搜索图片
      */
-    private List<ImageResource> searchFromPixabay(String keywords, int count) {
+    private List<ImageResource> searchFromPixabay(String keywords, int count, int timeoutMs) {
         List<ImageResource> images = new ArrayList<>();
         
         try {
@@ -547,7 +367,7 @@ public class ImageSearchServiceImpl implements ImageSearchService {
                     PIXABAY_API_URL, PIXABAY_API_KEY, encodedKeywords, count);
             
             HttpResponse response = HttpRequest.get(url)
-                    .timeout(10000)
+                    .timeout(timeoutMs)
                     .execute();
             
             if (response.isOk()) {
@@ -710,32 +530,8 @@ public class ImageSearchServiceImpl implements ImageSearchService {
         log.info("开始下载并上传图片到 OSS: {}", imageUrl);
         
         try {
-            // 下载图片
-            HttpResponse response = HttpRequest.get(imageUrl)
-                    .timeout(15000)
-                    .execute();
-            
-            if (!response.isOk()) {
-                log.error("下载图片失败，状态码: {}", response.getStatus());
-                return imageUrl; // 返回原始 URL
-            }
-            
-            byte[] imageBytes = response.bodyBytes();
-            
-            // 生成唯一文件名
-            String fileExtension = getFileExtension(imageUrl);
-            String uniqueFileName = "images/" + IdUtil.simpleUUID() + "_" + fileName + fileExtension;
-            
-            // 上传到阿里云 OSS
-            AliOssUtil ossUtil = new AliOssUtil(
-                    aliOssProperties.getEndpoint(),
-                    aliOssProperties.getAccessKeyId(),
-                    aliOssProperties.getAccessKeySecret(),
-                    aliOssProperties.getBucketName()
-            );
-            
-            String ossUrl = ossUtil.upload(imageBytes, uniqueFileName);
-            
+            // 经由资源镜像上传，同一图片只下载、上传一次
+            String ossUrl = assetMirrorService.mirror(imageUrl);
             log.info("图片上传成功，OSS URL: {}", ossUrl);
             return ossUrl;
             
@@ -746,19 +542,14 @@ public class ImageSearchServiceImpl implements ImageSearchService {
     }
 
     /**
-     * 获取文件扩展名
+     * 图片源
      */
-    private String getFileExtension(String url) {
-        try {
-            // 从 URL 中提取文件扩展名
-            String path = url.split("\\?")[0]; // 移除查询参数
-            int lastDotIndex = path.lastIndexOf('.');
-            if (lastDotIndex > 0 && lastDotIndex < path.length() - 1) {
-                return path.substring(lastDotIndex);
-            }
-        } catch (Exception e) {
-            log.warn("无法从 URL 中提取文件扩展名: {}", url);
-        }
-        return ".jpg"; // 默认扩展名
+    @FunctionalInterface
+    interface ImageSource {
+
+        /**
+         * @param timeoutMs 连接和读取超时（毫秒）
+         */
+        List<ImageResource> search(String keywords, int count, int timeoutMs);
     }
-}
\ No newline at end of file
+}
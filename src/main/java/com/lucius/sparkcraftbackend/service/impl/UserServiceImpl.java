@@ -1,8 +1,12 @@
 package com.lucius.sparkcraftbackend.service.impl;
 
-import cn.hutool.core.bean.BeanUtil;
 import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.convert.Convert;
 import cn.hutool.core.util.StrUtil;
+import com.lucius.sparkcraftbackend.assembler.VOAssembler;
+import com.lucius.sparkcraftbackend.auth.LoginToken;
+import com.lucius.sparkcraftbackend.auth.LoginTokenService;
+import com.lucius.sparkcraftbackend.cache.UserCache;
 import com.lucius.sparkcraftbackend.dto.UserQueryRequest;
 import com.lucius.sparkcraftbackend.enums.UserRoleEnum;
 import com.lucius.sparkcraftbackend.exception.BusinessException;
@@ -19,10 +23,12 @@ import lombok.Getter;
 import org.springframework.stereotype.Service;
 import org.springframework.util.DigestUtils;
 
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
 
+import static com.lucius.sparkcraftbackend.constant.UserConstant.LOGIN_USER_ATTRIBUTE;
 import static com.lucius.sparkcraftbackend.constant.UserConstant.USER_LOGIN_STATE;
 
 /**
@@ -35,8 +41,18 @@ import static com.lucius.sparkcraftbackend.constant.UserConstant.USER_LOGIN_STAT
 public class UserServiceImpl extends ServiceImpl<UserMapper, User>  implements UserService{
     private final HttpServletRequest httpServletRequest;
 
-    public UserServiceImpl(HttpServletRequest httpServletRequest) {
+    private final UserCache userCache;
+
+    private final LoginTokenService loginTokenService;
+
+    private final VOAssembler voAssembler;
+
+    public UserServiceImpl(HttpServletRequest httpServletRequest, UserCache userCache, LoginTokenService loginTokenService,
+                           VOAssembler voAssembler) {
         this.httpServletRequest = httpServletRequest;
+        this.userCache = userCache;
+        this.loginTokenService = loginTokenService;
+        this.voAssembler = voAssembler;
     }
 
     @Override
@@ -94,8 +110,14 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User>  implements U
         if (user == null) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "用户不存在或密码错误");
         }
-        request.getSession().setAttribute(USER_LOGIN_STATE, user);
-        return this.getLoginUserVO(user);
+        LoginUserVO loginUserVO = this.getLoginUserVO(user);
+        if (loginTokenService.isEnabled()) {
+            // 无状态模式：登录信息放在签名令牌里，由前端通过请求头携带
+            loginUserVO.setToken(loginTokenService.issue(user));
+        } else {
+            request.getSession().setAttribute(USER_LOGIN_STATE, user);
+        }
+        return loginUserVO;
     }
     @Override
     public String getEncryptPassword(String userPassword) {
@@ -108,23 +130,79 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User>  implements U
         if (user == null) {
             return null;
         }
-        LoginUserVO loginUserVO = new LoginUserVO();
-        BeanUtil.copyProperties(user, loginUserVO);
-        return loginUserVO;
+        return voAssembler.toLoginUserVO(user);
     }
 
+    /**
+     * 同一请求内只加载一次，结果记在请求属性中；跨请求走用户缓存，未命中才查询数据库
+     */
     @Override
     public User getLoginUser(HttpServletRequest request) {
-        Object userObject = request.getSession().getAttribute(USER_LOGIN_STATE);
-        User currentUser = (User) userObject;
-        if (currentUser == null || currentUser.getId() == null) {
+        Object loaded = request.getAttribute(LOGIN_USER_ATTRIBUTE);
+        if (loaded instanceof User user) {
+            return user;
+        }
+        Long userId = getLoginUserId(request);
+        if (userId == null) {
             throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR);
         }
-        return this.mapper.selectOneById(currentUser.getId());
+        User loginUser = userCache.get(userId, this.mapper::selectOneById);
+        if (loginUser != null) {
+            request.setAttribute(LOGIN_USER_ATTRIBUTE, loginUser);
+        }
+        return loginUser;
+    }
+
+    @Override
+    public boolean updateById(User user) {
+        boolean result = super.updateById(user);
+        userCache.evict(user.getId());
+        return result;
+    }
+
+    @Override
+    public boolean updateById(User user, boolean ignoreNulls) {
+        boolean result = super.updateById(user, ignoreNulls);
+        userCache.evict(user.getId());
+        return result;
+    }
+
+    @Override
+    public boolean removeById(Serializable id) {
+        boolean result = super.removeById(id);
+        userCache.evict(Convert.toLong(id));
+        return result;
+    }
+
+    @Override
+    public boolean removeByIds(Collection<? extends Serializable> ids) {
+        boolean result = super.removeByIds(ids);
+        ids.forEach(id -> userCache.evict(Convert.toLong(id)));
+        return result;
+    }
+
+    /**
+     * 读取登录用户id：token 模式校验请求头中的令牌，session 模式读取会话
+     */
+    private Long getLoginUserId(HttpServletRequest request) {
+        if (loginTokenService.isEnabled()) {
+            LoginToken loginToken = loginTokenService.resolve(request);
+            return loginToken != null ? loginToken.getUserId() : null;
+        }
+        User currentUser = (User) request.getSession().getAttribute(USER_LOGIN_STATE);
+        return currentUser != null ? currentUser.getId() : null;
     }
 
     @Override
     public boolean userLogout(HttpServletRequest request) {
+        if (loginTokenService.isEnabled()) {
+            LoginToken loginToken = loginTokenService.resolve(request);
+            if (loginToken == null) {
+                throw new BusinessException(ErrorCode.OPERATION_ERROR, "未登录");
+            }
+            loginTokenService.revoke(loginToken);
+            return true;
+        }
         // 先判断是否已登录
         Object userObj = request.getSession().getAttribute(USER_LOGIN_STATE);
         if (userObj == null) {
@@ -139,9 +217,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User>  implements U
         if (user == null) {
             return null;
         }
-        UserVO userVO = new UserVO();
-        BeanUtil.copyProperties(user, userVO);
-        return userVO;
+        return voAssembler.toUserVO(user);
     }
 
     @Override
@@ -149,7 +225,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User>  implements U
         if (CollUtil.isEmpty(userList)) {
             return new ArrayList<>();
         }
-        return userList.stream().map(this::getUserVO).collect(Collectors.toList());
+        return voAssembler.toUserVOList(userList);
     }
     @Override
     public QueryWrapper getQueryWrapper(UserQueryRequest userQueryRequest) {
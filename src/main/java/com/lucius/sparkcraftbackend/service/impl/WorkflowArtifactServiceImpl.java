@@ -0,0 +1,90 @@
+package com.lucius.sparkcraftbackend.service.impl;
+
+import cn.hutool.core.convert.Convert;
+import cn.hutool.crypto.digest.DigestUtil;
+import com.lucius.sparkcraftbackend.cache.LocalTtlCache;
+import com.lucius.sparkcraftbackend.entity.WorkflowArtifact;
+import com.lucius.sparkcraftbackend.mapper.WorkflowArtifactMapper;
+import com.lucius.sparkcraftbackend.service.WorkflowArtifactService;
+import com.mybatisflex.core.query.QueryWrapper;
+import com.mybatisflex.spring.service.impl.ServiceImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+/**
+ * 工作流产物 服务层实现。
+ * 业务表中保存 "artifact:产物id" 形式的引用，按内容哈希去重；产物写入后不再修改，读取结果可以放心缓存
+ *
+ * @author <a href="https://github.com/LuciusWan">LuciusWan</a>
+ */
+@Service
+@Slf4j
+public class WorkflowArtifactServiceImpl extends ServiceImpl<WorkflowArtifactMapper, WorkflowArtifact> implements WorkflowArtifactService {
+
+    static final String REFERENCE_PREFIX = "artifact:";
+
+    /**
+     * 不超过该长度的文本直接保存在业务表中
+     */
+    static final int INLINE_MAX_LENGTH = 512;
+
+    /**
+     * 产物id -> 内容
+     */
+    private final LocalTtlCache<Long, String> contents = new LocalTtlCache<>(256, 10 * 60_000, System::currentTimeMillis);
+
+    @Override
+    public String store(String content) {
+        if (content == null || content.length() <= INLINE_MAX_LENGTH) {
+            return content;
+        }
+        String contentHash = DigestUtil.sha256Hex(content);
+        Long artifactId = getIdByContentHash(contentHash);
+        if (artifactId == null) {
+            WorkflowArtifact artifact = WorkflowArtifact.builder()
+                    .contentHash(contentHash)
+                    .content(content)
+                    .contentLength(content.length())
+                    .build();
+            try {
+                save(artifact);
+                artifactId = artifact.getId();
+            } catch (DuplicateKeyException e) {
+                // 相同内容已由其他线程写入，以已有记录为准
+                artifactId = getIdByContentHash(contentHash);
+                if (artifactId == null) {
+                    throw e;
+                }
+            }
+        }
+        contents.putIfNotInvalidated(artifactId, content, contents.generation());
+        return REFERENCE_PREFIX + artifactId;
+    }
+
+    @Override
+    public String resolve(String value) {
+        if (value == null || !value.startsWith(REFERENCE_PREFIX)) {
+            return value;
+        }
+        Long artifactId = Convert.toLong(value.substring(REFERENCE_PREFIX.length()), null);
+        if (artifactId == null) {
+            return value;
+        }
+        String content = contents.get(artifactId, id -> {
+            WorkflowArtifact artifact = getById(id);
+            return artifact == null ? null : artifact.getContent();
+        });
+        if (content == null) {
+            log.warn("工作流产物不存在，id: {}", artifactId);
+        }
+        return content;
+    }
+
+    private Long getIdByContentHash(String contentHash) {
+        WorkflowArtifact artifact = getOne(QueryWrapper.create()
+                .select("id")
+                .eq("contentHash", contentHash));
+        return artifact == null ? null : artifact.getId();
+    }
+}
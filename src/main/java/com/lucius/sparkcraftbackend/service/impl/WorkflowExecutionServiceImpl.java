@@ -6,6 +6,7 @@ import com.lucius.sparkcraftbackend.entity.User;
 import com.lucius.sparkcraftbackend.service.WorkflowExecutionService;
 import com.lucius.sparkcraftbackend.service.WorkflowJobService;
 import com.lucius.sparkcraftbackend.service.WorkflowProgressService;
+import com.lucius.sparkcraftbackend.utils.JsonUtils;
 import com.lucius.sparkcraftbackend.vo.WorkflowExecuteVO;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
@@ -80,7 +81,7 @@ public class WorkflowExecutionServiceImpl implements WorkflowExecutionService {
             result.setDuration(java.time.Duration.between(startTime, endTime).toMillis());
             
             // 更新任务状态为完成
-            workflowJobService.updateJobResult(jobId, com.alibaba.fastjson.JSON.toJSONString(nodeResults));
+            workflowJobService.updateJobResult(jobId, JsonUtils.toJson(nodeResults));
             
             // 输出收集到的图片素材信息
             if (imageList != null && !imageList.isEmpty()) {
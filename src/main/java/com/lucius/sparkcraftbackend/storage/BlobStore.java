@@ -0,0 +1,42 @@
+package com.lucius.sparkcraftbackend.storage;
+
+import java.io.InputStream;
+
+/**
+ * 对象存储 SPI
+ * 通过 spark.storage.type 选择实现：oss（默认）、local、s3
+ */
+public interface BlobStore {
+
+    /**
+     * 流式上传文件
+     *
+     * @param key           对象名，例如 images/xxx.jpg
+     * @param inputStream   文件输入流，由调用方负责关闭
+     * @param contentLength 文件大小，未知时传 -1
+     * @return 文件访问地址
+     */
+    String put(String key, InputStream inputStream, long contentLength);
+
+    /**
+     * 删除文件，文件不存在时忽略
+     *
+     * @param key 对象名
+     */
+    void delete(String key);
+
+    /**
+     * 获取文件访问地址
+     *
+     * @param key 对象名
+     * @return 文件访问地址
+     */
+    String getUrl(String key);
+
+    /**
+     * 存储类型名称
+     *
+     * @return oss / local / s3
+     */
+    String getType();
+}
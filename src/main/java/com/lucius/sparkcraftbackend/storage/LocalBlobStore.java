@@ -0,0 +1,89 @@
+package com.lucius.sparkcraftbackend.storage;
+
+import com.lucius.sparkcraftbackend.exception.BusinessException;
+import com.lucius.sparkcraftbackend.exception.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * 本地磁盘存储实现
+ * 文件由 BlobController 对外提供访问
+ */
+@Slf4j
+public class LocalBlobStore implements BlobStore {
+
+    private final Path root;
+
+    private final String urlPrefix;
+
+    public LocalBlobStore(String rootDir, String urlPrefix) {
+        this.root = Paths.get(rootDir).toAbsolutePath().normalize();
+        this.urlPrefix = urlPrefix.endsWith("/") ? urlPrefix : urlPrefix + "/";
+        try {
+            Files.createDirectories(root);
+        } catch (IOException e) {
+            throw new IllegalStateException("无法创建本地存储目录: " + root, e);
+        }
+        log.info("本地存储目录: {}", root);
+    }
+
+    @Override
+    public String put(String key, InputStream inputStream, long contentLength) {
+        Path target = resolve(key);
+        Path temp = null;
+        try {
+            Files.createDirectories(target.getParent());
+            // 先写临时文件再原子替换，读取方不会看到写了一半的文件
+            temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+            Files.copy(inputStream, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return getUrl(key);
+        } catch (IOException e) {
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "写入本地存储失败: " + e.getMessage());
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    log.warn("删除临时文件失败: {}", temp);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            Files.deleteIfExists(resolve(key));
+        } catch (IOException e) {
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "删除本地文件失败: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String getUrl(String key) {
+        return urlPrefix + key;
+    }
+
+    @Override
+    public String getType() {
+        return "local";
+    }
+
+    /**
+     * 将对象名解析为存储目录下的文件路径，拒绝越出存储目录的路径
+     */
+    public Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "非法的文件路径");
+        }
+        return path;
+    }
+}
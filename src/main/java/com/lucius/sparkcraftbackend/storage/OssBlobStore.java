@@ -0,0 +1,38 @@
+package com.lucius.sparkcraftbackend.storage;
+
+import com.lucius.sparkcraftbackend.utils.AliOssUtil;
+
+import java.io.InputStream;
+
+/**
+ * 阿里云 OSS 存储实现
+ */
+public class OssBlobStore implements BlobStore {
+
+    private final AliOssUtil aliOssUtil;
+
+    public OssBlobStore(AliOssUtil aliOssUtil) {
+        this.aliOssUtil = aliOssUtil;
+    }
+
+    @Override
+    public String put(String key, InputStream inputStream, long contentLength) {
+        return aliOssUtil.upload(inputStream, contentLength, key);
+    }
+
+    @Override
+    public void delete(String key) {
+        aliOssUtil.delete(key);
+    }
+
+    @Override
+    public String getUrl(String key) {
+        //文件访问路径规则 https://BucketName.Endpoint/ObjectName
+        return "https://" + aliOssUtil.getBucketName() + "." + aliOssUtil.getEndpoint() + "/" + key;
+    }
+
+    @Override
+    public String getType() {
+        return "oss";
+    }
+}
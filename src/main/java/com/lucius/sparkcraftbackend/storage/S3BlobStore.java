@@ -0,0 +1,157 @@
+package com.lucius.sparkcraftbackend.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * S3 协议存储实现，适用于 MinIO 等兼容 S3 的对象存储
+ */
+@Slf4j
+public class S3BlobStore implements BlobStore {
+
+    /**
+     * 超过该大小（或大小未知）时使用分片上传
+     */
+    private static final long MULTIPART_THRESHOLD = 8L * 1024 * 1024;
+
+    /**
+     * 分片大小，S3 要求除最后一片外不小于 5MB
+     */
+    static final int PART_SIZE = 5 * 1024 * 1024;
+
+    private final S3Client s3Client;
+
+    private final String bucket;
+
+    private final String urlPrefix;
+
+    public S3BlobStore(S3Client s3Client, String bucket, String urlPrefix) {
+        this.s3Client = s3Client;
+        this.bucket = bucket;
+        this.urlPrefix = urlPrefix.endsWith("/") ? urlPrefix : urlPrefix + "/";
+    }
+
+    @Override
+    public String put(String key, InputStream inputStream, long contentLength) {
+        if (contentLength >= 0 && contentLength < MULTIPART_THRESHOLD) {
+            s3Client.putObject(PutObjectRequest.builder()
+                            .bucket(bucket)
+                            .key(key)
+                            .contentLength(contentLength)
+                            .build(),
+                    RequestBody.fromInputStream(inputStream, contentLength));
+        } else {
+            multipartUpload(key, inputStream);
+        }
+        return getUrl(key);
+    }
+
+    @Override
+    public void delete(String key) {
+        s3Client.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(key).build());
+    }
+
+    @Override
+    public String getUrl(String key) {
+        return urlPrefix + key;
+    }
+
+    @Override
+    public String getType() {
+        return "s3";
+    }
+
+    /**
+     * 关闭客户端，应用停止时调用
+     */
+    public void close() {
+        s3Client.close();
+    }
+
+    /**
+     * 分片上传，内存中最多只保留一个分片，失败时取消上传
+     * 先读取第一个分片，流在一个分片内结束（包括空流）时改为单次 PutObject，不创建分片上传
+     */
+    private void multipartUpload(String key, InputStream inputStream) {
+        byte[] buffer = new byte[PART_SIZE];
+        int read;
+        try {
+            read = readFully(inputStream, buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (read < PART_SIZE) {
+            s3Client.putObject(PutObjectRequest.builder()
+                            .bucket(bucket)
+                            .key(key)
+                            .contentLength((long) read)
+                            .build(),
+                    RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, read), read));
+            return;
+        }
+
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .build()).uploadId();
+        try {
+            List<CompletedPart> parts = new ArrayList<>();
+            int partNumber = 1;
+            do {
+                String eTag = s3Client.uploadPart(UploadPartRequest.builder()
+                                .bucket(bucket)
+                                .key(key)
+                                .uploadId(uploadId)
+                                .partNumber(partNumber)
+                                .contentLength((long) read)
+                                .build(),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, read), read)).eTag();
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(eTag).build());
+                partNumber++;
+            } while ((read = readFully(inputStream, buffer)) > 0);
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build());
+            log.info("分片上传完成: {}, 分片数: {}", key, parts.size());
+        } catch (RuntimeException | IOException e) {
+            log.error("分片上传失败，取消上传: {}", key, e);
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+            throw e instanceof IOException ioe ? new UncheckedIOException(ioe) : (RuntimeException) e;
+        }
+    }
+
+    private static int readFully(InputStream inputStream, byte[] buffer) throws IOException {
+        int total = 0;
+        while (total < buffer.length) {
+            int n = inputStream.read(buffer, total, buffer.length - total);
+            if (n < 0) {
+                break;
+            }
+            total += n;
+        }
+        return total;
+    }
+}
@@ -1,21 +1,49 @@
 package com.lucius.sparkcraftbackend.utils;
 
 
-import com.aliyun.oss.ClientException;
+import com.aliyun.oss.ClientBuilderConfiguration;
 import com.aliyun.oss.OSS;
 import com.aliyun.oss.OSSClientBuilder;
-import com.aliyun.oss.OSSException;
+import com.aliyun.oss.model.AbortMultipartUploadRequest;
+import com.aliyun.oss.model.CompleteMultipartUploadRequest;
+import com.aliyun.oss.model.InitiateMultipartUploadRequest;
+import com.aliyun.oss.model.ObjectMetadata;
+import com.aliyun.oss.model.PartETag;
+import com.aliyun.oss.model.UploadPartRequest;
+import lombok.extern.slf4j.Slf4j;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 
+@Slf4j
 public class AliOssUtil {
 
+    /**
+     * 超过该大小（或大小未知）时使用分片上传
+     */
+    public static final long MULTIPART_THRESHOLD = 8L * 1024 * 1024;
+
+    /**
+     * 分片大小，流式上传时内存中最多只保留一个分片
+     */
+    public static final int PART_SIZE = 5 * 1024 * 1024;
+
+    private static final int MAX_CONNECTIONS = 64;
+
     private String endpoint;
     private String accessKeyId;
     private String accessKeySecret;
     private String bucketName;
 
+    /**
+     * 共享的 OSS 客户端，内部自带 HTTP 连接池，首次上传时创建，之后一直复用
+     */
+    private volatile OSS ossClient;
+
     public AliOssUtil() {
     }
 
@@ -34,29 +62,25 @@ public class AliOssUtil {
      * @return 文件访问路径
      */
     public String upload(byte[] bytes, String objectName) {
+        return upload(new ByteArrayInputStream(bytes), bytes.length, objectName);
+    }
 
-        // 创建OSSClient实例。
-        OSS ossClient = new OSSClientBuilder().build(endpoint, accessKeyId, accessKeySecret);
-
-        try {
-            // 创建PutObject请求。
-            ossClient.putObject(bucketName, objectName, new ByteArrayInputStream(bytes));
-        } catch (OSSException oe) {
-            System.out.println("Caught an OSSException, which means your request made it to OSS, "
-                    + "but was rejected with an error response for some reason.");
-            System.out.println("Error Message:" + oe.getErrorMessage());
-            System.out.println("Error Code:" + oe.getErrorCode());
-            System.out.println("Request ID:" + oe.getRequestId());
-            System.out.println("Host ID:" + oe.getHostId());
-        } catch (ClientException ce) {
-            System.out.println("Caught an ClientException, which means the client encountered "
-                    + "a serious internal problem while trying to communicate with OSS, "
-                    + "such as not being able to access the network.");
-            System.out.println("Error Message:" + ce.getMessage());
-        } finally {
-            if (ossClient != null) {
-                ossClient.shutdown();
-            }
+    /**
+     * 流式上传，不会把整个文件读入内存
+     * 已知大小且小于分片阈值时直接 PutObject，否则按分片边读边传
+     *
+     * @param inputStream 文件输入流，由调用方负责关闭
+     * @param contentLength 文件大小，未知时传 -1
+     * @param objectName 文件名
+     * @return 文件访问路径
+     */
+    public String upload(InputStream inputStream, long contentLength, String objectName) {
+        if (contentLength >= 0 && contentLength < MULTIPART_THRESHOLD) {
+            ObjectMetadata metadata = new ObjectMetadata();
+            metadata.setContentLength(contentLength);
+            getOssClient().putObject(bucketName, objectName, inputStream, metadata);
+        } else {
+            multipartUpload(inputStream, objectName);
         }
 
         //文件访问路径规则 https://BucketName.Endpoint/ObjectName
@@ -68,6 +92,105 @@ public class AliOssUtil {
                 objectName;
     }
 
+    /**
+     * 删除文件
+     *
+     * @param objectName 文件名
+     */
+    public void delete(String objectName) {
+        getOssClient().deleteObject(bucketName, objectName);
+    }
+
+    /**
+     * 分片上传，失败时取消已上传的分片
+     * 先读取第一个分片，流在一个分片内结束（包括空流）时改为单次 PutObject，不创建分片上传
+     */
+    private void multipartUpload(InputStream inputStream, String objectName) {
+        byte[] buffer = new byte[PART_SIZE];
+        int read;
+        try {
+            read = readFully(inputStream, buffer);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        OSS client = getOssClient();
+        if (read < PART_SIZE) {
+            ObjectMetadata metadata = new ObjectMetadata();
+            metadata.setContentLength(read);
+            client.putObject(bucketName, objectName, new ByteArrayInputStream(buffer, 0, read), metadata);
+            return;
+        }
+
+        String uploadId = client.initiateMultipartUpload(
+                new InitiateMultipartUploadRequest(bucketName, objectName)).getUploadId();
+        try {
+            List<PartETag> partETags = new ArrayList<>();
+            int partNumber = 1;
+            do {
+                UploadPartRequest request = new UploadPartRequest();
+                request.setBucketName(bucketName);
+                request.setKey(objectName);
+                request.setUploadId(uploadId);
+                request.setPartNumber(partNumber++);
+                request.setInputStream(new ByteArrayInputStream(buffer, 0, read));
+                request.setPartSize(read);
+                partETags.add(client.uploadPart(request).getPartETag());
+            } while ((read = readFully(inputStream, buffer)) > 0);
+            client.completeMultipartUpload(
+                    new CompleteMultipartUploadRequest(bucketName, objectName, uploadId, partETags));
+            log.info("分片上传完成: {}, 分片数: {}", objectName, partETags.size());
+        } catch (RuntimeException | IOException e) {
+            log.error("分片上传失败，取消上传: {}", objectName, e);
+            client.abortMultipartUpload(new AbortMultipartUploadRequest(bucketName, objectName, uploadId));
+            throw e instanceof RuntimeException ? (RuntimeException) e : new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 尽量读满缓冲区，返回实际读取的字节数，流结束时返回 0
+     */
+    private static int readFully(InputStream inputStream, byte[] buffer) throws IOException {
+        int total = 0;
+        while (total < buffer.length) {
+            int n = inputStream.read(buffer, total, buffer.length - total);
+            if (n < 0) {
+                break;
+            }
+            total += n;
+        }
+        return total;
+    }
+
+    /**
+     * 获取 OSS 客户端，首次调用时创建
+     */
+    private OSS getOssClient() {
+        OSS client = ossClient;
+        if (client == null) {
+            synchronized (this) {
+                client = ossClient;
+                if (client == null) {
+                    ClientBuilderConfiguration configuration = new ClientBuilderConfiguration();
+                    configuration.setMaxConnections(MAX_CONNECTIONS);
+                    client = new OSSClientBuilder().build(endpoint, accessKeyId, accessKeySecret, configuration);
+                    ossClient = client;
+                }
+            }
+        }
+        return client;
+    }
+
+    /**
+     * 关闭 OSS 客户端，应用停止时调用
+     */
+    public void shutdown() {
+        OSS client = ossClient;
+        if (client != null) {
+            client.shutdown();
+            ossClient = null;
+        }
+    }
+
     /**
      * 获取
      * @return endpoint
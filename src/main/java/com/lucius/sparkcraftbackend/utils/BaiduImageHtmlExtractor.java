@@ -0,0 +1,130 @@
+package com.lucius.sparkcraftbackend.utils;
+
+import cn.hutool.core.util.StrUtil;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 百度图片搜索结果页解析工具
+ * 使用预编译的单个交替正则，一次遍历页面即可同时提取 objURL、middleURL、thumbURL、hoverURL
+ */
+public final class BaiduImageHtmlExtractor {
+
+    /**
+     * 图片地址字段，按优先级排列：原图 > 中等尺寸 > 缩略图 > 悬停图
+     */
+    private static final Pattern IMAGE_URL_PATTERN =
+            Pattern.compile("\"(objURL|ObjURL|middleURL|thumbURL|hoverURL)\"\\s*:\\s*\"([^\"]+)\"");
+
+    private static final Pattern IMG_TAG_PATTERN =
+            Pattern.compile("<img[^>]+src\\s*=\\s*[\"']([^\"']+)[\"'][^>]*>", Pattern.CASE_INSENSITIVE);
+
+    private static final int PRIORITY_LEVELS = 4;
+
+    private BaiduImageHtmlExtractor() {
+    }
+
+    /**
+     * 单次遍历提取图片地址
+     * 结果按字段优先级合并，同一优先级内保持页面顺序；原图数量凑够 count 后立即停止扫描
+     *
+     * @param html      百度图片搜索结果页
+     * @param count     需要的图片数量
+     * @param validator 图片地址校验
+     * @return 去重后的图片地址，最多 count 个
+     */
+    public static List<String> extractImageUrls(String html, int count, Predicate<String> validator) {
+        if (StrUtil.isBlank(html) || count <= 0) {
+            return Collections.emptyList();
+        }
+        List<List<String>> buckets = new ArrayList<>(PRIORITY_LEVELS);
+        for (int i = 0; i < PRIORITY_LEVELS; i++) {
+            buckets.add(new ArrayList<>(count));
+        }
+        Set<String> seen = new HashSet<>();
+        Matcher matcher = IMAGE_URL_PATTERN.matcher(html);
+        while (matcher.find()) {
+            String url = decode(matcher.group(2));
+            if (url == null || !seen.add(url) || !validator.test(url)) {
+                continue;
+            }
+            List<String> bucket = buckets.get(priorityOf(matcher.group(1)));
+            if (bucket.size() < count) {
+                bucket.add(url);
+            }
+            // 最高优先级已经凑够，后面的内容不会再改变结果
+            if (buckets.get(0).size() >= count) {
+                break;
+            }
+        }
+        List<String> result = new ArrayList<>(count);
+        for (List<String> bucket : buckets) {
+            for (String url : bucket) {
+                if (result.size() >= count) {
+                    return result;
+                }
+                result.add(url);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 备用方法：从 img 标签中提取图片地址
+     *
+     * @param html      页面内容
+     * @param count     需要的图片数量
+     * @param validator 图片地址校验
+     * @return 去重后的图片地址，最多 count 个
+     */
+    public static List<String> extractImgTagUrls(String html, int count, Predicate<String> validator) {
+        if (StrUtil.isBlank(html) || count <= 0) {
+            return Collections.emptyList();
+        }
+        Set<String> seen = new HashSet<>();
+        List<String> result = new ArrayList<>(count);
+        Matcher matcher = IMG_TAG_PATTERN.matcher(html);
+        while (result.size() < count && matcher.find()) {
+            String url = matcher.group(1);
+            if (seen.add(url) && validator.test(url)) {
+                result.add(url);
+            }
+        }
+        return result;
+    }
+
+    private static int priorityOf(String field) {
+        switch (field) {
+            case "objURL":
+            case "ObjURL":
+                return 0;
+            case "middleURL":
+                return 1;
+            case "thumbURL":
+                return 2;
+            default:
+                return 3;
+        }
+    }
+
+    private static String decode(String url) {
+        // 绝大多数地址没有转义字符，跳过解码避免额外分配
+        if (url.indexOf('%') < 0 && url.indexOf('+') < 0) {
+            return url;
+        }
+        try {
+            return URLDecoder.decode(url, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.lucius.sparkcraftbackend.utils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 预编译的 Bean 属性复制器
+ * 创建时按 getter/setter 同名且类型兼容的规则匹配属性，把所有属性的读写合成一个 MethodHandle，
+ * 之后每次复制只调用一次该句柄，不再像 BeanUtil.copyProperties 那样逐行反射和类型转换。
+ * 同一对类型的复制器全局只创建一次
+ *
+ * @param <S> 源类型
+ * @param <T> 目标类型
+ */
+public final class BeanMapper<S, T> {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+
+    private static final MethodType COPY_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final Map<Class<?>, Map<Class<?>, BeanMapper<?, ?>>> MAPPERS = new ConcurrentHashMap<>();
+
+    /**
+     * (Object)Object，创建目标对象
+     */
+    private final MethodHandle constructor;
+
+    /**
+     * (Object source, Object target)void，复制全部匹配的属性
+     */
+    private final MethodHandle copier;
+
+    private BeanMapper(Class<S> sourceType, Class<T> targetType) {
+        try {
+            this.constructor = LOOKUP.findConstructor(targetType, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException(targetType.getName() + " 缺少公开的无参构造方法", e);
+        }
+        MethodHandle handle = MethodHandles.empty(COPY_TYPE);
+        for (Method setter : targetType.getMethods()) {
+            Method getter = findGetter(sourceType, setter);
+            if (getter != null) {
+                handle = MethodHandles.foldArguments(handle, propertyCopier(getter, setter));
+            }
+        }
+        this.copier = handle;
+    }
+
+    /**
+     * 获取 sourceType 到 targetType 的复制器
+     */
+    @SuppressWarnings("unchecked")
+    public static <S, T> BeanMapper<S, T> of(Class<S> sourceType, Class<T> targetType) {
+        return (BeanMapper<S, T>) MAPPERS.computeIfAbsent(sourceType, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(targetType, key -> new BeanMapper<>(sourceType, targetType));
+    }
+
+    /**
+     * 创建目标对象并复制属性
+     *
+     * @return 目标对象，source 为 null 时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    public T map(S source) {
+        if (source == null) {
+            return null;
+        }
+        T target;
+        try {
+            target = (T) constructor.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("创建对象失败", e);
+        }
+        copy(source, target);
+        return target;
+    }
+
+    /**
+     * 复制属性到已有的目标对象，源对象中为 null 的属性同样会覆盖目标对象
+     */
+    public void copy(S source, T target) {
+        try {
+            copier.invokeExact((Object) source, (Object) target);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("复制属性失败", e);
+        }
+    }
+
+    private static Method findGetter(Class<?> sourceType, Method setter) {
+        String name = setter.getName();
+        if (!name.startsWith("set") || name.length() == 3 || setter.getParameterCount() != 1
+                || Modifier.isStatic(setter.getModifiers())) {
+            return null;
+        }
+        String property = name.substring(3);
+        Class<?> propertyType = setter.getParameterTypes()[0];
+        Method getter = findMethod(sourceType, "get" + property);
+        if (getter == null && (propertyType == boolean.class || propertyType == Boolean.class)) {
+            getter = findMethod(sourceType, "is" + property);
+        }
+        if (getter == null || getter.getReturnType() == void.class || Modifier.isStatic(getter.getModifiers())) {
+            return null;
+        }
+        Class<?> valueType = getter.getReturnType();
+        boolean compatible = propertyType.isPrimitive() || valueType.isPrimitive()
+                ? propertyType == valueType
+                : propertyType.isAssignableFrom(valueType);
+        return compatible ? getter : null;
+    }
+
+    private static Method findMethod(Class<?> type, String name) {
+        try {
+            return type.getMethod(name);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 单个属性的复制句柄：(Object source, Object target)void，即 target.setX(source.getX())
+     */
+    private static MethodHandle propertyCopier(Method getter, Method setter) {
+        try {
+            MethodHandle set = LOOKUP.unreflect(setter);
+            MethodHandle get = LOOKUP.unreflect(getter);
+            get = get.asType(get.type().changeReturnType(set.type().parameterType(1)));
+            // (target, value) -> (target, source)
+            MethodHandle copy = MethodHandles.filterArguments(set, 1, get);
+            // 目标方法可能返回 this（链式 setter），丢弃返回值
+            copy = copy.asType(copy.type().changeReturnType(void.class));
+            // (target, source) -> (source, target)
+            copy = MethodHandles.permuteArguments(copy,
+                    MethodType.methodType(void.class, get.type().parameterType(0), set.type().parameterType(0)), 1, 0);
+            return copy.asType(COPY_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("无法访问属性 " + setter.getName(), e);
+        }
+    }
+}
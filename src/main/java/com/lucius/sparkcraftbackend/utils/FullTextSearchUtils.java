@@ -0,0 +1,88 @@
+package com.lucius.sparkcraftbackend.utils;
+
+import cn.hutool.core.util.StrUtil;
+import com.mybatisflex.core.query.QueryWrapper;
+import com.mybatisflex.core.query.RawQueryColumn;
+
+/**
+ * 全文检索工具类
+ * 基于 MySQL InnoDB 的 ngram 全文索引：写入和更新时由数据库增量维护倒排索引，
+ * 查询走 MATCH ... AGAINST，不再用前置通配符的 like 扫描全表
+ */
+public class FullTextSearchUtils {
+
+    /**
+     * ngram 分词长度（MySQL ngram_token_size 默认值），更短的关键词无法命中全文索引
+     */
+    public static final int MIN_KEYWORD_LENGTH = 2;
+
+    private FullTextSearchUtils() {
+    }
+
+    /**
+     * 关键词长度是否足以使用全文索引
+     */
+    public static boolean isIndexable(String keyword) {
+        return StrUtil.length(StrUtil.trim(keyword)) >= MIN_KEYWORD_LENGTH;
+    }
+
+    /**
+     * 关键词是否包含中日韩文字
+     */
+    public static boolean containsCjk(String keyword) {
+        if (keyword == null) {
+            return false;
+        }
+        return keyword.codePoints().anyMatch(codePoint -> {
+            Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+            return script == Character.UnicodeScript.HAN || script == Character.UnicodeScript.HIRAGANA
+                    || script == Character.UnicodeScript.KATAKANA || script == Character.UnicodeScript.HANGUL;
+        });
+    }
+
+    /**
+     * 追加“字段包含关键词”的过滤条件
+     * 含中日韩文字的关键词作为短语在布尔模式下匹配，要求 ngram 连续出现，语义与 like '%关键词%' 一致；
+     * 关键词过短，或是纯英文/拼音时退回 like：ngram 会丢弃包含停用词（a、i、at、in 等）的分词，
+     * 未关闭 innodb_ft_enable_stopword 建的索引查不到 cat、ai 这类关键词
+     *
+     * @param queryWrapper 查询条件
+     * @param column       已建立全文索引的字段
+     * @param keyword      关键词，为空时不追加条件
+     */
+    public static void containsPhrase(QueryWrapper queryWrapper, String column, String keyword) {
+        if (StrUtil.isBlank(keyword)) {
+            return;
+        }
+        if (!isIndexable(keyword) || !containsCjk(keyword)) {
+            queryWrapper.like(column, keyword);
+            return;
+        }
+        queryWrapper.and("MATCH(" + column + ") AGAINST(? IN BOOLEAN MODE)", toPhrase(keyword));
+    }
+
+    /**
+     * 自然语言模式的匹配条件，用于按相关度排序的搜索
+     */
+    public static String naturalMatch(String column) {
+        return "MATCH(" + column + ") AGAINST(? IN NATURAL LANGUAGE MODE)";
+    }
+
+    /**
+     * 相关度得分列，查询结果可按 alias 排序
+     *
+     * @param expression 含占位符的得分表达式
+     * @param alias      列别名
+     * @param params     占位符参数
+     */
+    public static RawQueryColumn scoreColumn(String expression, String alias, Object... params) {
+        return new RawQueryColumn(expression + " AS " + alias, params);
+    }
+
+    /**
+     * 转成布尔模式的短语，去掉会被解析为运算符的双引号
+     */
+    static String toPhrase(String keyword) {
+        return "\"" + StrUtil.trim(keyword).replace("\"", " ") + "\"";
+    }
+}
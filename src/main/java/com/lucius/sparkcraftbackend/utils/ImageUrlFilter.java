@@ -0,0 +1,212 @@
+package com.lucius.sparkcraftbackend.utils;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * 图片 URL 过滤器
+ * 黑名单、图片扩展名和图片参数关键字统一编译成一个 Aho-Corasick 自动机，
+ * 对 URL 只扫描一次，扫描时按字符做大小写折叠，不再生成小写副本
+ */
+@Component
+public class ImageUrlFilter {
+
+    /**
+     * 百度自身的图标、logo 和系统图片
+     */
+    private static final String[] BLACKLIST = {
+            "baidu.com/img/",
+            "bdimg.com/static/",
+            "bdstatic.com",
+            "favicon.ico",
+            "logo.png",
+            "logo.jpg",
+            "avatar",
+            "placeholder",
+            "loading.gif",
+            "default.jpg",
+            "noimage",
+            "blank.gif",
+            "spacer.gif",
+            "icon_",
+            "btn_",
+            "bg_"
+    };
+
+    private static final String[] IMAGE_EXTENSIONS = {".jpg", ".jpeg", ".png", ".gif", ".webp", ".bmp"};
+
+    /**
+     * 没有扩展名时，图片 URL 通常包含的关键字
+     */
+    private static final String[] IMAGE_PARAMS = {"image", "photo", "pic", "img"};
+
+    private static final int BLACKLISTED = 1;
+    private static final int HAS_EXTENSION = 1 << 1;
+    private static final int HAS_IMAGE_PARAM = 1 << 2;
+
+    private static final int MIN_URL_LENGTH = 20;
+
+    /**
+     * 所有模式均为 ASCII，非 ASCII 字符直接回到根状态
+     */
+    private static final int ALPHABET_SIZE = 128;
+
+    /**
+     * 完整的状态转移表（已合并失败指针），扫描时每个字符只查一次表
+     */
+    private final int[][] transitions;
+
+    /**
+     * 每个状态命中的模式类别（包含失败链上的输出）
+     */
+    private final int[] outputs;
+
+    public ImageUrlFilter() {
+        List<int[]> gotoTable = new ArrayList<>();
+        List<Integer> outputList = new ArrayList<>();
+        gotoTable.add(newState());
+        outputList.add(0);
+        addPatterns(BLACKLIST, BLACKLISTED, gotoTable, outputList);
+        addPatterns(IMAGE_EXTENSIONS, HAS_EXTENSION, gotoTable, outputList);
+        addPatterns(IMAGE_PARAMS, HAS_IMAGE_PARAM, gotoTable, outputList);
+
+        int stateCount = gotoTable.size();
+        this.transitions = gotoTable.toArray(new int[0][]);
+        this.outputs = new int[stateCount];
+        for (int i = 0; i < stateCount; i++) {
+            outputs[i] = outputList.get(i);
+        }
+        buildFailureTransitions(stateCount);
+    }
+
+    /**
+     * 验证图片 URL 是否有效
+     * 必须是 http(s) 开头、不命中黑名单、长度不小于 20，且包含图片扩展名或图片相关参数
+     */
+    public boolean isValidImageUrl(String url) {
+        if (url == null || url.length() < MIN_URL_LENGTH) {
+            return false;
+        }
+        if (!url.regionMatches(true, 0, "http://", 0, 7) && !url.regionMatches(true, 0, "https://", 0, 8)) {
+            return false;
+        }
+        int matched = scan(url);
+        if ((matched & BLACKLISTED) != 0) {
+            return false;
+        }
+        return (matched & (HAS_EXTENSION | HAS_IMAGE_PARAM)) != 0;
+    }
+
+    /**
+     * 是否命中黑名单（忽略大小写）
+     */
+    public boolean isBlacklisted(String url) {
+        return url != null && (scan(url) & BLACKLISTED) != 0;
+    }
+
+    /**
+     * 创建一次搜索内使用的去重器
+     */
+    public UrlDeduplicator newDeduplicator() {
+        return new UrlDeduplicator();
+    }
+
+    /**
+     * 基于 HashSet 的 URL 去重器，非线程安全，每次收集结果时新建一个
+     */
+    public static class UrlDeduplicator {
+
+        private final Set<String> seen = new HashSet<>();
+
+        /**
+         * @return 第一次出现时返回 true
+         */
+        public boolean firstSeen(String url) {
+            return seen.add(url);
+        }
+
+        public int size() {
+            return seen.size();
+        }
+    }
+
+    private int scan(String url) {
+        int state = 0;
+        int matched = 0;
+        for (int i = 0, len = url.length(); i < len; i++) {
+            char c = url.charAt(i);
+            if (c >= ALPHABET_SIZE) {
+                state = 0;
+                continue;
+            }
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            }
+            state = transitions[state][c];
+            matched |= outputs[state];
+            if ((matched & BLACKLISTED) != 0) {
+                return matched;
+            }
+        }
+        return matched;
+    }
+
+    private static int[] newState() {
+        int[] state = new int[ALPHABET_SIZE];
+        Arrays.fill(state, -1);
+        return state;
+    }
+
+    private static void addPatterns(String[] patterns, int category, List<int[]> gotoTable, List<Integer> outputList) {
+        for (String pattern : patterns) {
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (gotoTable.get(state)[c] < 0) {
+                    gotoTable.get(state)[c] = gotoTable.size();
+                    gotoTable.add(newState());
+                    outputList.add(0);
+                }
+                state = gotoTable.get(state)[c];
+            }
+            outputList.set(state, outputList.get(state) | category);
+        }
+    }
+
+    /**
+     * 广度优先计算失败指针，并把缺失的转移直接填成失败后的目标状态
+     */
+    private void buildFailureTransitions(int stateCount) {
+        int[] failure = new int[stateCount];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < ALPHABET_SIZE; c++) {
+            int next = transitions[0][c];
+            if (next < 0) {
+                transitions[0][c] = 0;
+            } else {
+                failure[next] = 0;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            outputs[state] |= outputs[failure[state]];
+            for (int c = 0; c < ALPHABET_SIZE; c++) {
+                int next = transitions[state][c];
+                if (next < 0) {
+                    transitions[state][c] = transitions[failure[state]][c];
+                } else {
+                    failure[next] = transitions[failure[state]][c];
+                    queue.add(next);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.lucius.sparkcraftbackend.utils;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 调用外部 AI 接口使用的 JSON 工具
+ * 全局共用一个 ObjectMapper，请求和响应都用类型固定的 record 读写，按类型缓存 ObjectReader/ObjectWriter，
+ * 不再经过 JSONObject 等可变的树结构。null 字段不输出，未知字段忽略。
+ * 与 Spring MVC 的 ObjectMapper 不同，这里的 Long 按数字输出
+ */
+public final class JsonUtils {
+
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .addModule(new BlackbirdModule())
+            .serializationInclusion(JsonInclude.Include.NON_NULL)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private static final Map<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<>();
+
+    private static final Map<Class<?>, ObjectWriter> WRITERS = new ConcurrentHashMap<>();
+
+    private JsonUtils() {
+    }
+
+    /**
+     * 直接向 JsonGenerator 写入内容
+     */
+    @FunctionalInterface
+    public interface JsonWriter {
+
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    /**
+     * 序列化为 JSON 字符串，null 返回 "null"
+     */
+    public static String toJson(Object value) {
+        try {
+            return value == null ? "null" : writer(value.getClass()).writeValueAsString(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException("JSON 序列化失败", e);
+        }
+    }
+
+    /**
+     * 反序列化 JSON 字符串
+     *
+     * @return 对象，json 为 null 时返回 null
+     */
+    public static <T> T parse(String json, Class<T> type) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return READERS.computeIfAbsent(type, MAPPER::readerFor).readValue(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException("JSON 解析失败", e);
+        }
+    }
+
+    /**
+     * 用 JsonGenerator 逐个写出字段，适合只有一两个字段、调用频繁的小对象
+     */
+    public static String write(JsonWriter writer) {
+        StringWriter out = new StringWriter(64);
+        try (JsonGenerator generator = MAPPER.getFactory().createGenerator(out)) {
+            writer.write(generator);
+        } catch (IOException e) {
+            throw new UncheckedIOException("JSON 序列化失败", e);
+        }
+        return out.toString();
+    }
+
+    private static ObjectWriter writer(Class<?> type) {
+        return WRITERS.computeIfAbsent(type, MAPPER::writerFor);
+    }
+}
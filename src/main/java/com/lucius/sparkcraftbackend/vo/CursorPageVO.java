@@ -0,0 +1,44 @@
+package com.lucius.sparkcraftbackend.vo;
+
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 游标分页结果
+ * 下一页请求传回 lastCreateTime 和 lastId
+ */
+@Data
+public class CursorPageVO<T> implements Serializable {
+
+    /**
+     * 当前页数据
+     */
+    private List<T> records;
+
+    /**
+     * 是否还有下一页
+     */
+    private boolean hasMore;
+
+    /**
+     * 本页最后一条记录的创建时间
+     */
+    private LocalDateTime lastCreateTime;
+
+    /**
+     * 本页最后一条记录的id
+     */
+    private Long lastId;
+
+    /**
+     * 总数，未请求总数时为 null；可能是短时间内缓存的值
+     */
+    private Long totalRow;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
@@ -49,6 +49,11 @@ public class LoginUserVO implements Serializable {
      */
     private LocalDateTime updateTime;
 
+    /**
+     * 登录令牌，仅 token 登录模式下返回
+     */
+    private String token;
+
     @Serial
     private static final long serialVersionUID = 1L;
 }
@@ -45,15 +45,24 @@ create table chat_history
 create index idx_appId
     on chat_history (appId);
 
+-- 游标分页索引：按 (createTime, id) 倒序翻页，附带列表视图所需的列，不读消息正文时无需回表
+-- 已有库执行：alter table chat_history drop index idx_appId_createTime, add index idx_appId_createTime (appId, isDelete, createTime, id, messageType, userId);
 create index idx_appId_createTime
-    on chat_history (appId, createTime);
+    on chat_history (appId, isDelete, createTime, id, messageType, userId);
 
 create index idx_createTime
     on chat_history (createTime);
 
+-- 全文索引建立前关闭停用词：ngram 会丢弃包含停用词（a、i、at、in 等）的分词，开启时 cat、ai 这类英文/拼音关键词查不到
+-- 该变量在建索引时生效，已有库需在关闭后重建 ft_message、ft_projectName、ft_projectDesc
+set session innodb_ft_enable_stopword = OFF;
+
+create fulltext index ft_message
+    on chat_history (message) with parser ngram;
+
 create table if not exists image_project(
     id bigint auto_increment comment 'id' primary key,
-    useId bigint not null comment '用户id',
+    userId bigint not null comment '用户id',
     projectName varchar(256) not null comment '项目名称',
     projectDesc varchar(1024) not null comment '项目描述',
     projectImageUrl text null comment '生成图片地址',
@@ -66,6 +75,17 @@ create table if not exists image_project(
     isDelete    tinyint  default 0                 not null comment '是否删除'
 );
 
+-- 全文索引（ngram 分词，支持中文），替代 like '%关键词%' 的全表扫描，写入和更新时由 InnoDB 增量维护
+create fulltext index ft_projectName on image_project (projectName) with parser ngram;
+create fulltext index ft_projectDesc on image_project (projectDesc) with parser ngram;
+
+-- 游标分页索引：我的工程 / 精选工程按 (createTime, id) 倒序翻页，深页不再扫描前面的行
+-- 已有库中用户id列名为 useId 时先执行：alter table image_project change useId userId bigint not null comment '用户id';
+create index idx_userId_createTime
+    on image_project (userId, isDelete, createTime, id);
+create index idx_priority_createTime
+    on image_project (priority, isDelete, createTime, id);
+
 create table chat_memory
 (
     id              bigint auto_increment
@@ -116,3 +136,47 @@ create table if not exists workflow_job
     INDEX idx_status (status),
     INDEX idx_create_time (create_time)
 ) comment '工作流任务' collate = utf8mb4_unicode_ci;
+
+-- 资源镜像表：外部图片地址 -> OSS 地址，避免重复下载和上传
+create table if not exists asset_mirror
+(
+    id            bigint auto_increment comment 'id' primary key,
+    sourceUrl     varchar(2048)                      not null comment '原始地址',
+    sourceUrlHash char(64)                           not null comment '原始地址的SHA-256',
+    contentHash   char(64)                           not null comment '内容的SHA-256',
+    ossUrl        varchar(1024)                      not null comment 'OSS地址',
+    contentLength bigint   default -1                not null comment '内容大小（字节）',
+    createTime    datetime default CURRENT_TIMESTAMP not null comment '创建时间',
+    updateTime    datetime default CURRENT_TIMESTAMP not null on update CURRENT_TIMESTAMP comment '更新时间',
+    isDelete      tinyint  default 0                 not null comment '是否删除',
+    UNIQUE KEY uk_sourceUrlHash (sourceUrlHash),
+    INDEX idx_contentHash (contentHash)
+) comment '资源镜像' collate = utf8mb4_unicode_ci;
+
+-- 工作流产物表：制造流程、任务结果等大文本单独存放，image_project / workflow_job 中只保存 "artifact:id" 引用，
+-- 列表查询不再读取大字段；旧数据中的原文仍可直接读取
+create table if not exists workflow_artifact
+(
+    id            bigint auto_increment comment 'id' primary key,
+    contentHash   char(64)                           not null comment '内容的SHA-256',
+    content       mediumtext                         not null comment '内容',
+    contentLength int      default 0                 not null comment '内容长度（字符）',
+    createTime    datetime default CURRENT_TIMESTAMP not null comment '创建时间',
+    updateTime    datetime default CURRENT_TIMESTAMP not null on update CURRENT_TIMESTAMP comment '更新时间',
+    isDelete      tinyint  default 0                 not null comment '是否删除',
+    UNIQUE KEY uk_contentHash (contentHash)
+) comment '工作流产物' collate = utf8mb4_unicode_ci;
+
+-- 对话总结表：每个应用一条滚动总结，只合并 lastMessageId 之后的新对话
+create table if not exists chat_summary
+(
+    id            bigint auto_increment comment 'id' primary key,
+    appId         bigint                             not null comment '应用id',
+    summary       text                               not null comment '总结内容',
+    summaryTokens int      default 0                 not null comment '总结的token数',
+    lastMessageId bigint   default 0                 not null comment '已合并的最后一条对话历史id',
+    createTime    datetime default CURRENT_TIMESTAMP not null comment '创建时间',
+    updateTime    datetime default CURRENT_TIMESTAMP not null on update CURRENT_TIMESTAMP comment '更新时间',
+    isDelete      tinyint  default 0                 not null comment '是否删除',
+    UNIQUE KEY uk_appId (appId)
+) comment '对话总结' collate = utf8mb4_unicode_ci;
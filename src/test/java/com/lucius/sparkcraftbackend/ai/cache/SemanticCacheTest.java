@@ -0,0 +1,119 @@
+package com.lucius.sparkcraftbackend.ai.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SemanticCache测试类
+ */
+class SemanticCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    private final AtomicInteger embedCalls = new AtomicInteger();
+
+    /**
+     * 字符二元组哈希向量，相近的文本得到相近的向量
+     */
+    private final Function<String, float[]> embedder = text -> {
+        embedCalls.incrementAndGet();
+        float[] vector = new float[256];
+        String normalized = SemanticCache.normalize(text);
+        for (int i = 0; i + 1 < normalized.length(); i++) {
+            vector[(normalized.substring(i, i + 2).hashCode() & 0x7fffffff) % vector.length] += 1;
+        }
+        return vector;
+    };
+
+    private SemanticCache<String> cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new SemanticCache<>(embedder, 3, 60_000, 0.9, now::get);
+    }
+
+    @Test
+    void testNormalize() {
+        assertEquals("西安大雁塔主题茶具abc", SemanticCache.normalize(" 西安，大雁塔 主题茶具！ＡＢＣ "));
+    }
+
+    @Test
+    void testExactHit_IgnoresPunctuationAndSkipsEmbedding() {
+        cache.put(cache.lookup("西安大雁塔主题茶具"), "result");
+        embedCalls.set(0);
+
+        SemanticCache.Lookup<String> lookup = cache.lookup("西安 大雁塔主题茶具。");
+
+        assertTrue(lookup.isHit());
+        assertEquals("result", lookup.getValue());
+        assertEquals(0, embedCalls.get());
+        assertEquals(1, cache.getExactHits().get());
+    }
+
+    @Test
+    void testSimilarHit() {
+        cache.put(cache.lookup("请帮我设计一套西安大雁塔主题的茶具"), "result");
+
+        SemanticCache.Lookup<String> lookup = cache.lookup("请帮我设计一套西安大雁塔主题的茶具吧");
+
+        assertTrue(lookup.isHit());
+        assertEquals(1, cache.getSimilarHits().get());
+    }
+
+    @Test
+    void testDissimilarMiss() {
+        cache.put(cache.lookup("请帮我设计一套西安大雁塔主题的茶具"), "result");
+
+        assertFalse(cache.lookup("中秋节兔子月亮桌面摆件").isHit());
+        assertEquals(2, cache.getMisses().get());
+    }
+
+    @Test
+    void testTtlExpiry() {
+        cache.put(cache.lookup("西安大雁塔主题茶具"), "result");
+
+        now.addAndGet(60_001);
+
+        assertFalse(cache.lookup("西安大雁塔主题茶具").isHit());
+    }
+
+    @Test
+    void testCapacity_OverwritesOldestSlot() {
+        cache.put(cache.lookup("第一个成都火锅主题茶具"), "1");
+        cache.put(cache.lookup("第二个中秋兔子月亮摆件"), "2");
+        cache.put(cache.lookup("第三个西安大雁塔书签"), "3");
+        cache.put(cache.lookup("第四个苏州园林丝巾"), "4");
+
+        assertFalse(cache.lookup("第一个成都火锅主题茶具").isHit());
+        assertEquals("4", cache.lookup("第四个苏州园林丝巾").getValue());
+    }
+
+    @Test
+    void testEmbeddingFailure_FallsBackToExactMatch() {
+        SemanticCache<String> exactOnly = new SemanticCache<>(text -> {
+            throw new IllegalStateException("embedding unavailable");
+        }, 3, 60_000, 0.9, now::get);
+
+        exactOnly.put(exactOnly.lookup("西安大雁塔主题茶具"), "result");
+
+        assertTrue(exactOnly.lookup("西安大雁塔主题茶具").isHit());
+        assertFalse(exactOnly.lookup("西安大雁塔主题茶具吧").isHit());
+    }
+
+    @Test
+    void testScope_EntriesDoNotCrossScopes() {
+        cache.put(cache.lookup("1", "请帮我设计一套西安大雁塔主题的茶具"), "result");
+
+        assertTrue(cache.lookup("1", "请帮我设计一套西安大雁塔主题的茶具").isHit());
+        assertTrue(cache.lookup("1", "请帮我设计一套西安大雁塔主题的茶具吧").isHit());
+        assertFalse(cache.lookup("2", "请帮我设计一套西安大雁塔主题的茶具").isHit());
+        assertFalse(cache.lookup("2", "请帮我设计一套西安大雁塔主题的茶具吧").isHit());
+        assertFalse(cache.lookup("请帮我设计一套西安大雁塔主题的茶具").isHit());
+    }
+}
@@ -0,0 +1,132 @@
+package com.lucius.sparkcraftbackend.ai.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * CachedChatMemory测试类
+ */
+@ExtendWith(MockitoExtension.class)
+class CachedChatMemoryTest {
+
+    @Mock
+    private ChatMemory delegate;
+
+    private CachedChatMemory chatMemory;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    @BeforeEach
+    void setUp() {
+        chatMemory = new CachedChatMemory(delegate, 4, 2, 1024 * 1024, 30_000, now::get);
+    }
+
+    @Test
+    void testGet_HitDoesNotReachDelegate() {
+        when(delegate.get("1", 4)).thenReturn(List.of(new UserMessage("a"), new AssistantMessage("b")));
+
+        chatMemory.get("1", 4);
+        List<Message> messages = chatMemory.get("1", 1);
+
+        assertEquals(1, messages.size());
+        assertEquals("b", messages.get(0).getText());
+        verify(delegate, times(1)).get("1", 4);
+    }
+
+    @Test
+    void testAdd_WriteThroughKeepsWindow() {
+        when(delegate.get("1", 4)).thenReturn(messages("m1", "m2", "m3"));
+        chatMemory.get("1", 4);
+
+        chatMemory.add("1", messages("m4", "m5"));
+        List<Message> window = chatMemory.get("1", 4);
+
+        verify(delegate).add(eq("1"), anyList());
+        assertEquals(List.of("m2", "m3", "m4", "m5"), window.stream().map(Message::getText).toList());
+        verify(delegate, times(1)).get("1", 4);
+    }
+
+    @Test
+    void testGet_LargerThanWindowGoesToDelegate() {
+        when(delegate.get("1", 10)).thenReturn(messages("m1"));
+
+        assertEquals(1, chatMemory.get("1", 10).size());
+        verify(delegate).get("1", 10);
+    }
+
+    @Test
+    void testEviction_ByConversationCount() {
+        when(delegate.get(anyString(), eq(4))).thenReturn(messages("m"));
+        chatMemory.get("1", 4);
+        chatMemory.get("2", 4);
+        chatMemory.get("1", 4);
+        chatMemory.get("3", 4);
+
+        // 会话 2 最久未访问，被淘汰后需要重新加载；会话 1 仍在缓存中
+        chatMemory.get("1", 4);
+        chatMemory.get("2", 4);
+
+        verify(delegate, times(1)).get("1", 4);
+        verify(delegate, times(2)).get("2", 4);
+    }
+
+    @Test
+    void testEviction_ByBytes() {
+        CachedChatMemory small = new CachedChatMemory(delegate, 4, 100, 200, 30_000, now::get);
+        when(delegate.get(anyString(), eq(4))).thenReturn(messages("x".repeat(40)));
+        small.get("1", 4);
+        small.get("2", 4);
+        small.get("1", 4);
+
+        verify(delegate, times(2)).get("1", 4);
+    }
+
+    @Test
+    void testClear_EvictsWindow() {
+        when(delegate.get("1", 4)).thenReturn(messages("m1"));
+        chatMemory.get("1", 4);
+
+        chatMemory.clear("1");
+        chatMemory.get("1", 4);
+
+        verify(delegate).clear("1");
+        verify(delegate, times(2)).get("1", 4);
+    }
+
+    @Test
+    void testGet_ExpiredWindowReloadsFromDelegate() {
+        when(delegate.get("1", 4)).thenReturn(messages("m1"), messages("m1", "m2", "m3"));
+        chatMemory.get("1", 4);
+
+        // 本实例写入 m3 不会延长有效期，其他实例写入的 m2 在窗口过期后可见
+        chatMemory.add("1", messages("m3"));
+        assertEquals(List.of("m1", "m3"), chatMemory.get("1", 4).stream().map(Message::getText).toList());
+        now.addAndGet(30_000);
+        List<Message> window = chatMemory.get("1", 4);
+
+        assertEquals(List.of("m1", "m2", "m3"), window.stream().map(Message::getText).toList());
+        verify(delegate, times(2)).get("1", 4);
+    }
+
+    private static List<Message> messages(String... texts) {
+        List<Message> messages = new ArrayList<>();
+        for (String text : texts) {
+            messages.add(new UserMessage(text));
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,252 @@
+package com.lucius.sparkcraftbackend.ai.config;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 测试用的内嵌 Redis 替身
+ * 在本机随机端口上实现 RESP2 协议的一小部分命令（列表、过期、删除），足够驱动 Lettuce 客户端；
+ * 不支持的命令返回错误，HELLO 失败后客户端会自动回退到 RESP2
+ */
+class EmbeddedRedisServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+
+    private final Map<String, List<byte[]>> lists = new HashMap<>();
+
+    private final Map<String, Long> expireAt = new HashMap<>();
+
+    private volatile boolean running = true;
+
+    EmbeddedRedisServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptLoop, "embedded-redis");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * 剩余过期时间（秒），与 TTL 命令一致：不存在返回 -2，无过期时间返回 -1
+     */
+    synchronized long ttl(String key) {
+        if (list(key) == null) {
+            return -2;
+        }
+        Long at = expireAt.get(key);
+        return at == null ? -1 : Math.max(0, (at - System.currentTimeMillis()) / 1000);
+    }
+
+    /**
+     * 模拟 key 过期
+     */
+    synchronized void expireNow(String key) {
+        lists.remove(key);
+        expireAt.remove(key);
+    }
+
+    synchronized int size(String key) {
+        List<byte[]> list = list(key);
+        return list == null ? 0 : list.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverSocket.close();
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread handler = new Thread(() -> handle(socket), "embedded-redis-client");
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket;
+             InputStream in = new BufferedInputStream(socket.getInputStream());
+             OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+            while (running) {
+                List<byte[]> command = readCommand(in);
+                if (command == null) {
+                    return;
+                }
+                execute(command, out);
+                // 管道中的命令读完后再统一刷出
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+        } catch (IOException ignored) {
+            // 客户端断开
+        }
+    }
+
+    private synchronized void execute(List<byte[]> command, OutputStream out) throws IOException {
+        String name = new String(command.get(0), StandardCharsets.UTF_8).toUpperCase(Locale.ROOT);
+        String key = command.size() > 1 ? new String(command.get(1), StandardCharsets.UTF_8) : null;
+        switch (name) {
+            case "PING" -> writeSimple(out, "PONG");
+            case "CLIENT", "SELECT" -> writeSimple(out, "OK");
+            case "RPUSH", "RPUSHX" -> {
+                List<byte[]> list = list(key);
+                if (list == null) {
+                    if ("RPUSHX".equals(name)) {
+                        writeInteger(out, 0);
+                        return;
+                    }
+                    list = new ArrayList<>();
+                    lists.put(key, list);
+                }
+                list.addAll(command.subList(2, command.size()));
+                writeInteger(out, list.size());
+            }
+            case "LRANGE" -> {
+                List<byte[]> list = list(key);
+                if (list == null) {
+                    writeArray(out, List.of());
+                    return;
+                }
+                int[] range = range(list.size(), parseLong(command.get(2)), parseLong(command.get(3)));
+                writeArray(out, range == null ? List.of() : list.subList(range[0], range[1] + 1));
+            }
+            case "LTRIM" -> {
+                List<byte[]> list = list(key);
+                if (list != null) {
+                    int[] range = range(list.size(), parseLong(command.get(2)), parseLong(command.get(3)));
+                    if (range == null) {
+                        expireNow(key);
+                    } else {
+                        lists.put(key, new ArrayList<>(list.subList(range[0], range[1] + 1)));
+                    }
+                }
+                writeSimple(out, "OK");
+            }
+            case "EXPIRE" -> {
+                boolean exists = list(key) != null;
+                if (exists) {
+                    expireAt.put(key, System.currentTimeMillis() + parseLong(command.get(2)) * 1000);
+                }
+                writeInteger(out, exists ? 1 : 0);
+            }
+            case "DEL" -> {
+                int deleted = 0;
+                for (byte[] rawKey : command.subList(1, command.size())) {
+                    String k = new String(rawKey, StandardCharsets.UTF_8);
+                    if (list(k) != null) {
+                        deleted++;
+                    }
+                    expireNow(k);
+                }
+                writeInteger(out, deleted);
+            }
+            default -> writeError(out, "ERR unknown command '" + name + "'");
+        }
+    }
+
+    private List<byte[]> list(String key) {
+        Long at = expireAt.get(key);
+        if (at != null && at <= System.currentTimeMillis()) {
+            expireNow(key);
+        }
+        return lists.get(key);
+    }
+
+    /**
+     * 把 Redis 风格的 [start, stop]（支持负数下标）换算成闭区间，区间为空时返回 null
+     */
+    private static int[] range(int size, long start, long stop) {
+        if (start < 0) {
+            start = Math.max(0, size + start);
+        }
+        if (stop < 0) {
+            stop = size + stop;
+        }
+        stop = Math.min(stop, size - 1);
+        if (start > stop) {
+            return null;
+        }
+        return new int[]{(int) start, (int) stop};
+    }
+
+    private static List<byte[]> readCommand(InputStream in) throws IOException {
+        int first = in.read();
+        if (first < 0) {
+            return null;
+        }
+        if (first != '*') {
+            throw new IOException("只支持 RESP 数组格式的命令");
+        }
+        int count = Integer.parseInt(readLine(in));
+        List<byte[]> args = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (in.read() != '$') {
+                throw new IOException("只支持批量字符串参数");
+            }
+            int length = Integer.parseInt(readLine(in));
+            args.add(in.readNBytes(length));
+            readLine(in);
+        }
+        return args;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != '\r') {
+            if (c < 0) {
+                throw new IOException("连接已关闭");
+            }
+            line.append((char) c);
+        }
+        in.read();
+        return line.toString();
+    }
+
+    private static long parseLong(byte[] value) {
+        return Long.parseLong(new String(value, StandardCharsets.UTF_8));
+    }
+
+    private static void writeSimple(OutputStream out, String value) throws IOException {
+        out.write(("+" + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeError(OutputStream out, String message) throws IOException {
+        out.write(("-" + message + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeInteger(OutputStream out, long value) throws IOException {
+        out.write((":" + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeArray(OutputStream out, List<byte[]> values) throws IOException {
+        out.write(("*" + values.size() + "\r\n").getBytes(StandardCharsets.UTF_8));
+        for (byte[] value : values) {
+            out.write(("$" + value.length + "\r\n").getBytes(StandardCharsets.UTF_8));
+            out.write(value);
+            out.write("\r\n".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
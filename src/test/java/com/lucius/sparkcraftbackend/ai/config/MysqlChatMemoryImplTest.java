@@ -0,0 +1,104 @@
+package com.lucius.sparkcraftbackend.ai.config;
+
+import com.lucius.sparkcraftbackend.entity.ChatMemoryEntity;
+import com.lucius.sparkcraftbackend.mapper.ChatMemoryMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * MysqlChatMemoryImpl测试类
+ */
+@ExtendWith(MockitoExtension.class)
+class MysqlChatMemoryImplTest {
+
+    @Mock
+    private ChatMemoryMapper chatMemoryMapper;
+
+    @InjectMocks
+    private MysqlChatMemoryImpl chatMemory;
+
+    private static final String CONVERSATION_ID = "1001";
+
+    @Test
+    void testAdd_WritesInOneBatchOnFlush() {
+        chatMemory.add(CONVERSATION_ID, List.of(new UserMessage("你好"), new AssistantMessage("你好，有什么可以帮你？")));
+        chatMemory.add("1002", List.of(new UserMessage("在吗")));
+
+        verifyNoInteractions(chatMemoryMapper);
+
+        List<List<ChatMemoryEntity>> batches = new ArrayList<>();
+        when(chatMemoryMapper.insertMessages(anyList())).thenAnswer(invocation -> {
+            batches.add(new ArrayList<>(invocation.getArgument(0)));
+            return 3;
+        });
+        chatMemory.flush();
+
+        assertEquals(1, batches.size());
+        assertEquals(3, batches.get(0).size());
+        assertEquals("UserMessage", batches.get(0).get(0).getMessageType());
+        assertEquals("AssistantMessage", batches.get(0).get(1).getMessageType());
+    }
+
+    @Test
+    void testGet_IncludesPendingMessages() {
+        ChatMemoryEntity stored = new ChatMemoryEntity(1L, CONVERSATION_ID, "UserMessage", "第一条", "{}", null);
+        when(chatMemoryMapper.getMessages(eq(CONVERSATION_ID), anyInt())).thenReturn(List.of(stored));
+        chatMemory.add(CONVERSATION_ID, List.of(new AssistantMessage("第二条")));
+        chatMemory.add("1002", List.of(new UserMessage("其他会话")));
+
+        List<Message> messages = chatMemory.get(CONVERSATION_ID, 10);
+
+        assertEquals(2, messages.size());
+        assertEquals("第一条", messages.get(0).getText());
+        assertInstanceOf(AssistantMessage.class, messages.get(1));
+    }
+
+    @Test
+    void testFlush_FailedBatchIsRequeued() {
+        chatMemory.add(CONVERSATION_ID, List.of(new UserMessage("你好")));
+        when(chatMemoryMapper.insertMessages(anyList())).thenThrow(new RuntimeException("db down")).thenReturn(1);
+
+        assertThrows(RuntimeException.class, () -> chatMemory.flush());
+        chatMemory.flush();
+
+        verify(chatMemoryMapper, times(2)).insertMessages(anyList());
+    }
+
+    @Test
+    void testClear_DropsPendingAndDeletes() {
+        chatMemory.add(CONVERSATION_ID, List.of(new UserMessage("你好")));
+
+        chatMemory.clear(CONVERSATION_ID);
+        chatMemory.flush();
+
+        verify(chatMemoryMapper).deleteByConversationId(CONVERSATION_ID);
+        verify(chatMemoryMapper, never()).insertMessages(anyList());
+    }
+
+    @Test
+    void testTrim_UsesIdWatermark() {
+        chatMemory.add(CONVERSATION_ID, List.of(new UserMessage("你好")));
+        when(chatMemoryMapper.getTrimWatermark(CONVERSATION_ID, 19)).thenReturn(88L);
+
+        chatMemory.trim();
+        chatMemory.trim();
+
+        ArgumentCaptor<Long> watermark = ArgumentCaptor.forClass(Long.class);
+        verify(chatMemoryMapper, times(1)).deleteBeforeId(eq(CONVERSATION_ID), watermark.capture());
+        assertEquals(88L, watermark.getValue());
+    }
+}
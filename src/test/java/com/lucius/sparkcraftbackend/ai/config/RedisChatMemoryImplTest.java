@@ -0,0 +1,120 @@
+package com.lucius.sparkcraftbackend.ai.config;
+
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.protocol.ProtocolVersion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RedisChatMemoryImpl测试类
+ */
+class RedisChatMemoryImplTest {
+
+    private static final String KEY_PREFIX = "test:chat-memory:";
+
+    private EmbeddedRedisServer redisServer;
+
+    private LettuceConnectionFactory connectionFactory;
+
+    private RedisChatMemoryImpl chatMemory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        redisServer = new EmbeddedRedisServer();
+        connectionFactory = connectionFactory(redisServer.getPort());
+        chatMemory = new RedisChatMemoryImpl(new StringRedisTemplate(connectionFactory), KEY_PREFIX, 4, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        connectionFactory.destroy();
+        redisServer.close();
+    }
+
+    @Test
+    void testAddAndGet() {
+        chatMemory.add("1", List.of(new UserMessage("你好"), new AssistantMessage("你好，有什么可以帮你？")));
+
+        List<Message> messages = chatMemory.get("1", 10);
+
+        assertEquals(2, messages.size());
+        assertInstanceOf(UserMessage.class, messages.get(0));
+        assertEquals("你好", messages.get(0).getText());
+        assertInstanceOf(AssistantMessage.class, messages.get(1));
+        assertEquals("你好，有什么可以帮你？", messages.get(1).getText());
+    }
+
+    @Test
+    void testGet_ReadsEntriesWrittenByEarlierVersions() {
+        new StringRedisTemplate(connectionFactory).opsForList().rightPushAll(KEY_PREFIX + "1",
+                "{\"type\":\"UserMessage\",\"content\":\"带\\\"引号\\\"的消息\"}",
+                "{\"content\":\"回复\",\"type\":\"AssistantMessage\"}");
+
+        List<Message> messages = chatMemory.get("1", 10);
+
+        assertInstanceOf(UserMessage.class, messages.get(0));
+        assertEquals("带\"引号\"的消息", messages.get(0).getText());
+        assertInstanceOf(AssistantMessage.class, messages.get(1));
+        assertEquals("回复", messages.get(1).getText());
+    }
+
+    @Test
+    void testAdd_TrimsToMaxMessagesAndSetsTtl() {
+        for (int i = 1; i <= 6; i++) {
+            chatMemory.add("1", List.of(new UserMessage("m" + i)));
+        }
+
+        assertEquals(4, redisServer.size(KEY_PREFIX + "1"));
+        assertEquals(List.of("m3", "m4", "m5", "m6"), texts(chatMemory.get("1", 10)));
+        assertEquals(List.of("m5", "m6"), texts(chatMemory.get("1", 2)));
+        assertTrue(redisServer.ttl(KEY_PREFIX + "1") > 3500);
+    }
+
+    @Test
+    void testAppend_OnlyIfPresentSkipsMissingKey() {
+        chatMemory.append("1", List.of(new UserMessage("m1")), true);
+        assertTrue(chatMemory.get("1", 10).isEmpty());
+
+        chatMemory.replace("1", List.of(new UserMessage("m1")));
+        chatMemory.append("1", List.of(new UserMessage("m2")), true);
+        assertEquals(List.of("m1", "m2"), texts(chatMemory.get("1", 10)));
+    }
+
+    @Test
+    void testClear() {
+        chatMemory.add("1", List.of(new UserMessage("m1")));
+
+        chatMemory.clear("1");
+
+        assertTrue(chatMemory.get("1", 10).isEmpty());
+    }
+
+    static LettuceConnectionFactory connectionFactory(int port) {
+        LettuceClientConfiguration clientConfiguration = LettuceClientConfiguration.builder()
+                .clientOptions(ClientOptions.builder().protocolVersion(ProtocolVersion.RESP2).build())
+                .commandTimeout(Duration.ofSeconds(2))
+                .build();
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration("localhost", port), clientConfiguration);
+        factory.afterPropertiesSet();
+        factory.start();
+        return factory;
+    }
+
+    static List<String> texts(List<Message> messages) {
+        return messages.stream().map(Message::getText).toList();
+    }
+}
@@ -0,0 +1,125 @@
+package com.lucius.sparkcraftbackend.ai.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static com.lucius.sparkcraftbackend.ai.config.RedisChatMemoryImplTest.connectionFactory;
+import static com.lucius.sparkcraftbackend.ai.config.RedisChatMemoryImplTest.texts;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * TieredChatMemory测试类
+ */
+@ExtendWith(MockitoExtension.class)
+class TieredChatMemoryTest {
+
+    private static final String KEY_PREFIX = "test:chat-memory:";
+
+    @Mock
+    private ChatMemory mysqlChatMemory;
+
+    private EmbeddedRedisServer redisServer;
+
+    private LettuceConnectionFactory connectionFactory;
+
+    private TieredChatMemory chatMemory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        redisServer = new EmbeddedRedisServer();
+        connectionFactory = connectionFactory(redisServer.getPort());
+        chatMemory = new TieredChatMemory(redisChatMemory(connectionFactory), mysqlChatMemory);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        connectionFactory.destroy();
+        redisServer.close();
+    }
+
+    @Test
+    void testGet_MissBackfillsFromMysql() {
+        when(mysqlChatMemory.get("1", 4)).thenReturn(List.of(new UserMessage("m1"), new UserMessage("m2")));
+
+        assertEquals(List.of("m2"), texts(chatMemory.get("1", 1)));
+        assertEquals(List.of("m1", "m2"), texts(chatMemory.get("1", 4)));
+
+        verify(mysqlChatMemory, times(1)).get("1", 4);
+    }
+
+    @Test
+    void testAdd_WritesBothTiers() {
+        when(mysqlChatMemory.get("1", 4)).thenReturn(List.of(new UserMessage("m1")));
+        chatMemory.get("1", 4);
+
+        List<Message> added = List.of(new UserMessage("m2"));
+        chatMemory.add("1", added);
+
+        verify(mysqlChatMemory).add("1", added);
+        assertEquals(List.of("m1", "m2"), texts(chatMemory.get("1", 4)));
+        verify(mysqlChatMemory, times(1)).get("1", 4);
+    }
+
+    @Test
+    void testAdd_ColdConversationIsNotCreatedInRedis() {
+        chatMemory.add("1", List.of(new UserMessage("m2")));
+
+        assertEquals(0, redisServer.size(KEY_PREFIX + "1"));
+        verify(mysqlChatMemory).add(eq("1"), anyList());
+    }
+
+    @Test
+    void testGet_ExpiredKeyReloadsFromMysql() {
+        when(mysqlChatMemory.get("1", 4)).thenReturn(List.of(new UserMessage("m1")));
+        chatMemory.get("1", 4);
+
+        redisServer.expireNow(KEY_PREFIX + "1");
+        chatMemory.get("1", 4);
+
+        verify(mysqlChatMemory, times(2)).get("1", 4);
+    }
+
+    @Test
+    void testGet_LargerThanRedisWindowGoesToMysql() {
+        when(mysqlChatMemory.get("1", 10)).thenReturn(List.of(new UserMessage("m1")));
+
+        assertEquals(1, chatMemory.get("1", 10).size());
+        assertEquals(0, redisServer.size(KEY_PREFIX + "1"));
+    }
+
+    @Test
+    void testRedisUnavailable_FallsBackToMysql() throws Exception {
+        EmbeddedRedisServer stopped = new EmbeddedRedisServer();
+        int port = stopped.getPort();
+        stopped.close();
+        LettuceConnectionFactory unavailable = connectionFactory(port);
+        try {
+            TieredChatMemory degraded = new TieredChatMemory(redisChatMemory(unavailable), mysqlChatMemory);
+            when(mysqlChatMemory.get("1", 4)).thenReturn(List.of(new UserMessage("m1")));
+
+            degraded.add("1", List.of(new UserMessage("m2")));
+            assertEquals(List.of("m1"), texts(degraded.get("1", 4)));
+
+            verify(mysqlChatMemory).add(eq("1"), anyList());
+        } finally {
+            unavailable.destroy();
+        }
+    }
+
+    private static RedisChatMemoryImpl redisChatMemory(LettuceConnectionFactory factory) {
+        return new RedisChatMemoryImpl(new StringRedisTemplate(factory), KEY_PREFIX, 4, Duration.ofHours(1));
+    }
+}
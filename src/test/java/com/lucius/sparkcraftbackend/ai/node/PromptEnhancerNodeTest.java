@@ -1,12 +1,197 @@
 package com.lucius.sparkcraftbackend.ai.node;
 
+import com.lucius.sparkcraftbackend.ai.WorkflowContext;
+import com.lucius.sparkcraftbackend.ai.cache.SemanticCache;
+import com.lucius.sparkcraftbackend.dto.ChatSummaryDraft;
+import com.lucius.sparkcraftbackend.service.ChatSummaryService;
+import org.bsc.langgraph4j.prebuilt.MessagesState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+
+import java.util.HashMap;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 class PromptEnhancerNodeTest {
 
+    private ChatSummaryService chatSummaryService;
+
+    private ChatClient promptEnhancementChatClient;
+
+    private ChatClient keyPointExtractionChatClient;
+
+    private WorkflowContext context;
+
+    @BeforeEach
+    void setUp() {
+        chatSummaryService = mock(ChatSummaryService.class);
+        promptEnhancementChatClient = mock(ChatClient.class, RETURNS_DEEP_STUBS);
+        keyPointExtractionChatClient = mock(ChatClient.class, RETURNS_DEEP_STUBS);
+        PromptEnhancerNode.setChatSummaryService(chatSummaryService);
+        PromptEnhancerNode.setPromptEnhancementChatClient(promptEnhancementChatClient);
+        PromptEnhancerNode.setKeyPointExtractionChatClient(keyPointExtractionChatClient);
+
+        context = new WorkflowContext();
+        context.setAppId(1L);
+        context.setOriginalPrompt("做一个中秋摆件");
+        WorkflowContext.setCurrentContext(context);
+    }
+
+    @AfterEach
+    void tearDown() {
+        WorkflowContext.clearCurrentContext();
+        PromptEnhancerNode.setChatSummaryService(null);
+        PromptEnhancerNode.setPromptEnhancementChatClient(null);
+        PromptEnhancerNode.setKeyPointExtractionChatClient(null);
+        PromptEnhancerNode.setPromptEnhancementCache(null);
+    }
+
     @Test
     void create() {
     }
-}
\ No newline at end of file
+
+    @Test
+    void testStructuredOutput_SingleCall() throws Exception {
+        ChatSummaryDraft draft = ChatSummaryDraft.builder()
+                .appId(1L).summary("").newDialogue("[用户]: 想要兔子").lastMessageId(11L).build();
+        when(chatSummaryService.prepareDraft(1L)).thenReturn(draft);
+        PromptEnhancement enhancement = new PromptEnhancement();
+        enhancement.setSummary("主题：中秋节，元素：兔子");
+        enhancement.setEnhancedPrompt("设计一款以兔子为主要元素的中秋桌面摆件");
+        enhancement.setKeyPoint("兔子摆件");
+        when(promptEnhancementChatClient.prompt().user(anyString()).call().entity(PromptEnhancement.class))
+                .thenReturn(enhancement);
+
+        PromptEnhancerNode.create().apply(new MessagesState<>(new HashMap<>())).get();
+
+        assertEquals("设计一款以兔子为主要元素的中秋桌面摆件", context.getEnhancedPrompt());
+        assertEquals("兔子摆件", context.getKeyPoint());
+        verify(chatSummaryService).saveMergedSummary(draft, "主题：中秋节，元素：兔子");
+        verify(chatSummaryService, never()).getRollingSummary(any());
+        verifyNoInteractions(keyPointExtractionChatClient);
+    }
+
+    @Test
+    void testStructuredOutput_ParseFailureFallsBackToTwoCalls() throws Exception {
+        when(chatSummaryService.prepareDraft(1L)).thenReturn(ChatSummaryDraft.builder()
+                .appId(1L).summary("主题：中秋节").newDialogue("").build());
+        when(promptEnhancementChatClient.prompt().user(anyString()).call().entity(PromptEnhancement.class))
+                .thenThrow(new RuntimeException("无法解析 JSON"));
+        when(chatSummaryService.getRollingSummary(1L)).thenReturn("主题：中秋节");
+        when(keyPointExtractionChatClient.prompt().user(anyString()).call().content()).thenReturn("月亮");
+
+        PromptEnhancerNode.create().apply(new MessagesState<>(new HashMap<>())).get();
+
+        assertTrue(context.getEnhancedPrompt().contains("主题：中秋节"));
+        assertTrue(context.getEnhancedPrompt().contains("做一个中秋摆件"));
+        assertEquals("月亮", context.getKeyPoint());
+        verify(chatSummaryService, never()).saveMergedSummary(any(), eq("主题：中秋节"));
+    }
+
+    @Test
+    void testStructuredOutput_CacheHitSkipsLlm() throws Exception {
+        PromptEnhancerNode.setPromptEnhancementCache(new SemanticCache<>(null, 10, 60_000, 0.95));
+        when(chatSummaryService.prepareDraft(1L)).thenReturn(ChatSummaryDraft.builder()
+                .appId(1L).summary("").newDialogue("").build());
+        PromptEnhancement enhancement = new PromptEnhancement();
+        enhancement.setEnhancedPrompt("设计一款中秋桌面摆件");
+        enhancement.setKeyPoint("兔子摆件");
+        when(promptEnhancementChatClient.prompt().user(anyString()).call().entity(PromptEnhancement.class))
+                .thenReturn(enhancement);
+
+        PromptEnhancerNode.create().apply(new MessagesState<>(new HashMap<>())).get();
+        context.setOriginalPrompt("做一个中秋摆件！");
+        PromptEnhancerNode.create().apply(new MessagesState<>(new HashMap<>())).get();
+
+        assertEquals("设计一款中秋桌面摆件", context.getEnhancedPrompt());
+        verify(promptEnhancementChatClient.prompt().user(anyString()).call(), times(1)).entity(PromptEnhancement.class);
+        verifyNoInteractions(keyPointExtractionChatClient);
+    }
+
+    @Test
+    void testCache_NewDialogueBypassesCache() throws Exception {
+        PromptEnhancerNode.setPromptEnhancementCache(new SemanticCache<>(null, 10, 60_000, 0.95));
+        ChatSummaryDraft first = ChatSummaryDraft.builder()
+                .appId(1L).summary("").newDialogue("[用户]: 想要兔子").lastMessageId(11L).build();
+        ChatSummaryDraft second = ChatSummaryDraft.builder()
+                .appId(1L).summary("主题：中秋节，元素：兔子").newDialogue("[用户]: 改成嫦娥").previousLastMessageId(11L)
+                .lastMessageId(13L).build();
+        when(chatSummaryService.prepareDraft(1L)).thenReturn(first, second);
+        PromptEnhancement enhancement = new PromptEnhancement();
+        enhancement.setSummary("主题：中秋节，元素：兔子");
+        enhancement.setEnhancedPrompt("设计一款以兔子为主要元素的中秋桌面摆件");
+        enhancement.setKeyPoint("兔子摆件");
+        PromptEnhancement updated = new PromptEnhancement();
+        updated.setSummary("主题：中秋节，元素：嫦娥");
+        updated.setEnhancedPrompt("设计一款以嫦娥为主要元素的中秋桌面摆件");
+        updated.setKeyPoint("嫦娥摆件");
+        when(promptEnhancementChatClient.prompt().user(anyString()).call().entity(PromptEnhancement.class))
+                .thenReturn(enhancement, updated);
+
+        PromptEnhancerNode.create().apply(new MessagesState<>(new HashMap<>())).get();
+        PromptEnhancerNode.create().apply(new MessagesState<>(new HashMap<>())).get();
+
+        assertEquals("设计一款以嫦娥为主要元素的中秋桌面摆件", context.getEnhancedPrompt());
+        verify(chatSummaryService).saveMergedSummary(first, "主题：中秋节，元素：兔子");
+        verify(chatSummaryService).saveMergedSummary(second, "主题：中秋节，元素：嫦娥");
+    }
+
+    @Test
+    void testCache_KeyedBySummaryWatermark() throws Exception {
+        PromptEnhancerNode.setPromptEnhancementCache(new SemanticCache<>(null, 10, 60_000, 0.95));
+        ChatSummaryDraft atWatermark11 = ChatSummaryDraft.builder()
+                .appId(1L).summary("主题：中秋节").newDialogue("").previousLastMessageId(11L).lastMessageId(11L).build();
+        ChatSummaryDraft atWatermark13 = ChatSummaryDraft.builder()
+                .appId(1L).summary("主题：中秋节，元素：嫦娥").newDialogue("").previousLastMessageId(13L)
+                .lastMessageId(13L).build();
+        when(chatSummaryService.prepareDraft(1L)).thenReturn(atWatermark11, atWatermark11, atWatermark13);
+        PromptEnhancement enhancement = new PromptEnhancement();
+        enhancement.setEnhancedPrompt("设计一款中秋桌面摆件");
+        enhancement.setKeyPoint("中秋摆件");
+        PromptEnhancement updated = new PromptEnhancement();
+        updated.setEnhancedPrompt("设计一款以嫦娥为主要元素的中秋桌面摆件");
+        updated.setKeyPoint("嫦娥摆件");
+        when(promptEnhancementChatClient.prompt().user(anyString()).call().entity(PromptEnhancement.class))
+                .thenReturn(enhancement, updated);
+
+        PromptEnhancerNode.create().apply(new MessagesState<>(new HashMap<>())).get();
+        PromptEnhancerNode.create().apply(new MessagesState<>(new HashMap<>())).get();
+        assertEquals("设计一款中秋桌面摆件", context.getEnhancedPrompt());
+        PromptEnhancerNode.create().apply(new MessagesState<>(new HashMap<>())).get();
+
+        assertEquals("设计一款以嫦娥为主要元素的中秋桌面摆件", context.getEnhancedPrompt());
+        verify(promptEnhancementChatClient.prompt().user(anyString()).call(), times(2)).entity(PromptEnhancement.class);
+        verify(chatSummaryService, never()).saveMergedSummary(any(), any());
+    }
+
+    @Test
+    void testCache_IsScopedPerApp() throws Exception {
+        // 所有文本得到相同的向量，未按应用隔离时 B 会相似命中 A 的条目
+        PromptEnhancerNode.setPromptEnhancementCache(new SemanticCache<>(text -> new float[]{1f, 0f}, 10, 60_000, 0.95));
+        when(chatSummaryService.prepareDraft(1L)).thenReturn(ChatSummaryDraft.builder()
+                .appId(1L).summary("主题：中秋节").newDialogue("").lastMessageId(11L).build());
+        when(chatSummaryService.prepareDraft(2L)).thenReturn(ChatSummaryDraft.builder()
+                .appId(2L).summary("主题：成都火锅").newDialogue("").lastMessageId(11L).build());
+        PromptEnhancement enhancementA = new PromptEnhancement();
+        enhancementA.setEnhancedPrompt("设计一款以兔子为主要元素的中秋桌面摆件");
+        enhancementA.setKeyPoint("兔子摆件");
+        PromptEnhancement enhancementB = new PromptEnhancement();
+        enhancementB.setEnhancedPrompt("设计一套成都火锅元素的茶具");
+        enhancementB.setKeyPoint("火锅茶具");
+        when(promptEnhancementChatClient.prompt().user(anyString()).call().entity(PromptEnhancement.class))
+                .thenReturn(enhancementA, enhancementB);
+
+        PromptEnhancerNode.create().apply(new MessagesState<>(new HashMap<>())).get();
+        context.setAppId(2L);
+        PromptEnhancerNode.create().apply(new MessagesState<>(new HashMap<>())).get();
+
+        assertEquals("设计一套成都火锅元素的茶具", context.getEnhancedPrompt());
+        verify(promptEnhancementChatClient.prompt().user(anyString()).call(), times(2)).entity(PromptEnhancement.class);
+    }
+}
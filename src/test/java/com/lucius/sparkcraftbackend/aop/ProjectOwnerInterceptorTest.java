@@ -0,0 +1,173 @@
+package com.lucius.sparkcraftbackend.aop;
+
+import com.lucius.sparkcraftbackend.annotation.ProjectOwner;
+import com.lucius.sparkcraftbackend.cache.ProjectOwnerCache;
+import com.lucius.sparkcraftbackend.constant.UserConstant;
+import com.lucius.sparkcraftbackend.dto.WorkflowExecuteRequest;
+import com.lucius.sparkcraftbackend.entity.ImageProject;
+import com.lucius.sparkcraftbackend.entity.User;
+import com.lucius.sparkcraftbackend.exception.BusinessException;
+import com.lucius.sparkcraftbackend.exception.ErrorCode;
+import com.lucius.sparkcraftbackend.properties.ProjectOwnerCacheProperties;
+import com.lucius.sparkcraftbackend.service.ImageProjectService;
+import com.lucius.sparkcraftbackend.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * ProjectOwnerInterceptor测试类
+ */
+@ExtendWith(MockitoExtension.class)
+class ProjectOwnerInterceptorTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private ImageProjectService imageProjectService;
+
+    private final MockHttpServletRequest httpRequest = new MockHttpServletRequest();
+
+    private ProjectOwnerCache projectOwnerCache;
+
+    private ProjectEndpoints endpoints;
+
+    private User loginUser;
+
+    @BeforeEach
+    void setUp() {
+        projectOwnerCache = new ProjectOwnerCache(new ProjectOwnerCacheProperties());
+        ProjectOwnerInterceptor interceptor = new ProjectOwnerInterceptor();
+        ReflectionTestUtils.setField(interceptor, "userService", userService);
+        ReflectionTestUtils.setField(interceptor, "imageProjectService", imageProjectService);
+        ReflectionTestUtils.setField(interceptor, "projectOwnerCache", projectOwnerCache);
+        AspectJProxyFactory factory = new AspectJProxyFactory(new ProjectEndpoints());
+        factory.addAspect(interceptor);
+        endpoints = factory.getProxy();
+
+        loginUser = new User();
+        loginUser.setId(1L);
+        loginUser.setUserRole(UserConstant.DEFAULT_ROLE);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(httpRequest));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void testOwner_Proceeds() {
+        when(userService.getLoginUser(httpRequest)).thenReturn(loginUser);
+        when(imageProjectService.getById(123L)).thenReturn(project(1L));
+
+        assertEquals("ok", endpoints.execute(request(123L)));
+    }
+
+    @Test
+    void testOwner_RepeatedChecksHitCache() {
+        when(userService.getLoginUser(httpRequest)).thenReturn(loginUser);
+        when(imageProjectService.getById(123L)).thenReturn(project(1L));
+
+        endpoints.execute(request(123L));
+        endpoints.sse("123");
+
+        verify(imageProjectService, times(1)).getById(123L);
+    }
+
+    @Test
+    void testOwner_ReloadsAfterEvict() {
+        when(userService.getLoginUser(httpRequest)).thenReturn(loginUser);
+        when(imageProjectService.getById(123L)).thenReturn(project(1L), (ImageProject) null);
+
+        endpoints.sse("123");
+        projectOwnerCache.evict(123L);
+
+        assertErrorCode(ErrorCode.NOT_FOUND_ERROR, () -> endpoints.sse("123"));
+    }
+
+    @Test
+    void testNotOwner_Rejected() {
+        when(userService.getLoginUser(httpRequest)).thenReturn(loginUser);
+        when(imageProjectService.getById(123L)).thenReturn(project(999L));
+
+        assertErrorCode(ErrorCode.NO_AUTH_ERROR, () -> endpoints.execute(request(123L)));
+    }
+
+    @Test
+    void testAdmin_RejectedUnlessAllowed() {
+        loginUser.setUserRole(UserConstant.ADMIN_ROLE);
+        when(userService.getLoginUser(httpRequest)).thenReturn(loginUser);
+        when(imageProjectService.getById(123L)).thenReturn(project(999L));
+
+        assertErrorCode(ErrorCode.NO_AUTH_ERROR, () -> endpoints.execute(request(123L)));
+        assertEquals("ok", endpoints.adminAllowed(123L));
+    }
+
+    @Test
+    void testProjectNotFound() {
+        when(userService.getLoginUser(httpRequest)).thenReturn(loginUser);
+        when(imageProjectService.getById(123L)).thenReturn(null);
+
+        assertErrorCode(ErrorCode.NOT_FOUND_ERROR, () -> endpoints.sse("123"));
+    }
+
+    @Test
+    void testInvalidProjectId_RejectedBeforeLogin() {
+        assertErrorCode(ErrorCode.PARAMS_ERROR, () -> endpoints.execute(null));
+        assertErrorCode(ErrorCode.PARAMS_ERROR, () -> endpoints.execute(request(null)));
+        assertErrorCode(ErrorCode.PARAMS_ERROR, () -> endpoints.sse("abc"));
+        assertErrorCode(ErrorCode.PARAMS_ERROR, () -> endpoints.sse("0"));
+
+        verify(userService, never()).getLoginUser(any());
+        verify(imageProjectService, never()).getById(any());
+    }
+
+    private static void assertErrorCode(ErrorCode errorCode, Runnable call) {
+        BusinessException e = assertThrows(BusinessException.class, call::run);
+        assertEquals(errorCode.getCode(), e.getCode());
+    }
+
+    private static WorkflowExecuteRequest request(Long imageProjectId) {
+        WorkflowExecuteRequest request = new WorkflowExecuteRequest();
+        request.setImageProjectId(imageProjectId);
+        return request;
+    }
+
+    private static ImageProject project(Long userId) {
+        ImageProject imageProject = new ImageProject();
+        imageProject.setUserId(userId);
+        return imageProject;
+    }
+
+    static class ProjectEndpoints {
+
+        @ProjectOwner("#workflowExecuteRequest?.imageProjectId")
+        public String execute(WorkflowExecuteRequest workflowExecuteRequest) {
+            return "ok";
+        }
+
+        @ProjectOwner("#imageProjectId")
+        public String sse(String imageProjectId) {
+            return "ok";
+        }
+
+        @ProjectOwner(value = "#appId", allowAdmin = true)
+        public String adminAllowed(Long appId) {
+            return "ok";
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.lucius.sparkcraftbackend.assembler;
+
+import com.lucius.sparkcraftbackend.entity.ImageProject;
+import com.lucius.sparkcraftbackend.entity.User;
+import com.lucius.sparkcraftbackend.mapper.UserMapper;
+import com.lucius.sparkcraftbackend.vo.ImageProjectVO;
+import com.mybatisflex.core.query.QueryWrapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * VOAssembler测试类
+ */
+@ExtendWith(MockitoExtension.class)
+class VOAssemblerTest {
+
+    @Mock
+    private UserMapper userMapper;
+
+    private VOAssembler voAssembler;
+
+    @BeforeEach
+    void setUp() {
+        voAssembler = new VOAssembler(userMapper);
+    }
+
+    @Test
+    void testToImageProjectVOList_OneUserQueryPerPage() {
+        List<ImageProject> page = LongStream.rangeClosed(1, 20)
+                .mapToObj(id -> project(id, id % 3 + 1))
+                .collect(Collectors.toList());
+        when(userMapper.selectListByQuery(any(QueryWrapper.class)))
+                .thenReturn(List.of(user(1L), user(2L), user(3L)));
+
+        List<ImageProjectVO> result = voAssembler.toImageProjectVOList(page);
+
+        assertEquals(20, result.size());
+        for (int i = 0; i < result.size(); i++) {
+            ImageProjectVO imageProjectVO = result.get(i);
+            assertEquals(page.get(i).getId(), imageProjectVO.getId());
+            assertEquals(page.get(i).getUserId(), imageProjectVO.getUser().getId());
+        }
+        verify(userMapper, times(1)).selectListByQuery(any(QueryWrapper.class));
+        verifyNoMoreInteractions(userMapper);
+    }
+
+    @Test
+    void testToImageProjectVOList_QueriesOnlyVOColumns() {
+        when(userMapper.selectListByQuery(any(QueryWrapper.class))).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0, QueryWrapper.class).toSQL();
+            assertFalse(sql.contains("userPassword"), sql);
+            return List.of(user(1L));
+        });
+
+        voAssembler.toImageProjectVOList(List.of(project(1L, 1L)));
+
+        verify(userMapper).selectListByQuery(any(QueryWrapper.class));
+    }
+
+    @Test
+    void testToImageProjectVO_MissingUser() {
+        when(userMapper.selectListByQuery(any(QueryWrapper.class))).thenReturn(List.of());
+
+        ImageProjectVO imageProjectVO = voAssembler.toImageProjectVO(project(1L, 9L));
+
+        assertEquals(9L, imageProjectVO.getUserId());
+        assertNull(imageProjectVO.getUser());
+    }
+
+    @Test
+    void testToImageProjectVOList_EmptyPageSkipsQuery() {
+        assertTrue(voAssembler.toImageProjectVOList(List.of()).isEmpty());
+        assertNull(voAssembler.toImageProjectVO(null));
+        verifyNoInteractions(userMapper);
+    }
+
+    private static ImageProject project(long id, long userId) {
+        ImageProject imageProject = new ImageProject();
+        imageProject.setId(id);
+        imageProject.setUserId(userId);
+        imageProject.setProjectName("项目" + id);
+        return imageProject;
+    }
+
+    private static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUserName("用户" + id);
+        return user;
+    }
+}
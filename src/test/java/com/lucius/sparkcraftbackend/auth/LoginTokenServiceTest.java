@@ -0,0 +1,141 @@
+package com.lucius.sparkcraftbackend.auth;
+
+import com.lucius.sparkcraftbackend.entity.User;
+import com.lucius.sparkcraftbackend.properties.AuthProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LoginTokenService测试类
+ */
+class LoginTokenServiceTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private final AtomicLong now = new AtomicLong(1_700_000_000L);
+
+    private AuthProperties authProperties;
+
+    private LoginTokenService loginTokenService;
+
+    @BeforeEach
+    void setUp() {
+        authProperties = new AuthProperties();
+        authProperties.setMode("token");
+        authProperties.getToken().setSecret(SECRET);
+        authProperties.getToken().setTtl(Duration.ofHours(1));
+        loginTokenService = new LoginTokenService(authProperties, null, now::get);
+    }
+
+    @Test
+    void testIssueAndParse() {
+        String token = loginTokenService.issue(user());
+
+        LoginToken loginToken = loginTokenService.parse(token);
+
+        assertNotNull(loginToken);
+        assertEquals(1L, loginToken.getUserId());
+        assertEquals("admin", loginToken.getUserRole());
+        assertEquals(now.get() + 3600, loginToken.getExpireAt());
+    }
+
+    @Test
+    void testParse_RejectsTamperedToken() {
+        String token = loginTokenService.issue(user());
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("x:2:admin:9999999999".getBytes());
+
+        assertNull(loginTokenService.parse(forgedPayload + token.substring(token.indexOf('.'))));
+        assertNull(loginTokenService.parse(token.substring(0, token.length() - 2)));
+        assertNull(loginTokenService.parse("not-a-token"));
+    }
+
+    @Test
+    void testParse_RejectsTokenSignedWithAnotherSecret() {
+        AuthProperties other = new AuthProperties();
+        other.setMode("token");
+        other.getToken().setSecret("fedcba9876543210fedcba9876543210");
+        String token = new LoginTokenService(other, null, now::get).issue(user());
+
+        assertNull(loginTokenService.parse(token));
+    }
+
+    @Test
+    void testParse_RejectsExpiredToken() {
+        String token = loginTokenService.issue(user());
+
+        now.addAndGet(3601);
+
+        assertNull(loginTokenService.parse(token));
+    }
+
+    @Test
+    void testRevoke() {
+        String token = loginTokenService.issue(user());
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+
+        LoginToken loginToken = loginTokenService.resolve(request);
+        assertNotNull(loginToken);
+        loginTokenService.revoke(loginToken);
+
+        assertNull(loginTokenService.resolve(request));
+        assertNotNull(loginTokenService.parse(loginTokenService.issue(user())));
+    }
+
+    @Test
+    void testResolve_QueryParamOnStreamPaths() {
+        String token = loginTokenService.issue(user());
+
+        for (String path : new String[]{"/imageProject/chat/get/idea", "/imageProject/workflow/sse/12",
+                "/imageProject/workflow/progress/12"}) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api" + path);
+            request.setContextPath("/api");
+            request.setServletPath(path);
+            request.setParameter("access_token", token);
+
+            LoginToken loginToken = loginTokenService.resolve(request);
+
+            assertNotNull(loginToken, path);
+            assertEquals(1L, loginToken.getUserId());
+        }
+    }
+
+    @Test
+    void testResolve_QueryParamIgnoredElsewhere() {
+        String token = loginTokenService.issue(user());
+
+        MockHttpServletRequest otherPath = new MockHttpServletRequest("GET", "/api/user/get/login");
+        otherPath.setServletPath("/user/get/login");
+        otherPath.setParameter("access_token", token);
+        MockHttpServletRequest post = new MockHttpServletRequest("POST", "/api/imageProject/chat/get/idea");
+        post.setServletPath("/imageProject/chat/get/idea");
+        post.setParameter("access_token", token);
+        MockHttpServletRequest badHeader = new MockHttpServletRequest("GET", "/api/imageProject/chat/get/idea");
+        badHeader.setServletPath("/imageProject/chat/get/idea");
+        badHeader.addHeader("Authorization", "Bearer forged");
+        badHeader.setParameter("access_token", token);
+
+        assertNull(loginTokenService.resolve(otherPath));
+        assertNull(loginTokenService.resolve(post));
+        assertNull(loginTokenService.resolve(badHeader));
+    }
+
+    @Test
+    void testTokenModeRequiresSecret() {
+        authProperties.getToken().setSecret("short");
+
+        assertThrows(IllegalStateException.class, () -> new LoginTokenService(authProperties, null, now::get));
+    }
+
+    private static User user() {
+        return User.builder().id(1L).userRole("admin").build();
+    }
+}
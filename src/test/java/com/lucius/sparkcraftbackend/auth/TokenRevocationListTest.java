@@ -0,0 +1,59 @@
+package com.lucius.sparkcraftbackend.auth;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * TokenRevocationList测试类
+ */
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationListTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    private final AtomicLong now = new AtomicLong(1000);
+
+    @Test
+    void testSync_DropsExpiredEntries() {
+        TokenRevocationList revocationList = new TokenRevocationList(null, "revoked", now::get);
+        revocationList.revoke("a", 1100);
+        revocationList.revoke("b", 2000);
+
+        now.set(1500);
+        revocationList.sync();
+
+        assertFalse(revocationList.isRevoked("a"));
+        assertTrue(revocationList.isRevoked("b"));
+    }
+
+    @Test
+    void testSync_PullsTokensRevokedByOtherInstances() {
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.rangeByScoreWithScores("revoked", 1000, Double.POSITIVE_INFINITY))
+                .thenReturn(Set.of(new DefaultTypedTuple<>("remote", 5000.0)));
+        TokenRevocationList revocationList = new TokenRevocationList(redisTemplate, "revoked", now::get);
+
+        revocationList.revoke("local", 3000);
+        revocationList.sync();
+
+        verify(zSetOperations).add("revoked", "local", 3000);
+        verify(zSetOperations).removeRangeByScore("revoked", Double.NEGATIVE_INFINITY, 1000);
+        assertTrue(revocationList.isRevoked("remote"));
+        assertTrue(revocationList.isRevoked("local"));
+    }
+}
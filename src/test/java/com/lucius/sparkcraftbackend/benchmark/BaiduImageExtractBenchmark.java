@@ -0,0 +1,117 @@
+package com.lucius.sparkcraftbackend.benchmark;
+
+import com.lucius.sparkcraftbackend.utils.BaiduImageHtmlExtractor;
+import com.lucius.sparkcraftbackend.utils.ImageUrlFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 百度图片结果页解析基准：原来按字段逐个编译正则、各扫一遍页面 与 BaiduImageHtmlExtractor 单次遍历对比
+ * 页面取自 fixtures/baidu-image-search.html，padding 为图片数据之前插入的内联脚本长度，模拟真实结果页的体积；
+ * 两边用同一个 ImageUrlFilter 校验地址，只比较解析本身的开销。
+ * 运行：mvn test-compile 后在 IDE 中执行 main 方法，或
+ * java -cp target/test-classes:target/classes:$(依赖类路径) org.openjdk.jmh.Main BaiduImageExtractBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BaiduImageExtractBenchmark {
+
+    private static final String[] LEGACY_PATTERNS = {
+            "\"objURL\"\\s*:\\s*\"([^\"]+)\"",
+            "\"middleURL\"\\s*:\\s*\"([^\"]+)\"",
+            "\"thumbURL\"\\s*:\\s*\"([^\"]+)\"",
+            "\"hoverURL\"\\s*:\\s*\"([^\"]+)\"",
+            "\"replaceUrl\"\\s*:\\s*\\[\\s*\\{[^}]*\"ObjURL\"\\s*:\\s*\"([^\"]+)\""
+    };
+
+    @Param({"0", "300000"})
+    private int padding;
+
+    @Param({"3", "10"})
+    private int count;
+
+    private final ImageUrlFilter imageUrlFilter = new ImageUrlFilter();
+
+    private String html;
+
+    @Setup
+    public void loadFixture() throws IOException {
+        String fixture;
+        try (InputStream in = BaiduImageExtractBenchmark.class.getResourceAsStream("/fixtures/baidu-image-search.html")) {
+            fixture = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        StringBuilder script = new StringBuilder(padding + 64).append("<script>var conf={");
+        for (int i = 0; script.length() < padding; i++) {
+            script.append("\"k").append(i).append("\":\"v").append(i).append("\",");
+        }
+        script.append("};</script>");
+        int body = fixture.indexOf("<body>") + "<body>".length();
+        html = fixture.substring(0, body) + script + fixture.substring(body);
+    }
+
+    @Benchmark
+    public List<String> perKeyRegex() {
+        return legacyExtract(html, count);
+    }
+
+    @Benchmark
+    public List<String> singlePass() {
+        return BaiduImageHtmlExtractor.extractImageUrls(html, count, imageUrlFilter::isValidImageUrl);
+    }
+
+    /**
+     * 原 ImageSearchServiceImpl#parseWithRegexPatterns：每次调用编译正则，按字段优先级各扫一遍页面，逐个解码并线性去重
+     */
+    private List<String> legacyExtract(String html, int count) {
+        List<String> urls = new ArrayList<>();
+        for (String pattern : LEGACY_PATTERNS) {
+            if (urls.size() >= count) {
+                break;
+            }
+            Matcher matcher = Pattern.compile(pattern).matcher(html);
+            int foundInThisPattern = 0;
+            while (matcher.find() && urls.size() < count && foundInThisPattern < count) {
+                try {
+                    String imageUrl = URLDecoder.decode(matcher.group(1), StandardCharsets.UTF_8);
+                    if (imageUrlFilter.isValidImageUrl(imageUrl) && urls.stream().noneMatch(imageUrl::equals)) {
+                        urls.add(imageUrl);
+                        foundInThisPattern++;
+                    }
+                } catch (IllegalArgumentException e) {
+                    // 与原实现一致，解码失败的地址直接跳过
+                }
+            }
+        }
+        return urls;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BaiduImageExtractBenchmark.class.getSimpleName()).build()).run();
+    }
+}
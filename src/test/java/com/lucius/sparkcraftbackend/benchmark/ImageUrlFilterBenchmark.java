@@ -0,0 +1,149 @@
+package com.lucius.sparkcraftbackend.benchmark;
+
+import com.lucius.sparkcraftbackend.utils.ImageUrlFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 图片 URL 过滤与去重基准：原来的 toLowerCase + 逐个 contains 校验、列表线性去重
+ * 与 ImageUrlFilter 的 Aho-Corasick 单次扫描、UrlDeduplicator 哈希去重对比。
+ * 候选列表按搜索结果的形态生成：混有黑名单地址、非图片地址和约两成重复地址。
+ * 运行：mvn test-compile 后在 IDE 中执行 main 方法，或
+ * java -cp target/test-classes:target/classes:$(依赖类路径) org.openjdk.jmh.Main ImageUrlFilterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImageUrlFilterBenchmark {
+
+    private static final String[] LEGACY_BLACKLIST = {"baidu.com/img/", "bdimg.com/static/", "bdstatic.com",
+            "favicon.ico", "logo.png", "logo.jpg", "avatar", "placeholder", "loading.gif", "default.jpg", "noimage",
+            "blank.gif", "spacer.gif", "icon_", "btn_", "bg_"};
+
+    private static final String[] HOSTS = {"https://img0.baidu.com/it/", "https://images.unsplash.com/",
+            "https://cdn.pixabay.com/photo/", "http://www.example.com/upload/", "https://ss0.bdstatic.com/",
+            "https://www.baidu.com/img/", "HTTPS://CDN.EXAMPLE.COM/Static/"};
+
+    private static final String[] NAMES = {"origin_", "u=", "mooncake-", "rabbit_", "avatar_", "icon_", "bg_",
+            "placeholder-", "item"};
+
+    private static final String[] SUFFIXES = {".jpg", ".JPEG", ".png", ".webp", ".gif", ".html", "?fm=253&f=JPEG",
+            "?ixid=photo", ".js", ""};
+
+    @Param({"1000", "20000"})
+    private int size;
+
+    private final ImageUrlFilter filter = new ImageUrlFilter();
+
+    private List<String> candidates;
+
+    @Setup
+    public void generateCandidates() {
+        Random random = new Random(42);
+        candidates = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            if (i > 0 && random.nextInt(5) == 0) {
+                candidates.add(candidates.get(random.nextInt(i)));
+                continue;
+            }
+            candidates.add(HOSTS[random.nextInt(HOSTS.length)] + "2024/10/" + NAMES[random.nextInt(NAMES.length)]
+                    + random.nextInt(1_000_000) + SUFFIXES[random.nextInt(SUFFIXES.length)]);
+        }
+    }
+
+    @Benchmark
+    public int validateContainsLoops() {
+        int valid = 0;
+        for (String url : candidates) {
+            if (legacyIsValidImageUrl(url)) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    @Benchmark
+    public int validateAhoCorasick() {
+        int valid = 0;
+        for (String url : candidates) {
+            if (filter.isValidImageUrl(url)) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    @Benchmark
+    public List<String> collectContainsLoopsLinearDedupe() {
+        List<String> urls = new ArrayList<>();
+        for (String url : candidates) {
+            if (legacyIsValidImageUrl(url) && urls.stream().noneMatch(url::equals)) {
+                urls.add(url);
+            }
+        }
+        return urls;
+    }
+
+    @Benchmark
+    public List<String> collectAhoCorasickHashDedupe() {
+        ImageUrlFilter.UrlDeduplicator deduplicator = filter.newDeduplicator();
+        List<String> urls = new ArrayList<>();
+        for (String url : candidates) {
+            if (filter.isValidImageUrl(url) && deduplicator.firstSeen(url)) {
+                urls.add(url);
+            }
+        }
+        return urls;
+    }
+
+    /**
+     * 原 ImageSearchServiceImpl#isValidImageUrl 的实现
+     */
+    private static boolean legacyIsValidImageUrl(String url) {
+        if (url == null || url.isBlank()) {
+            return false;
+        }
+        String lowerUrl = url.toLowerCase();
+        if (!lowerUrl.startsWith("http://") && !lowerUrl.startsWith("https://")) {
+            return false;
+        }
+        for (String blackItem : LEGACY_BLACKLIST) {
+            if (lowerUrl.contains(blackItem)) {
+                return false;
+            }
+        }
+        if (url.length() < 20) {
+            return false;
+        }
+        boolean hasImageExtension = lowerUrl.contains(".jpg") || lowerUrl.contains(".jpeg")
+                || lowerUrl.contains(".png") || lowerUrl.contains(".gif")
+                || lowerUrl.contains(".webp") || lowerUrl.contains(".bmp");
+        boolean hasImageParams = lowerUrl.contains("image") || lowerUrl.contains("photo")
+                || lowerUrl.contains("pic") || lowerUrl.contains("img");
+        return hasImageExtension || hasImageParams;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ImageUrlFilterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,123 @@
+package com.lucius.sparkcraftbackend.benchmark;
+
+import cn.hutool.json.JSONArray;
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+import com.lucius.sparkcraftbackend.dto.upstream.DoubaoImageRequest;
+import com.lucius.sparkcraftbackend.dto.upstream.QwenChatRequest;
+import com.lucius.sparkcraftbackend.dto.upstream.QwenChatResponse;
+import com.lucius.sparkcraftbackend.utils.JsonUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 外部 AI 接口 JSON 读写基准：原来的 hutool JSONObject 树 与 JsonUtils（record + 缓存的 ObjectReader/ObjectWriter、JsonGenerator）对比
+ * 覆盖豆包、通义千问请求体的序列化，千问响应的解析，以及对话 SSE 每个片段的 {"d": 片段} 包装。
+ * 运行：mvn test-compile 后在 IDE 中执行 main 方法，或
+ * java -cp target/test-classes:target/classes:$(依赖类路径) org.openjdk.jmh.Main JsonSerializationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private static final String PROMPT = "设计一款以兔子和月亮为主要元素的中秋节桌面摆件，整体风格温馨可爱";
+
+    private static final String IMAGE_URL = "https://example.com/images/mirror/6f1ed002ab5595859014ebf0951522d9.png";
+
+    private static final String CHUNK = "可以考虑用陶瓷烧制兔子主体，";
+
+    private static final String QWEN_RESPONSE = "{\"id\":\"chatcmpl-1\",\"object\":\"chat.completion\",\"created\":1729300000,"
+            + "\"model\":\"qwen-vl-max\",\"choices\":[{\"index\":0,\"finish_reason\":\"stop\",\"message\":{\"role\":\"assistant\","
+            + "\"content\":\"1. 材料：高岭土陶瓷\\n2. 工艺：注浆成型，1200℃素烧后施釉\\n3. 表面处理：手绘月光纹理\"}}],"
+            + "\"usage\":{\"prompt_tokens\":1024,\"completion_tokens\":96,\"total_tokens\":1120}}";
+
+    @Benchmark
+    public String doubaoRequestJsonObject() {
+        JSONObject requestBody = new JSONObject();
+        requestBody.set("model", "doubao-seedream-4-0-250828");
+        requestBody.set("prompt", PROMPT);
+        requestBody.set("response_format", "url");
+        requestBody.set("size", "2K");
+        requestBody.set("stream", false);
+        requestBody.set("watermark", false);
+        requestBody.set("image", new JSONArray().set(IMAGE_URL));
+        requestBody.set("sequential_image_generation", "auto");
+        requestBody.set("sequential_image_generation_options", new JSONObject().set("max_images", 1));
+        return requestBody.toString();
+    }
+
+    @Benchmark
+    public String doubaoRequestRecord() {
+        return JsonUtils.toJson(new DoubaoImageRequest("doubao-seedream-4-0-250828", PROMPT, "url", "2K",
+                false, false, List.of(IMAGE_URL), "auto", new DoubaoImageRequest.SequentialOptions(1)));
+    }
+
+    @Benchmark
+    public String qwenRequestJsonObject() {
+        JSONObject imageUrl = new JSONObject().set("url", IMAGE_URL).set("detail", "high");
+        JSONArray content = new JSONArray()
+                .set(new JSONObject().set("type", "image_url").set("image_url", imageUrl))
+                .set(new JSONObject().set("type", "text").set("text", PROMPT));
+        return new JSONObject()
+                .set("model", "qwen-vl-max")
+                .set("stream", false)
+                .set("max_tokens", 700)
+                .set("temperature", 0.7)
+                .set("messages", new JSONArray().set(new JSONObject().set("role", "user").set("content", content)))
+                .toString();
+    }
+
+    @Benchmark
+    public String qwenRequestRecord() {
+        QwenChatRequest.Message message = new QwenChatRequest.Message("user", List.of(
+                QwenChatRequest.Content.image(IMAGE_URL, "high"),
+                QwenChatRequest.Content.text(PROMPT)));
+        return JsonUtils.toJson(new QwenChatRequest("qwen-vl-max", false, 700, 0.7, List.of(message)));
+    }
+
+    @Benchmark
+    public String qwenResponseJsonObject() {
+        JSONObject responseJson = JSONUtil.parseObj(QWEN_RESPONSE);
+        return responseJson.getJSONArray("choices").getJSONObject(0).getJSONObject("message").getStr("content");
+    }
+
+    @Benchmark
+    public String qwenResponseRecord() {
+        return JsonUtils.parse(QWEN_RESPONSE, QwenChatResponse.class).choices().get(0).message().content();
+    }
+
+    @Benchmark
+    public String sseChunkJsonObject() {
+        return new JSONObject().set("d", CHUNK).toString();
+    }
+
+    @Benchmark
+    public String sseChunkGenerator() {
+        return JsonUtils.write(generator -> {
+            generator.writeStartObject();
+            generator.writeStringField("d", CHUNK);
+            generator.writeEndObject();
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JsonSerializationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
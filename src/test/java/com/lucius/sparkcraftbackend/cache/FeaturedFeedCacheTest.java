@@ -0,0 +1,147 @@
+package com.lucius.sparkcraftbackend.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lucius.sparkcraftbackend.constant.ImageProjectConstant;
+import com.lucius.sparkcraftbackend.dto.ImageProjectQueryRequest;
+import com.lucius.sparkcraftbackend.entity.ImageProject;
+import com.lucius.sparkcraftbackend.properties.FeaturedFeedProperties;
+import com.lucius.sparkcraftbackend.service.ImageProjectService;
+import com.lucius.sparkcraftbackend.vo.ImageProjectVO;
+import com.mybatisflex.core.paginate.Page;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * FeaturedFeedCache测试类
+ */
+@ExtendWith(MockitoExtension.class)
+class FeaturedFeedCacheTest {
+
+    @Mock
+    private ImageProjectService imageProjectService;
+
+    @Mock
+    private ObjectProvider<ImageProjectService> imageProjectServiceProvider;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AtomicReference<String> projectName = new AtomicReference<>("项目");
+
+    private FeaturedFeedCache cache;
+
+    @BeforeEach
+    void setUp() {
+        when(imageProjectServiceProvider.getObject()).thenReturn(imageProjectService);
+        when(imageProjectService.pageImageProjects(any(ImageProjectQueryRequest.class))).thenAnswer(invocation -> {
+            Page<ImageProject> page = new Page<>(1, 10, 1);
+            page.setRecords(List.of(project(1L)));
+            return page;
+        });
+        when(imageProjectService.getImageVOList(anyList())).thenAnswer(invocation -> {
+            ImageProjectVO imageProjectVO = new ImageProjectVO();
+            imageProjectVO.setId(1L);
+            imageProjectVO.setProjectName(projectName.get());
+            return List.of(imageProjectVO);
+        });
+        cache = new FeaturedFeedCache(imageProjectServiceProvider, objectMapper, new FeaturedFeedProperties());
+    }
+
+    @Test
+    void testGetPage_SerializedOnceAndServedFromMemory() throws Exception {
+        FeaturedFeedCache.FeedPage first = cache.getPage(request(1));
+        FeaturedFeedCache.FeedPage second = cache.getPage(request(1));
+
+        assertSame(first, second);
+        verify(imageProjectService, times(1)).pageImageProjects(any());
+        JsonNode json = objectMapper.readTree(first.getBody());
+        assertEquals(0, json.get("code").asInt());
+        assertEquals("项目", json.get("data").get("records").get(0).get("projectName").asText());
+    }
+
+    @Test
+    void testGetPage_FiltersAlwaysFeatured() {
+        ImageProjectQueryRequest request = request(1);
+        cache.getPage(request);
+
+        assertEquals(ImageProjectConstant.GOOD_APP_PRIORITY, request.getPriority());
+    }
+
+    @Test
+    void testGetPage_FilteredOrDeepPagesNotCached() {
+        ImageProjectQueryRequest filtered = request(1);
+        filtered.setProjectName("项目");
+        cache.getPage(filtered);
+        cache.getPage(filtered);
+        cache.getPage(request(6));
+        cache.getPage(request(6));
+
+        verify(imageProjectService, times(4)).pageImageProjects(any());
+    }
+
+    @Test
+    void testOnProjectChanged_InvalidatesOnlyWhenFeedAffected() {
+        cache.getPage(request(1));
+
+        cache.onProjectChanged(2L, ImageProjectConstant.DEFAULT_APP_PRIORITY);
+        cache.getPage(request(1));
+        verify(imageProjectService, times(1)).pageImageProjects(any());
+
+        cache.onProjectChanged(1L, null);
+        cache.getPage(request(1));
+        verify(imageProjectService, times(2)).pageImageProjects(any());
+
+        cache.onProjectChanged(3L, ImageProjectConstant.GOOD_APP_PRIORITY);
+        cache.getPage(request(1));
+        verify(imageProjectService, times(3)).pageImageProjects(any());
+    }
+
+    @Test
+    void testRefresh_RebuildsCachedPagesWithNewEtag() {
+        FeaturedFeedCache.FeedPage before = cache.getPage(request(1));
+        projectName.set("新名称");
+
+        cache.refresh();
+        FeaturedFeedCache.FeedPage after = cache.getPage(request(1));
+
+        assertNotEquals(before.getEtag(), after.getEtag());
+        verify(imageProjectService, times(2)).pageImageProjects(any());
+    }
+
+    @Test
+    void testFeedPage_Matches() {
+        FeaturedFeedCache.FeedPage page = cache.getPage(request(1));
+
+        assertTrue(page.matches(page.getEtag()));
+        assertTrue(page.matches("\"other\", W/" + page.getEtag()));
+        assertTrue(page.matches("*"));
+        assertFalse(page.matches("\"other\""));
+        assertFalse(page.matches(null));
+    }
+
+    private static ImageProjectQueryRequest request(int pageNum) {
+        ImageProjectQueryRequest request = new ImageProjectQueryRequest();
+        request.setPageNum(pageNum);
+        request.setPageSize(10);
+        return request;
+    }
+
+    private static ImageProject project(Long id) {
+        ImageProject imageProject = new ImageProject();
+        imageProject.setId(id);
+        imageProject.setPriority(ImageProjectConstant.GOOD_APP_PRIORITY);
+        return imageProject;
+    }
+}
@@ -0,0 +1,99 @@
+package com.lucius.sparkcraftbackend.cache;
+
+import com.lucius.sparkcraftbackend.entity.ImageProject;
+import com.lucius.sparkcraftbackend.properties.ProjectOwnerCacheProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ProjectOwnerCache测试类
+ */
+class ProjectOwnerCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private ProjectOwnerCache cache;
+
+    @BeforeEach
+    void setUp() {
+        ProjectOwnerCacheProperties properties = new ProjectOwnerCacheProperties();
+        properties.setMaxEntries(2);
+        properties.setTtl(Duration.ofSeconds(60));
+        cache = new ProjectOwnerCache(properties, now::get);
+    }
+
+    @Test
+    void testGetOwnerId_CachedWithinTtl() {
+        assertEquals(1L, cache.getOwnerId(123L, loader(1L)));
+        now.addAndGet(59_000);
+        assertEquals(1L, cache.getOwnerId(123L, loader(1L)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testGetOwnerId_ReloadsAfterTtl() {
+        cache.getOwnerId(123L, loader(1L));
+        now.addAndGet(60_000);
+        cache.getOwnerId(123L, loader(1L));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testGetOwnerId_MissingProjectNotCached() {
+        assertNull(cache.getOwnerId(123L, loader(null)));
+        assertEquals(1L, cache.getOwnerId(123L, loader(1L)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testEvict_RemovesEntry() {
+        cache.getOwnerId(123L, loader(1L));
+        cache.evict(123L);
+        assertNull(cache.getOwnerId(123L, loader(null)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testEvict_DuringLoadResultNotCached() {
+        cache.getOwnerId(123L, id -> {
+            cache.evict(id);
+            return project(1L);
+        });
+        assertNull(cache.getOwnerId(123L, loader(null)));
+    }
+
+    @Test
+    void testGetOwnerId_EvictsLeastRecentlyUsed() {
+        cache.getOwnerId(1L, loader(10L));
+        cache.getOwnerId(2L, loader(20L));
+        cache.getOwnerId(1L, loader(10L));
+        cache.getOwnerId(3L, loader(30L));
+        assertEquals(3, loads.get());
+        cache.getOwnerId(1L, loader(10L));
+        assertEquals(3, loads.get());
+        cache.getOwnerId(2L, loader(20L));
+        assertEquals(4, loads.get());
+    }
+
+    private Function<Long, ImageProject> loader(Long ownerId) {
+        return id -> {
+            loads.incrementAndGet();
+            return ownerId == null ? null : project(ownerId);
+        };
+    }
+
+    private static ImageProject project(Long ownerId) {
+        ImageProject imageProject = new ImageProject();
+        imageProject.setUserId(ownerId);
+        return imageProject;
+    }
+}
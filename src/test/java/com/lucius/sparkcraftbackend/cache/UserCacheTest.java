@@ -0,0 +1,141 @@
+package com.lucius.sparkcraftbackend.cache;
+
+import com.lucius.sparkcraftbackend.entity.User;
+import com.lucius.sparkcraftbackend.properties.UserCacheProperties;
+import com.lucius.sparkcraftbackend.utils.JsonUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * UserCache测试类
+ */
+@ExtendWith(MockitoExtension.class)
+class UserCacheTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private UserCacheProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new UserCacheProperties();
+        properties.setLocalTtl(Duration.ofSeconds(30));
+    }
+
+    @Test
+    void testGet_LocalHitSkipsLoader() {
+        UserCache cache = new UserCache(properties, null, now::get);
+
+        assertEquals("admin", cache.get(1L, loader("admin")).getUserRole());
+        assertEquals("admin", cache.get(1L, loader("user")).getUserRole());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testGet_ExpiredEntryReloads() {
+        UserCache cache = new UserCache(properties, null, now::get);
+        cache.get(1L, loader("user"));
+
+        now.addAndGet(Duration.ofSeconds(31).toMillis());
+
+        assertEquals("admin", cache.get(1L, loader("admin")).getUserRole());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testEvict_NextGetReloads() {
+        UserCache cache = new UserCache(properties, null, now::get);
+        cache.get(1L, loader("user"));
+
+        cache.evict(1L);
+
+        assertEquals("admin", cache.get(1L, loader("admin")).getUserRole());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testGet_ReturnsCopyWithoutPassword() {
+        UserCache cache = new UserCache(properties, null, now::get);
+
+        User first = cache.get(1L, loader("user"));
+        assertNull(first.getUserPassword());
+        first.setUserRole("admin");
+
+        assertEquals("user", cache.get(1L, loader("user")).getUserRole());
+    }
+
+    @Test
+    void testGet_RedisHitSkipsLoaderAndMissWritesBack() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("spark:user:1")).thenReturn(JsonUtils.toJson(user(1L, "admin")));
+        UserCache cache = new UserCache(properties, redisTemplate, now::get);
+
+        assertEquals("admin", cache.get(1L, loader("user")).getUserRole());
+        assertEquals(0, loads.get());
+
+        cache.get(2L, loader("user"));
+        verify(valueOperations).set(eq("spark:user:2"), anyString(), eq(properties.getRedisTtl()));
+    }
+
+    @Test
+    void testGet_RedisValueRoundTrips() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        UserCache cache = new UserCache(properties, redisTemplate, now::get);
+        LocalDateTime createTime = LocalDateTime.of(2024, 10, 1, 8, 30);
+
+        cache.get(1L, id -> User.builder().id(id).userAccount("lucius").userPassword("hash").userRole("admin")
+                .createTime(createTime).build());
+
+        ArgumentCaptor<String> json = ArgumentCaptor.forClass(String.class);
+        verify(valueOperations).set(eq("spark:user:1"), json.capture(), eq(properties.getRedisTtl()));
+        assertFalse(json.getValue().contains("hash"), json.getValue());
+        User cached = JsonUtils.parse(json.getValue(), User.class);
+        assertEquals("admin", cached.getUserRole());
+        assertEquals(createTime, cached.getCreateTime());
+    }
+
+    @Test
+    void testGet_RedisFailureFallsBackToLoader() {
+        when(redisTemplate.opsForValue()).thenThrow(new RuntimeException("connection refused"));
+        UserCache cache = new UserCache(properties, redisTemplate, now::get);
+
+        assertEquals("user", cache.get(1L, loader("user")).getUserRole());
+        assertEquals(1, loads.get());
+    }
+
+    private Function<Long, User> loader(String role) {
+        return id -> {
+            loads.incrementAndGet();
+            return user(id, role);
+        };
+    }
+
+    private static User user(Long id, String role) {
+        return User.builder().id(id).userAccount("lucius").userPassword("hash").userRole(role).build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.lucius.sparkcraftbackend.controller;
+
+import com.lucius.sparkcraftbackend.storage.LocalBlobStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * BlobController测试类
+ */
+class BlobControllerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        LocalBlobStore blobStore = new LocalBlobStore(tempDir.toString(), "/blob");
+        blobStore.put("images/a.png", new ByteArrayInputStream("0123456789".getBytes(StandardCharsets.UTF_8)), 10);
+        BlobController blobController = new BlobController();
+        ReflectionTestUtils.setField(blobController, "localBlobStore", blobStore);
+        mockMvc = MockMvcBuilders.standaloneSetup(blobController).build();
+    }
+
+    @Test
+    void testGetBlob() throws Exception {
+        mockMvc.perform(get("/blob/images/a.png"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/png"))
+                .andExpect(content().string("0123456789"))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=604800, public"));
+    }
+
+    @Test
+    void testGetBlob_Range() throws Exception {
+        mockMvc.perform(get("/blob/images/a.png").header(HttpHeaders.RANGE, "bytes=2-6"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-6/10"))
+                .andExpect(content().string("23456"));
+        mockMvc.perform(get("/blob/images/a.png").header(HttpHeaders.RANGE, "bytes=20-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable());
+    }
+
+    @Test
+    void testGetBlob_NotModified() throws Exception {
+        MvcResult first = mockMvc.perform(get("/blob/images/a.png")).andReturn();
+        String eTag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+
+        mockMvc.perform(get("/blob/images/a.png").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testGetBlob_NotFound() throws Exception {
+        mockMvc.perform(get("/blob/images/missing.png"))
+                .andExpect(status().isNotFound());
+    }
+}
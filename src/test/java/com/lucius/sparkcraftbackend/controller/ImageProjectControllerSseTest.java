@@ -1,7 +1,6 @@
 package com.lucius.sparkcraftbackend.controller;
 
 import com.lucius.sparkcraftbackend.dto.WorkflowExecuteRequest;
-import com.lucius.sparkcraftbackend.entity.ImageProject;
 import com.lucius.sparkcraftbackend.entity.User;
 import com.lucius.sparkcraftbackend.service.ImageProjectService;
 import com.lucius.sparkcraftbackend.service.UserService;
@@ -25,6 +24,7 @@ import static org.mockito.Mockito.*;
 
 /**
  * ImageProjectController SSE功能测试类
+ * 项目归属校验由 ProjectOwnerInterceptor 完成，见 ProjectOwnerInterceptorTest
  */
 @ExtendWith(MockitoExtension.class)
 class ImageProjectControllerSseTest {
@@ -48,7 +48,6 @@ class ImageProjectControllerSseTest {
     private ImageProjectController imageProjectController;
 
     private User testUser;
-    private ImageProject testProject;
     private WorkflowExecuteRequest testRequest;
 
     @BeforeEach
@@ -58,12 +57,6 @@ class ImageProjectControllerSseTest {
         testUser.setId(1L);
         testUser.setUserName("testuser");
 
-        // 创建测试项目
-        testProject = new ImageProject();
-        testProject.setId(123L);
-        testProject.setUserId(1L);
-        testProject.setProjectName("测试项目");
-
         // 创建测试请求
         testRequest = new WorkflowExecuteRequest();
         testRequest.setImageProjectId(123L);
@@ -74,7 +67,6 @@ class ImageProjectControllerSseTest {
     void testEstablishWorkflowSSE_Success() {
         // Mock 服务调用
         when(userService.getLoginUser(httpRequest)).thenReturn(testUser);
-        when(imageProjectService.getById(123L)).thenReturn(testProject);
         when(workflowProgressService.createConnection("123", 1L)).thenReturn(new SseEmitter());
 
         // 执行测试
@@ -83,45 +75,9 @@ class ImageProjectControllerSseTest {
         // 验证结果
         assertNotNull(result);
         verify(userService).getLoginUser(httpRequest);
-        verify(imageProjectService).getById(123L);
         verify(workflowProgressService).createConnection("123", 1L);
     }
 
-    @Test
-    void testEstablishWorkflowSSE_ProjectNotFound() {
-        // Mock 服务调用
-        when(userService.getLoginUser(httpRequest)).thenReturn(testUser);
-        when(imageProjectService.getById(123L)).thenReturn(null);
-
-        // 执行测试并验证异常
-        assertThrows(Exception.class, () -> {
-            imageProjectController.establishWorkflowSSE("123", httpRequest);
-        });
-
-        verify(userService).getLoginUser(httpRequest);
-        verify(imageProjectService).getById(123L);
-        verify(workflowProgressService, never()).createConnection(anyString(), anyLong());
-    }
-
-    @Test
-    void testEstablishWorkflowSSE_NoPermission() {
-        // 创建其他用户的项目
-        testProject.setUserId(999L);
-
-        // Mock 服务调用
-        when(userService.getLoginUser(httpRequest)).thenReturn(testUser);
-        when(imageProjectService.getById(123L)).thenReturn(testProject);
-
-        // 执行测试并验证异常
-        assertThrows(Exception.class, () -> {
-            imageProjectController.establishWorkflowSSE("123", httpRequest);
-        });
-
-        verify(userService).getLoginUser(httpRequest);
-        verify(imageProjectService).getById(123L);
-        verify(workflowProgressService, never()).createConnection(anyString(), anyLong());
-    }
-
     @Test
     void testExecuteWorkflowAsync_Success() {
         // 创建预期的返回结果
@@ -135,7 +91,6 @@ class ImageProjectControllerSseTest {
 
         // Mock 服务调用
         when(userService.getLoginUser(httpRequest)).thenReturn(testUser);
-        when(imageProjectService.getById(123L)).thenReturn(testProject);
         when(workflowExecutionService.executeWorkflowAsync(eq(123L), eq("测试提示词"), eq(testUser)))
                 .thenReturn(expectedResult);
 
@@ -151,7 +106,6 @@ class ImageProjectControllerSseTest {
         assertEquals("PENDING", response.getData().getStatus());
 
         verify(userService).getLoginUser(httpRequest);
-        verify(imageProjectService).getById(123L);
         verify(workflowExecutionService).executeWorkflowAsync(eq(123L), eq("测试提示词"), eq(testUser));
     }
 
@@ -168,7 +122,6 @@ class ImageProjectControllerSseTest {
 
         // Mock 服务调用
         when(userService.getLoginUser(httpRequest)).thenReturn(testUser);
-        when(imageProjectService.getById(123L)).thenReturn(testProject);
         when(workflowExecutionService.executeWorkflowAsyncWithSSE(eq(123L), eq("测试提示词"), eq(testUser)))
                 .thenReturn(expectedResult);
 
@@ -184,7 +137,6 @@ class ImageProjectControllerSseTest {
         assertEquals("PENDING", response.getData().getStatus());
 
         verify(userService).getLoginUser(httpRequest);
-        verify(imageProjectService).getById(123L);
         verify(workflowExecutionService).executeWorkflowAsyncWithSSE(eq(123L), eq("测试提示词"), eq(testUser));
     }
 
@@ -222,7 +174,6 @@ class ImageProjectControllerSseTest {
     void testGetWorkflowProgress_DeprecatedMethod() {
         // Mock 服务调用
         when(userService.getLoginUser(httpRequest)).thenReturn(testUser);
-        when(imageProjectService.getById(123L)).thenReturn(testProject);
         when(workflowProgressService.createConnection("123", 1L)).thenReturn(new SseEmitter());
 
         // 执行测试
@@ -231,7 +182,6 @@ class ImageProjectControllerSseTest {
         // 验证结果（应该调用新的SSE接口）
         assertNotNull(result);
         verify(userService).getLoginUser(httpRequest);
-        verify(imageProjectService).getById(123L);
         verify(workflowProgressService).createConnection("123", 1L);
     }
 }
\ No newline at end of file
@@ -1,12 +1,12 @@
 package com.lucius.sparkcraftbackend.controller;
 
-import com.alibaba.fastjson.JSON;
 import com.lucius.sparkcraftbackend.dto.WorkflowExecuteRequest;
 import com.lucius.sparkcraftbackend.entity.ImageProject;
 import com.lucius.sparkcraftbackend.entity.User;
 import com.lucius.sparkcraftbackend.service.ImageProjectService;
 import com.lucius.sparkcraftbackend.service.UserService;
 import com.lucius.sparkcraftbackend.service.WorkflowExecutionService;
+import com.lucius.sparkcraftbackend.utils.JsonUtils;
 import com.lucius.sparkcraftbackend.vo.WorkflowExecuteVO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -97,7 +97,7 @@ public class WorkflowExecutionControllerTest {
         // 执行请求并验证响应
         mockMvc.perform(post("/imageProject/workflow/execute")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(JSON.toJSONString(testRequest)))
+                        .content(JsonUtils.toJson(testRequest)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.code").value(0))
                 .andExpect(jsonPath("$.message").value("ok"))
@@ -233,7 +233,7 @@ public class WorkflowExecutionControllerTest {
         // 执行请求并验证响应
         mockMvc.perform(post("/imageProject/workflow/execute")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(JSON.toJSONString(testRequest)))
+                        .content(JsonUtils.toJson(testRequest)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.code").value(0))
                 .andExpect(jsonPath("$.data.status").value("FAILED"))
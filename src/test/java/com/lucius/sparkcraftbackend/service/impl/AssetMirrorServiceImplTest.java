@@ -0,0 +1,196 @@
+package com.lucius.sparkcraftbackend.service.impl;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.lucius.sparkcraftbackend.entity.AssetMirror;
+import com.lucius.sparkcraftbackend.mapper.AssetMirrorMapper;
+import com.lucius.sparkcraftbackend.storage.BlobStore;
+import com.mybatisflex.core.query.QueryWrapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * AssetMirrorServiceImpl测试类
+ */
+@ExtendWith(MockitoExtension.class)
+class AssetMirrorServiceImplTest {
+
+    private static final byte[] IMAGE = "模拟的图片内容".repeat(100).getBytes(StandardCharsets.UTF_8);
+
+    @Mock
+    private AssetMirrorMapper assetMirrorMapper;
+
+    @Mock
+    private BlobStore blobStore;
+
+    private AssetMirrorServiceImpl assetMirrorService;
+
+    private HttpServer server;
+
+    private final AtomicInteger downloads = new AtomicInteger();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private String sourceUrl;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        assetMirrorService = new AssetMirrorServiceImpl();
+        // ServiceImpl 的 mapper 字段是泛型类型，Mockito 无法按类型注入
+        ReflectionTestUtils.setField(assetMirrorService, "mapper", assetMirrorMapper);
+        ReflectionTestUtils.setField(assetMirrorService, "blobStore", blobStore);
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        // 不带 Content-Length 的分块响应，用来验证按实际字节数记录大小
+        server.createContext("/chunked.png", exchange -> {
+            downloads.incrementAndGet();
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(IMAGE);
+            }
+        });
+        server.createContext("/slow.png", exchange -> {
+            downloads.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, IMAGE.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(IMAGE);
+            }
+        });
+        server.setExecutor(null);
+        server.start();
+        sourceUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/chunked.png";
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void testMirror_UnknownLengthStoresCountedBytes() {
+        when(blobStore.put(anyString(), any(InputStream.class), anyLong())).thenAnswer(invocation -> {
+            assertArrayEquals(IMAGE, invocation.<InputStream>getArgument(1).readAllBytes());
+            return "https://oss.example.com/" + invocation.getArgument(0);
+        });
+
+        String ossUrl = assetMirrorService.mirror(sourceUrl);
+
+        String sourceUrlHash = DigestUtil.sha256Hex(sourceUrl);
+        assertEquals("https://oss.example.com/images/mirror/" + sourceUrlHash + ".png", ossUrl);
+        verify(blobStore).put(anyString(), any(InputStream.class), eq((long) IMAGE.length));
+        AssetMirror saved = captureSaved();
+        assertEquals(IMAGE.length, saved.getContentLength());
+        assertEquals(DigestUtil.sha256Hex(IMAGE), saved.getContentHash());
+        assertEquals(sourceUrlHash, saved.getSourceUrlHash());
+    }
+
+    @Test
+    void testMirror_LocalCacheHitSkipsDatabase() {
+        when(blobStore.put(anyString(), any(InputStream.class), anyLong())).thenReturn("https://oss.example.com/a.png");
+
+        assetMirrorService.mirror(sourceUrl);
+        assetMirrorService.mirror(sourceUrl);
+
+        assertEquals(1, downloads.get());
+        // 第一次调用：按地址查一次、按内容哈希查一次；第二次调用命中本地缓存
+        verify(assetMirrorMapper, times(2)).selectOneByQuery(any(QueryWrapper.class));
+    }
+
+    @Test
+    void testMirror_DatabaseHitSkipsDownload() {
+        when(assetMirrorMapper.selectOneByQuery(any(QueryWrapper.class)))
+                .thenReturn(AssetMirror.builder().ossUrl("https://oss.example.com/existing.png").build());
+
+        assertEquals("https://oss.example.com/existing.png", assetMirrorService.mirror(sourceUrl));
+
+        assertEquals(0, downloads.get());
+        verifyNoInteractions(blobStore);
+    }
+
+    @Test
+    void testMirror_SameContentReusesObjectWithoutUpload() {
+        when(assetMirrorMapper.selectOneByQuery(any(QueryWrapper.class)))
+                .thenReturn(null)
+                .thenReturn(AssetMirror.builder().ossUrl("https://oss.example.com/same.png").build());
+
+        assertEquals("https://oss.example.com/same.png", assetMirrorService.mirror(sourceUrl));
+
+        verifyNoInteractions(blobStore);
+        assertEquals("https://oss.example.com/same.png", captureSaved().getOssUrl());
+    }
+
+    @Test
+    void testMirror_DuplicateKeyReturnsWinner() {
+        when(blobStore.put(anyString(), any(InputStream.class), anyLong())).thenReturn("https://oss.example.com/mine.png");
+        when(assetMirrorMapper.selectOneByQuery(any(QueryWrapper.class)))
+                .thenReturn(null)
+                .thenReturn(null)
+                .thenReturn(AssetMirror.builder().ossUrl("https://oss.example.com/winner.png").build());
+        when(assetMirrorMapper.insert(any(AssetMirror.class), anyBoolean()))
+                .thenThrow(new DuplicateKeyException("uk_sourceUrlHash"));
+
+        assertEquals("https://oss.example.com/winner.png", assetMirrorService.mirror(sourceUrl));
+    }
+
+    @Test
+    void testMirror_ConcurrentCallsShareOneDownload() throws Exception {
+        String slowUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/slow.png";
+        when(blobStore.put(anyString(), any(InputStream.class), anyLong())).thenReturn("https://oss.example.com/slow.png");
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> assetMirrorService.mirror(slowUrl));
+        waitUntil(() -> downloads.get() == 1);
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> assetMirrorService.mirror(slowUrl));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertEquals("https://oss.example.com/slow.png", first.get(5, TimeUnit.SECONDS));
+        assertEquals("https://oss.example.com/slow.png", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, downloads.get());
+        verify(blobStore, times(1)).put(anyString(), any(InputStream.class), anyLong());
+    }
+
+    private AssetMirror captureSaved() {
+        ArgumentCaptor<AssetMirror> captor = ArgumentCaptor.forClass(AssetMirror.class);
+        verify(assetMirrorMapper).insert(captor.capture(), anyBoolean());
+        return captor.getValue();
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < until) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
@@ -0,0 +1,179 @@
+package com.lucius.sparkcraftbackend.service.impl;
+
+import com.lucius.sparkcraftbackend.constant.ChatHistoryConstant;
+import com.lucius.sparkcraftbackend.dto.ChatHistoryQueryRequest;
+import com.lucius.sparkcraftbackend.entity.ChatHistory;
+import com.lucius.sparkcraftbackend.exception.BusinessException;
+import com.lucius.sparkcraftbackend.mapper.ChatHistoryMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import com.mybatisflex.core.query.QueryWrapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * ChatHistoryServiceImpl测试类
+ */
+@ExtendWith(MockitoExtension.class)
+class ChatHistoryServiceImplTest {
+
+    @Mock
+    private ChatHistoryMapper chatHistoryMapper;
+
+    private ChatHistoryServiceImpl chatHistoryService;
+
+    @BeforeEach
+    void setUp() {
+        chatHistoryService = new ChatHistoryServiceImpl();
+        // ServiceImpl 的 mapper 字段是泛型类型，Mockito 无法按类型注入
+        ReflectionTestUtils.setField(chatHistoryService, "mapper", chatHistoryMapper);
+    }
+
+    @Test
+    void testAddChatMessageAsync_FlushesAsOneMultiRowInsert() {
+        List<List<ChatHistory>> batches = new ArrayList<>();
+        when(chatHistoryMapper.insertBatch(anyCollection())).thenAnswer(invocation -> {
+            batches.add(new ArrayList<>(invocation.<Collection<ChatHistory>>getArgument(0)));
+            return batches.get(batches.size() - 1).size();
+        });
+
+        chatHistoryService.addChatMessageAsync(1L, "想要兔子", "user", 2L);
+        chatHistoryService.addChatMessageAsync(1L, "好的", "ai", 2L);
+        verifyNoInteractions(chatHistoryMapper);
+
+        chatHistoryService.flush();
+
+        assertEquals(1, batches.size());
+        List<ChatHistory> batch = batches.get(0);
+        assertEquals(List.of("想要兔子", "好的"), batch.stream().map(ChatHistory::getMessage).toList());
+        assertNotNull(batch.get(0).getCreateTime());
+        assertFalse(batch.get(1).getCreateTime().isBefore(batch.get(0).getCreateTime()));
+    }
+
+    @Test
+    void testFlush_FailedBatchIsRetried() {
+        List<Integer> sizes = new ArrayList<>();
+        when(chatHistoryMapper.insertBatch(anyCollection()))
+                .thenThrow(new RuntimeException("db down"))
+                .thenAnswer(invocation -> {
+                    sizes.add(invocation.<Collection<ChatHistory>>getArgument(0).size());
+                    return sizes.get(0);
+                });
+        chatHistoryService.addChatMessageAsync(1L, "想要兔子", "user", 2L);
+
+        assertThrows(RuntimeException.class, chatHistoryService::flush);
+        chatHistoryService.flush();
+
+        assertEquals(List.of(1), sizes);
+        verify(chatHistoryMapper, times(2)).insertBatch(anyCollection());
+    }
+
+    @Test
+    void testAddChatMessageAsync_ValidatesBeforeQueueing() {
+        assertThrows(BusinessException.class, () -> chatHistoryService.addChatMessageAsync(1L, " ", "user", 2L));
+        assertThrows(BusinessException.class, () -> chatHistoryService.addChatMessageAsync(1L, "hi", "robot", 2L));
+
+        chatHistoryService.flush();
+        verifyNoInteractions(chatHistoryMapper);
+    }
+
+    @Test
+    void testListAppChatHistoryByCursor_SeeksWithIdTieBreak() {
+        ChatHistoryQueryRequest request = new ChatHistoryQueryRequest();
+        request.setAppId(1L);
+        request.setPageSize(20);
+        request.setLastCreateTime(LocalDateTime.of(2025, 9, 1, 12, 0));
+        request.setLastId(99L);
+
+        String sql = listSql(request);
+
+        assertTrue(sql.contains("`createTime` < '2025-09-01 12:00:00' OR (`createTime` = '2025-09-01 12:00:00' AND `id` < 99)"), sql);
+        assertTrue(sql.contains("ORDER BY `createTime` DESC, `id` DESC LIMIT 20"), sql);
+        assertFalse(sql.contains("OFFSET"), sql);
+    }
+
+    @Test
+    void testListAppChatHistoryByCursor_ProjectionSkipsMessage() {
+        ChatHistoryQueryRequest request = new ChatHistoryQueryRequest();
+        request.setAppId(1L);
+        request.setWithMessage(false);
+
+        String sql = listSql(request);
+
+        List<String> columns = List.of(sql.substring("SELECT ".length(), sql.indexOf(" WHERE")).split("[`,\\s]+"));
+        assertFalse(columns.contains("message"), sql);
+        assertTrue(columns.contains("messageType"), sql);
+    }
+
+    @Test
+    void testListAppChatHistoryByCursor_RejectsOversizedPage() {
+        ChatHistoryQueryRequest request = new ChatHistoryQueryRequest();
+        request.setAppId(1L);
+        request.setPageSize(ChatHistoryConstant.MAX_PAGE_SIZE + 1);
+
+        assertThrows(BusinessException.class, () -> chatHistoryService.listAppChatHistoryByCursor(request));
+        verifyNoInteractions(chatHistoryMapper);
+    }
+
+    @Test
+    void testSearchAppChatHistory_RanksByRelevance() {
+        ArgumentCaptor<QueryWrapper> captor = ArgumentCaptor.forClass(QueryWrapper.class);
+        when(chatHistoryMapper.selectListByQuery(captor.capture())).thenReturn(List.of());
+
+        chatHistoryService.searchAppChatHistory(1L, " 中秋 ", 10);
+
+        String sql = captor.getValue().toSQL();
+        assertTrue(sql.contains("MATCH(message) AGAINST('中秋' IN NATURAL LANGUAGE MODE) AS score"), sql);
+        assertTrue(sql.contains("ORDER BY score desc, id desc LIMIT 10"), sql);
+        assertFalse(sql.contains("LIKE"), sql);
+    }
+
+    @Test
+    void testSearchAppChatHistory_RejectsShortKeyword() {
+        assertThrows(BusinessException.class, () -> chatHistoryService.searchAppChatHistory(1L, "兔", 10));
+        verifyNoInteractions(chatHistoryMapper);
+    }
+
+    @Test
+    void testGetQueryWrapper_UsesFullTextForMessage() {
+        ChatHistoryQueryRequest request = new ChatHistoryQueryRequest();
+        request.setMessage("中秋\"快乐");
+        assertTrue(chatHistoryService.getQueryWrapper(request).toSQL()
+                .contains("MATCH(message) AGAINST('\"中秋 快乐\"' IN BOOLEAN MODE)"));
+
+        request.setMessage("兔");
+        assertTrue(chatHistoryService.getQueryWrapper(request).toSQL().contains("LIKE '%兔%'"));
+    }
+
+    @Test
+    void testGetQueryWrapper_LatinKeywordFallsBackToLike() {
+        ChatHistoryQueryRequest request = new ChatHistoryQueryRequest();
+        request.setMessage("cat");
+        String sql = chatHistoryService.getQueryWrapper(request).toSQL();
+        assertTrue(sql.contains("LIKE '%cat%'"), sql);
+        assertFalse(sql.contains("MATCH"), sql);
+
+        request.setMessage("AI海报");
+        assertTrue(chatHistoryService.getQueryWrapper(request).toSQL()
+                .contains("MATCH(message) AGAINST('\"AI海报\"' IN BOOLEAN MODE)"));
+    }
+
+    private String listSql(ChatHistoryQueryRequest request) {
+        ArgumentCaptor<QueryWrapper> captor = ArgumentCaptor.forClass(QueryWrapper.class);
+        when(chatHistoryMapper.selectListByQuery(captor.capture())).thenReturn(List.of());
+        chatHistoryService.listAppChatHistoryByCursor(request);
+        return captor.getValue().toSQL();
+    }
+}
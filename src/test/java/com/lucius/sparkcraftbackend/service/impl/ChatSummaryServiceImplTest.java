@@ -0,0 +1,133 @@
+package com.lucius.sparkcraftbackend.service.impl;
+
+import com.lucius.sparkcraftbackend.entity.ChatHistory;
+import com.lucius.sparkcraftbackend.entity.ChatSummary;
+import com.lucius.sparkcraftbackend.mapper.ChatSummaryMapper;
+import com.lucius.sparkcraftbackend.properties.ChatMemoryProperties;
+import com.lucius.sparkcraftbackend.service.ChatHistoryService;
+import com.mybatisflex.core.query.QueryWrapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * ChatSummaryServiceImpl测试类
+ */
+@ExtendWith(MockitoExtension.class)
+class ChatSummaryServiceImplTest {
+
+    @Mock
+    private ChatSummaryMapper chatSummaryMapper;
+
+    @Mock
+    private ChatHistoryService chatHistoryService;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private ChatClient promptSummeryChatClient;
+
+    @Spy
+    private ChatMemoryProperties chatMemoryProperties = new ChatMemoryProperties();
+
+    @InjectMocks
+    private ChatSummaryServiceImpl chatSummaryService;
+
+    private ChatSummary existing;
+
+    @BeforeEach
+    void setUp() {
+        // ServiceImpl 的 mapper 字段是泛型类型，Mockito 无法按类型注入
+        ReflectionTestUtils.setField(chatSummaryService, "mapper", chatSummaryMapper);
+        existing = ChatSummary.builder().appId(1L).summary("主题：中秋节").lastMessageId(10L).build();
+    }
+
+    @Test
+    void testGetRollingSummary_NoNewMessagesSkipsLlm() {
+        when(chatSummaryMapper.selectOneByQuery(any(QueryWrapper.class))).thenReturn(existing);
+        when(chatHistoryService.list(any(QueryWrapper.class))).thenReturn(List.of());
+
+        assertEquals("主题：中秋节", chatSummaryService.getRollingSummary(1L));
+
+        verifyNoInteractions(promptSummeryChatClient);
+        verify(chatSummaryMapper, never()).updateByQuery(any(), any(QueryWrapper.class));
+    }
+
+    @Test
+    void testGetRollingSummary_MergesOnlyNewMessages() {
+        when(chatSummaryMapper.selectOneByQuery(any(QueryWrapper.class))).thenReturn(existing);
+        // 按 id 倒序返回
+        when(chatHistoryService.list(any(QueryWrapper.class))).thenReturn(List.of(
+                history(12L, "ai", "好的，加入兔子元素"),
+                history(11L, "user", "想要兔子")));
+        when(promptSummeryChatClient.prompt().user(anyString()).call().content()).thenReturn("主题：中秋节，元素：兔子");
+
+        assertEquals("主题：中秋节，元素：兔子", chatSummaryService.getRollingSummary(1L));
+
+        ArgumentCaptor<String> input = ArgumentCaptor.forClass(String.class);
+        verify(promptSummeryChatClient.prompt(), atLeastOnce()).user(input.capture());
+        String prompt = input.getAllValues().get(input.getAllValues().size() - 1);
+        assertTrue(prompt.contains("主题：中秋节"));
+        assertTrue(prompt.indexOf("[用户]: 想要兔子") < prompt.indexOf("[AI]: 好的，加入兔子元素"));
+
+        ArgumentCaptor<ChatSummary> saved = ArgumentCaptor.forClass(ChatSummary.class);
+        verify(chatSummaryMapper).updateByQuery(saved.capture(), any(QueryWrapper.class));
+        assertEquals(12L, saved.getValue().getLastMessageId());
+        assertTrue(saved.getValue().getSummaryTokens() > 0);
+    }
+
+    @Test
+    void testGetRollingSummary_KeepsMostRecentMessagesWithinBudget() {
+        chatMemoryProperties.getSummary().setNewMessagesTokenBudget(50);
+        when(chatSummaryMapper.selectOneByQuery(any(QueryWrapper.class))).thenReturn(null);
+        List<ChatHistory> messages = new ArrayList<>();
+        for (long id = 40; id > 0; id--) {
+            messages.add(history(id, "user", "message number " + id + " with some padding text"));
+        }
+        when(chatHistoryService.list(any(QueryWrapper.class))).thenReturn(messages);
+        when(promptSummeryChatClient.prompt().user(anyString()).call().content()).thenReturn("总结");
+
+        chatSummaryService.getRollingSummary(1L);
+
+        ArgumentCaptor<String> input = ArgumentCaptor.forClass(String.class);
+        verify(promptSummeryChatClient.prompt(), atLeastOnce()).user(input.capture());
+        String prompt = input.getAllValues().get(input.getAllValues().size() - 1);
+        assertTrue(prompt.contains("message number 40 "));
+        assertFalse(prompt.contains("message number 1 "));
+
+        ArgumentCaptor<ChatSummary> saved = ArgumentCaptor.forClass(ChatSummary.class);
+        verify(chatSummaryMapper).insert(saved.capture(), anyBoolean());
+        assertEquals(40L, saved.getValue().getLastMessageId());
+    }
+
+    @Test
+    void testGetRollingSummary_LlmFailureKeepsWatermark() {
+        when(chatSummaryMapper.selectOneByQuery(any(QueryWrapper.class))).thenReturn(existing);
+        when(chatHistoryService.list(any(QueryWrapper.class))).thenReturn(List.of(history(11L, "user", "想要兔子")));
+        when(promptSummeryChatClient.prompt().user(anyString()).call().content()).thenThrow(new RuntimeException("timeout"));
+
+        String summary = chatSummaryService.getRollingSummary(1L);
+
+        assertTrue(summary.contains("主题：中秋节"));
+        assertTrue(summary.contains("想要兔子"));
+        verify(chatSummaryMapper, never()).updateByQuery(any(), any(QueryWrapper.class));
+    }
+
+    private static ChatHistory history(Long id, String messageType, String message) {
+        return ChatHistory.builder().id(id).appId(1L).messageType(messageType).message(message).build();
+    }
+}
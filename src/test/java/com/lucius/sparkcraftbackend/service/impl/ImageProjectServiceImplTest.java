@@ -0,0 +1,357 @@
+package com.lucius.sparkcraftbackend.service.impl;
+
+import com.lucius.sparkcraftbackend.ai.handler.StreamHandlerExecutor;
+import com.lucius.sparkcraftbackend.assembler.VOAssembler;
+import com.lucius.sparkcraftbackend.cache.FeaturedFeedCache;
+import com.lucius.sparkcraftbackend.constant.ImageProjectConstant;
+import com.lucius.sparkcraftbackend.dto.ImageProjectQueryRequest;
+import com.lucius.sparkcraftbackend.entity.ImageProject;
+import com.lucius.sparkcraftbackend.entity.User;
+import com.lucius.sparkcraftbackend.enums.ChatHistoryMessageTypeEnum;
+import com.lucius.sparkcraftbackend.exception.BusinessException;
+import com.lucius.sparkcraftbackend.exception.ErrorCode;
+import com.lucius.sparkcraftbackend.mapper.ImageProjectMapper;
+import com.lucius.sparkcraftbackend.service.ChatHistoryService;
+import com.lucius.sparkcraftbackend.service.WorkflowArtifactService;
+import com.lucius.sparkcraftbackend.vo.CursorPageVO;
+import com.lucius.sparkcraftbackend.vo.ImageProjectVO;
+import com.mybatisflex.core.paginate.Page;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import com.mybatisflex.core.query.QueryWrapper;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * ImageProjectServiceImpl测试类
+ */
+@ExtendWith(MockitoExtension.class)
+class ImageProjectServiceImplTest {
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private ChatClient getIdeaChatClient;
+
+    @Mock
+    private ChatHistoryService chatHistoryService;
+
+    @Mock
+    private ImageProjectMapper imageProjectMapper;
+
+    @Mock
+    private VOAssembler voAssembler;
+
+    @Mock
+    private FeaturedFeedCache featuredFeedCache;
+
+    @Mock
+    private WorkflowArtifactService workflowArtifactService;
+
+    @Spy
+    private StreamHandlerExecutor streamHandlerExecutor = new StreamHandlerExecutor();
+
+    @InjectMocks
+    private ImageProjectServiceImpl imageProjectService;
+
+    private User loginUser;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(imageProjectService, "getIdeaChatClient", getIdeaChatClient);
+        // ServiceImpl 的 mapper 字段是泛型类型，Mockito 无法按类型注入
+        ReflectionTestUtils.setField(imageProjectService, "mapper", imageProjectMapper);
+        ReflectionTestUtils.setField(imageProjectService, "ideaChatMaxConcurrentPerUser", 1);
+        ReflectionTestUtils.setField(imageProjectService, "ideaChatBatchSize", 3);
+        ReflectionTestUtils.setField(imageProjectService, "ideaChatBatchWindowMs", 1000L);
+        loginUser = new User();
+        loginUser.setId(1L);
+    }
+
+    @Test
+    void testChatToGetTheIdea_BatchesChunks() {
+        stubStream(Flux.just("中", "秋", "节", "快", "乐"));
+
+        List<String> batches = imageProjectService.chatToGetTheIdea(123L, "灵感", loginUser).collectList().block();
+
+        assertEquals(List.of("中秋节", "快乐"), batches);
+    }
+
+    @Test
+    void testChatToGetTheIdea_BatchesWithBoundedDemand() throws InterruptedException {
+        ReflectionTestUtils.setField(imageProjectService, "ideaChatBatchWindowMs", 20L);
+        Sinks.Many<String> upstream = Sinks.many().unicast().onBackpressureBuffer();
+        stubStream(upstream.asFlux());
+        List<String> received = new CopyOnWriteArrayList<>();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        // 与 SSE 写出一致：每次只请求一个元素，上一帧写完后才请求下一帧
+        BaseSubscriber<String> subscriber = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(1);
+            }
+
+            @Override
+            protected void hookOnNext(String value) {
+                received.add(value);
+            }
+
+            @Override
+            protected void hookOnError(Throwable throwable) {
+                error.set(throwable);
+            }
+        };
+        imageProjectService.chatToGetTheIdea(123L, "灵感", loginUser).subscribe(subscriber);
+
+        upstream.tryEmitNext("中");
+        upstream.tryEmitNext("秋");
+        Thread.sleep(200);
+        // 下游没有剩余需求时，时间窗口到期也不能发出批次，等下一次请求再发
+        upstream.tryEmitNext("节");
+        upstream.tryEmitNext("快");
+        Thread.sleep(200);
+        assertNull(error.get());
+        assertEquals(List.of("中秋"), received);
+        subscriber.request(1);
+        upstream.tryEmitComplete();
+        subscriber.request(1);
+
+        assertNull(error.get());
+        assertEquals("中秋节快", String.join("", received));
+    }
+
+    @Test
+    void testChatToGetTheIdea_RecordsBothMessagesAsync() {
+        stubStream(Flux.just("中", "秋"));
+
+        imageProjectService.chatToGetTheIdea(123L, "灵感", loginUser).blockLast();
+
+        verify(chatHistoryService).addChatMessageAsync(123L, "灵感", ChatHistoryMessageTypeEnum.USER.getValue(), 1L);
+        verify(chatHistoryService).addChatMessageAsync(123L, "中秋", ChatHistoryMessageTypeEnum.AI.getValue(), 1L);
+        verify(chatHistoryService, never()).addChatMessage(any(), any(), any(), any());
+    }
+
+    @Test
+    void testChatToGetTheIdea_RejectsWhenUserLimitReached() {
+        Sinks.Many<String> upstream = Sinks.many().unicast().onBackpressureBuffer();
+        stubStream(upstream.asFlux());
+
+        Disposable first = imageProjectService.chatToGetTheIdea(123L, "灵感", loginUser).subscribe();
+        try {
+            Flux<String> second = imageProjectService.chatToGetTheIdea(123L, "灵感", loginUser);
+            assertThrows(BusinessException.class, second::blockLast);
+        } finally {
+            first.dispose();
+        }
+    }
+
+    @Test
+    void testChatToGetTheIdea_CancelReleasesPermit() {
+        Sinks.Many<String> upstream = Sinks.many().unicast().onBackpressureBuffer();
+        stubStream(upstream.asFlux());
+
+        Disposable first = imageProjectService.chatToGetTheIdea(123L, "灵感", loginUser).subscribe();
+        first.dispose();
+
+        assertEquals(0, upstream.currentSubscriberCount());
+        stubStream(Flux.just("好"));
+        assertEquals(List.of("好"), imageProjectService.chatToGetTheIdea(123L, "灵感", loginUser).collectList().block());
+    }
+
+    @Test
+    void testChatToGetTheIdea_FailureBeforeStreamReleasesPermit() {
+        doThrow(new BusinessException(ErrorCode.SYSTEM_ERROR, "数据库不可用"))
+                .doNothing()
+                .when(chatHistoryService).addChatMessageAsync(eq(123L), eq("灵感"), any(), eq(1L));
+        stubStream(Flux.just("好"));
+
+        assertThrows(BusinessException.class, () -> imageProjectService.chatToGetTheIdea(123L, "灵感", loginUser).blockLast());
+
+        assertEquals(List.of("好"), imageProjectService.chatToGetTheIdea(123L, "灵感", loginUser).collectList().block());
+    }
+
+    @Test
+    void testSearchImageProjects_WeightsNameAboveDescription() {
+        ArgumentCaptor<QueryWrapper> captor = ArgumentCaptor.forClass(QueryWrapper.class);
+        when(imageProjectMapper.selectListByQuery(captor.capture())).thenReturn(List.of());
+
+        imageProjectService.searchImageProjects(1L, "月饼", 20);
+
+        String sql = captor.getValue().toSQL();
+        assertTrue(sql.contains("MATCH(projectName) AGAINST('月饼' IN NATURAL LANGUAGE MODE) * 2 + "
+                + "MATCH(projectDesc) AGAINST('月饼' IN NATURAL LANGUAGE MODE) AS score"), sql);
+        assertTrue(sql.contains("ORDER BY score desc, id desc LIMIT 20"), sql);
+        assertThrows(BusinessException.class, () -> imageProjectService.searchImageProjects(1L, "月饼", 21));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubStream(Flux<String> content) {
+        when(getIdeaChatClient.prompt().user(anyString()).advisors(any(Consumer.class)).stream().content())
+                .thenReturn(content);
+    }
+
+    @Test
+    void testListImageProjectVOByCursor_SeeksAndReturnsNextCursor() {
+        LocalDateTime cursorTime = LocalDateTime.of(2025, 9, 1, 12, 0);
+        List<ImageProject> rows = LongStream.rangeClosed(1, 3)
+                .mapToObj(id -> project(100 - id, cursorTime.minusMinutes(id)))
+                .collect(Collectors.toList());
+        ArgumentCaptor<QueryWrapper> captor = ArgumentCaptor.forClass(QueryWrapper.class);
+        when(imageProjectMapper.selectListByQuery(captor.capture())).thenReturn(rows);
+        when(voAssembler.toImageProjectVOList(anyList())).thenAnswer(invocation -> {
+            List<ImageProject> page = invocation.getArgument(0);
+            return page.stream().map(p -> new ImageProjectVO()).collect(Collectors.toList());
+        });
+        ImageProjectQueryRequest request = new ImageProjectQueryRequest();
+        request.setUserId(1L);
+        request.setPageSize(2);
+        request.setLastCreateTime(cursorTime);
+        request.setLastId(100L);
+
+        CursorPageVO<ImageProjectVO> page = imageProjectService.listImageProjectVOByCursor(request);
+
+        assertEquals(2, page.getRecords().size());
+        assertTrue(page.isHasMore());
+        assertEquals(98L, page.getLastId());
+        assertEquals(cursorTime.minusMinutes(2), page.getLastCreateTime());
+        assertNull(page.getTotalRow());
+        String sql = captor.getValue().toSQL();
+        assertTrue(sql.contains("`createTime` < "), sql);
+        assertTrue(sql.contains("`id` < 100"), sql);
+        assertTrue(sql.contains("LIMIT 3"), sql);
+        assertFalse(sql.contains("OFFSET"), sql);
+    }
+
+    @Test
+    void testListImageProjectVOByCursor_RequiresUserOrPriority() {
+        ImageProjectQueryRequest request = new ImageProjectQueryRequest();
+        assertThrows(BusinessException.class, () -> imageProjectService.listImageProjectVOByCursor(request));
+        request.setPriority(ImageProjectConstant.GOOD_APP_PRIORITY);
+        request.setPageSize(ImageProjectConstant.MAX_PAGE_SIZE + 1);
+        assertThrows(BusinessException.class, () -> imageProjectService.listImageProjectVOByCursor(request));
+        verifyNoInteractions(imageProjectMapper);
+    }
+
+    @Test
+    void testPageImageProjects_ReusesCachedCount() {
+        when(imageProjectMapper.selectCountByQuery(any(QueryWrapper.class))).thenReturn(42L);
+        when(imageProjectMapper.paginateAs(any(), any(QueryWrapper.class), any())).thenAnswer(invocation -> invocation.getArgument(0));
+        ImageProjectQueryRequest request = new ImageProjectQueryRequest();
+        request.setUserId(1L);
+
+        Page<ImageProject> first = imageProjectService.pageImageProjects(request);
+        request.setPageNum(2);
+        Page<ImageProject> second = imageProjectService.pageImageProjects(request);
+
+        assertEquals(42L, first.getTotalRow());
+        assertEquals(42L, second.getTotalRow());
+        verify(imageProjectMapper, times(1)).selectCountByQuery(any(QueryWrapper.class));
+    }
+
+    @Test
+    void testFlushWorkflowResults_UpdatesOnlyResultColumnsOfLatestResult() {
+        when(imageProjectMapper.updateByQuery(any(ImageProject.class), eq(true), any(QueryWrapper.class))).thenReturn(1);
+        when(workflowArtifactService.store(anyString())).thenAnswer(invocation -> "artifact:" + invocation.getArgument(0));
+        imageProjectService.saveWorkflowResult(7L, "old.png", "旧工艺", "old.stl");
+        imageProjectService.saveWorkflowResult(7L, "new.png", "新工艺", "new.stl");
+
+        assertEquals(1, imageProjectService.flushWorkflowResults());
+
+        ArgumentCaptor<ImageProject> resultCaptor = ArgumentCaptor.forClass(ImageProject.class);
+        ArgumentCaptor<QueryWrapper> guardCaptor = ArgumentCaptor.forClass(QueryWrapper.class);
+        verify(imageProjectMapper).updateByQuery(resultCaptor.capture(), eq(true), guardCaptor.capture());
+        ImageProject result = resultCaptor.getValue();
+        assertNull(result.getId());
+        assertNull(result.getProjectName());
+        assertNull(result.getPriority());
+        assertEquals("new.png", result.getProjectImageUrl());
+        assertEquals("artifact:新工艺", result.getProductionprocess());
+        assertEquals("new.stl", result.getThreeDModelUrl());
+        assertEquals(ImageProjectConstant.COMPLETED_STATUS, result.getProjectStatus());
+        String guard = guardCaptor.getValue().toSQL();
+        assertTrue(guard.contains("id = 7"));
+        assertTrue(guard.contains("(projectStatus != 'COMPLETED' OR updateTime <="));
+        verify(featuredFeedCache).onProjectChanged(7L, null);
+        assertEquals(0, imageProjectService.flushWorkflowResults());
+    }
+
+    @Test
+    void testFlushWorkflowResults_StaleResultIsNotCounted() {
+        when(imageProjectMapper.updateByQuery(any(ImageProject.class), eq(true), any(QueryWrapper.class))).thenReturn(0);
+        imageProjectService.saveWorkflowResult(7L, "a.png", null, "a.stl");
+
+        assertEquals(0, imageProjectService.flushWorkflowResults());
+    }
+
+    @Test
+    void testFlushWorkflowResults_RequeuesOnFailure() {
+        when(imageProjectMapper.updateByQuery(any(ImageProject.class), eq(true), any(QueryWrapper.class)))
+                .thenThrow(new RuntimeException("db down"))
+                .thenReturn(1);
+        imageProjectService.saveWorkflowResult(7L, "a.png", "工艺", "a.stl");
+
+        assertThrows(RuntimeException.class, imageProjectService::flushWorkflowResults);
+        assertEquals(1, imageProjectService.flushWorkflowResults());
+        verify(imageProjectMapper, times(2)).updateByQuery(any(ImageProject.class), eq(true), any(QueryWrapper.class));
+    }
+
+    @Test
+    void testSaveWorkflowResult_RejectsInvalidId() {
+        assertThrows(BusinessException.class, () -> imageProjectService.saveWorkflowResult(null, "a.png", null, null));
+    }
+
+    @Test
+    void testGetImageVO_ResolvesProductionProcessArtifact() {
+        ImageProjectVO imageProjectVO = new ImageProjectVO();
+        imageProjectVO.setProductionprocess("artifact:1");
+        when(voAssembler.toImageProjectVO(any())).thenReturn(imageProjectVO);
+        when(workflowArtifactService.resolve("artifact:1")).thenReturn("完整的制造流程");
+
+        assertEquals("完整的制造流程", imageProjectService.getImageVO(new ImageProject()).getProductionprocess());
+    }
+
+    @Test
+    void testGetQueryWrapper_SkipsProductionProcessColumn() {
+        ImageProjectQueryRequest request = new ImageProjectQueryRequest();
+        request.setUserId(1L);
+
+        String sql = imageProjectService.getQueryWrapper(request).toSQL();
+
+        assertTrue(sql.contains("projectName"));
+        assertFalse(sql.toLowerCase().contains("productionprocess"));
+        assertFalse(sql.contains("*"));
+    }
+
+    private static ImageProject project(long id, LocalDateTime createTime) {
+        ImageProject imageProject = new ImageProject();
+        imageProject.setId(id);
+        imageProject.setUserId(1L);
+        imageProject.setCreateTime(createTime);
+        return imageProject;
+    }
+}
@@ -0,0 +1,151 @@
+package com.lucius.sparkcraftbackend.service.impl;
+
+import com.lucius.sparkcraftbackend.entity.ImageResource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ImageSearchServiceImpl测试类
+ */
+class ImageSearchServiceImplTest {
+
+    private ImageSearchServiceImpl imageSearchService;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        imageSearchService = new ImageSearchServiceImpl();
+        ReflectionTestUtils.setField(imageSearchService, "fanOutEnabled", true);
+        ReflectionTestUtils.setField(imageSearchService, "searchDeadlineMs", 5000L);
+        ReflectionTestUtils.setField(imageSearchService, "searchMaxThreads", 3);
+        imageSearchService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        imageSearchService.destroy();
+    }
+
+    @Test
+    void testSearchImages_ReturnsOnceCountReached() {
+        AtomicBoolean interrupted = new AtomicBoolean();
+        imageSearchService.imageSources = List.of(
+                (keywords, count, timeoutMs) -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        interrupted.set(true);
+                    }
+                    return List.of();
+                },
+                (keywords, count, timeoutMs) -> images("a", "b"),
+                (keywords, count, timeoutMs) -> images("c"));
+
+        long start = System.nanoTime();
+        List<ImageResource> result = imageSearchService.searchImages("茶具", 2);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(2, result.size());
+        assertTrue(elapsedMs < 2000, "凑够数量后应立即返回，实际耗时 " + elapsedMs + "ms");
+        assertTrue(waitFor(interrupted), "仍在进行中的图片源应被取消");
+    }
+
+    @Test
+    void testSearchImages_StopsAtDeadline() {
+        ReflectionTestUtils.setField(imageSearchService, "searchDeadlineMs", 200L);
+        imageSearchService.imageSources = List.of(
+                (keywords, count, timeoutMs) -> images("a"),
+                (keywords, count, timeoutMs) -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return images("b", "c");
+                });
+
+        long start = System.nanoTime();
+        List<ImageResource> result = imageSearchService.searchImages("茶具", 3);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(List.of("https://example.com/a.png"), result.stream().map(ImageResource::getUrl).toList());
+        assertTrue(elapsedMs < 2000, "到达截止时间后应立即返回，实际耗时 " + elapsedMs + "ms");
+    }
+
+    @Test
+    void testSearchImages_TimeoutComesFromRemainingDeadline() {
+        AtomicInteger timeout = new AtomicInteger();
+        imageSearchService.imageSources = List.of((keywords, count, timeoutMs) -> {
+            timeout.set(timeoutMs);
+            return images("a");
+        });
+
+        imageSearchService.searchImages("茶具", 1);
+
+        assertTrue(timeout.get() > 0 && timeout.get() <= 5000, "超时应取自剩余时间，实际 " + timeout.get());
+    }
+
+    @Test
+    void testSearchImages_MergesInArrivalOrderWithoutDuplicates() {
+        CountDownLatch firstDone = new CountDownLatch(1);
+        imageSearchService.imageSources = List.of(
+                (keywords, count, timeoutMs) -> {
+                    try {
+                        firstDone.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return images("b", "c");
+                },
+                (keywords, count, timeoutMs) -> {
+                    firstDone.countDown();
+                    return images("a", "b");
+                });
+
+        List<ImageResource> result = imageSearchService.searchImages("茶具", 3);
+
+        assertEquals(List.of("https://example.com/a.png", "https://example.com/b.png", "https://example.com/c.png"),
+                result.stream().map(ImageResource::getUrl).toList());
+    }
+
+    @Test
+    void testSearchImages_AllSourcesFailFallsBackToMockImages() {
+        imageSearchService.imageSources = List.of(
+                (keywords, count, timeoutMs) -> {
+                    throw new IllegalStateException("接口不可用");
+                },
+                (keywords, count, timeoutMs) -> List.of());
+
+        List<ImageResource> result = imageSearchService.searchImages("成都火锅", 2);
+
+        assertEquals(2, result.size());
+        assertTrue(result.get(0).getDescription().contains("火锅"));
+    }
+
+    private static List<ImageResource> images(String... names) {
+        return Arrays.stream(names)
+                .map(name -> ImageResource.builder().description(name).url("https://example.com/" + name + ".png").build())
+                .toList();
+    }
+
+    private static boolean waitFor(AtomicBoolean flag) {
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!flag.get() && System.nanoTime() < until) {
+            Thread.onSpinWait();
+        }
+        return flag.get();
+    }
+}
@@ -0,0 +1,119 @@
+package com.lucius.sparkcraftbackend.service.impl;
+
+import com.lucius.sparkcraftbackend.assembler.VOAssembler;
+import com.lucius.sparkcraftbackend.auth.LoginTokenService;
+import com.lucius.sparkcraftbackend.cache.UserCache;
+import com.lucius.sparkcraftbackend.entity.User;
+import com.lucius.sparkcraftbackend.exception.BusinessException;
+import com.lucius.sparkcraftbackend.mapper.UserMapper;
+import com.lucius.sparkcraftbackend.properties.AuthProperties;
+import com.lucius.sparkcraftbackend.properties.UserCacheProperties;
+import com.mybatisflex.core.query.QueryWrapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.Serializable;
+
+import static com.lucius.sparkcraftbackend.constant.UserConstant.USER_LOGIN_STATE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * UserServiceImpl 登录态测试类
+ */
+@ExtendWith(MockitoExtension.class)
+class UserServiceImplTest {
+
+    @Mock
+    private UserMapper userMapper;
+
+    @Mock
+    private ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    private UserServiceImpl userService;
+
+    private LoginTokenService loginTokenService;
+
+    @BeforeEach
+    void setUp() {
+        UserCache userCache = new UserCache(new UserCacheProperties(), redisTemplateProvider);
+        loginTokenService = new LoginTokenService(new AuthProperties(), redisTemplateProvider);
+        userService = new UserServiceImpl(new MockHttpServletRequest(), userCache, loginTokenService, new VOAssembler(userMapper));
+        // ServiceImpl 的 mapper 字段是泛型类型，Mockito 无法按类型注入
+        ReflectionTestUtils.setField(userService, "mapper", userMapper);
+    }
+
+    @Test
+    void testGetLoginUser_LoadsOncePerRequestAndAcrossRequests() {
+        when(userMapper.selectOneById(1L)).thenReturn(user("user"));
+
+        MockHttpServletRequest first = loggedInRequest();
+        User loginUser = userService.getLoginUser(first);
+        assertSame(loginUser, userService.getLoginUser(first));
+        assertEquals("user", userService.getLoginUser(loggedInRequest()).getUserRole());
+
+        verify(userMapper, times(1)).selectOneById(any(Serializable.class));
+    }
+
+    @Test
+    void testUpdateById_EvictsCachedUser() {
+        when(userMapper.selectOneById(1L)).thenReturn(user("user"), user("admin"));
+        userService.getLoginUser(loggedInRequest());
+
+        userService.updateById(user("admin"));
+
+        assertEquals("admin", userService.getLoginUser(loggedInRequest()).getUserRole());
+        verify(userMapper, times(2)).selectOneById(any(Serializable.class));
+    }
+
+    @Test
+    void testGetLoginUser_NotLoggedIn() {
+        assertThrows(BusinessException.class, () -> userService.getLoginUser(new MockHttpServletRequest()));
+        verifyNoInteractions(userMapper);
+    }
+
+    @Test
+    void testTokenMode_LoginLogoutWithoutSession() {
+        AuthProperties authProperties = new AuthProperties();
+        authProperties.setMode("token");
+        authProperties.getToken().setSecret("0123456789abcdef0123456789abcdef");
+        UserServiceImpl tokenUserService = new UserServiceImpl(new MockHttpServletRequest(),
+                new UserCache(new UserCacheProperties(), redisTemplateProvider),
+                new LoginTokenService(authProperties, redisTemplateProvider), new VOAssembler(userMapper));
+        ReflectionTestUtils.setField(tokenUserService, "mapper", userMapper);
+        when(userMapper.selectOneByQuery(any(QueryWrapper.class))).thenReturn(user("user"));
+        when(userMapper.selectOneById(1L)).thenReturn(user("user"));
+
+        MockHttpServletRequest loginRequest = new MockHttpServletRequest();
+        String token = tokenUserService.userLogin("lucius", "12345678", loginRequest).getToken();
+        assertNotNull(token);
+        assertNull(loginRequest.getSession(false));
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        assertEquals(1L, tokenUserService.getLoginUser(request).getId());
+        assertTrue(tokenUserService.userLogout(request));
+
+        MockHttpServletRequest afterLogout = new MockHttpServletRequest();
+        afterLogout.addHeader("Authorization", "Bearer " + token);
+        assertThrows(BusinessException.class, () -> tokenUserService.getLoginUser(afterLogout));
+    }
+
+    private static MockHttpServletRequest loggedInRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.getSession().setAttribute(USER_LOGIN_STATE, user("user"));
+        return request;
+    }
+
+    private static User user(String role) {
+        return User.builder().id(1L).userAccount("lucius").userRole(role).build();
+    }
+}
@@ -0,0 +1,103 @@
+package com.lucius.sparkcraftbackend.service.impl;
+
+import com.lucius.sparkcraftbackend.entity.WorkflowArtifact;
+import com.lucius.sparkcraftbackend.mapper.WorkflowArtifactMapper;
+import com.mybatisflex.core.query.QueryWrapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.Serializable;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.*;
+
+/**
+ * WorkflowArtifactServiceImpl测试类
+ */
+@ExtendWith(MockitoExtension.class)
+class WorkflowArtifactServiceImplTest {
+
+    private static final String LARGE = "制造流程".repeat(200);
+
+    @Mock
+    private WorkflowArtifactMapper workflowArtifactMapper;
+
+    private WorkflowArtifactServiceImpl workflowArtifactService;
+
+    @BeforeEach
+    void setUp() {
+        workflowArtifactService = new WorkflowArtifactServiceImpl();
+        // ServiceImpl 的 mapper 字段是泛型类型，Mockito 无法按类型注入
+        ReflectionTestUtils.setField(workflowArtifactService, "mapper", workflowArtifactMapper);
+    }
+
+    @Test
+    void testStore_ShortContentStaysInline() {
+        assertEquals("短文本", workflowArtifactService.store("短文本"));
+        assertNull(workflowArtifactService.store(null));
+        verifyNoInteractions(workflowArtifactMapper);
+    }
+
+    @Test
+    void testStore_InsertsNewContentAndReturnsReference() {
+        when(workflowArtifactMapper.insert(any(WorkflowArtifact.class), anyBoolean())).thenAnswer(invocation -> {
+            invocation.<WorkflowArtifact>getArgument(0).setId(42L);
+            return 1;
+        });
+
+        assertEquals("artifact:42", workflowArtifactService.store(LARGE));
+
+        ArgumentCaptor<WorkflowArtifact> captor = ArgumentCaptor.forClass(WorkflowArtifact.class);
+        verify(workflowArtifactMapper).insert(captor.capture(), anyBoolean());
+        assertEquals(64, captor.getValue().getContentHash().length());
+        assertEquals(LARGE.length(), captor.getValue().getContentLength());
+        // 刚写入的内容直接从缓存读取
+        assertEquals(LARGE, workflowArtifactService.resolve("artifact:42"));
+        verify(workflowArtifactMapper, never()).selectOneById(any(Serializable.class));
+    }
+
+    @Test
+    void testStore_ReusesExistingContent() {
+        when(workflowArtifactMapper.selectOneByQuery(any(QueryWrapper.class)))
+                .thenReturn(WorkflowArtifact.builder().id(7L).build());
+
+        assertEquals("artifact:7", workflowArtifactService.store(LARGE));
+        verify(workflowArtifactMapper, never()).insert(any(WorkflowArtifact.class), anyBoolean());
+    }
+
+    @Test
+    void testStore_ConcurrentInsertUsesWinner() {
+        when(workflowArtifactMapper.selectOneByQuery(any(QueryWrapper.class)))
+                .thenReturn(null)
+                .thenReturn(WorkflowArtifact.builder().id(8L).build());
+        when(workflowArtifactMapper.insert(any(WorkflowArtifact.class), anyBoolean()))
+                .thenThrow(new DuplicateKeyException("uk_contentHash"));
+
+        assertEquals("artifact:8", workflowArtifactService.store(LARGE));
+    }
+
+    @Test
+    void testResolve_LoadsReferenceOnce() {
+        when(workflowArtifactMapper.selectOneById(any(Serializable.class)))
+                .thenReturn(WorkflowArtifact.builder().id(9L).content(LARGE).build());
+
+        assertEquals(LARGE, workflowArtifactService.resolve("artifact:9"));
+        assertEquals(LARGE, workflowArtifactService.resolve("artifact:9"));
+        verify(workflowArtifactMapper, times(1)).selectOneById(any(Serializable.class));
+    }
+
+    @Test
+    void testResolve_InlineAndMissingValues() {
+        assertEquals("旧数据中的原文", workflowArtifactService.resolve("旧数据中的原文"));
+        assertNull(workflowArtifactService.resolve(null));
+        assertNull(workflowArtifactService.resolve("artifact:10"));
+    }
+}
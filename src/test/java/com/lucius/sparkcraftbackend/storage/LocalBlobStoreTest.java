@@ -0,0 +1,50 @@
+package com.lucius.sparkcraftbackend.storage;
+
+import com.lucius.sparkcraftbackend.exception.BusinessException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LocalBlobStore测试类
+ */
+class LocalBlobStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private LocalBlobStore blobStore;
+
+    @BeforeEach
+    void setUp() {
+        blobStore = new LocalBlobStore(tempDir.toString(), "/api/blob");
+    }
+
+    @Test
+    void testPutAndDelete() throws Exception {
+        byte[] content = "hello blob".getBytes(StandardCharsets.UTF_8);
+
+        String url = blobStore.put("images/mirror/a.jpg", new ByteArrayInputStream(content), -1);
+
+        assertEquals("/api/blob/images/mirror/a.jpg", url);
+        Path file = blobStore.resolve("images/mirror/a.jpg");
+        assertArrayEquals(content, Files.readAllBytes(file));
+
+        blobStore.delete("images/mirror/a.jpg");
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void testResolve_RejectsPathTraversal() {
+        assertThrows(BusinessException.class, () -> blobStore.resolve("../outside.txt"));
+        assertThrows(BusinessException.class, () -> blobStore.resolve("images/../../outside.txt"));
+        assertThrows(BusinessException.class, () -> blobStore.resolve(""));
+    }
+}
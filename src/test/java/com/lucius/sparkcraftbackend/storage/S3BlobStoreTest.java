@@ -0,0 +1,79 @@
+package com.lucius.sparkcraftbackend.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.ByteArrayInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * S3BlobStore测试类
+ */
+class S3BlobStoreTest {
+
+    private S3Client s3Client;
+
+    private S3BlobStore blobStore;
+
+    @BeforeEach
+    void setUp() {
+        s3Client = mock(S3Client.class);
+        blobStore = new S3BlobStore(s3Client, "bucket", "https://minio.example.com/bucket");
+    }
+
+    @Test
+    void testPut_EmptyStreamOfUnknownLengthUsesPutObject() {
+        String url = blobStore.put("images/empty.png", new ByteArrayInputStream(new byte[0]), -1);
+
+        assertEquals("https://minio.example.com/bucket/images/empty.png", url);
+        ArgumentCaptor<PutObjectRequest> request = ArgumentCaptor.forClass(PutObjectRequest.class);
+        verify(s3Client).putObject(request.capture(), any(RequestBody.class));
+        assertEquals(0L, request.getValue().contentLength());
+        verify(s3Client, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+        verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    @Test
+    void testPut_SmallStreamOfUnknownLengthUsesPutObject() {
+        blobStore.put("images/small.png", new ByteArrayInputStream(new byte[1024]), -1);
+
+        ArgumentCaptor<PutObjectRequest> request = ArgumentCaptor.forClass(PutObjectRequest.class);
+        verify(s3Client).putObject(request.capture(), any(RequestBody.class));
+        assertEquals(1024L, request.getValue().contentLength());
+        verify(s3Client, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+    }
+
+    @Test
+    void testPut_LargeStreamUsesMultipart() {
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class))).thenAnswer(invocation -> {
+            UploadPartRequest request = invocation.getArgument(0);
+            return UploadPartResponse.builder().eTag("etag-" + request.partNumber()).build();
+        });
+
+        blobStore.put("models/a.glb", new ByteArrayInputStream(new byte[S3BlobStore.PART_SIZE + 10]), -1);
+
+        ArgumentCaptor<UploadPartRequest> parts = ArgumentCaptor.forClass(UploadPartRequest.class);
+        verify(s3Client, times(2)).uploadPart(parts.capture(), any(RequestBody.class));
+        assertEquals((long) S3BlobStore.PART_SIZE, parts.getAllValues().get(0).contentLength());
+        assertEquals(10L, parts.getAllValues().get(1).contentLength());
+        ArgumentCaptor<CompleteMultipartUploadRequest> complete = ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        verify(s3Client).completeMultipartUpload(complete.capture());
+        assertEquals(2, complete.getValue().multipartUpload().parts().size());
+        assertEquals("etag-2", complete.getValue().multipartUpload().parts().get(1).eTag());
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    }
+}
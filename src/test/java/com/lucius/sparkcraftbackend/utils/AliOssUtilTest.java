@@ -0,0 +1,87 @@
+package com.lucius.sparkcraftbackend.utils;
+
+import com.aliyun.oss.OSS;
+import com.aliyun.oss.model.CompleteMultipartUploadRequest;
+import com.aliyun.oss.model.InitiateMultipartUploadRequest;
+import com.aliyun.oss.model.InitiateMultipartUploadResult;
+import com.aliyun.oss.model.ObjectMetadata;
+import com.aliyun.oss.model.PartETag;
+import com.aliyun.oss.model.UploadPartRequest;
+import com.aliyun.oss.model.UploadPartResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * AliOssUtil测试类
+ */
+class AliOssUtilTest {
+
+    private OSS ossClient;
+
+    private AliOssUtil aliOssUtil;
+
+    @BeforeEach
+    void setUp() {
+        ossClient = mock(OSS.class);
+        aliOssUtil = new AliOssUtil("oss-cn-beijing.aliyuncs.com", "id", "secret", "bucket");
+        ReflectionTestUtils.setField(aliOssUtil, "ossClient", ossClient);
+    }
+
+    @Test
+    void testUpload_EmptyStreamOfUnknownLengthUsesPutObject() {
+        String url = aliOssUtil.upload(new ByteArrayInputStream(new byte[0]), -1, "images/empty.png");
+
+        assertEquals("https://bucket.oss-cn-beijing.aliyuncs.com/images/empty.png", url);
+        ArgumentCaptor<ObjectMetadata> metadata = ArgumentCaptor.forClass(ObjectMetadata.class);
+        verify(ossClient).putObject(eq("bucket"), eq("images/empty.png"), any(InputStream.class), metadata.capture());
+        assertEquals(0, metadata.getValue().getContentLength());
+        verify(ossClient, never()).initiateMultipartUpload(any(InitiateMultipartUploadRequest.class));
+        verify(ossClient, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    @Test
+    void testUpload_SmallStreamOfUnknownLengthUsesPutObject() {
+        aliOssUtil.upload(new ByteArrayInputStream(new byte[1024]), -1, "images/small.png");
+
+        ArgumentCaptor<ObjectMetadata> metadata = ArgumentCaptor.forClass(ObjectMetadata.class);
+        verify(ossClient).putObject(eq("bucket"), eq("images/small.png"), any(InputStream.class), metadata.capture());
+        assertEquals(1024, metadata.getValue().getContentLength());
+        verify(ossClient, never()).initiateMultipartUpload(any(InitiateMultipartUploadRequest.class));
+    }
+
+    @Test
+    void testUpload_LargeStreamUsesMultipart() {
+        InitiateMultipartUploadResult initiated = new InitiateMultipartUploadResult();
+        initiated.setUploadId("upload-1");
+        when(ossClient.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class))).thenReturn(initiated);
+        when(ossClient.uploadPart(any(UploadPartRequest.class))).thenAnswer(invocation -> {
+            UploadPartRequest request = invocation.getArgument(0);
+            UploadPartResult result = new UploadPartResult();
+            result.setPartNumber(request.getPartNumber());
+            result.setETag("etag-" + request.getPartNumber());
+            return result;
+        });
+
+        aliOssUtil.upload(new ByteArrayInputStream(new byte[AliOssUtil.PART_SIZE + 10]), -1, "models/a.glb");
+
+        ArgumentCaptor<UploadPartRequest> parts = ArgumentCaptor.forClass(UploadPartRequest.class);
+        verify(ossClient, times(2)).uploadPart(parts.capture());
+        assertEquals(AliOssUtil.PART_SIZE, parts.getAllValues().get(0).getPartSize());
+        assertEquals(10, parts.getAllValues().get(1).getPartSize());
+        ArgumentCaptor<CompleteMultipartUploadRequest> complete = ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        verify(ossClient).completeMultipartUpload(complete.capture());
+        assertEquals(2, complete.getValue().getPartETags().size());
+        assertEquals(2, complete.getValue().getPartETags().stream().mapToInt(PartETag::getPartNumber).max().orElse(0));
+        verify(ossClient, never()).putObject(any(String.class), any(String.class), any(InputStream.class), any(ObjectMetadata.class));
+    }
+}
@@ -0,0 +1,67 @@
+package com.lucius.sparkcraftbackend.utils;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BaiduImageHtmlExtractor测试类
+ */
+class BaiduImageHtmlExtractorTest {
+
+    private static String html;
+
+    @BeforeAll
+    static void loadFixture() throws IOException {
+        try (InputStream in = BaiduImageHtmlExtractorTest.class.getResourceAsStream("/fixtures/baidu-image-search.html")) {
+            assertNotNull(in);
+            html = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void testExtractImageUrls_ObjUrlFirstAndDeduplicated() {
+        List<String> urls = BaiduImageHtmlExtractor.extractImageUrls(html, 3, url -> url.startsWith("http"));
+
+        assertEquals(List.of(
+                "https://example.com/photos/origin_1001.jpg",
+                "https://example.com/photos/origin_1002.png",
+                "https://example.com/photos/origin_1004.webp"), urls);
+    }
+
+    @Test
+    void testExtractImageUrls_FallsBackToLowerPriorityFields() {
+        List<String> urls = BaiduImageHtmlExtractor.extractImageUrls(html, 5, url -> url.startsWith("http"));
+
+        assertEquals(5, urls.size());
+        assertEquals("https://example.com/photos/origin_1004.webp", urls.get(2));
+        assertTrue(urls.get(3).contains("w=800"));
+    }
+
+    @Test
+    void testExtractImageUrls_ValidatorApplied() {
+        List<String> urls = BaiduImageHtmlExtractor.extractImageUrls(html, 10, url -> !url.contains("example.com"));
+
+        assertFalse(urls.isEmpty());
+        assertTrue(urls.stream().noneMatch(url -> url.contains("example.com")));
+    }
+
+    @Test
+    void testExtractImgTagUrls() {
+        List<String> urls = BaiduImageHtmlExtractor.extractImgTagUrls(html, 5, url -> true);
+
+        assertEquals(List.of("https://www.baidu.com/img/flexible/logo/pc/result.png"), urls);
+    }
+
+    @Test
+    void testExtractImageUrls_EmptyInput() {
+        assertTrue(BaiduImageHtmlExtractor.extractImageUrls("", 5, url -> true).isEmpty());
+        assertTrue(BaiduImageHtmlExtractor.extractImageUrls(html, 0, url -> true).isEmpty());
+    }
+}
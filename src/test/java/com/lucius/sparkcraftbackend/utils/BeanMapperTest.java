@@ -0,0 +1,96 @@
+package com.lucius.sparkcraftbackend.utils;
+
+import cn.hutool.core.bean.BeanUtil;
+import com.lucius.sparkcraftbackend.entity.ImageProject;
+import com.lucius.sparkcraftbackend.entity.User;
+import com.lucius.sparkcraftbackend.vo.ImageProjectVO;
+import com.lucius.sparkcraftbackend.vo.UserVO;
+import lombok.Data;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BeanMapper测试类
+ */
+class BeanMapperTest {
+
+    @Test
+    void testMap_SameResultAsBeanUtil() {
+        ImageProject imageProject = new ImageProject();
+        imageProject.setId(1L);
+        imageProject.setUserId(2L);
+        imageProject.setProjectName("项目");
+        imageProject.setProjectDesc("描述");
+        imageProject.setProjectImageUrl("https://example.com/a.png");
+        imageProject.setProductionprocess("流程");
+        imageProject.setThreeDModelUrl("https://example.com/a.glb");
+        imageProject.setPriority(3);
+        imageProject.setCreateTime(LocalDateTime.now());
+
+        ImageProjectVO mapped = BeanMapper.of(ImageProject.class, ImageProjectVO.class).map(imageProject);
+
+        assertEquals(BeanUtil.copyProperties(imageProject, ImageProjectVO.class), mapped);
+        assertEquals("https://example.com/a.glb", mapped.getThreeDModelUrl());
+    }
+
+    @Test
+    void testMap_SkipsPropertiesMissingOnTarget() {
+        User user = new User();
+        user.setId(1L);
+        user.setUserAccount("lucius");
+        user.setUserPassword("secret");
+
+        UserVO userVO = BeanMapper.of(User.class, UserVO.class).map(user);
+
+        assertEquals(1L, userVO.getId());
+        assertEquals("lucius", userVO.getUserAccount());
+    }
+
+    @Test
+    void testMap_NullSource() {
+        assertNull(BeanMapper.of(User.class, UserVO.class).map(null));
+    }
+
+    @Test
+    void testOf_ReusesMapper() {
+        assertSame(BeanMapper.of(User.class, UserVO.class), BeanMapper.of(User.class, UserVO.class));
+    }
+
+    @Test
+    void testCopy_PrimitiveAndIncompatibleTypes() {
+        Source source = new Source();
+        source.setCount(5);
+        source.setEnabled(true);
+        source.setName("name");
+        source.setCode("123");
+
+        Target target = new Target();
+        target.setCode(7L);
+        BeanMapper.of(Source.class, Target.class).copy(source, target);
+
+        assertEquals(5, target.getCount());
+        assertTrue(target.isEnabled());
+        assertEquals("name", target.getName());
+        // 类型不兼容的属性不复制
+        assertEquals(7L, target.getCode());
+    }
+
+    @Data
+    public static class Source {
+        private int count;
+        private boolean enabled;
+        private String name;
+        private String code;
+    }
+
+    @Data
+    public static class Target {
+        private int count;
+        private boolean enabled;
+        private CharSequence name;
+        private Long code;
+    }
+}
@@ -0,0 +1,99 @@
+package com.lucius.sparkcraftbackend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ImageUrlFilter测试类
+ */
+class ImageUrlFilterTest {
+
+    private final ImageUrlFilter filter = new ImageUrlFilter();
+
+    @Test
+    void testIsValidImageUrl_Basic() {
+        assertTrue(filter.isValidImageUrl("https://example.com/photos/1001.jpg"));
+        assertTrue(filter.isValidImageUrl("HTTPS://EXAMPLE.COM/PHOTOS/1001.JPG"));
+        assertTrue(filter.isValidImageUrl("https://cdn.example.com/a/b?x=picture"));
+        assertFalse(filter.isValidImageUrl("ftp://example.com/photos/1001.jpg"));
+        assertFalse(filter.isValidImageUrl("https://a.cn/1.jpg"));
+        assertFalse(filter.isValidImageUrl("https://www.baidu.com/img/flexible/logo.png"));
+        assertFalse(filter.isValidImageUrl("https://example.com/user/Avatar/1001.jpg"));
+        assertFalse(filter.isValidImageUrl("https://example.com/static/index.html"));
+        assertFalse(filter.isValidImageUrl(null));
+    }
+
+    @Test
+    void testIsBlacklisted() {
+        assertTrue(filter.isBlacklisted("https://example.com/ui/BTN_submit.jpg"));
+        assertTrue(filter.isBlacklisted("https://ss0.BDSTATIC.com/x.png"));
+        assertFalse(filter.isBlacklisted("https://example.com/photos/1001.jpg"));
+        assertFalse(filter.isBlacklisted(null));
+    }
+
+    @Test
+    void testIsValidImageUrl_MatchesLegacyImplementation() {
+        String[] parts = {"https://", "http://", "HTTP://", "example.com/", "img0.baidu.com/it/", "baidu.com/img/",
+                "bdstatic.com/", "Photo", "pics/", "BG_", "icon_", "Logo.PNG", ".jpeg", ".WEBP", ".bmp", ".html",
+                "?w=800&h=600", "noimage", "中文", "a", "1234567890"};
+        Random random = new Random(42);
+        List<String> candidates = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int segments = 1 + random.nextInt(6);
+            for (int j = 0; j < segments; j++) {
+                sb.append(parts[random.nextInt(parts.length)]);
+            }
+            candidates.add(sb.toString());
+        }
+
+        for (String url : candidates) {
+            assertEquals(legacyIsValidImageUrl(url), filter.isValidImageUrl(url), url);
+        }
+    }
+
+    @Test
+    void testDeduplicator() {
+        ImageUrlFilter.UrlDeduplicator deduplicator = filter.newDeduplicator();
+
+        assertTrue(deduplicator.firstSeen("https://example.com/1.jpg"));
+        assertFalse(deduplicator.firstSeen("https://example.com/1.jpg"));
+        assertTrue(deduplicator.firstSeen("https://example.com/2.jpg"));
+        assertEquals(2, deduplicator.size());
+    }
+
+    /**
+     * 原 ImageSearchServiceImpl#isValidImageUrl 的实现，用于对照
+     */
+    private static boolean legacyIsValidImageUrl(String url) {
+        if (url == null || url.isBlank()) {
+            return false;
+        }
+        String lowerUrl = url.toLowerCase();
+        if (!lowerUrl.startsWith("http://") && !lowerUrl.startsWith("https://")) {
+            return false;
+        }
+        String[] blacklist = {"baidu.com/img/", "bdimg.com/static/", "bdstatic.com", "favicon.ico", "logo.png",
+                "logo.jpg", "avatar", "placeholder", "loading.gif", "default.jpg", "noimage", "blank.gif",
+                "spacer.gif", "icon_", "btn_", "bg_"};
+        for (String blackItem : blacklist) {
+            if (lowerUrl.contains(blackItem)) {
+                return false;
+            }
+        }
+        if (url.length() < 20) {
+            return false;
+        }
+        boolean hasImageExtension = lowerUrl.contains(".jpg") || lowerUrl.contains(".jpeg")
+                || lowerUrl.contains(".png") || lowerUrl.contains(".gif")
+                || lowerUrl.contains(".webp") || lowerUrl.contains(".bmp");
+        boolean hasImageParams = lowerUrl.contains("image") || lowerUrl.contains("photo")
+                || lowerUrl.contains("pic") || lowerUrl.contains("img");
+        return hasImageExtension || hasImageParams;
+    }
+}
@@ -0,0 +1,135 @@
+package com.lucius.sparkcraftbackend.utils;
+
+import cn.hutool.json.JSONArray;
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+import com.lucius.sparkcraftbackend.dto.upstream.CozeImageContent;
+import com.lucius.sparkcraftbackend.dto.upstream.CozeStreamEvent;
+import com.lucius.sparkcraftbackend.dto.upstream.CozeWorkflowRequest;
+import com.lucius.sparkcraftbackend.dto.upstream.DoubaoImageRequest;
+import com.lucius.sparkcraftbackend.dto.upstream.DoubaoImageResponse;
+import com.lucius.sparkcraftbackend.dto.upstream.QwenChatRequest;
+import com.lucius.sparkcraftbackend.dto.upstream.QwenChatResponse;
+import com.lucius.sparkcraftbackend.entity.ImageResource;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JsonUtils测试类
+ */
+class JsonUtilsTest {
+
+    @Test
+    void testDoubaoRequest_SameBodyAsJsonObject() {
+        JSONObject expected = new JSONObject();
+        expected.set("model", "doubao-seedream-4-0-250828");
+        expected.set("prompt", "中秋月饼礼盒");
+        expected.set("response_format", "url");
+        expected.set("size", "2K");
+        expected.set("stream", false);
+        expected.set("watermark", false);
+        expected.set("image", new JSONArray().set("https://example.com/a.png"));
+        expected.set("sequential_image_generation", "auto");
+        expected.set("sequential_image_generation_options", new JSONObject().set("max_images", 1));
+
+        String body = JsonUtils.toJson(new DoubaoImageRequest("doubao-seedream-4-0-250828", "中秋月饼礼盒", "url", "2K",
+                false, false, List.of("https://example.com/a.png"), "auto", new DoubaoImageRequest.SequentialOptions(1)));
+
+        assertEquals(expected.toString(), JSONUtil.parseObj(body).toString());
+    }
+
+    @Test
+    void testDoubaoRequest_OmitsMissingReferenceImages() {
+        String body = JsonUtils.toJson(new DoubaoImageRequest("m", "p", "url", "2K", false, false, null, "auto",
+                new DoubaoImageRequest.SequentialOptions(1)));
+
+        assertFalse(body.contains("\"image\""));
+    }
+
+    @Test
+    void testQwenRequest_SameBodyAsJsonObject() {
+        JSONObject imageUrl = new JSONObject().set("url", "https://example.com/a.png").set("detail", "high");
+        JSONArray content = new JSONArray()
+                .set(new JSONObject().set("type", "image_url").set("image_url", imageUrl))
+                .set(new JSONObject().set("type", "text").set("text", "分析工艺"));
+        JSONObject expected = new JSONObject()
+                .set("model", "qwen-vl-max")
+                .set("stream", false)
+                .set("max_tokens", 700)
+                .set("temperature", 0.7)
+                .set("messages", new JSONArray().set(new JSONObject().set("role", "user").set("content", content)));
+
+        QwenChatRequest.Message message = new QwenChatRequest.Message("user", List.of(
+                QwenChatRequest.Content.image("https://example.com/a.png", "high"),
+                QwenChatRequest.Content.text("分析工艺")));
+        String body = JsonUtils.toJson(new QwenChatRequest("qwen-vl-max", false, 700, 0.7, List.of(message)));
+
+        assertEquals(expected.toString(), JSONUtil.parseObj(body).toString());
+    }
+
+    @Test
+    void testCozeRequest() {
+        String body = JsonUtils.toJson(new CozeWorkflowRequest("123", new CozeWorkflowRequest.Parameters("月饼")));
+
+        assertEquals("{\"workflow_id\":\"123\",\"parameters\":{\"mainpotic\":\"月饼\"}}", body);
+    }
+
+    @Test
+    void testParseResponses_IgnoresUnknownFields() {
+        DoubaoImageResponse doubao = JsonUtils.parse(
+                "{\"model\":\"m\",\"created\":1,\"data\":[{\"url\":\"https://example.com/a.png\",\"size\":\"2K\"}]}",
+                DoubaoImageResponse.class);
+        QwenChatResponse qwen = JsonUtils.parse(
+                "{\"id\":\"x\",\"choices\":[{\"index\":0,\"message\":{\"role\":\"assistant\",\"content\":\"工艺\"}}]}",
+                QwenChatResponse.class);
+
+        assertEquals("https://example.com/a.png", doubao.data().get(0).url());
+        assertEquals("工艺", qwen.choices().get(0).message().content());
+    }
+
+    @Test
+    void testParseCozeEvent() {
+        String content = "{\"imageurl\":[{\"picture_info\":{\"display_url\":\"https://example.com/b.png\",\"title\":\"月饼\"}}]}";
+        CozeStreamEvent event = JsonUtils.parse(JsonUtils.write(generator -> {
+            generator.writeStartObject();
+            generator.writeStringField("node_type", "End");
+            generator.writeBooleanField("node_is_finish", true);
+            generator.writeStringField("content", content);
+            generator.writeEndObject();
+        }), CozeStreamEvent.class);
+
+        assertTrue(event.nodeIsFinish());
+        CozeImageContent imageContent = JsonUtils.parse(event.content(), CozeImageContent.class);
+        assertEquals("https://example.com/b.png", imageContent.imageurl().get(0).pictureInfo().displayUrl());
+        assertEquals("月饼", imageContent.imageurl().get(0).pictureInfo().title());
+    }
+
+    @Test
+    void testWrite_EscapesStrings() {
+        String json = JsonUtils.write(generator -> {
+            generator.writeStartObject();
+            generator.writeStringField("d", "引号\"和\n换行");
+            generator.writeEndObject();
+        });
+
+        assertEquals("{\"d\":\"引号\\\"和\\n换行\"}", json);
+        assertEquals("引号\"和\n换行", JSONUtil.parseObj(json).getStr("d"));
+    }
+
+    @Test
+    void testToJson_MapKeepsLongAsNumber() {
+        Map<String, Object> nodeResults = Map.of(
+                "aiImage", ImageResource.builder().description("图").url("https://example.com/c.png").build(),
+                "jobId", 1234567890123456789L);
+
+        JSONObject parsed = JSONUtil.parseObj(JsonUtils.toJson(nodeResults));
+
+        assertEquals(1234567890123456789L, parsed.getLong("jobId"));
+        assertEquals("https://example.com/c.png", parsed.getJSONObject("aiImage").getStr("url"));
+        assertEquals("null", JsonUtils.toJson(null));
+    }
+}